@@ -0,0 +1,684 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.github.jochenw.afw.core.rflct.IGetter;
+import com.github.jochenw.afw.core.rflct.IInstantiator;
+import com.github.jochenw.afw.core.rflct.ISetter;
+import com.github.jochenw.afw.core.rflct.Names;
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/**
+ * A binding maps the columns of a CSV file to the properties of typed
+ * objects. The binding is created once, and then {@link #bind(String[]) bound}
+ * to the header of a particular CSV file. Binding resolves the column names to
+ * column indexes, so that no lookup by name, and no map, is required per row.
+ * Numbers are parsed directly from the {@link CsvTokenizer tokenizers} buffer.
+ * Example:
+ * <pre>
+ *   final CsvBinding&lt;Person&gt; binding = CsvBinding.builder(Person::new)
+ *       .stringColumn("Name", Person::setName, Person::getName)
+ *       .intColumn("Age", Person::setAge, Person::getAge)
+ *       .build();
+ *   new CsvReader().parse(reader, binding, (person) -&gt; { ... });
+ * </pre>
+ * Beans may also be bound by property name, using the accessors from the
+ * {@link com.github.jochenw.afw.core.rflct} package:
+ * <pre>
+ *   final CsvBinding&lt;Person&gt; binding = CsvBinding.builder(Person.class)
+ *       .properties("name", "age").build();
+ * </pre>
+ * The same binding may be used to write objects with the {@link CsvWriter}.
+ * Bindings are immutable, and thread safe.
+ * @param <T> The bound object type.
+ */
+public class CsvBinding<T> {
+	/** A single column of the binding.
+	 * @param <T> The bound object type.
+	 */
+	private abstract static class Column<T> {
+		private final @NonNull String name;
+
+		Column(@NonNull String pName) {
+			name = pName;
+		}
+
+		/** Reads the cell value from the tokenizers buffer, and stores it in the object.
+		 */
+		abstract void read(T pObject, CsvTokenizer pTokenizer, int pIndex);
+		/** Stores the given, non-empty cell value in the object.
+		 */
+		abstract void read(T pObject, String pValue);
+		/** Reads the value from the object, and writes it as a cell value.
+		 */
+		abstract void write(T pObject, Writer pWriter) throws IOException;
+		abstract boolean isReadable();
+		abstract boolean isWritable();
+
+		/** Returns, whether empty cell values are passed to the setter.
+		 */
+		boolean isAcceptingEmptyValues() {
+			return false;
+		}
+
+		static boolean isEmpty(CsvTokenizer pTokenizer, int pIndex) {
+			return pTokenizer.getStart(pIndex) == pTokenizer.getEnd(pIndex)  &&  !pTokenizer.isEscaped(pIndex);
+		}
+	}
+
+	private static class IntColumn<T> extends Column<T> {
+		private final @Nullable ObjIntConsumer<T> setter;
+		private final @Nullable ToIntFunction<T> getter;
+
+		IntColumn(@NonNull String pName, @Nullable ObjIntConsumer<T> pSetter, @Nullable ToIntFunction<T> pGetter) {
+			super(pName);
+			setter = pSetter;
+			getter = pGetter;
+		}
+
+		@Override
+		void read(T pObject, CsvTokenizer pTokenizer, int pIndex) {
+			if (!isEmpty(pTokenizer, pIndex)) {
+				setter.accept(pObject, pTokenizer.getInt(pIndex));
+			}
+		}
+
+		@Override
+		void read(T pObject, String pValue) {
+			setter.accept(pObject, Integer.parseInt(pValue));
+		}
+
+		@Override
+		void write(T pObject, Writer pWriter) throws IOException {
+			pWriter.write(Integer.toString(getter.applyAsInt(pObject)));
+		}
+
+		@Override
+		boolean isReadable() { return setter != null; }
+		@Override
+		boolean isWritable() { return getter != null; }
+	}
+
+	private static class LongColumn<T> extends Column<T> {
+		private final @Nullable ObjLongConsumer<T> setter;
+		private final @Nullable ToLongFunction<T> getter;
+
+		LongColumn(@NonNull String pName, @Nullable ObjLongConsumer<T> pSetter, @Nullable ToLongFunction<T> pGetter) {
+			super(pName);
+			setter = pSetter;
+			getter = pGetter;
+		}
+
+		@Override
+		void read(T pObject, CsvTokenizer pTokenizer, int pIndex) {
+			if (!isEmpty(pTokenizer, pIndex)) {
+				setter.accept(pObject, pTokenizer.getLong(pIndex));
+			}
+		}
+
+		@Override
+		void read(T pObject, String pValue) {
+			setter.accept(pObject, Long.parseLong(pValue));
+		}
+
+		@Override
+		void write(T pObject, Writer pWriter) throws IOException {
+			pWriter.write(Long.toString(getter.applyAsLong(pObject)));
+		}
+
+		@Override
+		boolean isReadable() { return setter != null; }
+		@Override
+		boolean isWritable() { return getter != null; }
+	}
+
+	private static class DoubleColumn<T> extends Column<T> {
+		private final @Nullable ObjDoubleConsumer<T> setter;
+		private final @Nullable ToDoubleFunction<T> getter;
+
+		DoubleColumn(@NonNull String pName, @Nullable ObjDoubleConsumer<T> pSetter, @Nullable ToDoubleFunction<T> pGetter) {
+			super(pName);
+			setter = pSetter;
+			getter = pGetter;
+		}
+
+		@Override
+		void read(T pObject, CsvTokenizer pTokenizer, int pIndex) {
+			if (!isEmpty(pTokenizer, pIndex)) {
+				setter.accept(pObject, pTokenizer.getDouble(pIndex));
+			}
+		}
+
+		@Override
+		void read(T pObject, String pValue) {
+			setter.accept(pObject, Double.parseDouble(pValue));
+		}
+
+		@Override
+		void write(T pObject, Writer pWriter) throws IOException {
+			pWriter.write(Double.toString(getter.applyAsDouble(pObject)));
+		}
+
+		@Override
+		boolean isReadable() { return setter != null; }
+		@Override
+		boolean isWritable() { return getter != null; }
+	}
+
+	private static class ObjectColumn<T,V> extends Column<T> {
+		private final @NonNull Function<String,V> parser;
+		private final @NonNull Function<V,String> formatter;
+		private final @Nullable BiConsumer<T,V> setter;
+		private final @Nullable Function<T,V> getter;
+		private final boolean acceptingEmptyValues;
+
+		ObjectColumn(@NonNull String pName, @NonNull Function<String,V> pParser, @NonNull Function<V,String> pFormatter,
+				     @Nullable BiConsumer<T,V> pSetter, @Nullable Function<T,V> pGetter, boolean pAcceptingEmptyValues) {
+			super(pName);
+			parser = pParser;
+			formatter = pFormatter;
+			setter = pSetter;
+			getter = pGetter;
+			acceptingEmptyValues = pAcceptingEmptyValues;
+		}
+
+		@Override
+		void read(T pObject, CsvTokenizer pTokenizer, int pIndex) {
+			if (acceptingEmptyValues  ||  !isEmpty(pTokenizer, pIndex)) {
+				setter.accept(pObject, parser.apply(pTokenizer.getValue(pIndex)));
+			}
+		}
+
+		@Override
+		void read(T pObject, String pValue) {
+			setter.accept(pObject, parser.apply(pValue));
+		}
+
+		@Override
+		boolean isAcceptingEmptyValues() {
+			return acceptingEmptyValues;
+		}
+
+		@Override
+		void write(T pObject, Writer pWriter) throws IOException {
+			final V v = getter.apply(pObject);
+			if (v != null) {
+				pWriter.write(formatter.apply(v));
+			}
+		}
+
+		@Override
+		boolean isReadable() { return setter != null; }
+		@Override
+		boolean isWritable() { return getter != null; }
+	}
+
+	/** Builder for instances of {@link CsvBinding}.
+	 * @param <T> The bound object type.
+	 */
+	public static class Builder<T> {
+		private final @Nullable Class<T> type;
+		private final @Nullable Supplier<T> factory;
+		private final List<Column<T>> columns = new ArrayList<>();
+
+		Builder(@Nullable Class<T> pType, @Nullable Supplier<T> pFactory) {
+			type = pType;
+			factory = pFactory;
+		}
+
+		private Builder<T> add(@NonNull Column<T> pColumn) {
+			for (Column<T> col : columns) {
+				if (col.name.equals(pColumn.name)) {
+					throw new IllegalArgumentException("Duplicate column name: " + pColumn.name);
+				}
+			}
+			columns.add(pColumn);
+			return this;
+		}
+
+		/** Adds a column with string values. Empty cell values are passed to
+		 * the setter as empty strings. Null values are written as empty cell values.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pSetter The setter, which stores a cell value in the object,
+		 *   or null, if the binding is used for writing only.
+		 * @param pGetter The getter, which reads a cell value from the object,
+		 *   or null, if the binding is used for reading only.
+		 * @return This builder.
+		 */
+		public Builder<T> stringColumn(@NonNull String pName, @Nullable BiConsumer<T,String> pSetter,
+				                       @Nullable Function<T,String> pGetter) {
+			return add(new ObjectColumn<T,String>(Objects.requireNonNull(pName, "Name"), Function.identity(),
+					                              Function.identity(), pSetter, pGetter, true));
+		}
+
+		/** Adds a column with integer values, which are parsed directly from the
+		 * tokenizers buffer. Empty cell values are ignored.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pSetter The setter, which stores a cell value in the object,
+		 *   or null, if the binding is used for writing only.
+		 * @param pGetter The getter, which reads a cell value from the object,
+		 *   or null, if the binding is used for reading only.
+		 * @return This builder.
+		 */
+		public Builder<T> intColumn(@NonNull String pName, @Nullable ObjIntConsumer<T> pSetter,
+				                    @Nullable ToIntFunction<T> pGetter) {
+			return add(new IntColumn<T>(Objects.requireNonNull(pName, "Name"), pSetter, pGetter));
+		}
+
+		/** Adds a column with long integer values, which are parsed directly from
+		 * the tokenizers buffer. Empty cell values are ignored.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pSetter The setter, which stores a cell value in the object,
+		 *   or null, if the binding is used for writing only.
+		 * @param pGetter The getter, which reads a cell value from the object,
+		 *   or null, if the binding is used for reading only.
+		 * @return This builder.
+		 */
+		public Builder<T> longColumn(@NonNull String pName, @Nullable ObjLongConsumer<T> pSetter,
+				                     @Nullable ToLongFunction<T> pGetter) {
+			return add(new LongColumn<T>(Objects.requireNonNull(pName, "Name"), pSetter, pGetter));
+		}
+
+		/** Adds a column with double values, which are parsed directly from the
+		 * tokenizers buffer. Empty cell values are ignored.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pSetter The setter, which stores a cell value in the object,
+		 *   or null, if the binding is used for writing only.
+		 * @param pGetter The getter, which reads a cell value from the object,
+		 *   or null, if the binding is used for reading only.
+		 * @return This builder.
+		 */
+		public Builder<T> doubleColumn(@NonNull String pName, @Nullable ObjDoubleConsumer<T> pSetter,
+				                       @Nullable ToDoubleFunction<T> pGetter) {
+			return add(new DoubleColumn<T>(Objects.requireNonNull(pName, "Name"), pSetter, pGetter));
+		}
+
+		/** Adds a column with values of an arbitrary type, for example dates.
+		 * Empty cell values are ignored, and null values are written as empty
+		 * cell values.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pParser The function, which converts a non-empty cell value.
+		 * @param pFormatter The function, which converts a non-null value into a
+		 *   cell value.
+		 * @param pSetter The setter, which stores a cell value in the object,
+		 *   or null, if the binding is used for writing only.
+		 * @param pGetter The getter, which reads a cell value from the object,
+		 *   or null, if the binding is used for reading only.
+		 * @param <V> The value type.
+		 * @return This builder.
+		 */
+		public <V> Builder<T> column(@NonNull String pName, @NonNull Function<String,V> pParser,
+				                     @NonNull Function<V,String> pFormatter, @Nullable BiConsumer<T,V> pSetter,
+				                     @Nullable Function<T,V> pGetter) {
+			return add(new ObjectColumn<T,V>(Objects.requireNonNull(pName, "Name"),
+					                         Objects.requireNonNull(pParser, "Parser"),
+					                         Objects.requireNonNull(pFormatter, "Formatter"),
+					                         pSetter, pGetter, false));
+		}
+
+		/** Adds a column, which is bound to the given bean property. The property
+		 * is accessed by using a getter, and a setter method, or by accessing the
+		 * field with the same name directly. Supported property types are strings,
+		 * primitive, and wrapped, numbers (int, long, double), booleans,
+		 * {@link BigInteger}, {@link BigDecimal}, and enums.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pProperty The property name.
+		 * @return This builder.
+		 * @throws IllegalStateException The builder has been created without bean class.
+		 * @throws IllegalArgumentException The property wasn't found, or has
+		 *   an unsupported type.
+		 */
+		public Builder<T> property(@NonNull String pName, @NonNull String pProperty) {
+			final Class<T> beanType = type;
+			if (beanType == null) {
+				throw new IllegalStateException("Properties require a builder, which has been created with a bean class.");
+			}
+			return add(newPropertyColumn(beanType, Objects.requireNonNull(pName, "Name"),
+					                     Objects.requireNonNull(pProperty, "Property")));
+		}
+
+		/** Adds columns, which are bound to the given bean properties. The
+		 * column names are the same as the property names.
+		 * @param pProperties The property names.
+		 * @return This builder.
+		 * @see #property(String, String)
+		 */
+		public Builder<T> properties(@NonNull String... pProperties) {
+			for (String property : pProperties) {
+				property(property, property);
+			}
+			return this;
+		}
+
+		/** Creates a new binding with the builders configuration.
+		 * @return The created binding.
+		 */
+		public CsvBinding<T> build() {
+			Supplier<T> supplier = factory;
+			if (supplier == null) {
+				final Class<T> beanType = Objects.requireNonNull(type, "Type");
+				try {
+					final Constructor<T> cons = beanType.getConstructor();
+					final IInstantiator<T> instantiator = IInstantiator.of(cons);
+					supplier = () -> instantiator.newInstance();
+				} catch (NoSuchMethodException e) {
+					// No default constructor, so the binding can be used for writing only.
+				}
+			}
+			@SuppressWarnings({"unchecked", "rawtypes"})
+			final Column<T>[] cols = columns.toArray(new Column[columns.size()]);
+			return new CsvBinding<T>(supplier, cols);
+		}
+	}
+
+	private final @Nullable Supplier<T> factory;
+	private final Column<T>[] columns;
+
+	/** Creates a new instance. Applications should use the builder.
+	 * @param pFactory The factory, which creates new objects, or null
+	 *   (write only binding).
+	 * @param pColumns The columns.
+	 */
+	CsvBinding(@Nullable Supplier<T> pFactory, Column<T>[] pColumns) {
+		factory = pFactory;
+		columns = pColumns;
+	}
+
+	/** Creates a new builder for bindings of objects, which are created by the
+	 * given factory.
+	 * @param pFactory The factory, which creates new objects, when reading a row.
+	 * @param <T> The bound object type.
+	 * @return The created builder.
+	 */
+	public static <T> Builder<T> builder(@NonNull Supplier<T> pFactory) {
+		return new Builder<T>(null, Objects.requireNonNull(pFactory, "Factory"));
+	}
+
+	/** Creates a new builder for bindings of beans with the given type.
+	 * The bean class must have a public default constructor, unless the
+	 * binding is used for writing only.
+	 * @param pType The bean class.
+	 * @param <T> The bound object type.
+	 * @return The created builder.
+	 */
+	public static <T> Builder<T> builder(@NonNull Class<T> pType) {
+		return new Builder<T>(Objects.requireNonNull(pType, "Type"), null);
+	}
+
+	/** Returns the column names.
+	 * @return The column names, in the order of the builder calls.
+	 */
+	public String[] getColumnNames() {
+		final String[] names = new String[columns.length];
+		for (int i = 0;  i < names.length;  i++) {
+			names[i] = columns[i].name;
+		}
+		return names;
+	}
+
+	/** Creates a new object, which is being populated from a row.
+	 * @return The created object.
+	 * @throws IllegalStateException The binding has no factory.
+	 */
+	protected T newInstance() {
+		if (factory == null) {
+			throw new IllegalStateException("This binding has no factory, and can be used for writing only.");
+		}
+		return factory.get();
+	}
+
+	/** Binds this binding to the given CSV header by resolving the column
+	 * names to column indexes.
+	 * @param pHeader The CSV files header.
+	 * @return The bound binding, which may be used to read, and write, rows.
+	 * @throws CsvParseException A column of this binding is missing in the
+	 *   header.
+	 */
+	public Bound<T> bind(@NonNull String[] pHeader) {
+		final String[] header = Objects.requireNonNull(pHeader, "Header");
+		final Map<String,Integer> indexes = new HashMap<>();
+		for (int i = 0;  i < header.length;  i++) {
+			indexes.putIfAbsent(header[i], Integer.valueOf(i));
+		}
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		final Column<T>[] cols = new Column[header.length];
+		for (Column<T> col : columns) {
+			final Integer index = indexes.get(col.name);
+			if (index == null) {
+				throw new CsvParseException("Column " + col.name + " not found in header");
+			}
+			cols[index.intValue()] = col;
+		}
+		return new Bound<T>(this, header, cols);
+	}
+
+	/** A binding, which has been {@link CsvBinding#bind(String[]) bound} to a
+	 * particular CSV header.
+	 * @param <T> The bound object type.
+	 */
+	public static class Bound<T> {
+		private final @NonNull CsvBinding<T> binding;
+		private final @NonNull String[] header;
+		/** The bound columns, indexed by the column index in the CSV file,
+		 * with null values for unbound columns.
+		 */
+		private final @Nullable Column<T>[] columns;
+
+		Bound(@NonNull CsvBinding<T> pBinding, @NonNull String[] pHeader, Column<T>[] pColumns) {
+			binding = pBinding;
+			header = pHeader;
+			columns = pColumns;
+		}
+
+		/** Returns the binding, which has been bound.
+		 * @return The binding, which has been bound.
+		 */
+		public @NonNull CsvBinding<T> getBinding() {
+			return binding;
+		}
+
+		/** Returns the number of columns in the header.
+		 * @return The number of columns in the header.
+		 */
+		public int getHeaderLength() {
+			return header.length;
+		}
+
+		/** Creates a new object, and populates it from the tokenizers current row.
+		 * @param pTokenizer The tokenizer, which provides the current row.
+		 * @return The created object.
+		 * @throws CsvParseException A cell value is invalid.
+		 */
+		public T read(@NonNull CsvTokenizer pTokenizer) {
+			final T object = binding.newInstance();
+			read(pTokenizer, object);
+			return object;
+		}
+
+		/** Populates the given object from the tokenizers current row.
+		 * This allows to reuse the same object for all rows.
+		 * @param pTokenizer The tokenizer, which provides the current row.
+		 * @param pObject The object, which is being populated.
+		 * @throws CsvParseException A cell value is invalid.
+		 */
+		public void read(@NonNull CsvTokenizer pTokenizer, T pObject) {
+			final int len = Math.min(columns.length, pTokenizer.getColumnCount());
+			for (int i = 0;  i < len;  i++) {
+				final Column<T> col = columns[i];
+				if (col != null  &&  col.isReadable()) {
+					col.read(pObject, pTokenizer, i);
+				}
+			}
+		}
+
+		/** Creates a new object, and populates it from the given row.
+		 * @param pRow The rows cell values.
+		 * @return The created object.
+		 * @throws CsvParseException A cell value is invalid.
+		 */
+		public T read(@NonNull String[] pRow) {
+			final T object = binding.newInstance();
+			final int len = Math.min(columns.length, pRow.length);
+			for (int i = 0;  i < len;  i++) {
+				final Column<T> col = columns[i];
+				final String value = pRow[i];
+				if (col != null  &&  col.isReadable()  &&  value != null
+						&&  (!value.isEmpty()  ||  col.isAcceptingEmptyValues())) {
+					try {
+						col.read(object, value);
+					} catch (NumberFormatException e) {
+						throw new CsvParseException("Invalid number in column " + col.name + ": " + value);
+					}
+				}
+			}
+			return object;
+		}
+
+		/** Writes the given object as a row, without line terminator.
+		 * Unbound columns are written as empty cell values.
+		 * @param pObject The object, which is being written.
+		 * @param pWriter The target writer.
+		 * @param pColumnSeparator The column separator.
+		 * @throws IOException Writing the row failed.
+		 */
+		public void write(T pObject, @NonNull Writer pWriter, @NonNull String pColumnSeparator) throws IOException {
+			for (int i = 0;  i < columns.length;  i++) {
+				if (i > 0) {
+					pWriter.write(pColumnSeparator);
+				}
+				final Column<T> col = columns[i];
+				if (col != null  &&  col.isWritable()) {
+					col.write(pObject, pWriter);
+				}
+			}
+		}
+	}
+
+	private static <T> Column<T> newPropertyColumn(@NonNull Class<T> pType, @NonNull String pName,
+			                                       @NonNull String pProperty) {
+		final IGetter<T,Object> getter;
+		final Class<?> propertyType;
+		final Method getterMethod = findGetter(pType, pProperty);
+		if (getterMethod == null) {
+			final Field field = findField(pType, pProperty);
+			if (field == null) {
+				throw new IllegalArgumentException("Neither a getter method, nor a field, found for property "
+						+ pProperty + " in class " + pType.getName());
+			}
+			getter = IGetter.of(field);
+			propertyType = field.getType();
+		} else {
+			getter = IGetter.of(getterMethod);
+			propertyType = getterMethod.getReturnType();
+		}
+		final ISetter<T,Object> setter = ISetter.of(pType, pProperty);
+		if (propertyType == Integer.TYPE) {
+			return new IntColumn<T>(pName, (b,i) -> setter.set(b, Integer.valueOf(i)),
+					                (b) -> ((Integer) getter.get(b)).intValue());
+		} else if (propertyType == Long.TYPE) {
+			return new LongColumn<T>(pName, (b,l) -> setter.set(b, Long.valueOf(l)),
+					                 (b) -> ((Long) getter.get(b)).longValue());
+		} else if (propertyType == Double.TYPE) {
+			return new DoubleColumn<T>(pName, (b,d) -> setter.set(b, Double.valueOf(d)),
+					                   (b) -> ((Double) getter.get(b)).doubleValue());
+		}
+		final Function<String,Object> parser;
+		if (propertyType == String.class) {
+			parser = (s) -> s;
+		} else if (propertyType == Integer.class) {
+			parser = Integer::valueOf;
+		} else if (propertyType == Long.class) {
+			parser = Long::valueOf;
+		} else if (propertyType == Double.class) {
+			parser = Double::valueOf;
+		} else if (propertyType == Boolean.TYPE  ||  propertyType == Boolean.class) {
+			parser = Boolean::valueOf;
+		} else if (propertyType == BigInteger.class) {
+			parser = BigInteger::new;
+		} else if (propertyType == BigDecimal.class) {
+			parser = BigDecimal::new;
+		} else if (propertyType.isEnum()) {
+			parser = (s) -> {
+				for (Object o : propertyType.getEnumConstants()) {
+					if (((Enum<?>) o).name().equals(s)) {
+						return o;
+					}
+				}
+				throw new CsvParseException("Invalid value for enum " + propertyType.getName() + ": " + s);
+			};
+		} else {
+			throw new IllegalArgumentException("Unsupported type " + propertyType.getName()
+					+ " of property " + pProperty + " in class " + pType.getName());
+		}
+		final Function<Object,String> formatter = (o) -> o instanceof Enum ? ((Enum<?>) o).name() : o.toString();
+		return new ObjectColumn<T,Object>(pName, parser, formatter, (b,v) -> setter.set(b, v),
+				                          (b) -> getter.get(b), propertyType == String.class);
+	}
+
+	private static @Nullable Method findGetter(@NonNull Class<?> pType, @NonNull String pProperty) {
+		for (String name : new String[] {Names.upperCased("get", pProperty), Names.upperCased("is", pProperty)}) {
+			try {
+				final Method method = pType.getMethod(name);
+				if (!Modifier.isStatic(method.getModifiers())  &&  method.getReturnType() != Void.TYPE) {
+					return method;
+				}
+			} catch (NoSuchMethodException e) {
+				// Try the next name.
+			}
+		}
+		return null;
+	}
+
+	private static @Nullable Field findField(@NonNull Class<?> pType, @NonNull String pProperty) {
+		for (Class<?> cl = pType;  cl != null  &&  cl != Object.class;  cl = cl.getSuperclass()) {
+			try {
+				final Field field = cl.getDeclaredField(pProperty);
+				if (!Modifier.isStatic(field.getModifiers())) {
+					return field;
+				}
+			} catch (NoSuchFieldException e) {
+				// Try the superclass.
+			}
+		}
+		return null;
+	}
+}
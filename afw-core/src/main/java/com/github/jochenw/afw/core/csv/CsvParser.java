@@ -45,6 +45,26 @@ public class CsvParser {
 		columnSeparatorLength = columnSeparator.length();
 	}
 
+	/** Returns the line separator.
+	 * @return The line separator.
+	 */
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	/** Returns the quote string.
+	 * @return The quote string.
+	 */
+	public String getQuoteString() {
+		return quoteString;
+	}
+
+	/** Returns the column separator.
+	 * @return The column separator.
+	 */
+	public String getColumnSeparator() {
+		return columnSeparator;
+	}
 
 	/**
 	 * Parses the given line
@@ -17,6 +17,7 @@ package com.github.jochenw.afw.core.csv;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,6 +25,7 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 import com.github.jochenw.afw.core.io.ReadableCharacterStream;
+import com.github.jochenw.afw.core.util.Exceptions;
 
 
 /**
@@ -33,6 +35,13 @@ import com.github.jochenw.afw.core.io.ReadableCharacterStream;
  * left to the parser. To use the parser, you've got to implement a
  * {@link Consumer} for instances of {@link CsvRow}. The consumer will be
  * invoked for each row in the CSV file.
+ *
+ * If the parsers quote string, and column separator, are single characters,
+ * then the CSV file is parsed by a {@link CsvTokenizer}, rather than line by
+ * line. In that case, quoted cell values may contain line breaks, and escaped
+ * (doubled) quotes. The same {@link CsvRow} object is reused for all rows,
+ * so the consumer must not keep a reference to the row. (It may keep
+ * references to the row arrays, and maps, though.)
  */
 public class CsvReader {
 	/** Interface of a row in the CSV file.
@@ -96,6 +105,10 @@ public class CsvReader {
 	 * @param pConsumer The consumer, which is being notified.
 	 */
 	public void parse(ReadableCharacterStream pRcs, Consumer<CsvRow> pConsumer) {
+		if (isTokenizable()) {
+			parse(asReader(pRcs), pConsumer);
+			return;
+		}
 		Throwable th = null;
 		try {
 			final String headerLine = pRcs.readLine();
@@ -153,4 +166,178 @@ public class CsvReader {
 			}
 		}
 	}
+
+	/** Returns a {@link Reader}, which reads from the given character stream,
+	 * but doesn't close it.
+	 */
+	private static Reader asReader(ReadableCharacterStream pRcs) {
+		return new Reader() {
+			@Override
+			public int read(char[] pBuffer, int pOffset, int pLength) throws IOException {
+				return pRcs.read(pBuffer, pOffset, pLength);
+			}
+
+			@Override
+			public void close() throws IOException {
+				// Closing the character stream is up to the caller.
+			}
+		};
+	}
+
+	/** Returns, whether the {@link CsvTokenizer} may be used with the parsers settings.
+	 */
+	private boolean isTokenizable() {
+		final String quoteString = parser.getQuoteString();
+		final String columnSeparator = parser.getColumnSeparator();
+		return quoteString.length() == 1  &&  columnSeparator.length() == 1
+				&&  quoteString.charAt(0) != columnSeparator.charAt(0)
+				&&  "\r\n".indexOf(quoteString.charAt(0)) == -1
+				&&  "\r\n".indexOf(columnSeparator.charAt(0)) == -1;
+	}
+
+	/**
+	 * Parses a CSV file from the given {@link Reader}, using a {@link CsvTokenizer},
+	 * and reporting the rows by invoking the given {@code consumer}. The parsers
+	 * quote string, and column separator, must be single characters. The
+	 * reader is closed.
+	 * @param pReader The reader, which is being parsed.
+	 * @param pConsumer The consumer, which is being notified. The same
+	 *   {@link CsvRow} object is passed for all rows.
+	 * @throws IllegalStateException The parsers quote string, or column
+	 *   separator, are not single characters.
+	 */
+	public void parse(Reader pReader, Consumer<CsvRow> pConsumer) {
+		if (!isTokenizable()) {
+			throw new IllegalStateException("The quote string, and the column separator, must be single characters.");
+		}
+		Throwable th = null;
+		try (CsvTokenizer tokenizer = new CsvTokenizer(pReader, parser.getColumnSeparator().charAt(0),
+				                                       parser.getQuoteString().charAt(0),
+				                                       CsvTokenizer.DEFAULT_BUFFER_SIZE)) {
+			if (!tokenizer.next()) {
+				throw new CsvParseException("Expected header line, but no line was found.");
+			}
+			final String[] headers = tokenizer.getRowAsArray();
+			final CsvRow csvRow = new CsvRow() {
+				private long rowNumber = -1;
+				private String[] row;
+				private Map<String,String> map;
+
+				private void check() {
+					if (rowNumber != tokenizer.getRecordNumber()) {
+						rowNumber = tokenizer.getRecordNumber();
+						row = null;
+						map = null;
+					}
+				}
+
+				@Override
+				public String[] getHeaderArray() {
+					return headers;
+				}
+
+				@Override
+				public String[] getRowAsArray() {
+					check();
+					if (row == null) {
+						row = tokenizer.getRowAsArray();
+					}
+					return row;
+				}
+
+				@Override
+				public Map<String, String> getRowAsMap() {
+					check();
+					if (map == null) {
+						final String[] values = getRowAsArray();
+						if (headers.length < values.length) {
+							throw new CsvParseException("Row " + (rowNumber-1) + " contains " + values.length
+									+ " columns, but header row has only " + headers.length + " columns");
+						}
+						map = new HashMap<>();
+						for (int i = 0;  i < headers.length;  i++) {
+							map.put(headers[i], values[i]);
+						}
+					}
+					return map;
+				}
+			};
+			while (tokenizer.next()) {
+				pConsumer.accept(csvRow);
+			}
+		} catch (Throwable t) {
+			th = t;
+		}
+		if (pConsumer instanceof FinalizableConsumer) {
+			FinalizableConsumer<CsvRow> fc = (FinalizableConsumer<CsvRow>) pConsumer;
+			if (th == null) {
+				fc.finished();
+			} else {
+				fc.error(th);
+			}
+		}
+	}
+
+	/**
+	 * Parses a CSV file from the given {@link InputStream}, converting the rows
+	 * into objects by using the given binding, and reporting the objects by
+	 * invoking the given {@code consumer}.
+	 * @param pIn The input stream, which is being parsed.
+	 * @param pBinding The binding, which converts rows into objects.
+	 * @param pConsumer The consumer, which is being notified.
+	 * @param <T> The bound object type.
+	 * @throws IllegalStateException The parsers quote string, or column
+	 *   separator, are not single characters.
+	 */
+	public <T> void parse(InputStream pIn, CsvBinding<T> pBinding, Consumer<T> pConsumer) {
+		try (ReadableCharacterStream rcs = ReadableCharacterStream.newInstance(pIn, false)) {
+			parse(asReader(rcs), pBinding, pConsumer);
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+	/**
+	 * Parses a CSV file from the given {@link Reader}, converting the rows into
+	 * objects by using the given binding, and reporting the objects by invoking
+	 * the given {@code consumer}. The binding is bound to the header once, so
+	 * that no maps are created per row. The reader is closed.
+	 * @param pReader The reader, which is being parsed.
+	 * @param pBinding The binding, which converts rows into objects.
+	 * @param pConsumer The consumer, which is being notified. A new object
+	 *   is passed for every row.
+	 * @param <T> The bound object type.
+	 * @throws IllegalStateException The parsers quote string, or column
+	 *   separator, are not single characters.
+	 */
+	public <T> void parse(Reader pReader, CsvBinding<T> pBinding, Consumer<T> pConsumer) {
+		if (!isTokenizable()) {
+			throw new IllegalStateException("The quote string, and the column separator, must be single characters.");
+		}
+		Objects.requireNonNull(pBinding, "Binding");
+		Throwable th = null;
+		try (CsvTokenizer tokenizer = new CsvTokenizer(pReader, parser.getColumnSeparator().charAt(0),
+				                                       parser.getQuoteString().charAt(0),
+				                                       CsvTokenizer.DEFAULT_BUFFER_SIZE)) {
+			if (!tokenizer.next()) {
+				throw new CsvParseException("Expected header line, but no line was found.");
+			}
+			final CsvBinding.Bound<T> bound = pBinding.bind(tokenizer.getRowAsArray());
+			while (tokenizer.next()) {
+				pConsumer.accept(bound.read(tokenizer));
+			}
+		} catch (Throwable t) {
+			th = t;
+		}
+		if (pConsumer instanceof FinalizableConsumer) {
+			FinalizableConsumer<T> fc = (FinalizableConsumer<T>) pConsumer;
+			if (th == null) {
+				fc.finished();
+			} else {
+				fc.error(th);
+			}
+		} else if (th != null) {
+			throw Exceptions.show(th);
+		}
+	}
 }
@@ -0,0 +1,1107 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/**
+ * An in-memory table, which stores the contents of CSV files by column,
+ * rather than by row. Numeric columns are stored as primitive arrays, and
+ * string columns use dictionary encoding: Every distinct value is stored
+ * once, and the rows refer to it by an integer code. If a string column has
+ * too many distinct values, then it falls back to storing the strings
+ * directly. This reduces the memory footprint considerably, compared to
+ * keeping the rows as string arrays.
+ *
+ * The column types are declared by using the {@link #builder()}. Rows are
+ * appended by {@link #load(Reader) loading} CSV files (possibly multiple),
+ * or by {@link #append(String...) appending} rows one by one. The table
+ * supports simple scan, filter, and aggregate operations. Example:
+ * <pre>
+ *   final CsvTable table = CsvTable.builder()
+ *       .stringColumn("Country").intColumn("Year").doubleColumn("Amount").build();
+ *   table.load(Paths.get("sales.csv"));
+ *   final BitSet rows = table.filterInt("Year", (y) -&gt; y &gt;= 2020);
+ *   final double total = table.summarizeDouble("Amount", rows).getSum();
+ *   final Map&lt;String,Long&gt; countByCountry = table.countBy("Country", rows);
+ * </pre>
+ * Instances are not thread safe.
+ */
+public class CsvTable {
+	/** The default maximum number of distinct values in a dictionary encoded
+	 * string column.
+	 */
+	public static final int DEFAULT_MAX_DICTIONARY_SIZE = 65536;
+
+	/** The column types.
+	 */
+	public enum Type {
+		/** Integer values, stored as an {@code int[]}.
+		 */
+		INT,
+		/** Long integer values, stored as a {@code long[]}.
+		 */
+		LONG,
+		/** Double values, stored as a {@code double[]}.
+		 */
+		DOUBLE,
+		/** String values, which are dictionary encoded, if possible.
+		 */
+		STRING
+	}
+
+	/** Builder for instances of {@link CsvTable}.
+	 */
+	public static class Builder {
+		private final List<String> names = new ArrayList<>();
+		private final List<Type> types = new ArrayList<>();
+		private char columnSeparator = ';';
+		private char quoteChar = '"';
+		private int maxDictionarySize = DEFAULT_MAX_DICTIONARY_SIZE;
+
+		/** Creates a new instance. Applications should use
+		 * {@link CsvTable#builder()}.
+		 */
+		public Builder() {}
+
+		/** Adds a column with the given type. If no columns are declared,
+		 * then all columns of the first loaded CSV file are added as
+		 * {@link Type#STRING string} columns.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @param pType The column type.
+		 * @return This builder.
+		 */
+		public Builder column(@NonNull String pName, @NonNull Type pType) {
+			final String name = Objects.requireNonNull(pName, "Name");
+			if (names.contains(name)) {
+				throw new IllegalArgumentException("Duplicate column name: " + name);
+			}
+			names.add(name);
+			types.add(Objects.requireNonNull(pType, "Type"));
+			return this;
+		}
+
+		/** Adds an integer column.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @return This builder.
+		 */
+		public Builder intColumn(@NonNull String pName) {
+			return column(pName, Type.INT);
+		}
+
+		/** Adds a long integer column.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @return This builder.
+		 */
+		public Builder longColumn(@NonNull String pName) {
+			return column(pName, Type.LONG);
+		}
+
+		/** Adds a double column.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @return This builder.
+		 */
+		public Builder doubleColumn(@NonNull String pName) {
+			return column(pName, Type.DOUBLE);
+		}
+
+		/** Adds a string column.
+		 * @param pName The column name, as given by the CSV files header.
+		 * @return This builder.
+		 */
+		public Builder stringColumn(@NonNull String pName) {
+			return column(pName, Type.STRING);
+		}
+
+		/** Sets the column separator, which is used when loading CSV files.
+		 * Defaults to ';'.
+		 * @param pSeparator The column separator.
+		 * @return This builder.
+		 */
+		public Builder columnSeparator(char pSeparator) {
+			columnSeparator = pSeparator;
+			return this;
+		}
+
+		/** Sets the quote character, which is used when loading CSV files.
+		 * Defaults to '"'.
+		 * @param pQuoteChar The quote character.
+		 * @return This builder.
+		 */
+		public Builder quoteChar(char pQuoteChar) {
+			quoteChar = pQuoteChar;
+			return this;
+		}
+
+		/** Sets the maximum number of distinct values in a dictionary encoded
+		 * string column. If a column exceeds this number, then the strings are
+		 * stored directly. Defaults to {@link CsvTable#DEFAULT_MAX_DICTIONARY_SIZE}.
+		 * @param pMaxSize The maximum dictionary size, or 0 to disable
+		 *   dictionary encoding.
+		 * @return This builder.
+		 */
+		public Builder maxDictionarySize(int pMaxSize) {
+			if (pMaxSize < 0) {
+				throw new IllegalArgumentException("The maximum dictionary size must not be negative.");
+			}
+			maxDictionarySize = pMaxSize;
+			return this;
+		}
+
+		/** Creates a new, empty table with the builders configuration.
+		 * @return The created table.
+		 */
+		public CsvTable build() {
+			return new CsvTable(this);
+		}
+	}
+
+	/** Abstract base class for the column implementations.
+	 */
+	private abstract static class Column {
+		final @NonNull String name;
+		final @NonNull Type type;
+		/** The rows with null values (empty cell values in numeric columns).
+		 */
+		final BitSet nulls = new BitSet();
+
+		Column(@NonNull String pName, @NonNull Type pType) {
+			name = pName;
+			type = pType;
+		}
+
+		/** Appends the given cell value of the tokenizers current row.
+		 */
+		abstract void append(int pRow, CsvTokenizer pTokenizer, int pIndex);
+		/** Appends the given cell value, which may be null.
+		 */
+		abstract void append(int pRow, @Nullable String pValue);
+		/** Appends a null value.
+		 */
+		void appendNull(int pRow) {
+			ensureCapacity(pRow+1);
+			nulls.set(pRow);
+		}
+		abstract void ensureCapacity(int pCapacity);
+		abstract void trim(int pSize);
+		abstract @Nullable String getString(int pRow);
+		abstract long getMemoryUsage();
+
+		static int newCapacity(int pCapacity, int pMinCapacity) {
+			return Math.max(pMinCapacity, Math.max(16, pCapacity + (pCapacity >> 1)));
+		}
+
+		static boolean isEmpty(CsvTokenizer pTokenizer, int pIndex) {
+			return pTokenizer.getStart(pIndex) == pTokenizer.getEnd(pIndex)  &&  !pTokenizer.isEscaped(pIndex);
+		}
+
+		NumberFormatException invalidNumber(int pRow, String pValue) {
+			return new NumberFormatException("Invalid number in column " + name + " of row " + pRow + ": " + pValue);
+		}
+	}
+
+	private static class IntColumn extends Column {
+		int[] values = new int[0];
+
+		IntColumn(@NonNull String pName) {
+			super(pName, Type.INT);
+		}
+
+		@Override
+		void append(int pRow, CsvTokenizer pTokenizer, int pIndex) {
+			if (isEmpty(pTokenizer, pIndex)) {
+				appendNull(pRow);
+			} else {
+				ensureCapacity(pRow+1);
+				values[pRow] = pTokenizer.getInt(pIndex);
+			}
+		}
+
+		@Override
+		void append(int pRow, String pValue) {
+			if (pValue == null  ||  pValue.isEmpty()) {
+				appendNull(pRow);
+			} else {
+				ensureCapacity(pRow+1);
+				try {
+					values[pRow] = Integer.parseInt(pValue);
+				} catch (NumberFormatException e) {
+					throw invalidNumber(pRow, pValue);
+				}
+			}
+		}
+
+		@Override
+		void ensureCapacity(int pCapacity) {
+			if (pCapacity > values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, pCapacity));
+			}
+		}
+
+		@Override
+		void trim(int pSize) {
+			values = Arrays.copyOf(values, pSize);
+		}
+
+		@Override
+		String getString(int pRow) {
+			return nulls.get(pRow) ? null : Integer.toString(values[pRow]);
+		}
+
+		@Override
+		long getMemoryUsage() {
+			return 4L * values.length;
+		}
+	}
+
+	private static class LongColumn extends Column {
+		long[] values = new long[0];
+
+		LongColumn(@NonNull String pName) {
+			super(pName, Type.LONG);
+		}
+
+		@Override
+		void append(int pRow, CsvTokenizer pTokenizer, int pIndex) {
+			if (isEmpty(pTokenizer, pIndex)) {
+				appendNull(pRow);
+			} else {
+				ensureCapacity(pRow+1);
+				values[pRow] = pTokenizer.getLong(pIndex);
+			}
+		}
+
+		@Override
+		void append(int pRow, String pValue) {
+			if (pValue == null  ||  pValue.isEmpty()) {
+				appendNull(pRow);
+			} else {
+				ensureCapacity(pRow+1);
+				try {
+					values[pRow] = Long.parseLong(pValue);
+				} catch (NumberFormatException e) {
+					throw invalidNumber(pRow, pValue);
+				}
+			}
+		}
+
+		@Override
+		void ensureCapacity(int pCapacity) {
+			if (pCapacity > values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, pCapacity));
+			}
+		}
+
+		@Override
+		void trim(int pSize) {
+			values = Arrays.copyOf(values, pSize);
+		}
+
+		@Override
+		String getString(int pRow) {
+			return nulls.get(pRow) ? null : Long.toString(values[pRow]);
+		}
+
+		@Override
+		long getMemoryUsage() {
+			return 8L * values.length;
+		}
+	}
+
+	private static class DoubleColumn extends Column {
+		double[] values = new double[0];
+
+		DoubleColumn(@NonNull String pName) {
+			super(pName, Type.DOUBLE);
+		}
+
+		@Override
+		void append(int pRow, CsvTokenizer pTokenizer, int pIndex) {
+			if (isEmpty(pTokenizer, pIndex)) {
+				appendNull(pRow);
+			} else {
+				ensureCapacity(pRow+1);
+				values[pRow] = pTokenizer.getDouble(pIndex);
+			}
+		}
+
+		@Override
+		void append(int pRow, String pValue) {
+			if (pValue == null  ||  pValue.isEmpty()) {
+				appendNull(pRow);
+			} else {
+				ensureCapacity(pRow+1);
+				try {
+					values[pRow] = Double.parseDouble(pValue);
+				} catch (NumberFormatException e) {
+					throw invalidNumber(pRow, pValue);
+				}
+			}
+		}
+
+		@Override
+		void ensureCapacity(int pCapacity) {
+			if (pCapacity > values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, pCapacity));
+			}
+		}
+
+		@Override
+		void trim(int pSize) {
+			values = Arrays.copyOf(values, pSize);
+		}
+
+		@Override
+		String getString(int pRow) {
+			return nulls.get(pRow) ? null : Double.toString(values[pRow]);
+		}
+
+		@Override
+		long getMemoryUsage() {
+			return 8L * values.length;
+		}
+	}
+
+	/** A string column, which is dictionary encoded, until the number of
+	 * distinct values exceeds the maximum dictionary size. The dictionary
+	 * is an open addressing hash table, which can be searched for a cell
+	 * value in the tokenizers buffer without creating a string.
+	 */
+	private static class StringColumn extends Column {
+		private final int maxDictionarySize;
+		/** The distinct values, indexed by code, or null, if the column isn't
+		 * dictionary encoded.
+		 */
+		String[] dictionary;
+		private int[] hashes;
+		int dictionarySize;
+		/** Hash table of codes+1, with 0 for unused slots.
+		 */
+		private int[] slots;
+		/** The rows codes, or null, if the column isn't dictionary encoded.
+		 */
+		int[] codes;
+		/** The rows values, if the column isn't dictionary encoded.
+		 */
+		String[] values;
+
+		StringColumn(@NonNull String pName, int pMaxDictionarySize) {
+			super(pName, Type.STRING);
+			maxDictionarySize = pMaxDictionarySize;
+			if (pMaxDictionarySize == 0) {
+				values = new String[0];
+			} else {
+				dictionary = new String[16];
+				hashes = new int[16];
+				slots = new int[32];
+				codes = new int[0];
+			}
+		}
+
+		@Override
+		void append(int pRow, CsvTokenizer pTokenizer, int pIndex) {
+			if (codes == null  ||  pTokenizer.isEscaped(pIndex)) {
+				append(pRow, pTokenizer.getValue(pIndex));
+			} else {
+				final char[] buffer = pTokenizer.getBuffer();
+				final int start = pTokenizer.getStart(pIndex);
+				final int end = pTokenizer.getEnd(pIndex);
+				int hash = 0;
+				for (int i = start;  i < end;  i++) {
+					hash = 31*hash + buffer[i];
+				}
+				final int mask = slots.length-1;
+				for (int slot = mix(hash) & mask;  ;  slot = (slot+1) & mask) {
+					final int code = slots[slot]-1;
+					if (code == -1) {
+						append(pRow, new String(buffer, start, end-start));
+						return;
+					}
+					if (hashes[code] == hash  &&  matches(dictionary[code], buffer, start, end)) {
+						ensureCapacity(pRow+1);
+						codes[pRow] = code;
+						return;
+					}
+				}
+			}
+		}
+
+		private static boolean matches(String pValue, char[] pBuffer, int pStart, int pEnd) {
+			if (pValue.length() != pEnd-pStart) {
+				return false;
+			}
+			for (int i = pStart;  i < pEnd;  i++) {
+				if (pValue.charAt(i-pStart) != pBuffer[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int mix(int pHash) {
+			return pHash ^ (pHash >>> 16);
+		}
+
+		@Override
+		void append(int pRow, String pValue) {
+			ensureCapacity(pRow+1);
+			if (pValue == null) {
+				nulls.set(pRow);
+			} else if (codes == null) {
+				values[pRow] = pValue;
+			} else {
+				final int code = getCode(pValue);
+				if (code == -1) {
+					// The dictionary is full: Store the values directly.
+					values = new String[codes.length];
+					for (int i = 0;  i < pRow;  i++) {
+						if (!nulls.get(i)) {
+							values[i] = dictionary[codes[i]];
+						}
+					}
+					values[pRow] = pValue;
+					codes = null;
+					dictionary = null;
+					hashes = null;
+					slots = null;
+				} else {
+					codes[pRow] = code;
+				}
+			}
+		}
+
+		/** Returns the given values code, adding it to the dictionary, if necessary.
+		 * @return The values code, or -1, if the dictionary is full.
+		 */
+		private int getCode(String pValue) {
+			final int hash = pValue.hashCode();
+			final int mask = slots.length-1;
+			int slot = mix(hash) & mask;
+			for (;;  slot = (slot+1) & mask) {
+				final int code = slots[slot]-1;
+				if (code == -1) {
+					break;
+				}
+				if (hashes[code] == hash  &&  dictionary[code].equals(pValue)) {
+					return code;
+				}
+			}
+			if (dictionarySize == maxDictionarySize) {
+				return -1;
+			}
+			final int code = dictionarySize++;
+			if (code == dictionary.length) {
+				dictionary = Arrays.copyOf(dictionary, code*2);
+				hashes = Arrays.copyOf(hashes, code*2);
+			}
+			dictionary[code] = pValue;
+			hashes[code] = hash;
+			slots[slot] = code+1;
+			if (dictionarySize*2 > slots.length) {
+				rehash();
+			}
+			return code;
+		}
+
+		private void rehash() {
+			slots = new int[slots.length*2];
+			final int mask = slots.length-1;
+			for (int code = 0;  code < dictionarySize;  code++) {
+				int slot = mix(hashes[code]) & mask;
+				while (slots[slot] != 0) {
+					slot = (slot+1) & mask;
+				}
+				slots[slot] = code+1;
+			}
+		}
+
+		@Override
+		void ensureCapacity(int pCapacity) {
+			if (codes != null) {
+				if (pCapacity > codes.length) {
+					codes = Arrays.copyOf(codes, newCapacity(codes.length, pCapacity));
+				}
+			} else if (pCapacity > values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, pCapacity));
+			}
+		}
+
+		@Override
+		void trim(int pSize) {
+			if (codes != null) {
+				codes = Arrays.copyOf(codes, pSize);
+			} else {
+				values = Arrays.copyOf(values, pSize);
+			}
+		}
+
+		@Override
+		String getString(int pRow) {
+			if (nulls.get(pRow)) {
+				return null;
+			}
+			return codes == null ? values[pRow] : dictionary[codes[pRow]];
+		}
+
+		@Override
+		long getMemoryUsage() {
+			if (codes != null) {
+				long size = 4L * codes.length + 4L * slots.length + 8L * dictionary.length;
+				for (int i = 0;  i < dictionarySize;  i++) {
+					size += stringSize(dictionary[i]);
+				}
+				return size;
+			} else {
+				long size = 4L * values.length;
+				for (String s : values) {
+					if (s != null) {
+						size += stringSize(s);
+					}
+				}
+				return size;
+			}
+		}
+
+		private static long stringSize(String pValue) {
+			// Object header, fields, and the character array (with its header).
+			return 24 + 16 + 2L * pValue.length();
+		}
+	}
+
+	private final char columnSeparator;
+	private final char quoteChar;
+	private final int maxDictionarySize;
+	private final List<Column> columns = new ArrayList<>();
+	private final Map<String,Integer> columnIndexes = new HashMap<>();
+	private int rowCount;
+
+	/** Creates a new instance. Applications should use the {@link #builder()}.
+	 * @param pBuilder The builder, which supplies the configuration.
+	 */
+	protected CsvTable(@NonNull Builder pBuilder) {
+		columnSeparator = pBuilder.columnSeparator;
+		quoteChar = pBuilder.quoteChar;
+		maxDictionarySize = pBuilder.maxDictionarySize;
+		for (int i = 0;  i < pBuilder.names.size();  i++) {
+			addColumn(pBuilder.names.get(i), pBuilder.types.get(i));
+		}
+	}
+
+	/** Creates a new builder.
+	 * @return The created builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private void addColumn(@NonNull String pName, @NonNull Type pType) {
+		final Column col;
+		switch (pType) {
+		case INT: col = new IntColumn(pName); break;
+		case LONG: col = new LongColumn(pName); break;
+		case DOUBLE: col = new DoubleColumn(pName); break;
+		case STRING: col = new StringColumn(pName, maxDictionarySize); break;
+		default: throw new IllegalStateException("Invalid type: " + pType);
+		}
+		columnIndexes.put(pName, Integer.valueOf(columns.size()));
+		columns.add(col);
+	}
+
+	/** Loads the given CSV file, appending its rows to the table.
+	 * @param pFile The CSV file, which is being loaded. The file must be UTF-8 encoded.
+	 * @throws CsvParseException The file is invalid, or doesn't contain the tables columns.
+	 * @see #load(Reader)
+	 */
+	public void load(@NonNull Path pFile) {
+		try (Reader r = Files.newBufferedReader(pFile, StandardCharsets.UTF_8)) {
+			load(r);
+		} catch (IOException e) {
+			throw Exceptions.show(e);
+		}
+	}
+
+	/** Loads a CSV file from the given {@link Reader}, appending its rows to
+	 * the table. The CSV files header must contain the tables columns. Other
+	 * columns are ignored. If the table has no columns (because none have
+	 * been declared), then all columns of the CSV file are added as string
+	 * columns. The reader is closed.
+	 * @param pReader The reader, which supplies the CSV file.
+	 * @throws CsvParseException The file is invalid, or doesn't contain the tables columns.
+	 *   In that case, the rows, which have been appended so far, are retained.
+	 */
+	public void load(@NonNull Reader pReader) {
+		try (CsvTokenizer tokenizer = new CsvTokenizer(Objects.requireNonNull(pReader, "Reader"),
+				                                       columnSeparator, quoteChar, CsvTokenizer.DEFAULT_BUFFER_SIZE)) {
+			if (!tokenizer.next()) {
+				throw new CsvParseException("Expected header line, but no line was found.");
+			}
+			final String[] header = tokenizer.getRowAsArray();
+			if (columns.isEmpty()) {
+				for (String name : header) {
+					if (!columnIndexes.containsKey(name)) {
+						addColumn(name, Type.STRING);
+					}
+				}
+			}
+			// Resolve the column names once, rather than per row.
+			final int[] indexes = new int[columns.size()];
+			for (int i = 0;  i < indexes.length;  i++) {
+				final String name = columns.get(i).name;
+				indexes[i] = Arrays.asList(header).indexOf(name);
+				if (indexes[i] == -1) {
+					throw new CsvParseException("Column " + name + " not found in header");
+				}
+			}
+			final Column[] cols = columns.toArray(new Column[columns.size()]);
+			while (tokenizer.next()) {
+				final int row = rowCount;
+				final int columnCount = tokenizer.getColumnCount();
+				try {
+					for (int i = 0;  i < cols.length;  i++) {
+						final int index = indexes[i];
+						if (index < columnCount) {
+							cols[i].append(row, tokenizer, index);
+						} else {
+							cols[i].appendNull(row);
+						}
+					}
+				} catch (RuntimeException e) {
+					discard(row);
+					throw e instanceof NumberFormatException ? new CsvParseException(e.getMessage()) : e;
+				}
+				rowCount = row+1;
+			}
+		}
+	}
+
+	/** Appends a single row to the table.
+	 * @param pValues The rows values, in the order of the tables columns.
+	 *   Missing, or null, values are stored as null values. Empty strings are
+	 *   stored as null values in numeric columns.
+	 * @throws CsvParseException A value in a numeric column is invalid.
+	 */
+	public void append(@NonNull String... pValues) {
+		final int row = rowCount;
+		try {
+			for (int i = 0;  i < columns.size();  i++) {
+				columns.get(i).append(row, i < pValues.length ? pValues[i] : null);
+			}
+		} catch (NumberFormatException e) {
+			discard(row);
+			throw new CsvParseException(e.getMessage());
+		}
+		rowCount = row+1;
+	}
+
+	/** Discards the partially appended row with the given index.
+	 */
+	private void discard(int pRow) {
+		for (Column col : columns) {
+			col.nulls.clear(pRow);
+		}
+	}
+
+	/** Releases unused capacity, for example after loading all files.
+	 */
+	public void trim() {
+		for (Column col : columns) {
+			col.trim(rowCount);
+		}
+	}
+
+	/** Returns the number of rows.
+	 * @return The number of rows.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/** Returns the number of columns.
+	 * @return The number of columns.
+	 */
+	public int getColumnCount() {
+		return columns.size();
+	}
+
+	/** Returns the column names.
+	 * @return The column names.
+	 */
+	public String[] getColumnNames() {
+		final String[] names = new String[columns.size()];
+		for (int i = 0;  i < names.length;  i++) {
+			names[i] = columns.get(i).name;
+		}
+		return names;
+	}
+
+	/** Returns the index of the column with the given name.
+	 * @param pName The column name.
+	 * @return The column index, which may be used with methods like
+	 *   {@link #getInt(int, int)}.
+	 * @throws IllegalArgumentException No such column exists.
+	 */
+	public int getColumnIndex(@NonNull String pName) {
+		final Integer index = columnIndexes.get(pName);
+		if (index == null) {
+			throw new IllegalArgumentException("Unknown column: " + pName);
+		}
+		return index.intValue();
+	}
+
+	/** Returns the type of the given column.
+	 * @param pColumn The column index.
+	 * @return The column type.
+	 */
+	public @NonNull Type getType(int pColumn) {
+		return columns.get(pColumn).type;
+	}
+
+	private Column getColumn(int pColumn, int pRow) {
+		if (pRow < 0  ||  pRow >= rowCount) {
+			throw new IndexOutOfBoundsException("Invalid row index " + pRow + ", expected 0 <= index < " + rowCount);
+		}
+		return columns.get(pColumn);
+	}
+
+	/** Returns, whether the given cell contains a null value.
+	 * @param pColumn The column index.
+	 * @param pRow The row index.
+	 * @return True, if the cell contains a null value.
+	 */
+	public boolean isNull(int pColumn, int pRow) {
+		return getColumn(pColumn, pRow).nulls.get(pRow);
+	}
+
+	/** Returns the given cells value from an integer column.
+	 * @param pColumn The column index.
+	 * @param pRow The row index.
+	 * @return The cells value, or 0, if the cell contains a null value.
+	 * @throws IllegalArgumentException The column isn't an integer column.
+	 */
+	public int getInt(int pColumn, int pRow) {
+		final Column col = getColumn(pColumn, pRow);
+		if (col.type != Type.INT) {
+			throw new IllegalArgumentException("Not an int column: " + col.name);
+		}
+		return ((IntColumn) col).values[pRow];
+	}
+
+	/** Returns the given cells value from an integer, or long integer, column.
+	 * @param pColumn The column index.
+	 * @param pRow The row index.
+	 * @return The cells value, or 0, if the cell contains a null value.
+	 * @throws IllegalArgumentException The column isn't an integer, or long integer, column.
+	 */
+	public long getLong(int pColumn, int pRow) {
+		final Column col = getColumn(pColumn, pRow);
+		switch (col.type) {
+		case INT: return ((IntColumn) col).values[pRow];
+		case LONG: return ((LongColumn) col).values[pRow];
+		default: throw new IllegalArgumentException("Not an int, or long, column: " + col.name);
+		}
+	}
+
+	/** Returns the given cells value from a numeric column.
+	 * @param pColumn The column index.
+	 * @param pRow The row index.
+	 * @return The cells value, or 0, if the cell contains a null value.
+	 * @throws IllegalArgumentException The column isn't a numeric column.
+	 */
+	public double getDouble(int pColumn, int pRow) {
+		final Column col = getColumn(pColumn, pRow);
+		switch (col.type) {
+		case INT: return ((IntColumn) col).values[pRow];
+		case LONG: return ((LongColumn) col).values[pRow];
+		case DOUBLE: return ((DoubleColumn) col).values[pRow];
+		default: throw new IllegalArgumentException("Not a numeric column: " + col.name);
+		}
+	}
+
+	/** Returns the given cells value as a string. Numeric values are converted.
+	 * @param pColumn The column index.
+	 * @param pRow The row index.
+	 * @return The cells value, or null, if the cell contains a null value.
+	 */
+	public @Nullable String getString(int pColumn, int pRow) {
+		return getColumn(pColumn, pRow).getString(pRow);
+	}
+
+	/** Invokes the given consumer for the row indexes in the given selection.
+	 * @param pSelection The selected rows, for example the result of a filter,
+	 *   or null for all rows.
+	 * @param pConsumer The consumer, which is invoked with the row indexes,
+	 *   in ascending order.
+	 */
+	public void scan(@Nullable BitSet pSelection, @NonNull IntConsumer pConsumer) {
+		if (pSelection == null) {
+			for (int row = 0;  row < rowCount;  row++) {
+				pConsumer.accept(row);
+			}
+		} else {
+			for (int row = pSelection.nextSetBit(0);  row >= 0  &&  row < rowCount;  row = pSelection.nextSetBit(row+1)) {
+				pConsumer.accept(row);
+			}
+		}
+	}
+
+	/** Returns the rows, in which the given integer column matches the predicate.
+	 * Null values never match.
+	 * @param pColumn The column name.
+	 * @param pPredicate The predicate, which is being evaluated.
+	 * @return The matching rows.
+	 * @throws IllegalArgumentException The column doesn't exist, or isn't an integer column.
+	 */
+	public BitSet filterInt(@NonNull String pColumn, @NonNull IntPredicate pPredicate) {
+		final Column col = columns.get(getColumnIndex(pColumn));
+		if (col.type != Type.INT) {
+			throw new IllegalArgumentException("Not an int column: " + col.name);
+		}
+		final int[] values = ((IntColumn) col).values;
+		final BitSet result = new BitSet(rowCount);
+		for (int row = 0;  row < rowCount;  row++) {
+			if (pPredicate.test(values[row])) {
+				result.set(row);
+			}
+		}
+		result.andNot(col.nulls);
+		return result;
+	}
+
+	/** Returns the rows, in which the given integer, or long integer, column
+	 * matches the predicate. Null values never match.
+	 * @param pColumn The column name.
+	 * @param pPredicate The predicate, which is being evaluated.
+	 * @return The matching rows.
+	 * @throws IllegalArgumentException The column doesn't exist, or isn't an
+	 *   integer, or long integer, column.
+	 */
+	public BitSet filterLong(@NonNull String pColumn, @NonNull LongPredicate pPredicate) {
+		final int index = getColumnIndex(pColumn);
+		final Column col = columns.get(index);
+		final BitSet result = new BitSet(rowCount);
+		if (col.type == Type.LONG) {
+			final long[] values = ((LongColumn) col).values;
+			for (int row = 0;  row < rowCount;  row++) {
+				if (pPredicate.test(values[row])) {
+					result.set(row);
+				}
+			}
+		} else if (col.type == Type.INT) {
+			return filterInt(pColumn, (i) -> pPredicate.test(i));
+		} else {
+			throw new IllegalArgumentException("Not an int, or long, column: " + col.name);
+		}
+		result.andNot(col.nulls);
+		return result;
+	}
+
+	/** Returns the rows, in which the given numeric column matches the predicate.
+	 * Null values never match.
+	 * @param pColumn The column name.
+	 * @param pPredicate The predicate, which is being evaluated.
+	 * @return The matching rows.
+	 * @throws IllegalArgumentException The column doesn't exist, or isn't a numeric column.
+	 */
+	public BitSet filterDouble(@NonNull String pColumn, @NonNull DoublePredicate pPredicate) {
+		final int index = getColumnIndex(pColumn);
+		final Column col = columns.get(index);
+		if (col.type == Type.DOUBLE) {
+			final double[] values = ((DoubleColumn) col).values;
+			final BitSet result = new BitSet(rowCount);
+			for (int row = 0;  row < rowCount;  row++) {
+				if (pPredicate.test(values[row])) {
+					result.set(row);
+				}
+			}
+			result.andNot(col.nulls);
+			return result;
+		} else if (col.type == Type.STRING) {
+			throw new IllegalArgumentException("Not a numeric column: " + col.name);
+		} else {
+			return filterLong(pColumn, (l) -> pPredicate.test(l));
+		}
+	}
+
+	/** Returns the rows, in which the given column matches the predicate.
+	 * For dictionary encoded columns, the predicate is evaluated once per
+	 * distinct value. Null values never match.
+	 * @param pColumn The column name.
+	 * @param pPredicate The predicate, which is being evaluated.
+	 * @return The matching rows.
+	 * @throws IllegalArgumentException The column doesn't exist.
+	 */
+	public BitSet filterString(@NonNull String pColumn, @NonNull Predicate<String> pPredicate) {
+		final Column col = columns.get(getColumnIndex(pColumn));
+		final BitSet nulls = col.nulls;
+		final BitSet result = new BitSet(rowCount);
+		if (col instanceof StringColumn  &&  ((StringColumn) col).codes != null) {
+			final StringColumn sc = (StringColumn) col;
+			final boolean[] matches = new boolean[sc.dictionarySize];
+			for (int code = 0;  code < matches.length;  code++) {
+				matches[code] = pPredicate.test(sc.dictionary[code]);
+			}
+			final int[] codes = sc.codes;
+			for (int row = 0;  row < rowCount;  row++) {
+				// Null rows have no valid code. (The dictionary may even be empty.)
+				if (!nulls.get(row)  &&  matches[codes[row]]) {
+					result.set(row);
+				}
+			}
+		} else {
+			for (int row = 0;  row < rowCount;  row++) {
+				final String value = col.getString(row);
+				if (value != null  &&  pPredicate.test(value)) {
+					result.set(row);
+				}
+			}
+			result.andNot(nulls);
+		}
+		return result;
+	}
+
+	/** Returns statistics (count, sum, minimum, maximum, and average) of the
+	 * given integer, or long integer, column. Null values are ignored.
+	 * @param pColumn The column name.
+	 * @param pSelection The selected rows, or null for all rows.
+	 * @return The statistics of the selected, non-null values.
+	 * @throws IllegalArgumentException The column doesn't exist, or isn't an
+	 *   integer, or long integer, column.
+	 */
+	public LongSummaryStatistics summarizeLong(@NonNull String pColumn, @Nullable BitSet pSelection) {
+		final int index = getColumnIndex(pColumn);
+		final Column col = columns.get(index);
+		if (col.type != Type.INT  &&  col.type != Type.LONG) {
+			throw new IllegalArgumentException("Not an int, or long, column: " + col.name);
+		}
+		final LongSummaryStatistics stats = new LongSummaryStatistics();
+		final BitSet nulls = col.nulls;
+		if (col.type == Type.INT) {
+			final int[] values = ((IntColumn) col).values;
+			scan(pSelection, (row) -> { if (!nulls.get(row)) { stats.accept(values[row]); } });
+		} else {
+			final long[] values = ((LongColumn) col).values;
+			scan(pSelection, (row) -> { if (!nulls.get(row)) { stats.accept(values[row]); } });
+		}
+		return stats;
+	}
+
+	/** Returns statistics (count, sum, minimum, maximum, and average) of the
+	 * given numeric column. Null values are ignored.
+	 * @param pColumn The column name.
+	 * @param pSelection The selected rows, or null for all rows.
+	 * @return The statistics of the selected, non-null values.
+	 * @throws IllegalArgumentException The column doesn't exist, or isn't a numeric column.
+	 */
+	public DoubleSummaryStatistics summarizeDouble(@NonNull String pColumn, @Nullable BitSet pSelection) {
+		final int index = getColumnIndex(pColumn);
+		final Column col = columns.get(index);
+		final DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+		final BitSet nulls = col.nulls;
+		switch (col.type) {
+		case INT: {
+			final int[] values = ((IntColumn) col).values;
+			scan(pSelection, (row) -> { if (!nulls.get(row)) { stats.accept(values[row]); } });
+			break;
+		}
+		case LONG: {
+			final long[] values = ((LongColumn) col).values;
+			scan(pSelection, (row) -> { if (!nulls.get(row)) { stats.accept(values[row]); } });
+			break;
+		}
+		case DOUBLE: {
+			final double[] values = ((DoubleColumn) col).values;
+			scan(pSelection, (row) -> { if (!nulls.get(row)) { stats.accept(values[row]); } });
+			break;
+		}
+		default:
+			throw new IllegalArgumentException("Not a numeric column: " + col.name);
+		}
+		return stats;
+	}
+
+	/** Counts the selected rows by the values of the given column. For
+	 * dictionary encoded columns, the rows are counted by code, without
+	 * any map lookups per row.
+	 * @param pColumn The column name.
+	 * @param pSelection The selected rows, or null for all rows.
+	 * @return A map with the distinct, non-null values as keys, and the
+	 *   number of rows as values. The map is ordered by first occurrence
+	 *   (dictionary encoded columns), or by first occurrence in the selection.
+	 * @throws IllegalArgumentException The column doesn't exist.
+	 */
+	public Map<String,Long> countBy(@NonNull String pColumn, @Nullable BitSet pSelection) {
+		final Column col = columns.get(getColumnIndex(pColumn));
+		final BitSet nulls = col.nulls;
+		final Map<String,Long> result = new LinkedHashMap<>();
+		if (col instanceof StringColumn  &&  ((StringColumn) col).codes != null) {
+			final StringColumn sc = (StringColumn) col;
+			final long[] counts = new long[sc.dictionarySize];
+			final int[] codes = sc.codes;
+			scan(pSelection, (row) -> { if (!nulls.get(row)) { counts[codes[row]]++; } });
+			for (int code = 0;  code < counts.length;  code++) {
+				if (counts[code] > 0) {
+					result.put(sc.dictionary[code], Long.valueOf(counts[code]));
+				}
+			}
+		} else {
+			scan(pSelection, (row) -> {
+				final String value = col.getString(row);
+				if (value != null) {
+					result.merge(value, Long.valueOf(1), Long::sum);
+				}
+			});
+		}
+		return result;
+	}
+
+	/** Returns the approximate heap size of the tables data in bytes, assuming
+	 * compressed object references. The estimate includes unused capacity,
+	 * which may be released by invoking {@link #trim()}.
+	 * @return The approximate heap size of the tables data.
+	 */
+	public long getMemoryUsage() {
+		long size = 0;
+		for (Column col : columns) {
+			size += col.getMemoryUsage() + col.nulls.size()/8;
+		}
+		return size;
+	}
+}
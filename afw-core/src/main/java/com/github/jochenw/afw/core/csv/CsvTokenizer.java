@@ -0,0 +1,519 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.github.jochenw.afw.core.util.Exceptions;
+
+
+/**
+ * A fast, buffer based tokenizer for CSV files. Unlike the {@link CsvParser},
+ * the tokenizer doesn't read the input line by line. Instead, it scans a large
+ * character buffer directly. The tokenizer supports
+ * <ul>
+ *   <li>quoted cell values, which contain column separators, or line breaks,</li>
+ *   <li>escaped quote characters within quoted cell values (a doubled quote
+ *     character, as in {@code "a ""quoted"" word"}),</li>
+ *   <li>line breaks, which are either "\n", "\r\n", or "\r".</li>
+ * </ul>
+ * Unlike the {@link CsvParser}, the column separator, and the quote string, are
+ * restricted to a single character.
+ *
+ * The tokenizer is a mutable view of the current row: After invoking
+ * {@link #next()}, the cell values of the current row may be obtained by
+ * using {@link #getValue(int)}. Cell values are only converted into strings
+ * on demand. Alternatively, the cell values may be read directly from the
+ * {@link #getBuffer() buffer}. Example:
+ * <pre>
+ *   try (CsvTokenizer tokenizer = new CsvTokenizer(reader)) {
+ *       while (tokenizer.next()) {
+ *           final String firstValue = tokenizer.getValue(0);
+ *           ...
+ *       }
+ *   }
+ * </pre>
+ * Instances are not thread safe.
+ */
+public class CsvTokenizer implements AutoCloseable {
+	/** The default buffer size.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 65536;
+	/** Powers of ten, which are exactly representable as doubles.
+	 */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final Reader reader;
+	private final char columnSeparator;
+	private final char quoteChar;
+	private char[] buffer;
+	/** Number of valid characters in the buffer.
+	 */
+	private int limit;
+	/** Offset of the next record in the buffer.
+	 */
+	private int pos;
+	private boolean eof;
+	/** Start offsets of the cell values in the current row.
+	 */
+	private int[] starts = new int[16];
+	/** End offsets of the cell values in the current row.
+	 */
+	private int[] ends = new int[16];
+	/** Whether the cell values in the current row require unescaping.
+	 */
+	private boolean[] escaped = new boolean[16];
+	private int columnCount;
+	private long recordNumber;
+	private final StringBuilder sb = new StringBuilder();
+
+	/** Creates a new instance, which reads from the given {@link Reader},
+	 * using the semicolon as the column separator, and the double quote
+	 * as the quote character.
+	 * @param pReader The reader, which supplies the CSV data.
+	 */
+	public CsvTokenizer(Reader pReader) {
+		this(pReader, ';', '"', DEFAULT_BUFFER_SIZE);
+	}
+
+	/** Creates a new instance, which reads from the given {@link Reader}.
+	 * @param pReader The reader, which supplies the CSV data.
+	 * @param pColumnSeparator The column separator, typically ',', or ';'.
+	 * @param pQuoteChar The quote character, typically '"'.
+	 * @param pBufferSize The initial buffer size. The buffer grows, if a
+	 *   single row doesn't fit into the buffer.
+	 * @throws IllegalArgumentException The column separator, and the quote
+	 *   character, are the same, or one of them is a line terminator, or the
+	 *   buffer size is not positive.
+	 */
+	public CsvTokenizer(Reader pReader, char pColumnSeparator, char pQuoteChar, int pBufferSize) {
+		reader = Objects.requireNonNull(pReader, "Reader");
+		if (pColumnSeparator == pQuoteChar) {
+			throw new IllegalArgumentException("The column separator, and the quote character, must be different.");
+		}
+		if (isLineTerminator(pColumnSeparator)  ||  isLineTerminator(pQuoteChar)) {
+			throw new IllegalArgumentException("Line terminators are not supported as column separator,"
+					+ " or quote character.");
+		}
+		if (pBufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size must be positive: " + pBufferSize);
+		}
+		columnSeparator = pColumnSeparator;
+		quoteChar = pQuoteChar;
+		buffer = new char[pBufferSize];
+	}
+
+	private static boolean isLineTerminator(char pChar) {
+		return pChar == '\n'  ||  pChar == '\r';
+	}
+
+	/** Advances to the next row.
+	 * @return True, if another row has been read, and may now be
+	 *   inspected. False, if the end of the input has been reached.
+	 * @throws CsvParseException The input contains a quoted cell value,
+	 *   which isn't terminated.
+	 * @throws java.io.UncheckedIOException Reading the input failed.
+	 */
+	public boolean next() {
+		for (;;) {
+			final int res = scan();
+			if (res == 1) {
+				++recordNumber;
+				return true;
+			} else if (res == 0) {
+				columnCount = 0;
+				return false;
+			}
+			fill();
+		}
+	}
+
+	/** Scans the record at the current position.
+	 * @return 1, if a record has been found, 0, if the end of the
+	 *   input has been reached, or -1, if more input is required.
+	 */
+	private int scan() {
+		final char[] buf = buffer;
+		final int lim = limit;
+		final char sep = columnSeparator;
+		final char quote = quoteChar;
+		int p = pos;
+		if (p == lim) {
+			return eof ? 0 : -1;
+		}
+		int col = 0;
+		for (;;) {
+			final int start = p;
+			int numQuotes = 0;
+			boolean inQuotes = false;
+			char c = 0;
+			// Scan the cell value.
+			while (p < lim) {
+				c = buf[p];
+				if (c == sep  ||  c == '\n'  ||  c == '\r') {
+					break;
+				} else if (c == quote) {
+					// Skip the quoted part, which may contain separators, and line breaks.
+					++numQuotes;
+					++p;
+					while (p < lim  &&  buf[p] != quote) {
+						++p;
+					}
+					if (p == lim) {
+						inQuotes = true;
+						break;
+					}
+					++numQuotes;
+				}
+				++p;
+			}
+			if (p == lim) {
+				if (!eof) {
+					return -1;
+				}
+				if (inQuotes) {
+					throw new CsvParseException("Unterminated quoted value in column " + (col+1)
+							+ " of row " + (recordNumber+1));
+				}
+			}
+			addColumn(col++, start, p, numQuotes);
+			if (p == lim) {
+				pos = p;
+				columnCount = col;
+				return 1;
+			}
+			if (c == sep) {
+				++p;
+			} else {
+				// Line terminator: "\n", "\r\n", or "\r"
+				if (c == '\r') {
+					if (p+1 == lim  &&  !eof) {
+						return -1;
+					}
+					if (p+1 < lim  &&  buf[p+1] == '\n') {
+						++p;
+					}
+				}
+				pos = p+1;
+				columnCount = col;
+				return 1;
+			}
+		}
+	}
+
+	private void addColumn(int pColumn, int pStart, int pEnd, int pNumQuotes) {
+		if (pColumn == starts.length) {
+			final int newLength = pColumn*2;
+			starts = Arrays.copyOf(starts, newLength);
+			ends = Arrays.copyOf(ends, newLength);
+			escaped = Arrays.copyOf(escaped, newLength);
+		}
+		if (pNumQuotes == 0) {
+			starts[pColumn] = pStart;
+			ends[pColumn] = pEnd;
+			escaped[pColumn] = false;
+		} else if (pNumQuotes == 2  &&  buffer[pStart] == quoteChar  &&  buffer[pEnd-1] == quoteChar) {
+			// The typical case: A quoted value without escaped quotes.
+			starts[pColumn] = pStart+1;
+			ends[pColumn] = pEnd-1;
+			escaped[pColumn] = false;
+		} else {
+			starts[pColumn] = pStart;
+			ends[pColumn] = pEnd;
+			escaped[pColumn] = true;
+		}
+	}
+
+	/** Moves the current record to the beginning of the buffer, and reads
+	 * more characters. Grows the buffer, if necessary.
+	 */
+	private void fill() {
+		final int remaining = limit - pos;
+		if (pos == 0  &&  remaining == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length*2);
+		} else if (remaining > 0) {
+			System.arraycopy(buffer, pos, buffer, 0, remaining);
+		}
+		pos = 0;
+		limit = remaining;
+		try {
+			while (limit < buffer.length) {
+				final int res = reader.read(buffer, limit, buffer.length-limit);
+				if (res == -1) {
+					eof = true;
+					break;
+				}
+				limit += res;
+				if (res > 0) {
+					break;
+				}
+			}
+		} catch (IOException e) {
+			throw Exceptions.show(e);
+		}
+	}
+
+	/** Returns the number of columns in the current row.
+	 * @return The number of columns in the current row.
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/** Returns the current rows number. The first row has the number 1.
+	 * @return The current rows number.
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	/** Returns the buffer, which contains the current row. The buffer is
+	 * overwritten by the next invocation of {@link #next()}.
+	 * @return The buffer, which contains the current row.
+	 * @see #getStart(int)
+	 * @see #getEnd(int)
+	 * @see #isEscaped(int)
+	 */
+	public char[] getBuffer() {
+		return buffer;
+	}
+
+	/** Returns the offset of the given cell value in the {@link #getBuffer() buffer}.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return The offset of the given cell value in the {@link #getBuffer() buffer}.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 */
+	public int getStart(int pColumn) {
+		checkColumn(pColumn);
+		return starts[pColumn];
+	}
+
+	/** Returns the end offset (exclusive) of the given cell value in the
+	 * {@link #getBuffer() buffer}.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return The end offset of the given cell value in the {@link #getBuffer() buffer}.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 */
+	public int getEnd(int pColumn) {
+		checkColumn(pColumn);
+		return ends[pColumn];
+	}
+
+	/** Returns, whether the given cell value requires unescaping, because
+	 * it contains escaped quote characters, or quote characters in the
+	 * middle of the value. If so, then the characters between
+	 * {@link #getStart(int)}, and {@link #getEnd(int)} are the raw
+	 * characters, including quotes, and {@link #getValue(int)} must be
+	 * used to obtain the actual value.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return True, if the characters in the buffer must be unescaped.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 */
+	public boolean isEscaped(int pColumn) {
+		checkColumn(pColumn);
+		return escaped[pColumn];
+	}
+
+	/** Returns the given cell value.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return The given cell value.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 */
+	public String getValue(int pColumn) {
+		checkColumn(pColumn);
+		final int start = starts[pColumn];
+		final int end = ends[pColumn];
+		if (!escaped[pColumn]) {
+			return new String(buffer, start, end-start);
+		}
+		sb.setLength(0);
+		boolean inQuotes = false;
+		for (int i = start;  i < end;  i++) {
+			final char c = buffer[i];
+			if (c == quoteChar) {
+				if (inQuotes  &&  i+1 < end  &&  buffer[i+1] == quoteChar) {
+					sb.append(c);
+					++i;
+				} else {
+					inQuotes = !inQuotes;
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/** Returns the given cell value as a long integer. The value is parsed
+	 * directly from the {@link #getBuffer() buffer}, without creating a string.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return The given cell value, as a long integer.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 * @throws CsvParseException The cell value is empty, or not a valid integer.
+	 */
+	public long getLong(int pColumn) {
+		checkColumn(pColumn);
+		if (escaped[pColumn]) {
+			final String value = getValue(pColumn);
+			try {
+				return Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				throw invalidNumber(pColumn, value);
+			}
+		}
+		final int end = ends[pColumn];
+		int i = starts[pColumn];
+		final boolean negative = i < end  &&  buffer[i] == '-';
+		if (i < end  &&  (negative  ||  buffer[i] == '+')) {
+			++i;
+		}
+		if (i == end) {
+			throw invalidNumber(pColumn, null);
+		}
+		// Accumulate negatively, like Long.parseLong, so that Long.MIN_VALUE is accepted.
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multMin = limit / 10;
+		long result = 0;
+		for (;  i < end;  i++) {
+			final int digit = buffer[i] - '0';
+			if (digit < 0  ||  digit > 9  ||  result < multMin) {
+				throw invalidNumber(pColumn, null);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw invalidNumber(pColumn, null);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/** Returns the given cell value as an integer. The value is parsed
+	 * directly from the {@link #getBuffer() buffer}, without creating a string.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return The given cell value, as an integer.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 * @throws CsvParseException The cell value is empty, or not a valid integer.
+	 */
+	public int getInt(int pColumn) {
+		final long l = getLong(pColumn);
+		if (l < Integer.MIN_VALUE  ||  l > Integer.MAX_VALUE) {
+			throw invalidNumber(pColumn, null);
+		}
+		return (int) l;
+	}
+
+	/** Returns the given cell value as a double. Simple decimal numbers
+	 * (an optional sign, digits, and an optional decimal point) are parsed
+	 * directly from the {@link #getBuffer() buffer}. Other values (for example,
+	 * with an exponent) are converted by {@link Double#parseDouble(String)}.
+	 * In either case, the result is the same as with {@link Double#parseDouble(String)}.
+	 * @param pColumn The column index, from 0 (inclusive) to {@link #getColumnCount()}
+	 *   (exclusive).
+	 * @return The given cell value, as a double.
+	 * @throws IndexOutOfBoundsException The column index is invalid.
+	 * @throws CsvParseException The cell value is empty, or not a valid number.
+	 */
+	public double getDouble(int pColumn) {
+		checkColumn(pColumn);
+		if (!escaped[pColumn]) {
+			final int start = starts[pColumn];
+			final int end = ends[pColumn];
+			int i = start;
+			final boolean negative = i < end  &&  buffer[i] == '-';
+			if (i < end  &&  (negative  ||  buffer[i] == '+')) {
+				++i;
+			}
+			long mantissa = 0;
+			int numDigits = 0;
+			int numFractionDigits = -1;
+			for (;  i < end  &&  numDigits < 18;  i++) {
+				final char c = buffer[i];
+				if (c >= '0'  &&  c <= '9') {
+					mantissa = mantissa*10 + (c - '0');
+					++numDigits;
+					if (numFractionDigits >= 0) {
+						++numFractionDigits;
+					}
+				} else if (c == '.'  &&  numFractionDigits == -1) {
+					numFractionDigits = 0;
+				} else {
+					break;
+				}
+			}
+			/* If the mantissa, and the power of ten, are exactly representable,
+			 * then a single division yields the correctly rounded result.
+			 */
+			if (i == end  &&  numDigits > 0  &&  mantissa < (1L << 53)
+					&&  numFractionDigits < POWERS_OF_TEN.length) {
+				final double d = numFractionDigits <= 0 ? (double) mantissa
+						: mantissa / POWERS_OF_TEN[numFractionDigits];
+				return negative ? -d : d;
+			}
+		}
+		final String value = getValue(pColumn);
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw invalidNumber(pColumn, value);
+		}
+	}
+
+	private CsvParseException invalidNumber(int pColumn, String pValue) {
+		final String value = pValue == null ? new String(buffer, starts[pColumn], ends[pColumn]-starts[pColumn]) : pValue;
+		return new CsvParseException("Invalid number in column " + (pColumn+1) + " of row "
+				+ recordNumber + ": " + value);
+	}
+
+	/** Returns the current row as an array of strings.
+	 * @return A new array with the current rows cell values.
+	 */
+	public String[] getRowAsArray() {
+		final String[] row = new String[columnCount];
+		for (int i = 0;  i < row.length;  i++) {
+			row[i] = getValue(i);
+		}
+		return row;
+	}
+
+	private void checkColumn(int pColumn) {
+		if (pColumn < 0  ||  pColumn >= columnCount) {
+			throw new IndexOutOfBoundsException("Invalid column index " + pColumn
+					+ ", expected 0 <= index < " + columnCount);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			reader.close();
+		} catch (IOException e) {
+			throw Exceptions.show(e);
+		}
+	}
+}
@@ -36,6 +36,7 @@ public class CsvWriter implements AutoCloseable {
 	private BufferedOutputStream bos;
 	private Writer w;
 	private BufferedWriter bw;
+	private CsvBinding.Bound<?> bound;
 
 	/**
 	 * Creates a new instance, which writes to the given {@link OutputStream},
@@ -141,4 +142,30 @@ public class CsvWriter implements AutoCloseable {
 			throw Exceptions.show(t);
 		}
 	}
+
+	/**
+	 * Writes a CSV row with the values of the given object, using the given
+	 * binding to calculate the column indices. The binding is bound to the
+	 * header once, so that no map is created per row. Columns of the header,
+	 * which aren't part of the binding, are written as empty cell values.
+	 * @param pBinding The binding, which converts the object into a row.
+	 * @param pObject The object, which is being written.
+	 * @param <T> The bound object type.
+	 * @throws CsvParseException A column of the binding is missing in the
+	 *   header.
+	 */
+	public <T> void write(CsvBinding<T> pBinding, T pObject) {
+		@SuppressWarnings("unchecked")
+		CsvBinding.Bound<T> b = (CsvBinding.Bound<T>) bound;
+		if (b == null  ||  b.getBinding() != pBinding) {
+			b = pBinding.bind(header);
+			bound = b;
+		}
+		try {
+			b.write(pObject, bw, ";");
+			bw.write(lineSeparator);
+		} catch (Throwable t) {
+			throw Exceptions.show(t);
+		}
+	}
 }
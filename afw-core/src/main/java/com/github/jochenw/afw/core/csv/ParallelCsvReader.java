@@ -0,0 +1,561 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+
+import com.github.jochenw.afw.core.csv.CsvReader.CsvRow;
+import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/**
+ * A CSV reader, which parses a file in parallel. The file is split into
+ * byte ranges (chunks) at record boundaries, and the chunks are parsed by
+ * {@link CsvTokenizer tokenizers} on a {@link ForkJoinPool}. Rows are
+ * delivered either
+ * <ul>
+ *   <li>in file order (the default): Parsed chunks are buffered, until all
+ *     preceding chunks have been consumed. The consumer is invoked by the
+ *     calling thread only.</li>
+ *   <li>or unordered: The consumer is invoked by the pools worker threads,
+ *     as soon as a row has been parsed. The consumer must be thread safe.</li>
+ * </ul>
+ * In both cases, at most {@link Builder#maxChunksInFlight(int)} chunks are
+ * being parsed, buffered, or consumed, at the same time. In other words, the
+ * parser waits, if the consumer is slower than the parser. If an error occurs,
+ * then the remaining chunks are cancelled, and the parse methods return only
+ * after all chunks have been finished, so that the consumer is no longer
+ * invoked.
+ *
+ * Finding the record boundaries requires a sequential scan of the file for
+ * line terminators, and quote characters. This is much cheaper than parsing,
+ * but it works only, if
+ * <ul>
+ *   <li>the character set is ASCII compatible (for example UTF-8, or ISO-8859-1),
+ *     so that line terminators, column separators, and quote characters are
+ *     single bytes, and</li>
+ *   <li>quote characters are used for quoting only, as with the
+ *     {@link CsvTokenizer}.</li>
+ * </ul>
+ * Example:
+ * <pre>
+ *   final ParallelCsvReader reader = ParallelCsvReader.builder().columnSeparator(',').build();
+ *   reader.parse(Paths.get("large.csv"), (row) -&gt; {
+ *       final String[] values = row.getRowAsArray();
+ *       ...
+ *   });
+ * </pre>
+ * Instances are immutable, and thread safe.
+ */
+public class ParallelCsvReader {
+	/** The default chunk size.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 4*1024*1024;
+	/** Size of the memory mapped windows, which are used when scanning for
+	 * record boundaries.
+	 */
+	private static final int SCAN_WINDOW = 4*1024*1024;
+
+	/** Builder for instances of {@link ParallelCsvReader}.
+	 */
+	public static class Builder {
+		private char columnSeparator = ';';
+		private char quoteChar = '"';
+		private @NonNull Charset charset = StandardCharsets.UTF_8;
+		private int chunkSize = DEFAULT_CHUNK_SIZE;
+		private ForkJoinPool pool;
+		private boolean ordered = true;
+		private int maxChunksInFlight;
+
+		/** Creates a new instance. Applications should use
+		 * {@link ParallelCsvReader#builder()}.
+		 */
+		public Builder() {}
+
+		/** Sets the column separator. Defaults to ';'.
+		 * @param pSeparator The column separator.
+		 * @return This builder.
+		 */
+		public Builder columnSeparator(char pSeparator) {
+			columnSeparator = pSeparator;
+			return this;
+		}
+
+		/** Sets the quote character. Defaults to '"'.
+		 * @param pQuoteChar The quote character.
+		 * @return This builder.
+		 */
+		public Builder quoteChar(char pQuoteChar) {
+			quoteChar = pQuoteChar;
+			return this;
+		}
+
+		/** Sets the files character set. Defaults to UTF-8.
+		 * @param pCharset The files character set, which must be ASCII compatible.
+		 * @return This builder.
+		 */
+		public Builder charset(@NonNull Charset pCharset) {
+			charset = Objects.requireNonNull(pCharset, "Charset");
+			return this;
+		}
+
+		/** Sets the minimum size of a chunk. A chunk ends with the first
+		 * record terminator after the minimum size. Defaults to
+		 * {@link ParallelCsvReader#DEFAULT_CHUNK_SIZE}.
+		 * @param pChunkSize The minimum chunk size in bytes.
+		 * @return This builder.
+		 */
+		public Builder chunkSize(int pChunkSize) {
+			if (pChunkSize <= 0) {
+				throw new IllegalArgumentException("The chunk size must be positive.");
+			}
+			chunkSize = pChunkSize;
+			return this;
+		}
+
+		/** Sets the pool, which is used for parsing the chunks. Defaults
+		 * to the {@link ForkJoinPool#commonPool() common pool}.
+		 * @param pPool The pool, which is used for parsing the chunks.
+		 * @return This builder.
+		 */
+		public Builder pool(@NonNull ForkJoinPool pPool) {
+			pool = Objects.requireNonNull(pPool, "Pool");
+			return this;
+		}
+
+		/** Sets, whether rows are delivered in file order. Defaults to true.
+		 * @param pOrdered True, if rows are delivered in file order, and by
+		 *   the calling thread. False, if rows are delivered as soon as they
+		 *   are parsed, and by the pools worker threads.
+		 * @return This builder.
+		 */
+		public Builder ordered(boolean pOrdered) {
+			ordered = pOrdered;
+			return this;
+		}
+
+		/** Sets the maximum number of chunks, which are being parsed, or
+		 * buffered, at the same time. Defaults to twice the pools parallelism.
+		 * @param pMaxChunks The maximum number of chunks in flight.
+		 * @return This builder.
+		 */
+		public Builder maxChunksInFlight(int pMaxChunks) {
+			if (pMaxChunks <= 0) {
+				throw new IllegalArgumentException("The maximum number of chunks must be positive.");
+			}
+			maxChunksInFlight = pMaxChunks;
+			return this;
+		}
+
+		/** Creates a new reader with the builders configuration.
+		 * @return The created reader.
+		 * @throws IllegalArgumentException The configuration is invalid.
+		 */
+		public ParallelCsvReader build() {
+			if (columnSeparator == quoteChar) {
+				throw new IllegalArgumentException("The column separator, and the quote character, must be different.");
+			}
+			if ("\r\n".indexOf(columnSeparator) != -1  ||  "\r\n".indexOf(quoteChar) != -1) {
+				throw new IllegalArgumentException("Line terminators are not supported as column separator,"
+						+ " or quote character.");
+			}
+			final String s = "\r\n" + columnSeparator + quoteChar;
+			final byte[] bytes = s.getBytes(charset);
+			boolean asciiCompatible = bytes.length == s.length();
+			for (int i = 0;  asciiCompatible  &&  i < bytes.length;  i++) {
+				asciiCompatible = bytes[i] == s.charAt(i);
+			}
+			if (!asciiCompatible) {
+				throw new IllegalArgumentException("Line terminators, column separator, and quote character"
+						+ " must be single ASCII bytes in character set " + charset.name());
+			}
+			final ForkJoinPool fjPool = pool == null ? ForkJoinPool.commonPool() : pool;
+			final int maxChunks = maxChunksInFlight == 0 ? 2*fjPool.getParallelism() : maxChunksInFlight;
+			return new ParallelCsvReader(columnSeparator, quoteChar, charset, chunkSize, fjPool,
+					                     ordered, maxChunks);
+		}
+	}
+
+	/** Implementation of {@link CsvRow}, which is backed by an array.
+	 */
+	private static class ArrayRow implements CsvRow {
+		private final String[] headers;
+		private String[] row;
+		private Map<String,String> map;
+
+		ArrayRow(String[] pHeaders) {
+			headers = pHeaders;
+		}
+
+		void setRow(String[] pRow) {
+			row = pRow;
+			map = null;
+		}
+
+		@Override
+		public String[] getHeaderArray() {
+			return headers;
+		}
+
+		@Override
+		public String[] getRowAsArray() {
+			return row;
+		}
+
+		@Override
+		public Map<String, String> getRowAsMap() {
+			if (map == null) {
+				if (headers.length < row.length) {
+					throw new CsvParseException("Row contains " + row.length
+							+ " columns, but header row has only " + headers.length + " columns");
+				}
+				map = new HashMap<>();
+				for (int i = 0;  i < headers.length;  i++) {
+					map.put(headers[i], i < row.length ? row[i] : null);
+				}
+			}
+			return map;
+		}
+	}
+
+	private final char columnSeparator;
+	private final char quoteChar;
+	private final @NonNull Charset charset;
+	private final int chunkSize;
+	private final @NonNull ForkJoinPool pool;
+	private final boolean ordered;
+	private final int maxChunksInFlight;
+
+	/** Creates a new instance. Applications should use the {@link #builder()}.
+	 * @param pColumnSeparator The column separator.
+	 * @param pQuoteChar The quote character.
+	 * @param pCharset The files character set.
+	 * @param pChunkSize The minimum chunk size.
+	 * @param pPool The pool, which is used for parsing the chunks.
+	 * @param pOrdered Whether rows are delivered in file order.
+	 * @param pMaxChunksInFlight The maximum number of chunks in flight.
+	 */
+	protected ParallelCsvReader(char pColumnSeparator, char pQuoteChar, @NonNull Charset pCharset,
+			                    int pChunkSize, @NonNull ForkJoinPool pPool, boolean pOrdered,
+			                    int pMaxChunksInFlight) {
+		columnSeparator = pColumnSeparator;
+		quoteChar = pQuoteChar;
+		charset = pCharset;
+		chunkSize = pChunkSize;
+		pool = pPool;
+		ordered = pOrdered;
+		maxChunksInFlight = pMaxChunksInFlight;
+	}
+
+	/** Creates a new builder.
+	 * @return The created builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/** Returns, whether rows are delivered in file order.
+	 * @return True, if rows are delivered in file order, and by the calling
+	 *   thread. False, if rows are delivered by the pools worker threads.
+	 */
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/** Returns the minimum chunk size.
+	 * @return The minimum chunk size in bytes.
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/** Returns the maximum number of chunks, which are being parsed, or
+	 * buffered, at the same time.
+	 * @return The maximum number of chunks in flight.
+	 */
+	public int getMaxChunksInFlight() {
+		return maxChunksInFlight;
+	}
+
+	/**
+	 * Parses the given CSV file, reporting the rows by invoking the given
+	 * {@code consumer}.
+	 * @param pFile The file, which is being parsed.
+	 * @param pConsumer The consumer, which is being notified. The consumer
+	 *   must not keep a reference to the {@link CsvRow} object. (It may keep
+	 *   references to the row arrays, and maps, though.)
+	 * @see #parse(FileChannel, Consumer)
+	 */
+	public void parse(@NonNull Path pFile, @NonNull Consumer<CsvRow> pConsumer) {
+		try (FileChannel fc = FileChannel.open(pFile, StandardOpenOption.READ)) {
+			parse(fc, pConsumer);
+		} catch (IOException e) {
+			throw Exceptions.show(e);
+		}
+	}
+
+	/**
+	 * Parses a CSV file from the given {@link FileChannel}, reporting the rows
+	 * by invoking the given {@code consumer}. The channels position is ignored,
+	 * and the channel is not closed. The chunks are memory mapped from the
+	 * channel. If the consumer is a {@link FinalizableConsumer}, then it is
+	 * notified after the last row, or about an error. Otherwise, errors are
+	 * thrown.
+	 * @param pChannel The channel, which is being parsed.
+	 * @param pConsumer The consumer, which is being notified. The consumer
+	 *   must not keep a reference to the {@link CsvRow} object. (It may keep
+	 *   references to the row arrays, and maps, though.) If rows are delivered
+	 *   unordered, then the consumer must be thread safe.
+	 */
+	public void parse(@NonNull FileChannel pChannel, @NonNull Consumer<CsvRow> pConsumer) {
+		final FileChannel channel = Objects.requireNonNull(pChannel, "Channel");
+		final Consumer<CsvRow> consumer = Objects.requireNonNull(pConsumer, "Consumer");
+		Throwable th = null;
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		final ArrayDeque<Future<List<String[]>>> futures = new ArrayDeque<>();
+		try {
+			final long size = channel.size();
+			long pos = skipByteOrderMark(channel, size);
+			final long headerEnd = findRecordEnd(channel, size, pos, 0);
+			final String[] headers;
+			try (CsvTokenizer tokenizer = newTokenizer(channel, pos, headerEnd)) {
+				if (!tokenizer.next()) {
+					throw new CsvParseException("Expected header line, but no line was found.");
+				}
+				headers = tokenizer.getRowAsArray();
+			}
+			pos = headerEnd;
+			if (ordered) {
+				final ArrayRow row = new ArrayRow(headers);
+				while (pos < size  ||  !futures.isEmpty()) {
+					while (pos < size  &&  futures.size() < maxChunksInFlight) {
+						final long start = pos;
+						final long end = findRecordEnd(channel, size, start, chunkSize);
+						/* A FutureTask reports the original exception, whereas a ForkJoinTask
+						 * may report a copy.
+						 */
+						final FutureTask<List<String[]>> task = new FutureTask<>(() -> parseChunk(channel, start, end, cancelled));
+						pool.execute(task);
+						futures.add(task);
+						pos = end;
+					}
+					for (String[] values : get(futures.remove())) {
+						row.setRow(values);
+						consumer.accept(row);
+					}
+				}
+			} else {
+				final ExecutorCompletionService<List<String[]>> ecs = new ExecutorCompletionService<>(pool::execute);
+				while (pos < size  ||  !futures.isEmpty()) {
+					while (pos < size  &&  futures.size() < maxChunksInFlight) {
+						final long start = pos;
+						final long end = findRecordEnd(channel, size, start, chunkSize);
+						futures.add(ecs.submit(() -> consumeChunk(channel, start, end, headers,
+								                                  consumer, cancelled)));
+						pos = end;
+					}
+					final Future<List<String[]>> future = ecs.take();
+					futures.remove(future);
+					get(future);
+				}
+			}
+		} catch (Throwable t) {
+			th = t;
+			/* Cancelling the futures wouldn't stop running tasks. Instead, the
+			 * tasks check this flag, so we can wait for them to finish quickly.
+			 */
+			cancelled.set(true);
+			awaitAll(futures);
+		}
+		if (consumer instanceof FinalizableConsumer) {
+			final FinalizableConsumer<CsvRow> fc = (FinalizableConsumer<CsvRow>) consumer;
+			if (th == null) {
+				fc.finished();
+			} else {
+				fc.error(th);
+			}
+		} else if (th != null) {
+			throw Exceptions.show(th);
+		}
+	}
+
+	private static <T> T get(Future<T> pFuture) throws Throwable {
+		try {
+			return pFuture.get();
+		} catch (ExecutionException e) {
+			throw e.getCause() == null ? e : e.getCause();
+		}
+	}
+
+	/** Waits for the given futures, ignoring their results. Only the first
+	 * error is reported.
+	 */
+	private static void awaitAll(Collection<Future<List<String[]>>> pFutures) {
+		boolean interrupted = false;
+		for (Future<List<String[]>> future : pFutures) {
+			for (;;) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException|CancellationException e) {
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/** Parses the given chunk into a list of rows.
+	 */
+	private List<String[]> parseChunk(FileChannel pChannel, long pStart, long pEnd, AtomicBoolean pCancelled) {
+		final List<String[]> rows = new ArrayList<>();
+		if (pCancelled.get()) {
+			return rows;
+		}
+		try (CsvTokenizer tokenizer = newTokenizer(pChannel, pStart, pEnd)) {
+			while (!pCancelled.get()  &&  next(tokenizer, pStart)) {
+				rows.add(tokenizer.getRowAsArray());
+			}
+		}
+		return rows;
+	}
+
+	/** Parses the given chunk, passing the rows to the consumer.
+	 */
+	private List<String[]> consumeChunk(FileChannel pChannel, long pStart, long pEnd, String[] pHeaders,
+			                            Consumer<CsvRow> pConsumer, AtomicBoolean pCancelled) {
+		if (pCancelled.get()) {
+			return null;
+		}
+		final ArrayRow row = new ArrayRow(pHeaders);
+		try (CsvTokenizer tokenizer = newTokenizer(pChannel, pStart, pEnd)) {
+			while (!pCancelled.get()  &&  next(tokenizer, pStart)) {
+				row.setRow(tokenizer.getRowAsArray());
+				pConsumer.accept(row);
+			}
+		}
+		return null;
+	}
+
+	/** Advances the given chunks tokenizer to the next row. The tokenizer
+	 * counts rows from the start of the chunk, so error messages are
+	 * extended by the chunks byte offset.
+	 */
+	private static boolean next(CsvTokenizer pTokenizer, long pStart) {
+		try {
+			return pTokenizer.next();
+		} catch (CsvParseException e) {
+			throw new CsvParseException(e.getMessage() + " of the chunk at byte offset " + pStart);
+		}
+	}
+
+	/** Creates a tokenizer, which reads the given byte range.
+	 */
+	private CsvTokenizer newTokenizer(FileChannel pChannel, long pStart, long pEnd) {
+		final long length = pEnd - pStart;
+		if (length > Integer.MAX_VALUE) {
+			throw new CsvParseException("Record at offset " + pStart + " is too large: " + length + " bytes");
+		}
+		final CharBuffer cb;
+		try {
+			cb = charset.decode(pChannel.map(FileChannel.MapMode.READ_ONLY, pStart, length));
+		} catch (IOException e) {
+			throw Exceptions.show(e);
+		}
+		final int bufferSize = Math.max(1, Math.min(cb.remaining(), CsvTokenizer.DEFAULT_BUFFER_SIZE));
+		return new CsvTokenizer(new CharArrayReader(cb.array(), cb.arrayOffset()+cb.position(), cb.remaining()),
+				                columnSeparator, quoteChar, bufferSize);
+	}
+
+	/** Returns the offset of the first record, skipping a byte order mark, if any.
+	 */
+	private long skipByteOrderMark(FileChannel pChannel, long pSize) throws IOException {
+		if (StandardCharsets.UTF_8.equals(charset)  &&  pSize >= 3) {
+			final MappedByteBuffer mbb = pChannel.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+			if (mbb.get(0) == (byte) 0xef  &&  mbb.get(1) == (byte) 0xbb  &&  mbb.get(2) == (byte) 0xbf) {
+				return 3;
+			}
+		}
+		return 0;
+	}
+
+	/** Scans the file for the end of a chunk: The first record terminator,
+	 * which is outside of a quoted value, and at, or after, the given
+	 * minimum length.
+	 * @param pChannel The channel, which is being scanned.
+	 * @param pSize The files size.
+	 * @param pStart The chunks start offset, which is also the start of a record.
+	 * @param pMinLength The chunks minimum length.
+	 * @return The chunks end offset (exclusive), which is also the start of the
+	 *   next record, or the file size.
+	 * @throws IOException Mapping the file failed.
+	 */
+	protected long findRecordEnd(FileChannel pChannel, long pSize, long pStart, long pMinLength)
+			throws IOException {
+		final byte quote = (byte) quoteChar;
+		final long minEnd = pStart + pMinLength;
+		boolean quoted = false;
+		long pos = pStart;
+		while (pos < pSize) {
+			// Map one byte more than we scan, so that "\r\n" can be detected at the end of the window.
+			final int len = (int) Math.min(pSize-pos, SCAN_WINDOW+1L);
+			final MappedByteBuffer mbb = pChannel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+			final int n = Math.min(len, SCAN_WINDOW);
+			for (int i = 0;  i < n;  i++) {
+				final byte b = mbb.get(i);
+				if (b == quote) {
+					quoted = !quoted;
+				} else if (!quoted  &&  (b == '\n'  ||  (b == '\r'  &&  (i+1 == len  ||  mbb.get(i+1) != '\n')))) {
+					final long end = pos + i + 1;
+					if (end >= minEnd) {
+						return end;
+					}
+				}
+			}
+			pos += n;
+		}
+		return pSize;
+	}
+}
@@ -16,7 +16,15 @@
 /**
  * This package provides utility classes for working with CSV files.
  * To read a CSV file, create a {@link java.util.function.Consumer Consumer&lt;CsvReader.CsvRow&gt;}, and
- * use the {@link com.github.jochenw.afw.core.csv.CsvReader}.
+ * use the {@link com.github.jochenw.afw.core.csv.CsvReader}. For large files,
+ * the {@link com.github.jochenw.afw.core.csv.CsvTokenizer} provides access to
+ * the cell values without creating objects per row, and the
+ * {@link com.github.jochenw.afw.core.csv.ParallelCsvReader} parses large
+ * files on multiple threads. A {@link com.github.jochenw.afw.core.csv.CsvBinding}
+ * maps rows to typed objects, and back, without creating maps per row.
+ * To keep large files in memory, load them into a
+ * {@link com.github.jochenw.afw.core.csv.CsvTable}, which stores the
+ * data by column.
  * On the other hand, to write a CSV file, use the
  * {@link com.github.jochenw.afw.core.csv.CsvWriter}.
  */
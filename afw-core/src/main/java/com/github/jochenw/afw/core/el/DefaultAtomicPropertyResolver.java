@@ -15,10 +15,17 @@
  */
 package com.github.jochenw.afw.core.el;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.github.jochenw.afw.core.rflct.IGetter;
 import com.github.jochenw.afw.core.util.Exceptions;
 import com.github.jochenw.afw.core.util.Reflection;
 
@@ -32,8 +39,31 @@ import com.github.jochenw.afw.core.util.Reflection;
  * Note, that this property resolver is only suitable for
  * simple properties (like "foo", or "bar", in objects of depth 1) not for complex
  * properties like "foo.bar" in nested objects.
+ *
+ * Getters are looked up only once per class, and property. The result
+ * of the lookup (including the information, that no getter exists) is
+ * cached as an {@link IGetter accessor}, which invokes the getter
+ * through a {@link MethodHandle}. The cache is attached to the class
+ * by using a {@link ClassValue}, so it doesn't prevent unloading
+ * of the class.
  */
 public class DefaultAtomicPropertyResolver extends PropertyResolver {
+	/** Maximum number of cached accessors per class. Protects against
+	 * unbounded growth, if arbitrary property names are being queried.
+	 */
+	private static final int MAX_ACCESSORS_PER_CLASS = 1024;
+	/** Accessor, which is cached for properties without getter.
+	 */
+	private static final IGetter<Object,Object> NO_GETTER = (o) -> null;
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final ClassValue<ConcurrentMap<String,IGetter<Object,Object>>> ACCESSORS
+		= new ClassValue<ConcurrentMap<String,IGetter<Object,Object>>>() {
+			@Override
+			protected ConcurrentMap<String, IGetter<Object, Object>> computeValue(Class<?> pType) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+
 	/** Creates a new instance.
 	 */
 	public DefaultAtomicPropertyResolver() {}
@@ -47,16 +77,70 @@ public class DefaultAtomicPropertyResolver extends PropertyResolver {
 			final Map<Object,Object> map = (Map<Object,Object>) pObject;
 			return map.get(pProperty);
 		} else {
-			final Method getter = Reflection.getPublicGetter(pObject.getClass(), pProperty);
-			if (getter == null) {
-				return null;
-			} else {
+			return getAccessor(pObject.getClass(), pProperty).get(pObject);
+		}
+	}
+
+	/** Returns the accessor for the given property in the given class.
+	 * @param pType The class, which is being queried for the property.
+	 * @param pProperty The property name.
+	 * @return An accessor, which reads the property value. If no public
+	 *   getter exists, the accessor returns null.
+	 */
+	protected IGetter<Object,Object> getAccessor(Class<?> pType, String pProperty) {
+		final ConcurrentMap<String,IGetter<Object,Object>> accessors = ACCESSORS.get(pType);
+		final IGetter<Object,Object> accessor = accessors.get(pProperty);
+		if (accessor != null) {
+			return accessor;
+		}
+		final IGetter<Object,Object> newAccessor = newAccessor(pType, pProperty);
+		if (accessors.size() < MAX_ACCESSORS_PER_CLASS) {
+			final IGetter<Object,Object> existingAccessor = accessors.putIfAbsent(pProperty, newAccessor);
+			if (existingAccessor != null) {
+				return existingAccessor;
+			}
+		}
+		return newAccessor;
+	}
+
+	/** Creates a new accessor for the given property in the given class.
+	 * @param pType The class, which is being queried for the property.
+	 * @param pProperty The property name.
+	 * @return An accessor, which reads the property value. If no public
+	 *   getter exists, the accessor returns null.
+	 */
+	protected IGetter<Object,Object> newAccessor(Class<?> pType, String pProperty) {
+		final Method getter = Reflection.getPublicGetter(pType, pProperty);
+		if (getter == null) {
+			return NO_GETTER;
+		}
+		MethodHandle mh;
+		try {
+			mh = MethodHandles.publicLookup().unreflect(getter).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			// The getter is declared by a non-public class. Use reflection,
+			// and unwrap the getters exception, like the method handle does.
+			mh = null;
+		}
+		if (mh == null) {
+			return (o) -> {
+				try {
+					return getter.invoke(o);
+				} catch (InvocationTargetException e) {
+					throw Exceptions.show(Objects.requireNonNull(e.getCause()));
+				} catch (Throwable t) {
+					throw Exceptions.show(t);
+				}
+			};
+		} else {
+			final MethodHandle methodHandle = mh;
+			return (o) -> {
 				try {
-					return getter.invoke(pObject);
+					return (Object) methodHandle.invokeExact(o);
 				} catch (Throwable t) {
 					throw Exceptions.show(t);
 				}
-			}
+			};
 		}
 	}
 }
@@ -15,15 +15,39 @@
  */
 package com.github.jochenw.afw.core.el;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Default implementation of {@link PropertyResolver}, which supports
  * access to complex properties like "foo.bar" in nested objects,
  * using a so-called atomic property resolver.
+ *
+ * Complex properties are split into their parts only once, and the
+ * result is cached. Together with the {@link DefaultAtomicPropertyResolver
+ * accessor cache}, this means, that resolving a property doesn't
+ * create any garbage, after the first invocation.
  */
 public class DefaultPropertyResolver extends PropertyResolver {
+	/** Maximum number of cached property paths.
+	 */
+	private static final int MAX_PATHS = 4096;
+	/** A complex property, which has been split into its parts.
+	 */
+	private static class Path {
+		private final String[] parts;
+		private final boolean trailingDot;
+		Path(String[] pParts, boolean pTrailingDot) {
+			parts = pParts;
+			trailingDot = pTrailingDot;
+		}
+	}
+
 	private final PropertyResolver atomicPropertyResolver;
+	private final ConcurrentMap<String,Path> paths = new ConcurrentHashMap<>();
 
 	/**
 	 * Creates a new instance with the default atomic property
@@ -50,28 +74,60 @@ public class DefaultPropertyResolver extends PropertyResolver {
 		if (o != null) {
 			return o;
 		}
+		final Path path = getPath(pProperty);
+		final String[] parts = path.parts;
+		if (parts == null) {
+			// Simple property: We have already tried that.
+			return null;
+		}
 		Object object = pObject;
-		String property = pProperty;
-		String context = "";
-		for (;;) {
-			int offset = property.indexOf('.');
-			if (offset == -1) {
-				return atomicPropertyResolver.getValue(object, property);
-			} else {
-				final String topMostProperty = property.substring(0, offset);
-				final String secondaryProperty = property.substring(offset+1);
-				if (context.length() == 0) {
-					context = topMostProperty;
-				} else {
-					context = context + "." + topMostProperty;
-				}
-				object = atomicPropertyResolver.requireValue(object, topMostProperty);
-				if (secondaryProperty.length() == 0) {
-					return object;
-				} else {
-					property = secondaryProperty;
-				}
+		final int last = parts.length-1;
+		for (int i = 0;  i < last;  i++) {
+			object = atomicPropertyResolver.requireValue(object, parts[i]);
+		}
+		if (path.trailingDot) {
+			return atomicPropertyResolver.requireValue(object, parts[last]);
+		} else {
+			return atomicPropertyResolver.getValue(object, parts[last]);
+		}
+	}
+
+	private Path getPath(String pProperty) {
+		final Path path = paths.get(pProperty);
+		if (path != null) {
+			return path;
+		}
+		final Path newPath = newPath(pProperty);
+		if (paths.size() < MAX_PATHS) {
+			final Path existingPath = paths.putIfAbsent(pProperty, newPath);
+			if (existingPath != null) {
+				return existingPath;
 			}
 		}
+		return newPath;
+	}
+
+	/** Splits the given property into its parts. A simple property
+	 * (without dots) is represented by a null array. A trailing dot
+	 * (as in "foo.bar.") means, that the last part is required,
+	 * and returned.
+	 */
+	private static Path newPath(String pProperty) {
+		int offset = pProperty.indexOf('.');
+		if (offset == -1) {
+			return new Path(null, false);
+		}
+		final List<String> parts = new ArrayList<>();
+		int start = 0;
+		while (offset != -1) {
+			parts.add(pProperty.substring(start, offset));
+			start = offset+1;
+			offset = pProperty.indexOf('.', start);
+		}
+		final boolean trailingDot = start == pProperty.length();
+		if (!trailingDot) {
+			parts.add(pProperty.substring(start));
+		}
+		return new Path(parts.toArray(new String[parts.size()]), trailingDot);
 	}
 }
@@ -0,0 +1,937 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.el;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.github.jochenw.afw.core.el.tree.AddExpression;
+import com.github.jochenw.afw.core.el.tree.AndExpression;
+import com.github.jochenw.afw.core.el.tree.ElExpression;
+import com.github.jochenw.afw.core.el.tree.EqualityExpression;
+import com.github.jochenw.afw.core.el.tree.MultiplyExpression;
+import com.github.jochenw.afw.core.el.tree.OrExpression;
+import com.github.jochenw.afw.core.el.tree.RelationalExpression;
+import com.github.jochenw.afw.core.el.tree.UnaryExpression;
+import com.github.jochenw.afw.core.el.tree.ValueExpression;
+import com.github.jochenw.afw.core.el.tree.VariableReferenceExpression;
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/** An alternative to the {@link ElEvaluator}, which is suitable for
+ * expressions, that are evaluated repeatedly: The compiler converts a
+ * parsed EL expression into a tree of specialized nodes once. Evaluating
+ * the compiled expression doesn't need to inspect the parse tree again.
+ * Operations with operands of a known type (for example, comparing the
+ * result of an arithmetic operation with an integer literal) are using
+ * primitive values, rather than boxed objects, and subexpressions, which
+ * consist of literals only, are evaluated at compile time.
+ *
+ * Compiled expressions may be evaluated by multiple threads concurrently,
+ * with different models. The results are the same as those of the
+ * {@link ElEvaluator}. Optionally, compiled expressions are specialized,
+ * based on the types of the values, which they observe. See
+ * {@link #isTypeFeedback()}. Example:
+ * <pre>
+ *   final ElCompiler compiler = new ElCompiler(new DefaultPropertyResolver());
+ *   final ElCompiler.CompiledExpression expr = compiler.compile(new ElReader().parse("num &gt; 4"));
+ *   final Object result = expr.evaluate(model);
+ * </pre>
+ */
+public class ElCompiler {
+	/** A compiled EL expression.
+	 */
+	public interface CompiledExpression {
+		/** Evaluates the expression, applying the given model.
+		 * @param pModel The data model, which is being applied.
+		 * @return The evaluated expressions result.
+		 */
+		Object evaluate(Object pModel);
+		/** Evaluates the expression, applying the given model, and the
+		 * given placeholder values.
+		 * @param pModel The data model, which is being applied.
+		 * @param pParameters The values, which are being inserted for placeholders.
+		 * @return The evaluated expressions result.
+		 */
+		Object evaluate(Object pModel, Object... pParameters);
+		/** Evaluates the expression, applying the given model, and the
+		 * given placeholder values.
+		 * @param pModel The data model, which is being applied.
+		 * @param pParameters The values, which are being inserted for placeholders.
+		 * @return The evaluated expressions result.
+		 */
+		Object evaluate(Object pModel, List<Object> pParameters);
+		/** Returns the parsed expression, which has been compiled.
+		 * @return The parsed expression, which has been compiled.
+		 */
+		@NonNull ElExpression getExpression();
+	}
+
+	/** The static type of a nodes result. A node with type {@link #BOOLEAN},
+	 * {@link #LONG}, or {@link #DOUBLE} never returns null, so that its
+	 * result may be obtained as a primitive value.
+	 */
+	private enum Type {
+		NULL, BOOLEAN, LONG, DOUBLE, STRING, OBJECT
+	}
+
+	private abstract static class Node {
+		final @NonNull Type type;
+
+		Node(@NonNull Type pType) {
+			type = pType;
+		}
+
+		abstract Object eval(Object pModel, List<Object> pParameters);
+
+		boolean evalBoolean(Object pModel, List<Object> pParameters) {
+			return ((Boolean) eval(pModel, pParameters)).booleanValue();
+		}
+
+		long evalLong(Object pModel, List<Object> pParameters) {
+			return ((Long) eval(pModel, pParameters)).longValue();
+		}
+
+		double evalDouble(Object pModel, List<Object> pParameters) {
+			return ((Double) eval(pModel, pParameters)).doubleValue();
+		}
+
+		boolean isConstant() {
+			return false;
+		}
+	}
+
+	private abstract static class BooleanNode extends Node {
+		BooleanNode() {
+			super(Type.BOOLEAN);
+		}
+
+		@Override
+		Object eval(Object pModel, List<Object> pParameters) {
+			return Boolean.valueOf(evalBoolean(pModel, pParameters));
+		}
+
+		@Override
+		abstract boolean evalBoolean(Object pModel, List<Object> pParameters);
+	}
+
+	private abstract static class LongNode extends Node {
+		LongNode() {
+			super(Type.LONG);
+		}
+
+		@Override
+		Object eval(Object pModel, List<Object> pParameters) {
+			return Long.valueOf(evalLong(pModel, pParameters));
+		}
+
+		@Override
+		abstract long evalLong(Object pModel, List<Object> pParameters);
+	}
+
+	private abstract static class DoubleNode extends Node {
+		DoubleNode() {
+			super(Type.DOUBLE);
+		}
+
+		@Override
+		Object eval(Object pModel, List<Object> pParameters) {
+			return Double.valueOf(evalDouble(pModel, pParameters));
+		}
+
+		@Override
+		abstract double evalDouble(Object pModel, List<Object> pParameters);
+	}
+
+	private static class Constant extends Node {
+		private final Object value;
+
+		Constant(Object pValue) {
+			super(typeOf(pValue));
+			value = pValue;
+		}
+
+		@Override
+		Object eval(Object pModel, List<Object> pParameters) {
+			return value;
+		}
+
+		@Override
+		boolean isConstant() {
+			return true;
+		}
+	}
+
+	private static Type typeOf(Object pValue) {
+		if (pValue == null) {
+			return Type.NULL;
+		} else if (pValue instanceof Boolean) {
+			return Type.BOOLEAN;
+		} else if (pValue instanceof Long) {
+			return Type.LONG;
+		} else if (pValue instanceof Double) {
+			return Type.DOUBLE;
+		} else if (pValue instanceof String) {
+			return Type.STRING;
+		} else {
+			return Type.OBJECT;
+		}
+	}
+
+	/** A variable reference, which records the types of the values,
+	 * that it returns. Used in {@link ElCompiler#isTypeFeedback() type
+	 * feedback mode}.
+	 */
+	private class ProfilingNode extends Node {
+		private final String property;
+		/** The type of all values, that have been observed, or
+		 * {@link Type#OBJECT}, if different types have been observed.
+		 * Updates may be lost, if multiple threads are evaluating
+		 * the expression. That doesn't matter, because speculation
+		 * failures are detected anyways.
+		 */
+		private volatile Type observedType;
+
+		ProfilingNode(String pProperty) {
+			super(Type.OBJECT);
+			property = pProperty;
+		}
+
+		@Override
+		Object eval(Object pModel, List<Object> pParameters) {
+			final Object value = ElOperations.canonify(resolver.getValue(pModel, property));
+			final Type type = typeOf(value);
+			final Type observed = observedType;
+			if (observed != type  &&  observed != Type.OBJECT) {
+				observedType = observed == null ? type : Type.OBJECT;
+			}
+			return value;
+		}
+	}
+
+	/** Thrown by a specialized node, if a value doesn't have the expected
+	 * type. Preallocated, and without stack trace, because it is used for
+	 * control flow only.
+	 */
+	private static class SpeculationFailure extends RuntimeException {
+		private static final long serialVersionUID = -3260447127291312457L;
+		private static final SpeculationFailure INSTANCE = new SpeculationFailure();
+
+		private SpeculationFailure() {
+			super(null, null, false, false);
+		}
+	}
+
+	/** Base class for compiled expressions.
+	 */
+	private abstract static class AbstractCompiledExpression implements CompiledExpression {
+		private final @NonNull ElExpression expression;
+
+		AbstractCompiledExpression(@NonNull ElExpression pExpression) {
+			expression = pExpression;
+		}
+
+		abstract Object eval(Object pModel, List<Object> pParameters);
+
+		@Override
+		public Object evaluate(Object pModel) {
+			return eval(pModel, NO_PARAMETERS);
+		}
+
+		@Override
+		public Object evaluate(Object pModel, Object... pParameters) {
+			if (pParameters == null) {
+				return eval(pModel, NO_PARAMETERS);
+			} else {
+				return eval(pModel, Arrays.asList(pParameters));
+			}
+		}
+
+		@Override
+		public Object evaluate(Object pModel, List<Object> pParameters) {
+			if (pParameters == null) {
+				return eval(pModel, NO_PARAMETERS);
+			} else {
+				return eval(pModel, pParameters);
+			}
+		}
+
+		@Override
+		public @NonNull ElExpression getExpression() {
+			return expression;
+		}
+	}
+
+	/** A compiled expression in {@link ElCompiler#isTypeFeedback() type
+	 * feedback mode}: Initially, the types of the values of variable
+	 * references are recorded. After {@link #WARMUP} evaluations, the
+	 * expression is compiled again, assuming, that the variable references
+	 * will always return values of the recorded types. If that assumption
+	 * fails, then the expression is evaluated by the generic node tree, and
+	 * the specialized tree is discarded.
+	 * The expression may be evaluated by multiple threads concurrently:
+	 * The evaluations are counted atomically, so that exactly one thread
+	 * performs the specialization.
+	 */
+	private class FeedbackExpression extends AbstractCompiledExpression {
+		private final Map<VariableReferenceExpression,ProfilingNode> profiles = new IdentityHashMap<>();
+		private final Node profilingRoot;
+		private final Node genericRoot;
+		private volatile Node root;
+		private final AtomicInteger evaluations = new AtomicInteger();
+
+		FeedbackExpression(@NonNull ElExpression pExpression) {
+			super(pExpression);
+			profilingRoot = new ElCompiler(resolver, profiles, null).compileExpression(pExpression);
+			genericRoot = compileExpression(pExpression);
+			root = profiles.isEmpty() ? genericRoot : profilingRoot;
+		}
+
+		@Override
+		Object eval(Object pModel, List<Object> pParameters) {
+			final Node node = root;
+			if (node == profilingRoot) {
+				final Object result = node.eval(pModel, pParameters);
+				if (evaluations.incrementAndGet() == WARMUP) {
+					root = specialize();
+				}
+				return result;
+			} else {
+				try {
+					return node.eval(pModel, pParameters);
+				} catch (SpeculationFailure e) {
+					root = genericRoot;
+					return genericRoot.eval(pModel, pParameters);
+				}
+			}
+		}
+
+		private Node specialize() {
+			final Map<VariableReferenceExpression,Type> speculations = new IdentityHashMap<>();
+			profiles.forEach((vre, profile) -> {
+				final Type type = profile.observedType;
+				if (type == Type.BOOLEAN  ||  type == Type.LONG  ||  type == Type.DOUBLE) {
+					speculations.put(vre, type);
+				}
+			});
+			if (speculations.isEmpty()) {
+				return genericRoot;
+			}
+			return new ElCompiler(resolver, null, speculations).compileExpression(getExpression());
+		}
+	}
+
+	/** Number of evaluations in {@link #isTypeFeedback() type feedback mode},
+	 * before an expression is specialized.
+	 */
+	private static final int WARMUP = 64;
+	private static final List<Object> NO_PARAMETERS = Collections.emptyList();
+	private final @NonNull PropertyResolver resolver;
+	private final boolean typeFeedback;
+	/** Non-null, while compiling the profiling node tree in type feedback mode.
+	 */
+	private final @Nullable Map<VariableReferenceExpression,ProfilingNode> profiles;
+	/** Non-null, while compiling the specialized node tree in type feedback mode.
+	 */
+	private final @Nullable Map<VariableReferenceExpression,Type> speculations;
+
+	/** Creates a new instance with the given property resolver.
+	 * @param pResolver The property resolver, which is being used
+	 *   to evaluate properties in the model.
+	 */
+	public ElCompiler(@NonNull PropertyResolver pResolver) {
+		this(pResolver, false);
+	}
+
+	/** Creates a new instance with the given property resolver.
+	 * @param pResolver The property resolver, which is being used
+	 *   to evaluate properties in the model.
+	 * @param pTypeFeedback True, if compiled expressions should record the
+	 *   types of the values of variable references, and switch to a
+	 *   specialized node tree, that uses primitive values, based on
+	 *   these observations.
+	 * @see #isTypeFeedback()
+	 */
+	public ElCompiler(@NonNull PropertyResolver pResolver, boolean pTypeFeedback) {
+		resolver = Objects.requireNonNull(pResolver, "Resolver");
+		typeFeedback = pTypeFeedback;
+		profiles = null;
+		speculations = null;
+	}
+
+	private ElCompiler(@NonNull PropertyResolver pResolver,
+			           @Nullable Map<VariableReferenceExpression,ProfilingNode> pProfiles,
+			           @Nullable Map<VariableReferenceExpression,Type> pSpeculations) {
+		resolver = pResolver;
+		typeFeedback = false;
+		profiles = pProfiles;
+		speculations = pSpeculations;
+	}
+
+	/** Returns, whether compiled expressions are using type feedback:
+	 * The types of the values of variable references (for example, "num"
+	 * in "num &gt; 4") are unknown at compile time. In type feedback mode,
+	 * a compiled expression records the types, which it observes during
+	 * the first evaluations. If a variable reference always returned an
+	 * integer, for example, then the expression is compiled again, assuming
+	 * an integer value. The operations, which use the value, can then be
+	 * performed on primitive values.
+	 *
+	 * If the assumption fails later on, then the expression falls back
+	 * to the generic evaluation. In that case, the failing evaluation
+	 * is repeated, so property getters may be invoked twice.
+	 * @return True, if compiled expressions are using type feedback.
+	 */
+	public boolean isTypeFeedback() {
+		return typeFeedback;
+	}
+
+	/** Compiles the given EL expression.
+	 * @param pExpression The parsed EL expression, which is being compiled.
+	 * @return The compiled expression.
+	 */
+	public @NonNull CompiledExpression compile(@NonNull ElExpression pExpression) {
+		final @NonNull ElExpression expression = Objects.requireNonNull(pExpression, "Expression");
+		if (typeFeedback) {
+			return new FeedbackExpression(expression);
+		}
+		final Node root = compileExpression(expression);
+		return new AbstractCompiledExpression(expression) {
+			@Override
+			Object eval(Object pModel, List<Object> pParameters) {
+				return root.eval(pModel, pParameters);
+			}
+		};
+	}
+
+	/** If all the given child nodes are constant, then evaluates the given
+	 * node at compile time, and returns the result as a constant.
+	 * Otherwise, returns the node. Errors are deferred to the evaluation.
+	 */
+	private Node fold(Node pNode, Node... pChildren) {
+		for (Node child : pChildren) {
+			if (!child.isConstant()) {
+				return pNode;
+			}
+		}
+		try {
+			return new Constant(pNode.eval(null, NO_PARAMETERS));
+		} catch (RuntimeException e) {
+			return pNode;
+		}
+	}
+
+	private static boolean allOfType(Type pType, Node... pNodes) {
+		for (Node node : pNodes) {
+			if (node.type != pType) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Node compileExpression(ElExpression pExpression) {
+		return compileOr(pExpression.getOrExpression());
+	}
+
+	private Node compileOr(OrExpression pExpression) {
+		final List<AndExpression> expressions = pExpression.getAndExpressions();
+		final Node[] nodes = new Node[expressions.size()];
+		for (int i = 0;  i < nodes.length;  i++) {
+			nodes[i] = compileAnd(expressions.get(i));
+		}
+		if (nodes.length == 1) {
+			return nodes[0];
+		}
+		final Node node;
+		if (allOfType(Type.BOOLEAN, nodes)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					for (Node n : nodes) {
+						if (n.evalBoolean(pModel, pParameters)) {
+							return true;
+						}
+					}
+					return false;
+				}
+			};
+		} else {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					for (Node n : nodes) {
+						if (ElOperations.toBoolean("OR", n.eval(pModel, pParameters))) {
+							return true;
+						}
+					}
+					return false;
+				}
+			};
+		}
+		return fold(node, nodes);
+	}
+
+	private Node compileAnd(AndExpression pExpression) {
+		final List<EqualityExpression> expressions = pExpression.getEqualityExpressions();
+		final Node[] nodes = new Node[expressions.size()];
+		for (int i = 0;  i < nodes.length;  i++) {
+			nodes[i] = compileEquality(expressions.get(i));
+		}
+		if (nodes.length == 1) {
+			return nodes[0];
+		}
+		final Node node;
+		if (allOfType(Type.BOOLEAN, nodes)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					for (Node n : nodes) {
+						if (!n.evalBoolean(pModel, pParameters)) {
+							return false;
+						}
+					}
+					return true;
+				}
+			};
+		} else {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					for (Node n : nodes) {
+						if (!ElOperations.toBoolean("AND", n.eval(pModel, pParameters))) {
+							return false;
+						}
+					}
+					return true;
+				}
+			};
+		}
+		return fold(node, nodes);
+	}
+
+	private Node compileEquality(EqualityExpression pExpression) {
+		final Node left = compileRelational(pExpression.getLeft());
+		final EqualityExpression.Op op = pExpression.getOp();
+		if (op == null) {
+			return left;
+		}
+		final Node right = compileRelational(pExpression.getRight());
+		final boolean eq;
+		switch (op) {
+		case EQ:
+			eq = true;
+			break;
+		case NE:
+			eq = false;
+			break;
+		default:
+			throw new IllegalStateException("Invalid equality operation: " + op);
+		}
+		final Node node;
+		if (allOfType(Type.LONG, left, right)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final long l = left.evalLong(pModel, pParameters);
+					final long r = right.evalLong(pModel, pParameters);
+					return (l == r) == eq;
+				}
+			};
+		} else if (allOfType(Type.DOUBLE, left, right)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final double l = left.evalDouble(pModel, pParameters);
+					final double r = right.evalDouble(pModel, pParameters);
+					// Same as Double.equals(Object)
+					return (Double.compare(l, r) == 0) == eq;
+				}
+			};
+		} else if (allOfType(Type.BOOLEAN, left, right)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final boolean l = left.evalBoolean(pModel, pParameters);
+					final boolean r = right.evalBoolean(pModel, pParameters);
+					return (l == r) == eq;
+				}
+			};
+		} else {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final Object l = left.eval(pModel, pParameters);
+					final Object r = right.eval(pModel, pParameters);
+					return ElOperations.equality(op, l, r);
+				}
+			};
+		}
+		return fold(node, left, right);
+	}
+
+	private Node compileRelational(RelationalExpression pExpression) {
+		final Node left = compileAdd(pExpression.getLeft());
+		final RelationalExpression.Op op = pExpression.getOp();
+		if (op == null) {
+			return left;
+		}
+		final Node right = compileAdd(pExpression.getRight());
+		final Node node;
+		if (allOfType(Type.LONG, left, right)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final long l = left.evalLong(pModel, pParameters);
+					final long r = right.evalLong(pModel, pParameters);
+					return ElOperations.relational(op, l, r);
+				}
+			};
+		} else if (allOfType(Type.DOUBLE, left, right)) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final double l = left.evalDouble(pModel, pParameters);
+					final double r = right.evalDouble(pModel, pParameters);
+					return ElOperations.relational(op, l, r);
+				}
+			};
+		} else {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					final Object l = left.eval(pModel, pParameters);
+					final Object r = right.eval(pModel, pParameters);
+					return ElOperations.relational(op, l, r);
+				}
+			};
+		}
+		return fold(node, left, right);
+	}
+
+	private Node compileAdd(AddExpression pExpression) {
+		final List<?> objects = pExpression.getObjects();
+		final int numNodes = (objects.size()+1)/2;
+		final Node[] nodes = new Node[numNodes];
+		final AddExpression.Op[] ops = new AddExpression.Op[numNodes];
+		nodes[0] = compileMultiply((MultiplyExpression) objects.get(0));
+		for (int i = 1;  i < numNodes;  i++) {
+			ops[i] = Objects.requireNonNull((AddExpression.Op) objects.get(2*i-1));
+			nodes[i] = compileMultiply((MultiplyExpression) objects.get(2*i));
+		}
+		if (numNodes == 1) {
+			return nodes[0];
+		}
+		final boolean[] plus = new boolean[numNodes];
+		for (int i = 1;  i < numNodes;  i++) {
+			switch (ops[i]) {
+			case PLUS:
+				plus[i] = true;
+				break;
+			case MINUS:
+				plus[i] = false;
+				break;
+			default:
+				throw new IllegalStateException("Invalid add operation: " + ops[i]);
+			}
+		}
+		final Node node;
+		if (allOfType(Type.LONG, nodes)) {
+			node = new LongNode() {
+				@Override
+				long evalLong(Object pModel, List<Object> pParameters) {
+					long l = nodes[0].evalLong(pModel, pParameters);
+					for (int i = 1;  i < nodes.length;  i++) {
+						final long r = nodes[i].evalLong(pModel, pParameters);
+						l = plus[i] ? l + r : l - r;
+					}
+					return l;
+				}
+			};
+		} else if (allOfType(Type.DOUBLE, nodes)) {
+			node = new DoubleNode() {
+				@Override
+				double evalDouble(Object pModel, List<Object> pParameters) {
+					double d = nodes[0].evalDouble(pModel, pParameters);
+					for (int i = 1;  i < nodes.length;  i++) {
+						final double r = nodes[i].evalDouble(pModel, pParameters);
+						d = plus[i] ? d + r : d - r;
+					}
+					return d;
+				}
+			};
+		} else {
+			node = new Node(Type.OBJECT) {
+				@Override
+				Object eval(Object pModel, List<Object> pParameters) {
+					Object left = nodes[0].eval(pModel, pParameters);
+					for (int i = 1;  i < nodes.length;  i++) {
+						final Object right = nodes[i].eval(pModel, pParameters);
+						left = ElOperations.add(ops[i], left, right);
+					}
+					return left;
+				}
+			};
+		}
+		return fold(node, nodes);
+	}
+
+	private Node compileMultiply(MultiplyExpression pExpression) {
+		final Node left = compileUnary(pExpression.getLeft());
+		final MultiplyExpression.Op op = pExpression.getOp();
+		if (op == null) {
+			return left;
+		}
+		final Node right = compileUnary(pExpression.getRight());
+		final Node node;
+		if (allOfType(Type.LONG, left, right)) {
+			switch (op) {
+			case MULTIPLY:
+				node = new LongNode() {
+					@Override
+					long evalLong(Object pModel, List<Object> pParameters) {
+						final long l = left.evalLong(pModel, pParameters);
+						return l * right.evalLong(pModel, pParameters);
+					}
+				};
+				break;
+			case DIVIDE:
+				node = new LongNode() {
+					@Override
+					long evalLong(Object pModel, List<Object> pParameters) {
+						final long l = left.evalLong(pModel, pParameters);
+						return l / right.evalLong(pModel, pParameters);
+					}
+				};
+				break;
+			case MODULUS:
+				node = new LongNode() {
+					@Override
+					long evalLong(Object pModel, List<Object> pParameters) {
+						final long l = left.evalLong(pModel, pParameters);
+						return l % right.evalLong(pModel, pParameters);
+					}
+				};
+				break;
+			default:
+				throw new IllegalStateException("Invalid multiply operation: " + op);
+			}
+		} else if (allOfType(Type.DOUBLE, left, right)) {
+			switch (op) {
+			case MULTIPLY:
+				node = new DoubleNode() {
+					@Override
+					double evalDouble(Object pModel, List<Object> pParameters) {
+						final double l = left.evalDouble(pModel, pParameters);
+						return l * right.evalDouble(pModel, pParameters);
+					}
+				};
+				break;
+			case DIVIDE:
+				node = new DoubleNode() {
+					@Override
+					double evalDouble(Object pModel, List<Object> pParameters) {
+						final double l = left.evalDouble(pModel, pParameters);
+						return l / right.evalDouble(pModel, pParameters);
+					}
+				};
+				break;
+			case MODULUS:
+				node = new DoubleNode() {
+					@Override
+					double evalDouble(Object pModel, List<Object> pParameters) {
+						final double l = left.evalDouble(pModel, pParameters);
+						return l % right.evalDouble(pModel, pParameters);
+					}
+				};
+				break;
+			default:
+				throw new IllegalStateException("Invalid multiply operation: " + op);
+			}
+		} else {
+			node = new Node(Type.OBJECT) {
+				@Override
+				Object eval(Object pModel, List<Object> pParameters) {
+					final Object l = left.eval(pModel, pParameters);
+					final Object r = right.eval(pModel, pParameters);
+					return ElOperations.multiply(op, l, r);
+				}
+			};
+		}
+		return fold(node, left, right);
+	}
+
+	private Node compileUnary(UnaryExpression pExpression) {
+		final Node value = compileValue(pExpression.getValue());
+		final UnaryExpression.Op op = pExpression.getOp();
+		if (op == null) {
+			return value;
+		}
+		final Node node;
+		if (op == UnaryExpression.Op.NOT  &&  value.type == Type.BOOLEAN) {
+			node = new BooleanNode() {
+				@Override
+				boolean evalBoolean(Object pModel, List<Object> pParameters) {
+					return !value.evalBoolean(pModel, pParameters);
+				}
+			};
+		} else if (op == UnaryExpression.Op.MINUS  &&  value.type == Type.LONG) {
+			node = new LongNode() {
+				@Override
+				long evalLong(Object pModel, List<Object> pParameters) {
+					return -value.evalLong(pModel, pParameters);
+				}
+			};
+		} else if (op == UnaryExpression.Op.MINUS  &&  value.type == Type.DOUBLE) {
+			node = new DoubleNode() {
+				@Override
+				double evalDouble(Object pModel, List<Object> pParameters) {
+					return -value.evalDouble(pModel, pParameters);
+				}
+			};
+		} else {
+			// NOT, and EMPTY, return a Boolean, or throw an exception.
+			final Type type = op == UnaryExpression.Op.MINUS ? Type.OBJECT : Type.BOOLEAN;
+			node = new Node(type) {
+				@Override
+				Object eval(Object pModel, List<Object> pParameters) {
+					return ElOperations.unary(op, value.eval(pModel, pParameters));
+				}
+			};
+		}
+		return fold(node, value);
+	}
+
+	private Node compileValue(ValueExpression pExpression) {
+		final Boolean b = pExpression.getBooleanValue();
+		if (b != null) {
+			return new Constant(b);
+		}
+		final Double d = pExpression.getDoubleValue();
+		if (d != null) {
+			return new Constant(d);
+		}
+		final Long l = pExpression.getLongValue();
+		if (l != null) {
+			return new Constant(l);
+		}
+		final String s = pExpression.getStringValue();
+		if (s != null) {
+			return new Constant(s);
+		}
+		final Integer placeholderIndex = pExpression.getPlaceholderIndex();
+		if (placeholderIndex != null) {
+			final int index = placeholderIndex.intValue();
+			return new Node(Type.OBJECT) {
+				@Override
+				Object eval(Object pModel, List<Object> pParameters) {
+					return ElOperations.parameter(pParameters, index);
+				}
+			};
+		}
+		final VariableReferenceExpression vre = pExpression.getVariableReference();
+		if (vre != null) {
+			return compileVariableReference(vre);
+		}
+		final ElExpression e = pExpression.getElExpression();
+		if (e != null) {
+			return compileExpression(e);
+		}
+		return new Constant(null);
+	}
+
+	private Node compileVariableReference(VariableReferenceExpression pExpression) {
+		final String property = pExpression.getVar();
+		if (property.endsWith(ElOperations.SUFFIX_TO_STRING)) {
+			final String prop = property.substring(0, property.length()-ElOperations.SUFFIX_TO_STRING.length());
+			return new Node(Type.STRING) {
+				@Override
+				Object eval(Object pModel, List<Object> pParameters) {
+					return String.valueOf(resolver.getValue(pModel, prop));
+				}
+			};
+		} else if (property.endsWith(ElOperations.SUFFIX_TO_INT)) {
+			final String prop = property.substring(0, property.length()-ElOperations.SUFFIX_TO_INT.length());
+			return new LongNode() {
+				@Override
+				long evalLong(Object pModel, List<Object> pParameters) {
+					return ElOperations.toInt(property, resolver.getValue(pModel, prop));
+				}
+			};
+		} else if (property.endsWith(ElOperations.SUFFIX_TO_FLOAT)) {
+			final String prop = property.substring(0, property.length()-ElOperations.SUFFIX_TO_FLOAT.length());
+			return new DoubleNode() {
+				@Override
+				double evalDouble(Object pModel, List<Object> pParameters) {
+					return ElOperations.toFloat(property, resolver.getValue(pModel, prop));
+				}
+			};
+		} else if (profiles != null) {
+			final ProfilingNode node = new ProfilingNode(property);
+			profiles.put(pExpression, node);
+			return node;
+		} else {
+			final Type type = speculations == null ? null : speculations.get(pExpression);
+			if (type == Type.LONG) {
+				return new LongNode() {
+					@Override
+					long evalLong(Object pModel, List<Object> pParameters) {
+						final Object value = ElOperations.canonify(resolver.getValue(pModel, property));
+						if (value instanceof Long) {
+							return ((Long) value).longValue();
+						}
+						throw SpeculationFailure.INSTANCE;
+					}
+				};
+			} else if (type == Type.DOUBLE) {
+				return new DoubleNode() {
+					@Override
+					double evalDouble(Object pModel, List<Object> pParameters) {
+						final Object value = ElOperations.canonify(resolver.getValue(pModel, property));
+						if (value instanceof Double) {
+							return ((Double) value).doubleValue();
+						}
+						throw SpeculationFailure.INSTANCE;
+					}
+				};
+			} else if (type == Type.BOOLEAN) {
+				return new BooleanNode() {
+					@Override
+					boolean evalBoolean(Object pModel, List<Object> pParameters) {
+						final Object value = ElOperations.canonify(resolver.getValue(pModel, property));
+						if (value instanceof Boolean) {
+							return ((Boolean) value).booleanValue();
+						}
+						throw SpeculationFailure.INSTANCE;
+					}
+				};
+			}
+			return new Node(Type.OBJECT) {
+				@Override
+				Object eval(Object pModel, List<Object> pParameters) {
+					return ElOperations.canonify(resolver.getValue(pModel, property));
+				}
+			};
+		}
+	}
+}
@@ -18,8 +18,6 @@ package com.github.jochenw.afw.core.el;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 import org.jspecify.annotations.NonNull;
 
@@ -89,27 +87,16 @@ public class ElEvaluator {
 		 */
 		protected Object evaluate(OrExpression pExpression) {
 			final List<AndExpression> expressions = pExpression.getAndExpressions();
-			Object left = evaluate(expressions.get(0));
 			if (expressions.size() == 1) {
-				return left;
-			} else {
-				for (int i = 1;  i < expressions.size();  i++) {
-					final Object right = evaluate(expressions.get(i));
-					if (left == null  || right == null) {
-						throw new IllegalStateException("Unable to determine OR value on NULL values.");
-					} else if (left instanceof Boolean  &&  right instanceof Boolean) {
-						final boolean b = ((Boolean) left).booleanValue()  ||  ((Boolean) right).booleanValue();
-						left = Boolean.valueOf(b);
-						if (b) {
-							return left;
-						}
-					} else {
-						throw new IllegalStateException("Unable to determine OR value for an instance of "
-								+ left.getClass().getName() + ", and an instance of " + right.getClass().getName());
-					}
-	 			}
+				return evaluate(expressions.get(0));
 			}
-			return left;
+			// Short circuit: Terms are evaluated only, if the result isn't yet known.
+			for (AndExpression exp : expressions) {
+				if (ElOperations.toBoolean("OR", evaluate(exp))) {
+					return Boolean.TRUE;
+				}
+			}
+			return Boolean.FALSE;
 		}
 
 		/** Evaluates the given and expression, applying the evaluators
@@ -119,27 +106,16 @@ public class ElEvaluator {
 		 */
 		protected Object evaluate(AndExpression pExpression) {
 			final List<EqualityExpression> expressions = pExpression.getEqualityExpressions();
-			Object left = evaluate(expressions.get(0));
 			if (expressions.size() == 1) {
-				return left;
-			} else {
-				for (int i = 1;  i < expressions.size();  i++) {
-					final Object right = evaluate(expressions.get(i));
-					if (left == null  || right == null) {
-						throw new IllegalStateException("Unable to determine AND value on NULL values.");
-					} else if (left instanceof Boolean  &&  right instanceof Boolean) {
-						final boolean b = ((Boolean) left).booleanValue()  &&  ((Boolean) right).booleanValue();
-						left = Boolean.valueOf(b);
-						if (!b) {
-							return left;
-						}
-					} else {
-						throw new IllegalStateException("Unable to determine AND value for an instance of "
-								+ left.getClass().getName() + ", and an instance of " + right.getClass().getName());
-					}
-	 			}
+				return evaluate(expressions.get(0));
 			}
-			return left;
+			// Short circuit: Terms are evaluated only, if the result isn't yet known.
+			for (EqualityExpression exp : expressions) {
+				if (!ElOperations.toBoolean("AND", evaluate(exp))) {
+					return Boolean.FALSE;
+				}
+			}
+			return Boolean.TRUE;
 		}
 
 		/** Evaluates the given equality expression, applying the evaluators
@@ -156,25 +132,7 @@ public class ElEvaluator {
 			} else {
 				final RelationalExpression rightExp = pExpression.getRight();
 				final Object right = evaluate(rightExp);
-				if (left == null  ||  right == null) {
-					switch(op) {
-					case EQ:
-						return Boolean.valueOf(left == null  &&  right == null);
-					case NE:
-						return Boolean.valueOf(left != null  ||  right != null);
-					default:
-						throw new IllegalStateException("Invalid equality operation: " + op);
-					}
-				} else {
-					switch(op) {
-					case EQ:
-						return Boolean.valueOf(left.equals(right));
-					case NE:
-						return Boolean.valueOf(!left.equals(right));
-					default:
-						throw new IllegalStateException("Invalid equality operation: " + op);
-					}
-				}
+				return Boolean.valueOf(ElOperations.equality(op, left, right));
 			}
 		}
 		
@@ -192,44 +150,7 @@ public class ElEvaluator {
 			} else {
 				final AddExpression rightExp = pExpression.getRight();
 				final Object right = evaluate(rightExp);
-				if (left == null  ||  right == null) {
-					throw new IllegalStateException("Unable to compare NULL values.");
-				} else {
-					if (left instanceof Long  &&  right instanceof Long) {
-						final long lLeft = ((Long) left).longValue();
-						final long lRight = ((Long) right).longValue();
-						switch(op) {
-						case GE:
-							return Boolean.valueOf(lLeft >= lRight);
-						case GT:
-							return Boolean.valueOf(lLeft > lRight);
-						case LE:
-							return Boolean.valueOf(lLeft <= lRight);
-						case LT:
-							return Boolean.valueOf(lLeft < lRight);
-						default:
-							throw new IllegalStateException("Invalid relational operation: " + op);
-						}
-					} else if (left instanceof Double  && right instanceof Double) {
-						final double dLeft = ((Double) left).doubleValue();
-						final double dRight = ((Double) right).doubleValue();
-						switch(op) {
-						case GE:
-							return Boolean.valueOf(dLeft >= dRight);
-						case GT:
-							return Boolean.valueOf(dLeft > dRight);
-						case LE:
-							return Boolean.valueOf(dLeft <= dRight);
-						case LT:
-							return Boolean.valueOf(dLeft < dRight);
-						default:
-							throw new IllegalStateException("Invalid relational operation: " + op);
-						}
-					} else {
-						throw new IllegalStateException("Unable to compare an instance of " + left.getClass().getName()
-								+ ", and an instance of " + right.getClass().getName());
-					}
-				}
+				return Boolean.valueOf(ElOperations.relational(op, left, right));
 			}
 		}
 
@@ -238,7 +159,6 @@ public class ElEvaluator {
 		 * @param pExpression The expression, that is being evaluated.
 		 * @return The evaluations result object.
 		 */
-		@SuppressWarnings("unused")
 		protected Object evaluate(AddExpression pExpression) {
 			final List<?> objects = pExpression.getObjects();
 			final MultiplyExpression meLeft = (MultiplyExpression) objects.get(0);
@@ -247,38 +167,7 @@ public class ElEvaluator {
 				final AddExpression.@NonNull Op op = Objects.requireNonNull((AddExpression.Op) objects.get(i));
 				final MultiplyExpression meRight = (MultiplyExpression) objects.get(i+1);
 				final Object right = evaluate(meRight);
-				if (left == null) {
-					throw new IllegalStateException("Unable to add, or subtract from a NULL object.");
-				}
-				if (right == null) {
-					throw new IllegalStateException("Unable to add, or subtract a NULL object.");
-				}
-				switch(op) {
-				  case PLUS:
-					  if (left instanceof Long  &&  right instanceof Long) {
-						  final long l = ((Long) left).longValue() + ((Long) right).longValue();
-						  left = Long.valueOf(l);
-					  } else if (left instanceof Double  &&  right instanceof Double) {
-						  final double d = ((Double) left).doubleValue() + ((Double) right).doubleValue();
-						  left = Double.valueOf(d);
-					  } else {
-						  throw new IllegalStateException("Unable to add an instance of " + left.getClass().getName()
-								  + ", and an instance of " + right.getClass().getName());
-					  }
-				  case MINUS:
-					  if (left instanceof Long  &&  right instanceof Long) {
-						  final long l = ((Long) left).longValue() - ((Long) right).longValue();
-						  left = Long.valueOf(l);
-					  } else if (left instanceof Double  &&  right instanceof Double) {
-						  final double d = ((Double) left).doubleValue() - ((Double) right).doubleValue();
-						  left = Double.valueOf(d);
-					  } else {
-						  throw new IllegalStateException("Unable to subtract an instance of " + right.getClass().getName()
-								  + " from an instance of " + left.getClass().getName());
-					  }
-				  default:
-					  throw new IllegalStateException("Invalid add operation: " + op);
-				}
+				left = ElOperations.add(op, left, right);
 			}
 			return left;
 		}
@@ -297,46 +186,7 @@ public class ElEvaluator {
 			} else {
 				final UnaryExpression ueRight = pExpression.getRight();
 				final Object right = evaluate(ueRight);
-				if (left == null  ||  right == null) {
-					throw new IllegalStateException("Unable to multiply, or divide a NULL object.");
-				}
-				switch(op) {
-				case MULTIPLY:
-					if (left instanceof Long  &&  right instanceof Long) {
-						final long l = ((Long) left).longValue() * ((Long) right).longValue();
-						return Long.valueOf(l);
-					} else if (left instanceof Double  &&  right instanceof Double) {
-						final double d = ((Double) left).doubleValue() * ((Double) right).doubleValue();
-						return Double.valueOf(d);
-					} else {
-						throw new IllegalStateException("Unable to multiply an instance of " + left.getClass().getName()
-								+ " and an instance of " + right.getClass().getName());
-					}
-				case DIVIDE:
-					if (left instanceof Long  &&  right instanceof Long) {
-						final long l = ((Long) left).longValue() / ((Long) right).longValue();
-						return Long.valueOf(l);
-					} else if (left instanceof Double  &&  right instanceof Double) {
-						final double d = ((Double) left).doubleValue() / ((Double) right).doubleValue();
-						return Double.valueOf(d);
-					} else {
-						throw new IllegalStateException("Unable to divide an instance of " + left.getClass().getName()
-								+ " by an instance of " + right.getClass().getName());
-					}
-				case MODULUS:
-					if (left instanceof Long  &&  right instanceof Long) {
-						final long l = ((Long) left).longValue() % ((Long) right).longValue();
-						return Long.valueOf(l);
-					} else if (left instanceof Double  &&  right instanceof Double) {
-						final double d = ((Double) left).doubleValue() % ((Double) right).doubleValue();
-						return Double.valueOf(d);
-					} else {
-						throw new IllegalStateException("Unable to build modulus for an instance of " + left.getClass().getName()
-								+ " by an instance of " + right.getClass().getName());
-					}
-				default:
-					throw new IllegalStateException("Invalid multiply operation: " + op);
-				}
+				return ElOperations.multiply(op, left, right);
 			}
 		}
 
@@ -352,45 +202,7 @@ public class ElEvaluator {
 			if (op == null) {
 				return value;
 			} else {
-				switch (op) {
-				case NOT:
-				  {
-					if (value == null) {
-						throw new IllegalStateException("Unable to evaluate NOT on a NULL object");
-					} else if (value instanceof Boolean) {
-						final boolean b = ((Boolean) value).booleanValue();
-						return Boolean.valueOf(!b);
-					} else {
-						throw new IllegalStateException("Unable to evaluate NOT on an instance of " + value.getClass().getName());
-					}
-				  }
-				case MINUS:
-				  {
-					if (value == null) {
-						throw new IllegalStateException("Unable to evaluate MINUS on a NULL object");
-					} else if (value instanceof Double) {
-						final double d = ((Double) value).doubleValue();
-						return Double.valueOf(-d);
-					} else if (value instanceof Long) {
-						final long l = ((Long) value).longValue();
-						return Long.valueOf(-l);
-					} else {
-						throw new IllegalStateException("Unable to evaluate MINUS on an instance of " + value.getClass().getName());
-					}
-				  }
-				case EMPTY:
-				  {
-					if (value == null) {
-						throw new IllegalStateException("Unable to evaluate EMPTY on a NULL object");
-					} else if (value instanceof String) {
-						return Boolean.valueOf(((String) value).length() == 0);
-					} else {
-						throw new IllegalStateException("Unable to evaluate MINUS on an instance of " + value.getClass().getName());
-					}
-				  }
-				default:
-					throw new IllegalStateException("Invalid unary operation: " + op);
-				}
+				return ElOperations.unary(op, value);
 			}
 		}
 		
@@ -450,51 +262,15 @@ public class ElEvaluator {
 		 */
 		protected Object evaluate(VariableReferenceExpression pExpression) {
 			final String property = pExpression.getVar();
-			if (property.endsWith(".toString")) {
-				final Object object = resolver.getValue(model, property.substring(0, property.length()-9));
-				return String.valueOf(object);
-			} else if (property.endsWith(".toInt")) {
-				final Object object = resolver.getValue(model, property.substring(0, property.length()-6));
-				if (object == null) {
-					throw new IllegalStateException("Unable to convert a NULL value to an integer.");
-				} else if (object instanceof Long) {
-					return object;
-				} else if (object instanceof Integer
-						    ||  object instanceof Short
-						    ||  object instanceof Byte) {
-					return Long.valueOf(((Number) object).longValue());
-				} else if (object instanceof String) {
-					try {
-						return Long.valueOf((String) object);
-					} catch (NumberFormatException e) {
-						throw new IllegalStateException("Invalid integer value for property " + property + ": " + object);
-					}
-				} else {
-					throw new IllegalStateException("Unable to convert an instance of " + object.getClass().getName()
-							+ " to an integer.");
-				}
-			} else if (property.endsWith(".toFloat")) {
-				final Object object = resolver.getValue(model, property.substring(0, property.length()-8));
-				if (object == null) {
-					throw new IllegalStateException("Unable to convert a NULL value to a float.");
-				} else if (object instanceof Double) {
-					return object;
-				} else if (object instanceof Long
-						     ||  object instanceof Integer
-						     ||  object instanceof Short
-						     ||  object instanceof Byte
-						     ||  object instanceof Float) {
-					return Double.valueOf(((Number) object).doubleValue());
-				} else if (object instanceof String) {
-					try {
-						return Double.valueOf((String) object);
-					} catch (NumberFormatException e) {
-						throw new IllegalStateException("Invalid float value for property " + property + ": " + object);
-					}
-				} else {
-					throw new IllegalStateException("Unable to convert an instance of " + object.getClass().getName()
-							+ " to a floating point number.");
-				}
+			if (property.endsWith(ElOperations.SUFFIX_TO_STRING)) {
+				final String prop = property.substring(0, property.length()-ElOperations.SUFFIX_TO_STRING.length());
+				return String.valueOf(resolver.getValue(model, prop));
+			} else if (property.endsWith(ElOperations.SUFFIX_TO_INT)) {
+				final String prop = property.substring(0, property.length()-ElOperations.SUFFIX_TO_INT.length());
+				return Long.valueOf(ElOperations.toInt(property, resolver.getValue(model, prop)));
+			} else if (property.endsWith(ElOperations.SUFFIX_TO_FLOAT)) {
+				final String prop = property.substring(0, property.length()-ElOperations.SUFFIX_TO_FLOAT.length());
+				return Double.valueOf(ElOperations.toFloat(property, resolver.getValue(model, prop)));
 			} else {
 				return canonify(resolver.getValue(model, property));
 			}
@@ -507,22 +283,7 @@ public class ElEvaluator {
 		 * @return The evaluations result object.
 		 */
 		protected Object canonify(Object pValue) {
-			if (pValue == null  ||  pValue instanceof Long  ||  pValue instanceof Double  ||  pValue instanceof String) {
-				return pValue;
-			} else if (pValue instanceof Byte
-					     ||  pValue instanceof Short
-					     ||  pValue instanceof Integer
-					     ||  pValue instanceof Long
-					     ||  pValue instanceof AtomicInteger
-					     ||  pValue instanceof AtomicLong) {
-				return Long.valueOf(((Number) pValue).longValue());
-			} else if (pValue instanceof Float) {
-				return Double.valueOf(((Number) pValue).doubleValue());
-			} else if (pValue instanceof Boolean) {
-				return pValue;
-			} else {
-				throw new IllegalStateException("Invalid value type: " + pValue.getClass().getName());
-			}
+			return ElOperations.canonify(pValue);
 		}
 	}
 
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.el;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.jochenw.afw.core.el.tree.AddExpression;
+import com.github.jochenw.afw.core.el.tree.EqualityExpression;
+import com.github.jochenw.afw.core.el.tree.MultiplyExpression;
+import com.github.jochenw.afw.core.el.tree.RelationalExpression;
+import com.github.jochenw.afw.core.el.tree.UnaryExpression;
+
+
+/** The operations of the EL, applied to evaluated operands. Shared by the
+ * {@link ElEvaluator}, and the {@link ElCompiler}, so that both have the
+ * same semantics.
+ */
+class ElOperations {
+	private ElOperations() {}
+
+	/** Suffix of a variable reference, which converts the value into a string.
+	 */
+	static final String SUFFIX_TO_STRING = ".toString";
+	/** Suffix of a variable reference, which converts the value into an integer.
+	 */
+	static final String SUFFIX_TO_INT = ".toInt";
+	/** Suffix of a variable reference, which converts the value into a float.
+	 */
+	static final String SUFFIX_TO_FLOAT = ".toFloat";
+
+	/** Converts an operand of a logical operation (OR, or AND) into
+	 * a boolean value. The operations are evaluated lazily: The right
+	 * operand is only converted, if the left operand doesn't already
+	 * determine the result.
+	 * @param pOperation The operations name, for use in error messages.
+	 * @param pValue The operand.
+	 * @return The operands boolean value.
+	 * @throws IllegalStateException The value is null, or not a boolean.
+	 */
+	static boolean toBoolean(String pOperation, Object pValue) {
+		if (pValue == null) {
+			throw new IllegalStateException("Unable to determine " + pOperation + " value on a NULL value.");
+		} else if (pValue instanceof Boolean) {
+			return ((Boolean) pValue).booleanValue();
+		} else {
+			throw new IllegalStateException("Unable to determine " + pOperation + " value for an instance of "
+					+ pValue.getClass().getName());
+		}
+	}
+
+	/** Compares the given values for equality.
+	 * @param pOp The equality operator.
+	 * @param pLeft The left operand.
+	 * @param pRight The right operand.
+	 * @return The comparisons result.
+	 */
+	static boolean equality(EqualityExpression.Op pOp, Object pLeft, Object pRight) {
+		if (pLeft == null  ||  pRight == null) {
+			switch(pOp) {
+			case EQ:
+				return pLeft == null  &&  pRight == null;
+			case NE:
+				return pLeft != null  ||  pRight != null;
+			default:
+				throw new IllegalStateException("Invalid equality operation: " + pOp);
+			}
+		} else {
+			switch(pOp) {
+			case EQ:
+				return pLeft.equals(pRight);
+			case NE:
+				return !pLeft.equals(pRight);
+			default:
+				throw new IllegalStateException("Invalid equality operation: " + pOp);
+			}
+		}
+	}
+
+	/** Compares the given values.
+	 * @param pOp The relational operator.
+	 * @param pLeft The left operand.
+	 * @param pRight The right operand.
+	 * @return The comparisons result.
+	 * @throws IllegalStateException The values are null, or cannot be compared.
+	 */
+	static boolean relational(RelationalExpression.Op pOp, Object pLeft, Object pRight) {
+		if (pLeft == null  ||  pRight == null) {
+			throw new IllegalStateException("Unable to compare NULL values.");
+		} else if (pLeft instanceof Long  &&  pRight instanceof Long) {
+			return relational(pOp, ((Long) pLeft).longValue(), ((Long) pRight).longValue());
+		} else if (pLeft instanceof Double  && pRight instanceof Double) {
+			return relational(pOp, ((Double) pLeft).doubleValue(), ((Double) pRight).doubleValue());
+		} else {
+			throw new IllegalStateException("Unable to compare an instance of " + pLeft.getClass().getName()
+					+ ", and an instance of " + pRight.getClass().getName());
+		}
+	}
+
+	/** Compares the given integer values.
+	 * @param pOp The relational operator.
+	 * @param pLeft The left operand.
+	 * @param pRight The right operand.
+	 * @return The comparisons result.
+	 */
+	static boolean relational(RelationalExpression.Op pOp, long pLeft, long pRight) {
+		switch(pOp) {
+		case GE:
+			return pLeft >= pRight;
+		case GT:
+			return pLeft > pRight;
+		case LE:
+			return pLeft <= pRight;
+		case LT:
+			return pLeft < pRight;
+		default:
+			throw new IllegalStateException("Invalid relational operation: " + pOp);
+		}
+	}
+
+	/** Compares the given floating point values.
+	 * @param pOp The relational operator.
+	 * @param pLeft The left operand.
+	 * @param pRight The right operand.
+	 * @return The comparisons result.
+	 */
+	static boolean relational(RelationalExpression.Op pOp, double pLeft, double pRight) {
+		switch(pOp) {
+		case GE:
+			return pLeft >= pRight;
+		case GT:
+			return pLeft > pRight;
+		case LE:
+			return pLeft <= pRight;
+		case LT:
+			return pLeft < pRight;
+		default:
+			throw new IllegalStateException("Invalid relational operation: " + pOp);
+		}
+	}
+
+	/** Adds, or subtracts, the given values.
+	 * @param pOp The add operator.
+	 * @param pLeft The left operand.
+	 * @param pRight The right operand.
+	 * @return The sum, or difference.
+	 * @throws IllegalStateException The values are null, or cannot be added.
+	 */
+	static Object add(AddExpression.Op pOp, Object pLeft, Object pRight) {
+		if (pLeft == null) {
+			throw new IllegalStateException("Unable to add, or subtract from a NULL object.");
+		}
+		if (pRight == null) {
+			throw new IllegalStateException("Unable to add, or subtract a NULL object.");
+		}
+		switch(pOp) {
+		  case PLUS:
+			  if (pLeft instanceof Long  &&  pRight instanceof Long) {
+				  return Long.valueOf(((Long) pLeft).longValue() + ((Long) pRight).longValue());
+			  } else if (pLeft instanceof Double  &&  pRight instanceof Double) {
+				  return Double.valueOf(((Double) pLeft).doubleValue() + ((Double) pRight).doubleValue());
+			  } else {
+				  throw new IllegalStateException("Unable to add an instance of " + pLeft.getClass().getName()
+						  + ", and an instance of " + pRight.getClass().getName());
+			  }
+		  case MINUS:
+			  if (pLeft instanceof Long  &&  pRight instanceof Long) {
+				  return Long.valueOf(((Long) pLeft).longValue() - ((Long) pRight).longValue());
+			  } else if (pLeft instanceof Double  &&  pRight instanceof Double) {
+				  return Double.valueOf(((Double) pLeft).doubleValue() - ((Double) pRight).doubleValue());
+			  } else {
+				  throw new IllegalStateException("Unable to subtract an instance of " + pRight.getClass().getName()
+						  + " from an instance of " + pLeft.getClass().getName());
+			  }
+		  default:
+			  throw new IllegalStateException("Invalid add operation: " + pOp);
+		}
+	}
+
+	/** Multiplies, or divides, the given values.
+	 * @param pOp The multiply operator.
+	 * @param pLeft The left operand.
+	 * @param pRight The right operand.
+	 * @return The product, quotient, or modulus.
+	 * @throws IllegalStateException The values are null, or cannot be multiplied.
+	 */
+	static Object multiply(MultiplyExpression.Op pOp, Object pLeft, Object pRight) {
+		if (pLeft == null  ||  pRight == null) {
+			throw new IllegalStateException("Unable to multiply, or divide a NULL object.");
+		}
+		switch(pOp) {
+		case MULTIPLY:
+			if (pLeft instanceof Long  &&  pRight instanceof Long) {
+				return Long.valueOf(((Long) pLeft).longValue() * ((Long) pRight).longValue());
+			} else if (pLeft instanceof Double  &&  pRight instanceof Double) {
+				return Double.valueOf(((Double) pLeft).doubleValue() * ((Double) pRight).doubleValue());
+			} else {
+				throw new IllegalStateException("Unable to multiply an instance of " + pLeft.getClass().getName()
+						+ " and an instance of " + pRight.getClass().getName());
+			}
+		case DIVIDE:
+			if (pLeft instanceof Long  &&  pRight instanceof Long) {
+				return Long.valueOf(((Long) pLeft).longValue() / ((Long) pRight).longValue());
+			} else if (pLeft instanceof Double  &&  pRight instanceof Double) {
+				return Double.valueOf(((Double) pLeft).doubleValue() / ((Double) pRight).doubleValue());
+			} else {
+				throw new IllegalStateException("Unable to divide an instance of " + pLeft.getClass().getName()
+						+ " by an instance of " + pRight.getClass().getName());
+			}
+		case MODULUS:
+			if (pLeft instanceof Long  &&  pRight instanceof Long) {
+				return Long.valueOf(((Long) pLeft).longValue() % ((Long) pRight).longValue());
+			} else if (pLeft instanceof Double  &&  pRight instanceof Double) {
+				return Double.valueOf(((Double) pLeft).doubleValue() % ((Double) pRight).doubleValue());
+			} else {
+				throw new IllegalStateException("Unable to build modulus for an instance of " + pLeft.getClass().getName()
+						+ " by an instance of " + pRight.getClass().getName());
+			}
+		default:
+			throw new IllegalStateException("Invalid multiply operation: " + pOp);
+		}
+	}
+
+	/** Applies the given unary operator.
+	 * @param pOp The unary operator.
+	 * @param pValue The operand.
+	 * @return The operations result.
+	 * @throws IllegalStateException The value is null, or the operator cannot be applied.
+	 */
+	static Object unary(UnaryExpression.Op pOp, Object pValue) {
+		switch (pOp) {
+		case NOT:
+		  {
+			if (pValue == null) {
+				throw new IllegalStateException("Unable to evaluate NOT on a NULL object");
+			} else if (pValue instanceof Boolean) {
+				final boolean b = ((Boolean) pValue).booleanValue();
+				return Boolean.valueOf(!b);
+			} else {
+				throw new IllegalStateException("Unable to evaluate NOT on an instance of " + pValue.getClass().getName());
+			}
+		  }
+		case MINUS:
+		  {
+			if (pValue == null) {
+				throw new IllegalStateException("Unable to evaluate MINUS on a NULL object");
+			} else if (pValue instanceof Double) {
+				final double d = ((Double) pValue).doubleValue();
+				return Double.valueOf(-d);
+			} else if (pValue instanceof Long) {
+				final long l = ((Long) pValue).longValue();
+				return Long.valueOf(-l);
+			} else {
+				throw new IllegalStateException("Unable to evaluate MINUS on an instance of " + pValue.getClass().getName());
+			}
+		  }
+		case EMPTY:
+		  {
+			if (pValue == null) {
+				throw new IllegalStateException("Unable to evaluate EMPTY on a NULL object");
+			} else if (pValue instanceof String) {
+				return Boolean.valueOf(((String) pValue).length() == 0);
+			} else {
+				throw new IllegalStateException("Unable to evaluate MINUS on an instance of " + pValue.getClass().getName());
+			}
+		  }
+		default:
+			throw new IllegalStateException("Invalid unary operation: " + pOp);
+		}
+	}
+
+	/** Returns the placeholder value with the given index.
+	 * @param pParameters The placeholder values.
+	 * @param pIndex The placeholder index.
+	 * @return The {@link #canonify(Object) canonified} placeholder value.
+	 * @throws IllegalStateException The placeholder index is out of range.
+	 */
+	static Object parameter(List<Object> pParameters, int pIndex) {
+		if (pIndex >= pParameters.size()) {
+			throw new IllegalStateException("Expected at least " + (pIndex+1)
+					+ " parameters, got " + pParameters.size());
+		}
+		return canonify(pParameters.get(pIndex));
+	}
+
+	/** Converts the value of a variable reference with the suffix
+	 * {@link #SUFFIX_TO_INT} into an integer.
+	 * @param pProperty The variable reference, including the suffix.
+	 * @param pValue The properties value.
+	 * @return The converted value.
+	 * @throws IllegalStateException The value cannot be converted.
+	 */
+	static long toInt(String pProperty, Object pValue) {
+		if (pValue == null) {
+			throw new IllegalStateException("Unable to convert a NULL value to an integer.");
+		} else if (pValue instanceof Long
+				    ||  pValue instanceof Integer
+				    ||  pValue instanceof Short
+				    ||  pValue instanceof Byte) {
+			return ((Number) pValue).longValue();
+		} else if (pValue instanceof String) {
+			try {
+				return Long.parseLong((String) pValue);
+			} catch (NumberFormatException e) {
+				throw new IllegalStateException("Invalid integer value for property " + pProperty + ": " + pValue);
+			}
+		} else {
+			throw new IllegalStateException("Unable to convert an instance of " + pValue.getClass().getName()
+					+ " to an integer.");
+		}
+	}
+
+	/** Converts the value of a variable reference with the suffix
+	 * {@link #SUFFIX_TO_FLOAT} into a floating point number.
+	 * @param pProperty The variable reference, including the suffix.
+	 * @param pValue The properties value.
+	 * @return The converted value.
+	 * @throws IllegalStateException The value cannot be converted.
+	 */
+	static double toFloat(String pProperty, Object pValue) {
+		if (pValue == null) {
+			throw new IllegalStateException("Unable to convert a NULL value to a float.");
+		} else if (pValue instanceof Double
+				     ||  pValue instanceof Long
+				     ||  pValue instanceof Integer
+				     ||  pValue instanceof Short
+				     ||  pValue instanceof Byte
+				     ||  pValue instanceof Float) {
+			return ((Number) pValue).doubleValue();
+		} else if (pValue instanceof String) {
+			try {
+				return Double.parseDouble((String) pValue);
+			} catch (NumberFormatException e) {
+				throw new IllegalStateException("Invalid float value for property " + pProperty + ": " + pValue);
+			}
+		} else {
+			throw new IllegalStateException("Unable to convert an instance of " + pValue.getClass().getName()
+					+ " to a floating point number.");
+		}
+	}
+
+	/** Converts the given value to a canonical representation
+	 * of the same value. For example, integer values (bytes, shorts, 32 bit integers)
+	 * are being converted to 64 bit integers.
+	 * @param pValue The value, that is being converted.
+	 * @return The converted value.
+	 */
+	static Object canonify(Object pValue) {
+		if (pValue == null  ||  pValue instanceof Long  ||  pValue instanceof Double  ||  pValue instanceof String) {
+			return pValue;
+		} else if (pValue instanceof Byte
+				     ||  pValue instanceof Short
+				     ||  pValue instanceof Integer
+				     ||  pValue instanceof AtomicInteger
+				     ||  pValue instanceof AtomicLong) {
+			return Long.valueOf(((Number) pValue).longValue());
+		} else if (pValue instanceof Float) {
+			return Double.valueOf(((Number) pValue).doubleValue());
+		} else if (pValue instanceof Boolean) {
+			return pValue;
+		} else {
+			throw new IllegalStateException("Invalid value type: " + pValue.getClass().getName());
+		}
+	}
+}
@@ -20,14 +20,42 @@ import java.io.StringReader;
 import com.github.jochenw.afw.core.el.jcc.ELParser;
 import com.github.jochenw.afw.core.el.tree.ElExpression;
 import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.LruCache;
 
 
 /** A parser for EL expressions.
+ *
+ * Parsed expressions are immutable, so they are kept in a bounded
+ * {@link LruCache cache}: Parsing the same expression string again
+ * costs a hash lookup. On a cache miss, the parser, and its token
+ * manager, are reused, if the current thread has already parsed
+ * an expression before. Instances are thread safe.
  */
 public class ElReader {
-	/** Creates a new instance.
+	/** The default cache size.
 	 */
-	public ElReader() {}
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+	private static final ThreadLocal<ELParser> parsers = new ThreadLocal<>();
+
+	private final LruCache<String,ElExpression> cache;
+
+	/** Creates a new instance with the {@link #DEFAULT_CACHE_SIZE default cache size}.
+	 */
+	public ElReader() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/** Creates a new instance with the given cache size.
+	 * @param pCacheSize The maximum number of parsed expressions, which are
+	 *   being cached. Zero disables the cache.
+	 * @throws IllegalArgumentException The cache size is negative.
+	 */
+	public ElReader(int pCacheSize) {
+		if (pCacheSize < 0) {
+			throw new IllegalArgumentException("The cache size must not be negative: " + pCacheSize);
+		}
+		cache = pCacheSize == 0 ? null : new LruCache<>(pCacheSize);
+	}
 
 	/** Parses the given string as an EL expression.
 	 * @param pExpression The EL expression string, which is being parsed.
@@ -36,11 +64,60 @@ public class ElReader {
 	 * {@link ElEvaluator#evaluate(ElExpression, Object, java.util.List)}.
 	 */
 	public ElExpression parse(String pExpression) {
-		final ELParser parser = new ELParser(new StringReader(pExpression));
+		if (cache == null) {
+			return parseUncached(pExpression);
+		}
+		final ElExpression cachedExpression = cache.get(pExpression);
+		if (cachedExpression != null) {
+			return cachedExpression;
+		}
+		final ElExpression expression = parseUncached(pExpression);
+		cache.put(pExpression, expression);
+		return expression;
+	}
+
+	/** Parses the given string as an EL expression, bypassing the cache.
+	 * @param pExpression The EL expression string, which is being parsed.
+	 * @return The parsed EL expression.
+	 */
+	protected ElExpression parseUncached(String pExpression) {
+		final StringReader sr = new StringReader(pExpression);
+		final ELParser parser = parsers.get();
 		try {
-			return (ElExpression) parser.ElExpression();
+			if (parser == null) {
+				final ELParser newParser = new ELParser(sr);
+				final ElExpression expression = newParser.ElExpression();
+				parsers.set(newParser);
+				return expression;
+			} else {
+				return parser.parse(sr);
+			}
 		} catch (Throwable t) {
 			throw Exceptions.show(t);
 		}
 	}
+
+	/** Returns the number of calls to {@link #parse(String)}, which have
+	 * been satisfied from the cache.
+	 * @return The number of cache hits.
+	 */
+	public long getCacheHits() {
+		return cache == null ? 0 : cache.getHits();
+	}
+
+	/** Returns the number of calls to {@link #parse(String)}, which required
+	 * actual parsing.
+	 * @return The number of cache misses.
+	 */
+	public long getCacheMisses() {
+		return cache == null ? 0 : cache.getMisses();
+	}
+
+	/** Removes all parsed expressions from the cache.
+	 */
+	public void clearCache() {
+		if (cache != null) {
+			cache.clear();
+		}
+	}
 }
@@ -24,6 +24,7 @@ public class DefaultConnectionProvider implements ConnectionProvider {
 	private @NonNull String prefix = "jdbc";
 	private IPropertyFactory propertyFactory;
 	private IComponentFactory componentFactory;
+	private volatile String loadedDriverClassName;
 
 	/** Returns the value of the property prefix.
 	 * @return The value of the property prefix.
@@ -53,13 +54,23 @@ public class DefaultConnectionProvider implements ConnectionProvider {
 		componentFactory = pComponentFactory;
 	}
 
+	/** Returns the {@link IComponentFactory}, if any, or null.
+	 * @return The {@link IComponentFactory component factory}, if any, or null.
+	 */
+	protected IComponentFactory getComponentFactory() {
+		return componentFactory;
+	}
+
 	@Override
 	public @NonNull Connection open() throws SQLException {
 		final String driverClassName = getProperty("driver");
-		try {
-			Class.forName(driverClassName);
-		} catch (Throwable t) {
-			throw new IllegalStateException("Unable to load driver class: " + driverClassName, t);
+		if (!driverClassName.equals(loadedDriverClassName)) {
+			try {
+				Class.forName(driverClassName);
+			} catch (Throwable t) {
+				throw new IllegalStateException("Unable to load driver class: " + driverClassName, t);
+			}
+			loadedDriverClassName = driverClassName;
 		}
 		final String url = getProperty("url");
 		final String userName = getProperty("userName");
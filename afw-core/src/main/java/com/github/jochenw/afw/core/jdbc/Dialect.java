@@ -1,5 +1,6 @@
 package com.github.jochenw.afw.core.jdbc;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 
 /** A Dialect object is used to handle incompatibilities between various databases
@@ -13,4 +14,18 @@ public interface Dialect {
 	 * to drop a table, that doesn't exist. Otherwise false.
 	 */
 	boolean isDroppedTableDoesnExistError(SQLException pError);
+
+	/** Returns, whether the given connection is still usable. This is used,
+	 * for example, by the {@link PooledConnectionProvider} to validate a
+	 * connection, before handing it out. The default implementation
+	 * invokes {@link Connection#isValid(int)}.
+	 * @param pConnection The connection, which is being validated.
+	 * @param pTimeoutSeconds The maximum number of seconds to wait for
+	 *   the database, or 0 for no timeout.
+	 * @return True, if the connection is still usable. Otherwise false.
+	 * @throws SQLException Validating the connection has failed.
+	 */
+	default boolean isValid(Connection pConnection, int pTimeoutSeconds) throws SQLException {
+		return pConnection.isValid(pTimeoutSeconds);
+	}
 }
@@ -26,10 +26,16 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -98,6 +104,7 @@ public class JdbcHelper {
 		private final JdbcHelper helper;
 		private final Dialect dialect;
 		private final FailableSupplier<Connection,?> connectionProvider;
+		private int fetchSize;
 
 		/** Creates a new instance.
 		 * @param pHelper The {@link JdbcHelper}, that is creating this object.
@@ -285,6 +292,106 @@ public class JdbcHelper {
 			});
 		}
 
+		/** Sets the number of rows, that should be fetched from the database,
+		 * when more rows are needed. Defaults to 0, in which case the drivers
+		 * default applies.
+		 * @param pFetchSize The fetch size, or 0 for the drivers default.
+		 * @return This executor.
+		 * @see java.sql.Statement#setFetchSize(int)
+		 */
+		public Executor fetchSize(int pFetchSize) {
+			if (pFetchSize < 0) {
+				throw new IllegalArgumentException("The fetch size must not be negative.");
+			}
+			fetchSize = pFetchSize;
+			return this;
+		}
+
+		/** Executes the query, and returns a lazily populated stream of result
+		 * objects, one per row, which are created by invoking the given mapper.
+		 * The rows are read from a forward only, read only cursor, using the
+		 * configured {@link #fetchSize(int) fetch size}, so arbitrarily large
+		 * results can be processed with constant memory. The mapper is invoked
+		 * with the same {@link Rows} object for all rows, so column metadata
+		 * (as in {@link Rows#getColumnIndex(String)}) is resolved only once.
+		 *
+		 * The connection, statement, and result set remain open, until the
+		 * stream is being closed. Therefore, the stream <em>must</em> be closed,
+		 * for example by using a try-with-resources block:
+		 * <pre>
+		 *   try (Stream&lt;String&gt; names = executor.stream((rows) -&gt; rows.nextStr())) {
+		 *       names.forEach(...);
+		 *   }
+		 * </pre>
+		 * @param <O> Type of the result objects.
+		 * @param pMapper The row mapper, which is being invoked to create a
+		 *   result object from the current row.
+		 * @return A stream of result objects.
+		 */
+		public <O> Stream<O> stream(@NonNull FailableFunction<Rows,O,?> pMapper) {
+			final FailableFunction<Rows,O,?> mapper = Objects.requireNonNull(pMapper, "Mapper");
+			Connection conn = null;
+			PreparedStatement stmt = null;
+			ResultSet rs = null;
+			try {
+				conn = connectionProvider.get();
+				stmt = Objects.requireNonNull(conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+						                                            ResultSet.CONCUR_READ_ONLY));
+				if (fetchSize > 0) {
+					stmt.setFetchSize(fetchSize);
+				}
+				helper.setParameters(stmt, parameters);
+				rs = stmt.executeQuery();
+			} catch (Throwable t) {
+				close(rs, stmt, conn);
+				throw handleError(t);
+			}
+			final Rows rows = helper.newRows(rs);
+			final Spliterator<O> spliterator = new Spliterators.AbstractSpliterator<O>(Long.MAX_VALUE, Spliterator.ORDERED) {
+				@Override
+				public boolean tryAdvance(Consumer<? super O> pAction) {
+					try {
+						if (!rows.next()) {
+							return false;
+						}
+						pAction.accept(mapper.apply(rows));
+						return true;
+					} catch (Throwable t) {
+						throw handleError(t);
+					}
+				}
+			};
+			final Connection connection = conn;
+			final PreparedStatement statement = stmt;
+			final ResultSet resultSet = rs;
+			return StreamSupport.stream(spliterator, false).onClose(() -> {
+				final Throwable th = close(resultSet, statement, connection);
+				if (th != null) {
+					throw handleError(th);
+				}
+			});
+		}
+
+		/** Closes the given resources, ignoring null values.
+		 * @param pResources The resources, which are being closed.
+		 * @return The first error, that occurred while closing, if any, or null.
+		 */
+		private Throwable close(AutoCloseable... pResources) {
+			Throwable th = null;
+			for (AutoCloseable ac : pResources) {
+				if (ac != null) {
+					try {
+						ac.close();
+					} catch (Throwable t) {
+						if (th == null) {
+							th = t;
+						}
+					}
+				}
+			}
+			return th;
+		}
+
 		/** Executes a query, which returns exactly one row, and exactly one
 		 * column, and returns the result object.
 		 * @param <O> Type of the result object.
@@ -314,17 +421,139 @@ public class JdbcHelper {
 		 *   reported.
 		 */
 		protected RuntimeException handleError(Throwable pError) {
-			final Throwable error = Objects.requireNonNull(pError, "Error");
-			if (pError instanceof SQLException) {
-				if (dialect != null) {
-					final SQLException se = (SQLException) error;
-					if (dialect.isDroppedTableDoesnExistError(se)) {
-						throw new DroppedTableDoesntExistException(se);
+			throw JdbcHelper.handleError(dialect, pError);
+		}
+	}
+
+	/**
+	 * An object, that executes a single SQL statement many times, with varying
+	 * parameters, using {@link PreparedStatement#addBatch()}, and
+	 * {@link PreparedStatement#executeBatch()}. Compared to invoking
+	 * {@link Executor#run()} once per row, this saves a database round trip per row.
+	 */
+	public static class BatchExecutor {
+		private final String statement;
+		private final JdbcHelper helper;
+		private final Dialect dialect;
+		private final FailableSupplier<Connection,?> connectionProvider;
+		private int batchSize = 1000;
+		private FailableConsumer<int[],?> batchListener;
+
+		/** Creates a new instance.
+		 * @param pHelper The {@link JdbcHelper}, that is creating this object.
+		 * @param pDialect The {@link Dialect SQL Dialect}, if available,
+		 *   for support in error handling.
+		 * @param pConnProvider The connection provider.
+		 * @param pStatement The SQL statement, that is being executed.
+		 */
+		public BatchExecutor(@NonNull JdbcHelper pHelper,
+		                     @Nullable Dialect pDialect,
+		                     @NonNull FailableSupplier<Connection,?> pConnProvider,
+		                     @NonNull String pStatement) {
+			helper = Objects.requireNonNull(pHelper, "JdbcHelper");
+			dialect = pDialect;
+			connectionProvider = Objects.requireNonNull(pConnProvider, "Connection Provider");
+			statement = Objects.requireNonNull(pStatement, "Statement");
+		}
+
+		/** Sets the number of rows, after which the batch is being executed.
+		 * Defaults to 1000.
+		 * @param pBatchSize The number of rows per batch.
+		 * @return This executor.
+		 */
+		public BatchExecutor batchSize(int pBatchSize) {
+			if (pBatchSize < 1) {
+				throw new IllegalArgumentException("The batch size must be positive.");
+			}
+			batchSize = pBatchSize;
+			return this;
+		}
+
+		/** Sets a listener, which is being invoked with the update counts
+		 * (the result of {@link PreparedStatement#executeBatch()}) of every
+		 * executed batch.
+		 * @param pListener The listener, which receives the update counts.
+		 * @return This executor.
+		 */
+		public BatchExecutor onBatch(@Nullable FailableConsumer<int[],?> pListener) {
+			batchListener = pListener;
+			return this;
+		}
+
+		/** Executes the statement once for every parameter array, which is
+		 * returned by the given {@link Iterable}.
+		 * @param pRows The parameter arrays, one per row. The parameters are
+		 *   applied by invoking {@link JdbcHelper#setParameters(PreparedStatement, Object...)}.
+		 * @return The total number of affected rows, as reported by the
+		 *   driver. Rows, for which the driver reports no update count
+		 *   ({@link java.sql.Statement#SUCCESS_NO_INFO}), are not counted.
+		 */
+		public long run(@NonNull Iterable<Object[]> pRows) {
+			final Iterable<Object[]> rows = Objects.requireNonNull(pRows, "Rows");
+			try (Connection conn = connectionProvider.get();
+				 PreparedStatement stmt = Objects.requireNonNull(conn.prepareStatement(statement))) {
+				long affectedRows = 0;
+				int pendingRows = 0;
+				for (Object[] row : rows) {
+					helper.setParameters(stmt, row);
+					stmt.addBatch();
+					if (++pendingRows == batchSize) {
+						affectedRows += executeBatch(stmt);
+						pendingRows = 0;
 					}
 				}
+				if (pendingRows > 0) {
+					affectedRows += executeBatch(stmt);
+				}
+				return affectedRows;
+			} catch (Throwable t) {
+				throw JdbcHelper.handleError(dialect, t);
+			}
+		}
+
+		/** Executes the statement once for every parameter array, which is
+		 * returned by the given {@link Stream}.
+		 * @param pRows The parameter arrays, one per row.
+		 * @return The total number of affected rows.
+		 * @see #run(Iterable)
+		 */
+		public long run(@NonNull Stream<Object[]> pRows) {
+			final Stream<Object[]> rows = Objects.requireNonNull(pRows, "Rows");
+			return run((Iterable<Object[]>) rows::iterator);
+		}
+
+		private long executeBatch(PreparedStatement pStmt) throws Throwable {
+			final int[] updateCounts = pStmt.executeBatch();
+			if (batchListener != null) {
+				batchListener.accept(updateCounts);
+			}
+			long affectedRows = 0;
+			for (int updateCount : updateCounts) {
+				if (updateCount > 0) {
+					affectedRows += updateCount;
+				}
+			}
+			return affectedRows;
+		}
+	}
+
+	/** Called to handle an error, that has occurred.
+	 * @param pDialect The {@link Dialect SQL Dialect}, if available.
+	 * @param pError The error, that has occurred, typically
+	 * an {@link SQLException}.
+	 * @return The error, that is being reported.
+	 */
+	static RuntimeException handleError(@Nullable Dialect pDialect, Throwable pError) {
+		final Throwable error = Objects.requireNonNull(pError, "Error");
+		if (pError instanceof SQLException) {
+			if (pDialect != null) {
+				final SQLException se = (SQLException) error;
+				if (pDialect.isDroppedTableDoesnExistError(se)) {
+					throw new DroppedTableDoesntExistException(se);
+				}
 			}
-			throw Exceptions.show(error);
 		}
+		throw Exceptions.show(error);
 	}
 
 	/** Abstract representation of a row in the {@link ResultSet}. Allows a code style, that is
@@ -332,7 +561,8 @@ public class JdbcHelper {
 	 */
 	public class Rows {
 		private final ResultSet rs;
-		private ResultSetMetaData rsmd;
+		private int[] columnTypes;
+		private Map<String,Integer> columnIndexes;
 		private int index;
 
 		/** Creates a new instance with the given result set.
@@ -358,10 +588,7 @@ public class JdbcHelper {
 		 */
 		public <O> O getObject(int pIndex) {
 			try {
-				if (rsmd == null) {
-					rsmd = rs.getMetaData();
-				}
-				final int type = rsmd.getColumnType(pIndex);
+				final int type = getColumnTypes()[pIndex-1];
 				Object object;
 				switch (type) {
 				case Types.INTEGER:
@@ -411,6 +638,7 @@ public class JdbcHelper {
 					break;
 				case Types.FLOAT:
 					object = getFloatObj(pIndex);
+					break;
 				default:
 					throw new IllegalStateException("Invalid column type: " + type);
 				}
@@ -422,6 +650,54 @@ public class JdbcHelper {
 			}
 		}
 
+		/** Returns the column types, as given by the result sets metadata.
+		 * The metadata is read only once per result set, rather than once
+		 * per row.
+		 * @return The column types, indexed by column number minus 1.
+		 * @throws SQLException Reading the result sets metadata failed.
+		 */
+		protected int[] getColumnTypes() throws SQLException {
+			if (columnTypes == null) {
+				final ResultSetMetaData rsmd = rs.getMetaData();
+				final int[] types = new int[rsmd.getColumnCount()];
+				for (int i = 0;  i < types.length;  i++) {
+					types[i] = rsmd.getColumnType(i+1);
+				}
+				columnTypes = types;
+			}
+			return columnTypes;
+		}
+
+		/** Returns the index of the column with the given name (label). The
+		 * column names are resolved only once per result set, so a row mapper
+		 * should use this method, rather than
+		 * {@link ResultSet#findColumn(String)}, which may search the column
+		 * list for every row.
+		 * @param pColumnName The column name (label), case insensitive.
+		 * @return The JDBC-style column index (1-based).
+		 * @throws IllegalArgumentException The result set has no such column.
+		 */
+		public int getColumnIndex(@NonNull String pColumnName) {
+			if (columnIndexes == null) {
+				try {
+					final ResultSetMetaData rsmd = rs.getMetaData();
+					final Map<String,Integer> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+					for (int i = rsmd.getColumnCount();  i >= 1;  i--) {
+						// Iterate backwards, so that the first column wins, if the name is ambiguous.
+						map.put(rsmd.getColumnLabel(i), Integer.valueOf(i));
+					}
+					columnIndexes = map;
+				} catch (SQLException e) {
+					throw Exceptions.show(e);
+				}
+			}
+			final Integer columnIndex = columnIndexes.get(pColumnName);
+			if (columnIndex == null) {
+				throw new IllegalArgumentException("Invalid column name: " + pColumnName);
+			}
+			return columnIndex.intValue();
+		}
+
 		/** Returns the underlying {@link ResultSet}.
 		 * @return The underlying {@link ResultSet}.
 		 */
@@ -1554,6 +1830,37 @@ public class JdbcHelper {
 		return new Executor(this, null, () -> conn, pStatement, pParameters);
 	}
 
+	/** Prepares a {@link JdbcHelper.BatchExecutor batch executor} with the given
+	 * SQL statement, and the given dialect.
+	 * @param pConnectionSupplier A database connection provider. The
+	 * connection, which is returned by the provider, will be closed.
+	 * If you need the connection to remain open, use
+	 * {@link #batch(Connection, Dialect, String)}.
+	 * @param pDialect The SQL dialect, if available, for support in
+	 *   error handling.
+	 * @param pStatement The SQL statement, which is being executed.
+	 * @return The created {@link JdbcHelper.BatchExecutor batch executor}.
+	 */
+	public BatchExecutor batch(@NonNull FailableSupplier<Connection,?> pConnectionSupplier,
+	                           @Nullable Dialect pDialect, @NonNull String pStatement) {
+		return new BatchExecutor(this, pDialect, pConnectionSupplier, pStatement);
+	}
+
+	/** Prepares a {@link JdbcHelper.BatchExecutor batch executor} with the given
+	 * SQL statement, and the given dialect.
+	 * @param pConnection An open database connection. This method will
+	 * <em>not</em> close the connection.
+	 * @param pDialect The SQL dialect, if available, for support in
+	 *   error handling.
+	 * @param pStatement The SQL statement, which is being executed.
+	 * @return The created {@link JdbcHelper.BatchExecutor batch executor}.
+	 */
+	public BatchExecutor batch(@NonNull Connection pConnection,
+	                           @Nullable Dialect pDialect, @NonNull String pStatement) {
+		final Connection conn = uncloseableConnection(pConnection);
+		return new BatchExecutor(this, pDialect, () -> conn, pStatement);
+	}
+
 	/** Creates a new connection object, which acts as a wrapper for the
 	 * given database connection. However, the created connection has a
 	 * do-nothing {@link Connection#close()} method. In other words:
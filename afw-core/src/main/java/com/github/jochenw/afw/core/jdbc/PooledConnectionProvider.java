@@ -0,0 +1,971 @@
+package com.github.jochenw.afw.core.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.github.jochenw.afw.core.log.ILog;
+import com.github.jochenw.afw.core.log.ILogFactory;
+import com.github.jochenw.afw.core.util.Objects;
+import com.github.jochenw.afw.di.api.IComponentFactory;
+
+
+/** Implementation of {@link ConnectionProvider}, which maintains a pool of
+ * database connections. The physical connections are created by a
+ * {@link #PooledConnectionProvider(ConnectionProvider) delegate}, or, by
+ * default, by the {@link DefaultConnectionProvider superclass}, in other
+ * words, using the same properties. Invoking {@link Connection#close()}
+ * on a connection, which has been returned by {@link #open()}, returns
+ * the physical connection to the pool.
+ *
+ * The pool has the following features:
+ * <ul>
+ *   <li>A {@link #setMinSize(int) minimum}, and a {@link #setMaxSize(int) maximum}
+ *     number of physical connections.</li>
+ *   <li>Connections are validated, before being handed out, using the
+ *     {@link Dialect#isValid(Connection, int) dialect}.</li>
+ *   <li>Connections, which have been {@link #setIdleTimeout(Duration) idle}
+ *     for too long, are closed by a background thread.</li>
+ *   <li>Connections, which have been borrowed for too long, are reported
+ *     as {@link #setLeakDetectionThreshold(Duration) leaks}, together with
+ *     the stack trace of the borrowing thread.</li>
+ *   <li>Borrowing is fair (first come, first served), and lock-free, unless
+ *     the pool is exhausted.</li>
+ *   <li>Optionally, prepared statements are {@link #setStatementCacheSize(int) cached}
+ *     per connection.</li>
+ *   <li>The pools state is available as {@link #getMetrics() metrics}.</li>
+ * </ul>
+ * The pool must be {@link #close() closed}, when it is no longer required.
+ */
+public class PooledConnectionProvider extends DefaultConnectionProvider implements AutoCloseable {
+	/** A snapshot of the pools state.
+	 */
+	public static class Metrics {
+		private final int active, idle, total;
+		private final long borrowCount, totalWaitNanos, maxWaitNanos;
+		private final long createdCount, destroyedCount, timeoutCount, leakCount;
+		private final long statementCacheHits, statementCacheMisses;
+
+		/** Creates a new instance.
+		 * @param pActive The number of borrowed connections.
+		 * @param pIdle The number of idle connections.
+		 * @param pTotal The number of physical connections.
+		 * @param pBorrowCount The number of successful invocations of {@link PooledConnectionProvider#open()}.
+		 * @param pTotalWaitNanos The accumulated time in nanoseconds, that callers of {@link PooledConnectionProvider#open()}
+		 *   have been waiting for a connection, including callers, which didn't get a connection.
+		 * @param pMaxWaitNanos The maximum time in nanoseconds, that a caller has been waiting for a connection.
+		 * @param pCreatedCount The number of physical connections, that have been opened.
+		 * @param pDestroyedCount The number of physical connections, that have been closed.
+		 * @param pTimeoutCount The number of invocations of {@link PooledConnectionProvider#open()},
+		 *   that failed, because no connection became available in time.
+		 * @param pLeakCount The number of connections, that have been reported as leaks.
+		 * @param pStatementCacheHits The number of prepared statements, that have been taken from the cache.
+		 * @param pStatementCacheMisses The number of prepared statements, that have been prepared, while
+		 *   the statement cache is enabled.
+		 */
+		public Metrics(int pActive, int pIdle, int pTotal, long pBorrowCount, long pTotalWaitNanos,
+				       long pMaxWaitNanos, long pCreatedCount, long pDestroyedCount, long pTimeoutCount,
+				       long pLeakCount, long pStatementCacheHits, long pStatementCacheMisses) {
+			active = pActive;
+			idle = pIdle;
+			total = pTotal;
+			borrowCount = pBorrowCount;
+			totalWaitNanos = pTotalWaitNanos;
+			maxWaitNanos = pMaxWaitNanos;
+			createdCount = pCreatedCount;
+			destroyedCount = pDestroyedCount;
+			timeoutCount = pTimeoutCount;
+			leakCount = pLeakCount;
+			statementCacheHits = pStatementCacheHits;
+			statementCacheMisses = pStatementCacheMisses;
+		}
+
+		/** Returns the number of borrowed connections.
+		 * @return The number of borrowed connections.
+		 */
+		public int getActive() { return active; }
+		/** Returns the number of idle connections.
+		 * @return The number of idle connections.
+		 */
+		public int getIdle() { return idle; }
+		/** Returns the number of physical connections.
+		 * @return The number of physical connections.
+		 */
+		public int getTotal() { return total; }
+		/** Returns the number of connections, that have been handed out.
+		 * @return The number of connections, that have been handed out.
+		 */
+		public long getBorrowCount() { return borrowCount; }
+		/** Returns the accumulated time in nanoseconds, that callers have been
+		 * waiting for a connection.
+		 * @return The accumulated wait time in nanoseconds.
+		 */
+		public long getTotalWaitNanos() { return totalWaitNanos; }
+		/** Returns the maximum time in nanoseconds, that a caller has been
+		 * waiting for a connection.
+		 * @return The maximum wait time in nanoseconds.
+		 */
+		public long getMaxWaitNanos() { return maxWaitNanos; }
+		/** Returns the number of physical connections, that have been opened.
+		 * @return The number of physical connections, that have been opened.
+		 */
+		public long getCreatedCount() { return createdCount; }
+		/** Returns the number of physical connections, that have been closed.
+		 * @return The number of physical connections, that have been closed.
+		 */
+		public long getDestroyedCount() { return destroyedCount; }
+		/** Returns the number of callers, which didn't get a connection in time.
+		 * @return The number of callers, which didn't get a connection in time.
+		 */
+		public long getTimeoutCount() { return timeoutCount; }
+		/** Returns the number of connections, that have been reported as leaks.
+		 * @return The number of connections, that have been reported as leaks.
+		 */
+		public long getLeakCount() { return leakCount; }
+		/** Returns the number of prepared statements, that have been taken from the cache.
+		 * @return The number of statement cache hits.
+		 */
+		public long getStatementCacheHits() { return statementCacheHits; }
+		/** Returns the number of prepared statements, that have been prepared, while
+		 * the statement cache is enabled.
+		 * @return The number of statement cache misses.
+		 */
+		public long getStatementCacheMisses() { return statementCacheMisses; }
+
+		@Override
+		public String toString() {
+			return "active=" + active + ", idle=" + idle + ", total=" + total
+					+ ", borrowed=" + borrowCount + ", maxWait=" + maxWaitNanos/1000000 + "ms"
+					+ ", created=" + createdCount + ", destroyed=" + destroyedCount
+					+ ", timeouts=" + timeoutCount + ", leaks=" + leakCount
+					+ ", statementCacheHits=" + statementCacheHits + ", statementCacheMisses=" + statementCacheMisses;
+		}
+	}
+
+	/** A physical connection, which is owned by the pool.
+	 */
+	private static class PooledConnection {
+		private final @NonNull Connection connection;
+		private final boolean autoCommit;
+		private volatile long lastUsedNanos;
+		private volatile long borrowedNanos;
+		private volatile @Nullable Throwable borrowStack;
+		private volatile boolean leakReported;
+		private final @Nullable Map<String,CachedStatement> statements;
+
+		PooledConnection(@NonNull Connection pConnection, int pStatementCacheSize) throws SQLException {
+			connection = pConnection;
+			autoCommit = pConnection.getAutoCommit();
+			lastUsedNanos = System.nanoTime();
+			if (pStatementCacheSize > 0) {
+				statements = new LinkedHashMap<String,CachedStatement>(16, 0.75f, true) {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String,CachedStatement> pEldest) {
+						if (size() > pStatementCacheSize) {
+							pEldest.getValue().evict();
+							return true;
+						}
+						return false;
+					}
+				};
+			} else {
+				statements = null;
+			}
+		}
+	}
+
+	/** A prepared statement in the statement cache of a {@link PooledConnection}.
+	 */
+	private static class CachedStatement {
+		private final PooledConnection pooledConnection;
+		private final String sql;
+		private final @NonNull PreparedStatement statement;
+		private @Nullable StatementHandle handle;
+		private boolean evicted;
+
+		CachedStatement(PooledConnection pPooledConnection, String pSql, @NonNull PreparedStatement pStatement) {
+			pooledConnection = pPooledConnection;
+			sql = pSql;
+			statement = pStatement;
+		}
+
+		boolean isInUse() {
+			return handle != null;
+		}
+
+		PreparedStatement borrow(Connection pConnection) {
+			final StatementHandle h = new StatementHandle(this, pConnection);
+			handle = h;
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, h);
+		}
+
+		/** Called, if the statement has been removed from the cache.
+		 */
+		void evict() {
+			evicted = true;
+			if (!isInUse()) {
+				closeStatement();
+			}
+		}
+
+		/** Called, if the statement is returned to the cache.
+		 */
+		void release() {
+			handle = null;
+			if (evicted) {
+				closeStatement();
+			} else {
+				try {
+					statement.clearParameters();
+					statement.clearBatch();
+				} catch (SQLException e) {
+					pooledConnection.statements.remove(sql);
+					closeStatement();
+				}
+			}
+		}
+
+		void closeStatement() {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				// Ignore this, the statement is being discarded anyways.
+			}
+		}
+	}
+
+	/** The statement object, which is being handed out to the caller: A
+	 * wrapper for a {@link CachedStatement}, which returns the statement
+	 * to the cache, when being closed.
+	 */
+	private static class StatementHandle implements InvocationHandler {
+		private final CachedStatement cachedStatement;
+		private final Connection connection;
+		private boolean closed;
+
+		StatementHandle(CachedStatement pCachedStatement, Connection pConnection) {
+			cachedStatement = pCachedStatement;
+			connection = pConnection;
+		}
+
+		@Override
+		public Object invoke(Object pProxy, Method pMethod, Object[] pArgs) throws Throwable {
+			final String name = pMethod.getName();
+			final int parameterCount = pMethod.getParameterCount();
+			synchronized(cachedStatement.pooledConnection.statements) {
+				if ("close".equals(name)  &&  parameterCount == 0) {
+					if (!closed) {
+						closed = true;
+						if (cachedStatement.handle == this) {
+							cachedStatement.release();
+						}
+					}
+					return null;
+				} else if ("isClosed".equals(name)  &&  parameterCount == 0) {
+					if (closed) {
+						return Boolean.TRUE;
+					}
+				} else if ("getConnection".equals(name)  &&  parameterCount == 0) {
+					return connection;
+				} else if ("equals".equals(name)  &&  parameterCount == 1) {
+					return Boolean.valueOf(pProxy == pArgs[0]);
+				} else if ("hashCode".equals(name)  &&  parameterCount == 0) {
+					return Integer.valueOf(System.identityHashCode(pProxy));
+				} else if ("toString".equals(name)  &&  parameterCount == 0) {
+					return "Cached:" + cachedStatement.statement;
+				}
+				if (closed  ||  cachedStatement.handle != this) {
+					throw new SQLException("This statement has already been closed.");
+				}
+			}
+			try {
+				return pMethod.invoke(cachedStatement.statement, pArgs);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	/** The connection object, which is being handed out to the caller:
+	 * A wrapper for the physical connection, which returns the physical
+	 * connection to the pool, when being closed.
+	 */
+	private class Handle implements InvocationHandler {
+		private final PooledConnection pooledConnection;
+		private boolean closed;
+
+		Handle(PooledConnection pPooledConnection) {
+			pooledConnection = pPooledConnection;
+		}
+
+		@Override
+		public Object invoke(Object pProxy, Method pMethod, Object[] pArgs) throws Throwable {
+			final String name = pMethod.getName();
+			if ("close".equals(name)  &&  pMethod.getParameterCount() == 0) {
+				synchronized(this) {
+					if (closed) {
+						return null;
+					}
+					closed = true;
+				}
+				release(pooledConnection);
+				return null;
+			} else if ("isClosed".equals(name)  &&  pMethod.getParameterCount() == 0) {
+				synchronized(this) {
+					if (closed) {
+						return Boolean.TRUE;
+					}
+				}
+			} else if ("equals".equals(name)  &&  pMethod.getParameterCount() == 1) {
+				return Boolean.valueOf(pProxy == pArgs[0]);
+			} else if ("hashCode".equals(name)  &&  pMethod.getParameterCount() == 0) {
+				return Integer.valueOf(System.identityHashCode(pProxy));
+			} else if ("toString".equals(name)  &&  pMethod.getParameterCount() == 0) {
+				return "Pooled:" + pooledConnection.connection;
+			} else {
+				synchronized(this) {
+					if (closed) {
+						throw new SQLException("This connection has already been closed.");
+					}
+				}
+				if ("prepareStatement".equals(name)  &&  pMethod.getParameterCount() == 1
+						&&  pooledConnection.statements != null) {
+					return prepareStatement(pooledConnection, (String) pArgs[0], (Connection) pProxy);
+				}
+			}
+			try {
+				return pMethod.invoke(pooledConnection.connection, pArgs);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	private int minSize, maxSize = 10;
+	private @NonNull Duration maxWait = Duration.ofSeconds(30);
+	private @NonNull Duration idleTimeout = Duration.ofMinutes(10);
+	private @NonNull Duration evictionInterval = Duration.ofSeconds(30);
+	private @NonNull Duration validationInterval = Duration.ofMillis(500);
+	private @Nullable Duration leakDetectionThreshold;
+	private int validationTimeoutSeconds = 5;
+	private int statementCacheSize;
+
+	private final @Nullable ConnectionProvider delegate;
+	private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+	private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger totalCount = new AtomicInteger();
+	private final LongAdder borrowCount = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder createdCount = new LongAdder();
+	private final LongAdder destroyedCount = new LongAdder();
+	private final LongAdder timeoutCount = new LongAdder();
+	private final LongAdder leakCount = new LongAdder();
+	private final LongAdder statementCacheHits = new LongAdder();
+	private final LongAdder statementCacheMisses = new LongAdder();
+	private volatile Semaphore permits;
+	private volatile ScheduledExecutorService evictor;
+	private volatile boolean closed;
+	private volatile @Nullable Dialect dialect;
+	private volatile @Nullable ILog log;
+
+	/** Creates a new instance, which opens the physical connections by
+	 * invoking {@link DefaultConnectionProvider#open()}.
+	 */
+	public PooledConnectionProvider() {
+		delegate = null;
+	}
+
+	/** Creates a new instance, which opens the physical connections by
+	 * invoking the given delegates {@link ConnectionProvider#open()} method.
+	 * @param pDelegate The connection provider, which opens the physical
+	 *   connections.
+	 */
+	public PooledConnectionProvider(@NonNull ConnectionProvider pDelegate) {
+		delegate = Objects.requireNonNull(pDelegate, "Delegate");
+	}
+
+	/** Returns the minimum number of physical connections, which the pool
+	 * maintains. Defaults to 0.
+	 * @return The minimum number of physical connections.
+	 */
+	public int getMinSize() { return minSize; }
+
+	/** Sets the minimum number of physical connections, which the pool
+	 * maintains. Defaults to 0. The pool opens this number of connections
+	 * when it is being started, in other words, upon the first invocation
+	 * of {@link #open()}. The minimum size must not exceed the
+	 * {@link #getMaxSize() maximum size}. Because the setters may be
+	 * invoked in any order, this is checked when the pool is being started.
+	 * @param pMinSize The minimum number of physical connections.
+	 * @throws IllegalArgumentException The minimum size is negative.
+	 * @throws IllegalStateException The pool has already been started.
+	 */
+	public void setMinSize(int pMinSize) {
+		if (pMinSize < 0) {
+			throw new IllegalArgumentException("The minimum size must not be negative.");
+		}
+		assertNotStarted();
+		minSize = pMinSize;
+	}
+
+	/** Returns the maximum number of physical connections, which the pool
+	 * maintains. Defaults to 10.
+	 * @return The maximum number of physical connections.
+	 */
+	public int getMaxSize() { return maxSize; }
+
+	/** Sets the maximum number of physical connections, which the pool
+	 * maintains. Defaults to 10. The maximum size must not be lower than
+	 * the {@link #getMinSize() minimum size}. Because the setters may be
+	 * invoked in any order, this is checked when the pool is being started.
+	 * @param pMaxSize The maximum number of physical connections.
+	 * @throws IllegalArgumentException The maximum size is not positive.
+	 * @throws IllegalStateException The pool has already been started.
+	 */
+	public void setMaxSize(int pMaxSize) {
+		if (pMaxSize < 1) {
+			throw new IllegalArgumentException("The maximum size must be positive.");
+		}
+		assertNotStarted();
+		maxSize = pMaxSize;
+	}
+
+	/** Returns the maximum time, that {@link #open()} waits for a connection,
+	 * if the pool is exhausted. Defaults to 30 seconds.
+	 * @return The maximum time to wait for a connection.
+	 */
+	public @NonNull Duration getMaxWait() { return maxWait; }
+
+	/** Sets the maximum time, that {@link #open()} waits for a connection,
+	 * if the pool is exhausted. Defaults to 30 seconds.
+	 * @param pMaxWait The maximum time to wait for a connection.
+	 */
+	public void setMaxWait(@NonNull Duration pMaxWait) {
+		maxWait = Objects.requireNonNull(pMaxWait, "MaxWait");
+	}
+
+	/** Returns the time, after which an idle connection is being closed,
+	 * unless the pool has reached its minimum size. Defaults to 10 minutes.
+	 * @return The maximum idle time of a connection.
+	 */
+	public @NonNull Duration getIdleTimeout() { return idleTimeout; }
+
+	/** Sets the time, after which an idle connection is being closed,
+	 * unless the pool has reached its minimum size. Defaults to 10 minutes.
+	 * @param pIdleTimeout The maximum idle time of a connection.
+	 */
+	public void setIdleTimeout(@NonNull Duration pIdleTimeout) {
+		idleTimeout = Objects.requireNonNull(pIdleTimeout, "IdleTimeout");
+	}
+
+	/** Returns the interval, in which the background thread performs
+	 * the {@link #evict() idle eviction, and leak detection}. Defaults
+	 * to 30 seconds.
+	 * @return The eviction interval.
+	 */
+	public @NonNull Duration getEvictionInterval() { return evictionInterval; }
+
+	/** Sets the interval, in which the background thread performs
+	 * the {@link #evict() idle eviction, and leak detection}. Defaults
+	 * to 30 seconds.
+	 * @param pEvictionInterval The eviction interval.
+	 */
+	public void setEvictionInterval(@NonNull Duration pEvictionInterval) {
+		assertNotStarted();
+		evictionInterval = Objects.requireNonNull(pEvictionInterval, "EvictionInterval");
+	}
+
+	/** Returns the time, after which a returned connection is being
+	 * validated again, before handing it out. A connection, which has
+	 * been used more recently, is assumed to be valid. Defaults to 500
+	 * milliseconds.
+	 * @return The validation interval.
+	 */
+	public @NonNull Duration getValidationInterval() { return validationInterval; }
+
+	/** Sets the time, after which a returned connection is being
+	 * validated again, before handing it out. A connection, which has
+	 * been used more recently, is assumed to be valid. Defaults to 500
+	 * milliseconds. Use {@link Duration#ZERO} to validate always.
+	 * @param pValidationInterval The validation interval.
+	 */
+	public void setValidationInterval(@NonNull Duration pValidationInterval) {
+		validationInterval = Objects.requireNonNull(pValidationInterval, "ValidationInterval");
+	}
+
+	/** Returns the maximum number of seconds to wait for the database,
+	 * when validating a connection. Defaults to 5.
+	 * @return The validation timeout in seconds.
+	 */
+	public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+
+	/** Sets the maximum number of seconds to wait for the database,
+	 * when validating a connection. Defaults to 5.
+	 * @param pValidationTimeoutSeconds The validation timeout in seconds.
+	 */
+	public void setValidationTimeoutSeconds(int pValidationTimeoutSeconds) {
+		validationTimeoutSeconds = pValidationTimeoutSeconds;
+	}
+
+	/** Returns the maximum number of prepared statements, which are being
+	 * cached per connection. Defaults to 0 (no caching).
+	 * @return The maximum number of cached statements per connection.
+	 */
+	public int getStatementCacheSize() { return statementCacheSize; }
+
+	/** Sets the maximum number of prepared statements, which are being
+	 * cached per connection. Defaults to 0 (no caching). If the cache is
+	 * enabled, then {@link Connection#prepareStatement(String)} returns
+	 * a cached statement, if the same SQL text has been prepared on the
+	 * same physical connection before. Invoking {@link PreparedStatement#close()}
+	 * returns the statement to the cache. This speeds up, for example,
+	 * repeated invocations of {@link JdbcHelper.Executor#run()}, because
+	 * every invocation borrows a connection, and prepares the statement
+	 * again.
+	 * @param pStatementCacheSize The maximum number of cached statements per
+	 *   connection, or 0 to disable the cache.
+	 */
+	public void setStatementCacheSize(int pStatementCacheSize) {
+		if (pStatementCacheSize < 0) {
+			throw new IllegalArgumentException("The statement cache size must not be negative.");
+		}
+		assertNotStarted();
+		statementCacheSize = pStatementCacheSize;
+	}
+
+	/** Returns the time, after which a borrowed connection is reported as
+	 * a leak, if any, or null (default).
+	 * @return The leak detection threshold, if any, or null.
+	 */
+	public @Nullable Duration getLeakDetectionThreshold() { return leakDetectionThreshold; }
+
+	/** Sets the time, after which a borrowed connection is reported as
+	 * a leak, if any, or null (default). If leak detection is enabled, then
+	 * every invocation of {@link #open()} records the callers stack trace,
+	 * which is logged with the leak report.
+	 * @param pThreshold The leak detection threshold, or null to disable
+	 *   leak detection.
+	 */
+	public void setLeakDetectionThreshold(@Nullable Duration pThreshold) {
+		leakDetectionThreshold = pThreshold;
+	}
+
+	/** Sets the logger, which is used to report leaks. By default, the
+	 * logger is obtained from the {@link ILogFactory}, if the component
+	 * factory provides one.
+	 * @param pLog The logger, which is used to report leaks.
+	 */
+	public void setLog(@Nullable ILog pLog) {
+		log = pLog;
+	}
+
+	@Override
+	public @NonNull Connection open() throws SQLException {
+		final Semaphore semaphore = getPermits();
+		final long startTime = System.nanoTime();
+		final boolean acquired;
+		try {
+			acquired = semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+		}
+		final long waitNanos = System.nanoTime() - startTime;
+		totalWaitNanos.add(waitNanos);
+		maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+		if (!acquired) {
+			timeoutCount.increment();
+			throw new SQLTransientConnectionException("No connection available within "
+					+ maxWait.toMillis() + " milliseconds: " + getMetrics());
+		}
+		boolean success = false;
+		try {
+			assertNotClosed();
+			PooledConnection pc;
+			for (;;) {
+				// LIFO: The most recently used connection is the most likely to be valid.
+				pc = idleConnections.pollFirst();
+				if (pc == null) {
+					pc = create();
+					break;
+				}
+				if (isValid(pc)) {
+					break;
+				}
+				destroy(pc);
+			}
+			final long now = System.nanoTime();
+			pc.borrowedNanos = now;
+			pc.leakReported = false;
+			pc.borrowStack = leakDetectionThreshold == null ? null
+					: new Throwable("Connection borrowed by thread " + Thread.currentThread().getName());
+			borrowedConnections.add(pc);
+			borrowCount.increment();
+			final Connection conn = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new Handle(pc));
+			success = true;
+			return conn;
+		} finally {
+			if (!success) {
+				semaphore.release();
+			}
+		}
+	}
+
+	/** Called to return a borrowed connection to the pool.
+	 * @param pConnection The connection, which is being returned.
+	 */
+	private void release(PooledConnection pConnection) {
+		try {
+			borrowedConnections.remove(pConnection);
+			pConnection.borrowStack = null;
+			if (!closed  &&  totalCount.get() <= maxSize  &&  reset(pConnection)) {
+				pConnection.lastUsedNanos = System.nanoTime();
+				idleConnections.offerFirst(pConnection);
+				if (closed  &&  idleConnections.remove(pConnection)) {
+					// The pool has been closed concurrently.
+					destroy(pConnection);
+				}
+			} else {
+				destroy(pConnection);
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	private PreparedStatement prepareStatement(PooledConnection pConnection, String pSql, Connection pHandle)
+			throws SQLException {
+		final Map<String,CachedStatement> statements = Objects.requireNonNull(pConnection.statements);
+		synchronized(statements) {
+			final CachedStatement cs = statements.get(pSql);
+			if (cs != null  &&  !cs.isInUse()) {
+				statementCacheHits.increment();
+				return cs.borrow(pHandle);
+			}
+			statementCacheMisses.increment();
+			final PreparedStatement stmt = Objects.requireNonNull(pConnection.connection.prepareStatement(pSql));
+			if (cs != null) {
+				// The cached statement is in use, so the caller gets an uncached statement.
+				return stmt;
+			}
+			final CachedStatement newCs = new CachedStatement(pConnection, pSql, stmt);
+			statements.put(pSql, newCs);
+			return newCs.borrow(pHandle);
+		}
+	}
+
+	/** Restores the initial state of a returned connection.
+	 * @param pConnection The connection, which is being returned.
+	 * @return True, if the connection may be reused, otherwise false.
+	 */
+	private boolean reset(PooledConnection pConnection) {
+		final Connection conn = pConnection.connection;
+		try {
+			if (conn.isClosed()) {
+				return false;
+			}
+			final Map<String,CachedStatement> statements = pConnection.statements;
+			if (statements != null) {
+				synchronized(statements) {
+					// Statements, which haven't been closed by the caller, aren't reused.
+					for (Iterator<CachedStatement> iter = statements.values().iterator();  iter.hasNext();  ) {
+						final CachedStatement cs = iter.next();
+						if (cs.isInUse()) {
+							iter.remove();
+							cs.handle = null;
+							cs.closeStatement();
+						}
+					}
+				}
+			}
+			if (!conn.getAutoCommit()) {
+				// Discard uncommitted changes.
+				conn.rollback();
+			}
+			if (conn.getAutoCommit() != pConnection.autoCommit) {
+				conn.setAutoCommit(pConnection.autoCommit);
+			}
+			conn.clearWarnings();
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private boolean isValid(PooledConnection pConnection) {
+		if (System.nanoTime() - pConnection.lastUsedNanos < validationInterval.toNanos()) {
+			return true;
+		}
+		try {
+			final Dialect d = getValidationDialect();
+			if (d == null) {
+				return pConnection.connection.isValid(validationTimeoutSeconds);
+			} else {
+				return d.isValid(pConnection.connection, validationTimeoutSeconds);
+			}
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private PooledConnection create() throws SQLException {
+		final Connection conn;
+		if (delegate == null) {
+			conn = super.open();
+		} else {
+			conn = Objects.requireNonNull(delegate.open(), "Connection");
+		}
+		final PooledConnection pc;
+		try {
+			pc = new PooledConnection(conn, statementCacheSize);
+		} catch (SQLException e) {
+			conn.close();
+			throw e;
+		}
+		totalCount.incrementAndGet();
+		createdCount.increment();
+		return pc;
+	}
+
+	private void destroy(PooledConnection pConnection) {
+		totalCount.decrementAndGet();
+		destroyedCount.increment();
+		try {
+			pConnection.connection.close();
+		} catch (SQLException e) {
+			// Ignore this, the connection is being discarded anyways.
+		}
+	}
+
+	/** Closes idle connections, which have exceeded the {@link #getIdleTimeout()
+	 * idle timeout}, opens new connections, if the pool is below its
+	 * {@link #getMinSize() minimum size}, and reports borrowed connections,
+	 * which have exceeded the {@link #getLeakDetectionThreshold() leak detection
+	 * threshold}. This method is invoked periodically by a background thread.
+	 */
+	public void evict() {
+		if (closed) {
+			return;
+		}
+		final long now = System.nanoTime();
+		final long idleTimeoutNanos = idleTimeout.toNanos();
+		// Oldest connections are at the end of the deque.
+		for (Iterator<PooledConnection> iter = idleConnections.descendingIterator();  iter.hasNext();  ) {
+			final PooledConnection pc = iter.next();
+			if (totalCount.get() <= minSize) {
+				break;
+			}
+			if (now - pc.lastUsedNanos >= idleTimeoutNanos  &&  idleConnections.remove(pc)) {
+				destroy(pc);
+			}
+		}
+		final Semaphore semaphore = permits;
+		if (semaphore != null) {
+			// Otherwise, the pool hasn't been started yet.
+			fill(semaphore);
+		}
+		final Duration threshold = leakDetectionThreshold;
+		if (threshold != null) {
+			final long thresholdNanos = threshold.toNanos();
+			for (PooledConnection pc : borrowedConnections) {
+				if (!pc.leakReported  &&  now - pc.borrowedNanos >= thresholdNanos) {
+					pc.leakReported = true;
+					leakCount.increment();
+					final ILog lg = getLog();
+					final Throwable borrowStack = pc.borrowStack;
+					if (lg != null) {
+						final String msg = "Possible connection leak: A connection has been borrowed for more than "
+								+ threshold.toMillis() + " milliseconds.";
+						if (borrowStack == null) {
+							lg.warn("evict", msg);
+						} else {
+							lg.warn("evict", msg, borrowStack);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/** Opens new connections, until the pool has reached its minimum size.
+	 * Like {@link #open()}, this takes a permit for every new connection, so
+	 * that the pool never exceeds its maximum size. If no permit is available,
+	 * then all connections are borrowed, or being created, and there is
+	 * nothing to fill.
+	 * @param pPermits The semaphore, which controls the pool size.
+	 */
+	private void fill(Semaphore pPermits) {
+		while (!closed  &&  totalCount.get() < minSize  &&  pPermits.tryAcquire()) {
+			try {
+				final PooledConnection pc = create();
+				idleConnections.offerLast(pc);
+				if (closed  &&  idleConnections.remove(pc)) {
+					// The pool has been closed concurrently.
+					destroy(pc);
+				}
+			} catch (Throwable t) {
+				final ILog lg = getLog();
+				if (lg != null) {
+					lg.warn("fill", "Failed to open a connection: " + t.getMessage());
+				}
+				break;
+			} finally {
+				pPermits.release();
+			}
+		}
+	}
+
+	/** Returns a snapshot of the pools state.
+	 * @return A snapshot of the pools state.
+	 */
+	public Metrics getMetrics() {
+		return new Metrics(borrowedConnections.size(), idleConnections.size(), totalCount.get(),
+				borrowCount.sum(), totalWaitNanos.sum(), maxWaitNanos.get(), createdCount.sum(),
+				destroyedCount.sum(), timeoutCount.sum(), leakCount.sum(), statementCacheHits.sum(),
+				statementCacheMisses.sum());
+	}
+
+	@Override
+	public @NonNull String getDialectId() {
+		if (delegate == null) {
+			return super.getDialectId();
+		} else {
+			return delegate.getDialectId();
+		}
+	}
+
+	@Override
+	public Dialect getDialect() {
+		if (delegate == null) {
+			return super.getDialect();
+		} else {
+			return delegate.getDialect();
+		}
+	}
+
+	private @Nullable Dialect getValidationDialect() {
+		Dialect d = dialect;
+		if (d == null) {
+			if (delegate == null  &&  getComponentFactory() == null) {
+				return null;
+			}
+			try {
+				d = getDialect();
+			} catch (RuntimeException e) {
+				d = null;
+			}
+			if (d != null) {
+				dialect = d;
+			}
+		}
+		return d;
+	}
+
+	private @Nullable ILog getLog() {
+		ILog lg = log;
+		if (lg == null) {
+			final IComponentFactory cf = getComponentFactory();
+			if (cf != null) {
+				final ILogFactory logFactory = cf.getInstance(ILogFactory.class);
+				if (logFactory != null) {
+					lg = logFactory.getLog(PooledConnectionProvider.class);
+					log = lg;
+				}
+			}
+		}
+		return lg;
+	}
+
+	private Semaphore getPermits() {
+		Semaphore semaphore = permits;
+		if (semaphore == null) {
+			synchronized(this) {
+				semaphore = permits;
+				if (semaphore == null) {
+					assertNotClosed();
+					if (minSize > maxSize) {
+						throw new IllegalStateException("The minimum size (" + minSize
+								+ ") must not exceed the maximum size (" + maxSize + ").");
+					}
+					// A fair semaphore hands out connections in the order of requests.
+					semaphore = new Semaphore(maxSize, true);
+					permits = semaphore;
+					// Don't wait for the first eviction to reach the minimum size.
+					fill(semaphore);
+					final long intervalNanos = evictionInterval.toNanos();
+					final ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor((r) -> {
+						final Thread t = new Thread(r, "PooledConnectionProvider-Evictor");
+						t.setDaemon(true);
+						return t;
+					});
+					ses.scheduleWithFixedDelay(this::evict, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+					evictor = ses;
+				}
+			}
+		}
+		return semaphore;
+	}
+
+	private void assertNotStarted() {
+		if (permits != null) {
+			throw new IllegalStateException("The pool has already been started.");
+		}
+	}
+
+	private void assertNotClosed() {
+		if (closed) {
+			throw new IllegalStateException("The pool has already been closed.");
+		}
+	}
+
+	/** Closes the pool, and all idle connections. Borrowed connections are
+	 * closed, when they are being returned to the pool.
+	 */
+	@Override
+	public void close() {
+		synchronized(this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		final ScheduledExecutorService ses = evictor;
+		if (ses != null) {
+			ses.shutdownNow();
+		}
+		for (;;) {
+			final PooledConnection pc = idleConnections.pollFirst();
+			if (pc == null) {
+				break;
+			}
+			destroy(pc);
+		}
+	}
+}
@@ -12,6 +12,7 @@ import jakarta.inject.Inject;
 
 import com.github.jochenw.afw.core.function.Functions.FailableConsumer;
 import com.github.jochenw.afw.core.function.Functions.FailableFunction;
+import com.github.jochenw.afw.core.jdbc.JdbcHelper.BatchExecutor;
 import com.github.jochenw.afw.core.jdbc.JdbcHelper.Executor;
 import com.github.jochenw.afw.core.util.Exceptions;
 
@@ -86,6 +87,19 @@ public class Worker {
 					                     pStatement, pParameters);
 		}
 
+		/** Prepares a {@link JdbcHelper.BatchExecutor batch executor} with the given
+		 * SQL statement. The batch is executed using the contexts
+		 * {@link #getConnection() connection}, so it is part of the current
+		 * transaction.
+		 * @param pStatement The SQL statement, which is being executed.
+		 * @return The created {@link JdbcHelper.BatchExecutor batch executor}.
+		 */
+		public BatchExecutor batch(@NonNull String pStatement) {
+			final JdbcHelper helper = getJdbcHelper();
+			return helper.batch(() -> helper.uncloseableConnection(getConnection()),
+					            getDialect(), pStatement);
+		}
+
 		/** Returns the database dialect.
 		 * @return The database dialect.
 		 */
@@ -186,4 +200,15 @@ public class Worker {
 				                     cp.getDialect(),
 				                     pStatement, pParameters);
 	}
+
+	/** Prepares a {@link JdbcHelper.BatchExecutor batch executor} with the given
+	 * SQL statement.
+	 * The batch is implemented as a separate transaction.
+	 * @param pStatement The SQL statement, which is being executed.
+	 * @return The created {@link JdbcHelper.BatchExecutor batch executor}.
+	 */
+	public BatchExecutor batch(@NonNull String pStatement) {
+		final ConnectionProvider cp = getConnectionProvider();
+		return getJdbcHelper().batch(() -> cp.open(), cp.getDialect(), pStatement);
+	}
 }
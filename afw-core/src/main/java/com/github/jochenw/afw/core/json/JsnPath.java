@@ -0,0 +1,214 @@
+package com.github.jochenw.afw.core.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/** A compiled Json path, as used by
+ * {@link JsnReader#stream(java.io.Reader, String, java.util.Map)}
+ * to subscribe to parts of a Json document. The supported syntax
+ * is a subset of the well known JsonPath notation:
+ * <pre>
+ *   $              The document itself.
+ *   .name          The object attribute "name".
+ *   ['name']       The object attribute "name". (Allows for special characters in the name.)
+ *   .*             Any object attribute.
+ *   [3]            The array element with index 3. (Indexes are zero based.)
+ *   [*]            Any array element.
+ * </pre>
+ * For example, the path {@code $.items[*]} matches any element of the
+ * array, which is the "items" attribute of the document's root object.
+ * Recursive descent ({@code ..}), filters, and slices are not supported.
+ */
+public class JsnPath {
+	/** Match result of {@link #match(String[], int[], int)}: The path
+	 * doesn't match the current position, and neither does it match
+	 * any position below.
+	 */
+	static final int NO_MATCH = 0;
+	/** Match result of {@link #match(String[], int[], int)}: The path
+	 * doesn't match the current position, but it may match a position
+	 * below.
+	 */
+	static final int PREFIX_MATCH = 1;
+	/** Match result of {@link #match(String[], int[], int)}: The path
+	 * matches the current position.
+	 */
+	static final int FULL_MATCH = 2;
+
+	private static final int NAME = 0;
+	private static final int INDEX = 1;
+	private static final int ANY_MEMBER = 2;
+	private static final int ANY_ELEMENT = 3;
+
+	private final @NonNull String path;
+	private final int[] kinds;
+	private final String[] names;
+	private final int[] indexes;
+
+	/** Creates a new instance.
+	 * @param pPath The path string.
+	 * @param pKinds The segment kinds.
+	 * @param pNames The segment names, if any, or null.
+	 * @param pIndexes The segment indexes, if any, or -1.
+	 */
+	protected JsnPath(@NonNull String pPath, int[] pKinds, String[] pNames, int[] pIndexes) {
+		path = pPath;
+		kinds = pKinds;
+		names = pNames;
+		indexes = pIndexes;
+	}
+
+	/** Parses the given path string.
+	 * @param pPath The path string, for example {@code $.items[*]}.
+	 * @return The compiled path.
+	 * @throws NullPointerException The parameter {@code pPath} is null.
+	 * @throws IllegalArgumentException The path string is invalid.
+	 */
+	public static @NonNull JsnPath of(@NonNull String pPath) {
+		final @NonNull String p = Objects.requireNonNull(pPath, "Path");
+		if (!p.startsWith("$")) {
+			throw new IllegalArgumentException("Invalid Json path, expected leading '$': " + p);
+		}
+		final List<String> nameList = new ArrayList<>();
+		final List<Integer> kindList = new ArrayList<>();
+		final List<Integer> indexList = new ArrayList<>();
+		int offset = 1;
+		while (offset < p.length()) {
+			final char c = p.charAt(offset++);
+			if (c == '.') {
+				if (offset < p.length()  &&  p.charAt(offset) == '*') {
+					++offset;
+					add(kindList, nameList, indexList, ANY_MEMBER, null, -1);
+				} else {
+					final int start = offset;
+					while (offset < p.length()  &&  p.charAt(offset) != '.'  &&  p.charAt(offset) != '[') {
+						++offset;
+					}
+					if (offset == start) {
+						throw new IllegalArgumentException("Invalid Json path, expected attribute name at offset "
+								+ start + ": " + p);
+					}
+					add(kindList, nameList, indexList, NAME, p.substring(start, offset), -1);
+				}
+			} else if (c == '[') {
+				final int start = offset;
+				if (offset < p.length()  &&  (p.charAt(offset) == '\''  ||  p.charAt(offset) == '"')) {
+					final int end = p.indexOf(p.charAt(offset), offset+1);
+					if (end == -1  ||  end+1 >= p.length()  ||  p.charAt(end+1) != ']') {
+						throw new IllegalArgumentException("Invalid Json path, unterminated attribute name at offset "
+								+ start + ": " + p);
+					}
+					add(kindList, nameList, indexList, NAME, p.substring(offset+1, end), -1);
+					offset = end+2;
+				} else {
+					final int end = p.indexOf(']', offset);
+					if (end == -1) {
+						throw new IllegalArgumentException("Invalid Json path, missing ']' after offset "
+								+ start + ": " + p);
+					}
+					final String index = p.substring(offset, end);
+					if ("*".equals(index)) {
+						add(kindList, nameList, indexList, ANY_ELEMENT, null, -1);
+					} else {
+						int i;
+						try {
+							i = Integer.parseInt(index);
+						} catch (NumberFormatException e) {
+							i = -1;
+						}
+						if (i < 0) {
+							throw new IllegalArgumentException("Invalid Json path, expected array index, or '*', at offset "
+									+ start + ": " + p);
+						}
+						add(kindList, nameList, indexList, INDEX, null, i);
+					}
+					offset = end+1;
+				}
+			} else {
+				throw new IllegalArgumentException("Invalid Json path, expected '.', or '[', at offset "
+						+ (offset-1) + ": " + p);
+			}
+		}
+		final int length = kindList.size();
+		final int[] kinds = new int[length];
+		final int[] indexes = new int[length];
+		for (int i = 0;  i < length;  i++) {
+			kinds[i] = kindList.get(i).intValue();
+			indexes[i] = indexList.get(i).intValue();
+		}
+		return new JsnPath(p, kinds, nameList.toArray(new String[length]), indexes);
+	}
+
+	private static void add(List<Integer> pKinds, List<String> pNames, List<Integer> pIndexes,
+			                int pKind, String pName, int pIndex) {
+		pKinds.add(Integer.valueOf(pKind));
+		pNames.add(pName);
+		pIndexes.add(Integer.valueOf(pIndex));
+	}
+
+	/** Returns the number of segments. The path {@code $} has length 0,
+	 * the path {@code $.items[*]} has length 2.
+	 * @return The number of segments.
+	 */
+	public int getLength() {
+		return kinds.length;
+	}
+
+	/** Matches this path against a position in a Json document. The
+	 * position is given by the first {@code pDepth} elements of the
+	 * arrays {@code pNames}, and {@code pIndexes}: A non-null name
+	 * denotes an object attribute, otherwise the index denotes an
+	 * array element.
+	 * @param pNames The attribute names, that lead to the position.
+	 * @param pIndexes The array indexes, that lead to the position.
+	 * @param pDepth The positions depth.
+	 * @return One of {@link #NO_MATCH}, {@link #PREFIX_MATCH}, or
+	 *   {@link #FULL_MATCH}.
+	 */
+	int match(String[] pNames, int[] pIndexes, int pDepth) {
+		if (pDepth > kinds.length) {
+			return NO_MATCH;
+		}
+		for (int i = 0;  i < pDepth;  i++) {
+			final String name = pNames[i];
+			final boolean matching;
+			switch (kinds[i]) {
+			  case NAME: matching = name != null  &&  name.equals(names[i]); break;
+			  case INDEX: matching = name == null  &&  pIndexes[i] == indexes[i]; break;
+			  case ANY_MEMBER: matching = name != null; break;
+			  case ANY_ELEMENT: matching = name == null; break;
+			  default: throw new IllegalStateException("Invalid segment kind: " + kinds[i]);
+			}
+			if (!matching) {
+				return NO_MATCH;
+			}
+		}
+		return pDepth == kinds.length ? FULL_MATCH : PREFIX_MATCH;
+	}
+
+	@Override
+	public int hashCode() {
+		return path.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object pOther) {
+		if (this == pOther) {
+			return true;
+		}
+		if (pOther == null  ||  getClass() != pOther.getClass()) {
+			return false;
+		}
+		return path.equals(((JsnPath) pOther).path);
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+}
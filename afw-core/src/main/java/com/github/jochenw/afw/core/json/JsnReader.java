@@ -3,10 +3,13 @@ package com.github.jochenw.afw.core.json;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import javax.json.Json;
 import javax.json.stream.JsonLocation;
@@ -274,6 +277,288 @@ public class JsnReader {
 		return o;
 	}
 
+	/** Called to read the Json document, as provided by the given
+	 * {@link InputStream}, in streaming mode: Unlike
+	 * {@link #read(InputStream, String)}, this method doesn't build a
+	 * representation of the whole document. Instead, it materializes only
+	 * the values, that match one of the given {@link JsnPath paths}, passes
+	 * them to the respective consumer, and discards them afterwards.
+	 * The remaining document is skipped without creating objects. This
+	 * is mainly useful for processing large arrays element by element:
+	 * <pre>
+	 *   JsnUtils.reader().stream(in, uri, "$.items[*]", (item) -&gt; { ... });
+	 * </pre>
+	 * @param pIn The {@link InputStream}, which provides the Json
+	 *   document.
+	 * @param pUri The Json documents URI.
+	 * @param pPath The path of the values, that are being passed to the
+	 *   consumer, for example {@code $.items[*]}. See {@link JsnPath} for
+	 *   the supported syntax.
+	 * @param pConsumer The consumer, which is being invoked with a
+	 *   representation of the matching values.
+	 * @see #stream(InputStream, String, Map)
+	 */
+	public void stream(InputStream pIn, String pUri, @NonNull String pPath, @NonNull Consumer<Object> pConsumer) {
+		stream(pIn, pUri, Collections.singletonMap(pPath, pConsumer));
+	}
+
+	/** Called to read the Json document, as provided by the given
+	 * {@link Reader}, in streaming mode. Equivalent to
+	 * {@link #stream(InputStream, String, String, Consumer)}, except
+	 * that the document is read from a character stream.
+	 * @param pIn The {@link Reader}, which provides the Json
+	 *   document.
+	 * @param pUri The Json documents URI.
+	 * @param pPath The path of the values, that are being passed to the
+	 *   consumer, for example {@code $.items[*]}. See {@link JsnPath} for
+	 *   the supported syntax.
+	 * @param pConsumer The consumer, which is being invoked with a
+	 *   representation of the matching values.
+	 * @see #stream(Reader, String, Map)
+	 */
+	public void stream(Reader pIn, String pUri, @NonNull String pPath, @NonNull Consumer<Object> pConsumer) {
+		stream(pIn, pUri, Collections.singletonMap(pPath, pConsumer));
+	}
+
+	/** Called to read the Json document, as provided by the given
+	 * {@link InputStream}, in streaming mode, with multiple subscriptions.
+	 * The map keys are {@link JsnPath Json paths}, and the map values
+	 * are the consumers, which are being invoked with a representation
+	 * of the matching values. If a value matches multiple paths, then
+	 * it is materialized only once, and passed to all the respective
+	 * consumers. Values below a matching value are not reported
+	 * separately: For example, if both of {@code $.items}, and
+	 * {@code $.items[*]} are being subscribed, then only the former
+	 * consumer will be invoked.
+	 * @param pIn The {@link InputStream}, which provides the Json
+	 *   document.
+	 * @param pUri The Json documents URI.
+	 * @param pSubscriptions The subscriptions, mapping Json paths to
+	 *   consumers.
+	 * @throws IllegalArgumentException One of the Json paths is invalid.
+	 */
+	public void stream(InputStream pIn, String pUri, @NonNull Map<String,Consumer<Object>> pSubscriptions) {
+		final FailableSupplier<@NonNull JsonParser,?> parserSupplier = () -> {
+			@SuppressWarnings("null")
+			final @NonNull JsonParser jp = Json.createParser(pIn);
+			return jp;
+		};
+		stream(parserSupplier, pUri, pSubscriptions);
+	}
+
+	/** Called to read the Json document, as provided by the given
+	 * {@link Reader}, in streaming mode, with multiple subscriptions.
+	 * Equivalent to {@link #stream(InputStream, String, Map)}, except
+	 * that the document is read from a character stream.
+	 * @param pIn The {@link Reader}, which provides the Json
+	 *   document.
+	 * @param pUri The Json documents URI.
+	 * @param pSubscriptions The subscriptions, mapping Json paths to
+	 *   consumers.
+	 * @throws IllegalArgumentException One of the Json paths is invalid.
+	 */
+	public void stream(Reader pIn, String pUri, @NonNull Map<String,Consumer<Object>> pSubscriptions) {
+		final FailableSupplier<@NonNull JsonParser,?> parserSupplier = () -> {
+			@SuppressWarnings("null")
+			final @NonNull JsonParser jp = Json.createParser(pIn);
+			return jp;
+		};
+		stream(parserSupplier, pUri, pSubscriptions);
+	}
+
+	/** Called to read the Json document, as provided by the given
+	 * {@link FailableSupplier}, in streaming mode, with multiple
+	 * subscriptions. See {@link #stream(InputStream, String, Map)}
+	 * for details.
+	 * @param pParserSupplier A supplier for an instance of {@link JsonParser},
+	 *   which represents, and is being used to read the input document.
+	 * @param pUri The Json documents URI.
+	 * @param pSubscriptions The subscriptions, mapping Json paths to
+	 *   consumers.
+	 * @throws IllegalArgumentException One of the Json paths is invalid.
+	 */
+	public void stream(final @NonNull FailableSupplier<@NonNull JsonParser, ?> pParserSupplier, String pUri,
+			           @NonNull Map<String,Consumer<Object>> pSubscriptions) {
+		final Map<JsnPath,Consumer<Object>> subscriptions = new LinkedHashMap<>();
+		pSubscriptions.forEach((p, c) -> subscriptions.put(JsnPath.of(p), Objects.requireNonNull(c)));
+		final @NonNull Context ctx = new Context(pParserSupplier, pUri);
+		stream(ctx, subscriptions);
+	}
+
+	/** Called to read the Json document, as provided by the
+	 * {@link JsonParser} in the given context object, in streaming
+	 * mode. See {@link #stream(InputStream, String, Map)} for details.
+	 * @param pCtx The context object, which provides access to the Json
+	 *   parser.
+	 * @param pSubscriptions The subscriptions, mapping Json paths to
+	 *   consumers.
+	 */
+	protected void stream(@NonNull Context pCtx, @NonNull Map<JsnPath,Consumer<Object>> pSubscriptions) {
+		final JsonParser jp = pCtx.getParser();
+		if (!jp.hasNext()) {
+			throw pCtx.error("No Json content has been found.");
+		}
+		new Streamer(pCtx, pSubscriptions).streamValue(jp.next());
+	}
+
+	/** The state of {@link JsnReader#stream(Context, Map)}: Keeps track of
+	 * the current position within the Json document. The position is only
+	 * tracked as deep, as it can be matched by one of the subscribed paths.
+	 */
+	private class Streamer {
+		private final @NonNull Context ctx;
+		private final @NonNull JsonParser jp;
+		private final JsnPath[] paths;
+		private final List<Consumer<Object>> consumers;
+		private final String[] names;
+		private final int[] indexes;
+		private int depth;
+
+		Streamer(@NonNull Context pCtx, @NonNull Map<JsnPath,Consumer<Object>> pSubscriptions) {
+			ctx = pCtx;
+			jp = pCtx.getParser();
+			paths = pSubscriptions.keySet().toArray(new JsnPath[pSubscriptions.size()]);
+			consumers = new ArrayList<>(pSubscriptions.values());
+			int maxLength = 0;
+			for (JsnPath path : paths) {
+				maxLength = Math.max(maxLength, path.getLength());
+			}
+			names = new String[maxLength];
+			indexes = new int[maxLength];
+		}
+
+		/** Called to process the value, that starts with the given event.
+		 * The value is either materialized (if it matches a path),
+		 * traversed (if a path matches a value below), or skipped.
+		 * @param pEvent The event, which has just been consumed.
+		 */
+		void streamValue(Event pEvent) {
+			boolean materialized = false;
+			boolean descend = false;
+			Object value = null;
+			for (int i = 0;  i < paths.length;  i++) {
+				switch (paths[i].match(names, indexes, depth)) {
+				  case JsnPath.FULL_MATCH:
+					  if (!materialized) {
+						  value = materialize(pEvent);
+						  materialized = true;
+					  }
+					  consumers.get(i).accept(value);
+					  break;
+				  case JsnPath.PREFIX_MATCH:
+					  descend = true;
+					  break;
+				  default:
+					  break;
+				}
+			}
+			if (materialized) {
+				return;
+			}
+			switch (pEvent) {
+			  case START_OBJECT:
+				  if (descend) {
+					  streamObject();
+				  } else {
+					  skip();
+				  }
+				  break;
+			  case START_ARRAY:
+				  if (descend) {
+					  streamArray();
+				  } else {
+					  skip();
+				  }
+				  break;
+			  case VALUE_FALSE:
+			  case VALUE_TRUE:
+			  case VALUE_NULL:
+			  case VALUE_NUMBER:
+			  case VALUE_STRING:
+				  break;
+			  default:
+				  throw ctx.error("Unexpected Json event: " + pEvent.name());
+			}
+		}
+
+		private Object materialize(Event pEvent) {
+			switch (pEvent) {
+			  case START_OBJECT: return readObject(ctx);
+			  case START_ARRAY: return readArray(ctx);
+			  default: return readValue(ctx, pEvent);
+			}
+		}
+
+		private void streamObject() {
+			while (jp.hasNext()) {
+				final Event ev = jp.next();
+				switch (ev) {
+				  case END_OBJECT:
+					  return;
+				  case KEY_NAME:
+					  final String name = jp.getString();
+					  if (name == null) {
+						  throw ctx.error("Expected object attribute name, got null.");
+					  }
+					  if (!jp.hasNext()) {
+						  throw ctx.error("Unexpected end of file, while waiting for object attribute value");
+					  }
+					  names[depth] = name;
+					  ++depth;
+					  streamValue(jp.next());
+					  names[--depth] = null;
+					  break;
+				  default:
+					  throw ctx.error("Expected object attribute name, or END_OBJECT, got " + ev.name());
+				}
+			}
+			throw ctx.error("Unexpected end of file, while waiting for END_OBJECT");
+		}
+
+		private void streamArray() {
+			int index = 0;
+			while (jp.hasNext()) {
+				final Event ev = jp.next();
+				if (ev == Event.END_ARRAY) {
+					return;
+				}
+				names[depth] = null;
+				indexes[depth] = index++;
+				++depth;
+				streamValue(ev);
+				--depth;
+			}
+			throw ctx.error("Unexpected end of file, while waiting for END_ARRAY");
+		}
+
+		/** Skips the current object, or array, without creating any objects.
+		 * It is assumed, that the {@link Event#START_OBJECT}, or
+		 * {@link Event#START_ARRAY} event has just been consumed. This method
+		 * consumes all following events, until, and including the associated
+		 * end event.
+		 */
+		private void skip() {
+			int level = 1;
+			while (jp.hasNext()) {
+				switch (jp.next()) {
+				  case START_OBJECT:
+				  case START_ARRAY:
+					  ++level;
+					  break;
+				  case END_OBJECT:
+				  case END_ARRAY:
+					  if (--level == 0) {
+						  return;
+					  }
+					  break;
+				  default:
+					  break;
+				}
+			}
+			throw ctx.error("Unexpected end of file, while skipping an object, or array");
+		}
+	}
+
 	/** Called to parse a Json array from the Json document.
 	 * It is assumed, that the {@link Context#getParser() Json parser}
 	 * has just consumed the {@link Event#START_ARRAY} event. This
@@ -15,7 +15,8 @@
  */
 package com.github.jochenw.afw.core.log;
 
-import java.util.Formatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.github.jochenw.afw.core.util.Strings;
 
@@ -39,6 +40,10 @@ public abstract class AbstractLog implements ILog {
     /** The loggers id.
      */
     protected final String id;
+    /** Maximum number of cached method loggers per logger.
+     */
+    private static final int MAX_CACHED_METHOD_LOGS = 256;
+    private volatile ConcurrentMap<String,IMLog> methodLogs;
 
     /**
      * Creates a new logger with the given factory, and id.
@@ -50,6 +55,49 @@ public abstract class AbstractLog implements ILog {
         id = pId;
     }
     
+    /** Returns a method logger, which is logging via this logger. Method
+     * loggers are cached by method name.
+     * @param pMethod The method name, which is being logged as part of
+     *   every message.
+     * @return The method logger.
+     */
+    protected IMLog getMethodLog(String pMethod) {
+        if (pMethod == null) {
+            return new DefaultMLog(this, pMethod);
+        }
+        ConcurrentMap<String,IMLog> map = methodLogs;
+        if (map == null) {
+            synchronized (this) {
+                map = methodLogs;
+                if (map == null) {
+                    map = new ConcurrentHashMap<>();
+                    methodLogs = map;
+                }
+            }
+        }
+        final IMLog mlog = map.get(pMethod);
+        if (mlog != null) {
+            return mlog;
+        }
+        if (map.size() >= MAX_CACHED_METHOD_LOGS) {
+            return new DefaultMLog(this, pMethod);
+        }
+        return map.computeIfAbsent(pMethod, (m) -> new DefaultMLog(this, m));
+    }
+
+    /** Appends the method name, and the separator to the given buffer.
+     * @param pSb The buffer, to which the log message is being written.
+     * @param pMethod The method name, that is being logged.
+     * @param pSep The separator string, that is being used to separate method name and
+     *   actual log message.
+     */
+    protected void appendMethod(StringBuilder pSb, String pMethod, String pSep) {
+        if (pMethod != null) {
+            pSb.append(pMethod);
+            pSb.append(pSep);
+        }
+    }
+
     /** Creates a log message with the given method name, separator, and message string.
      * @param pMethod The method name, that is being logged.
      * @param pSep The separator string, that is being used to separate method name and
@@ -58,15 +106,20 @@ public abstract class AbstractLog implements ILog {
      * @return The created log message.
      */
     protected String asMessage(String pMethod, String pSep, String pMessage) {
-        final StringBuilder sb = new StringBuilder();
-        if (pMethod != null) {
-            sb.append(pMethod);
-            sb.append(pSep);
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendMessage(lb.getBuilder(), pMethod, pSep, pMessage);
+            return lb.toString();
+        } finally {
+            lb.release();
         }
+    }
+
+    private void appendMessage(StringBuilder pSb, String pMethod, String pSep, String pMessage) {
+        appendMethod(pSb, pMethod, pSep);
         if (pMessage != null) {
-        	sb.append(pMessage);
+            pSb.append(pMessage);
         }
-        return sb.toString();
     }
 
     /** Creates a log message with the given method name, separator, message string,
@@ -79,17 +132,22 @@ public abstract class AbstractLog implements ILog {
      * @return The created log message.
      */
     protected String asMessage(String pMethod, String pSep, String pMessage, Object... pArgs) {
-        final StringBuilder sb = new StringBuilder();
-        if (pMethod != null) {
-            sb.append(pMethod);
-            sb.append(pSep);
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendMessage(lb.getBuilder(), pMethod, pSep, pMessage, pArgs);
+            return lb.toString();
+        } finally {
+            lb.release();
         }
-        sb.append(pMessage);
+    }
+
+    private void appendMessage(StringBuilder pSb, String pMethod, String pSep, String pMessage, Object[] pArgs) {
+        appendMethod(pSb, pMethod, pSep);
+        pSb.append(pMessage);
         if (pArgs != null  &&  pArgs.length > 0) {
-            sb.append(", ");
-            Strings.append(sb, pArgs);
+            pSb.append(", ");
+            Strings.append(pSb, pArgs);
         }
-        return sb.toString();
     }
 
     /** Creates a log message with method name, separator
@@ -102,15 +160,20 @@ public abstract class AbstractLog implements ILog {
      * @see AbstractLog#asMessageF(String, String, String, Object...)
      */
     protected String asMessage(String pMethod, String pSep, Object... pArgs) {
-        final StringBuilder sb = new StringBuilder();
-        if (pMethod != null) {
-            sb.append(pMethod);
-            sb.append(pSep);
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendArgs(lb.getBuilder(), pMethod, pSep, pArgs);
+            return lb.toString();
+        } finally {
+            lb.release();
         }
+    }
+
+    private void appendArgs(StringBuilder pSb, String pMethod, String pSep, Object[] pArgs) {
+        appendMethod(pSb, pMethod, pSep);
         if (pArgs != null  &&  pArgs.length > 0) {
-            Strings.append(sb, pArgs);
+            Strings.append(pSb, pArgs);
         }
-        return sb.toString();
     }
 
     /** Creates a log message with method name, separator
@@ -124,15 +187,242 @@ public abstract class AbstractLog implements ILog {
      * @see AbstractLog#asMessageF(String, String, String, Object...)
      */
     protected String asMessageF(String pMethod, String pSep, String pFormat, Object... pArgs) {
-        final StringBuilder sb = new StringBuilder();
-        if (pMethod != null) {
-            sb.append(pMethod);
-            sb.append(pSep);
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendFormat(lb, pMethod, pSep, pFormat, pArgs);
+            return lb.toString();
+        } finally {
+            lb.release();
+        }
+    }
+
+    private void appendFormat(LogBuffer pBuffer, String pMethod, String pSep, String pFormat, Object[] pArgs) {
+        appendMethod(pBuffer.getBuilder(), pMethod, pSep);
+        pBuffer.getFormatter().format(pFormat, pArgs);
+    }
+
+    /** Logs a message with the given method name, separator, and message string.
+     * Equivalent to {@code log(pLevel, asMessage(pMethod, pSep, pMessage))}, except
+     * that the message is formatted into a reusable {@link LogBuffer}.
+     * @param pLevel The log level.
+     * @param pMethod The method name, that is being logged.
+     * @param pSep The separator string.
+     * @param pMessage The actual log message.
+     */
+    protected void logMessage(Level pLevel, String pMethod, String pSep, String pMessage) {
+        if (isStructured()) {
+            logEvent(pLevel, pMethod, asEventMessage(pSep, pMessage), null, null);
+            return;
+        }
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendMessage(lb.getBuilder(), pMethod, pSep, pMessage);
+            log(pLevel, lb);
+        } finally {
+            lb.release();
+        }
+    }
+
+    /** Logs a message, and an exception, with the given method name, separator,
+     * and message string. Equivalent to
+     * {@code log(pLevel, asMessage(pMethod, pSep, pMessage), pTh)}, except
+     * that the message is formatted into a reusable {@link LogBuffer}.
+     * @param pLevel The log level.
+     * @param pMethod The method name, that is being logged.
+     * @param pSep The separator string.
+     * @param pMessage The actual log message, possibly null.
+     * @param pTh The exception, that is being logged.
+     */
+    protected void logMessage(Level pLevel, String pMethod, String pSep, String pMessage, Throwable pTh) {
+        if (isStructured()) {
+            logEvent(pLevel, pMethod, asEventMessage(pSep, pMessage), null, pTh);
+            return;
+        }
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendMessage(lb.getBuilder(), pMethod, pSep, pMessage);
+            log(pLevel, lb, pTh);
+        } finally {
+            lb.release();
+        }
+    }
+
+    /** Logs a message with the given method name, separator, message string,
+     * and message parameters. Equivalent to
+     * {@code log(pLevel, asMessage(pMethod, pSep, pMessage, pArgs))}, except
+     * that the message is formatted into a reusable {@link LogBuffer}.
+     * @param pLevel The log level.
+     * @param pMethod The method name, that is being logged.
+     * @param pSep The separator string.
+     * @param pMessage The actual log message.
+     * @param pArgs The message parameters, if any.
+     */
+    protected void logMessageArgs(Level pLevel, String pMethod, String pSep, String pMessage, Object... pArgs) {
+        if (isStructured()) {
+            logEvent(pLevel, pMethod, asEventMessage(pSep, pMessage), pArgs, null);
+            return;
+        }
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendMessage(lb.getBuilder(), pMethod, pSep, pMessage, pArgs);
+            log(pLevel, lb);
+        } finally {
+            lb.release();
+        }
+    }
+
+    /** Logs a message with the given method name, separator, and message parameters,
+     * but without message string. Equivalent to
+     * {@code log(pLevel, asMessage(pMethod, pSep, pArgs))}, except
+     * that the message is formatted into a reusable {@link LogBuffer}.
+     * @param pLevel The log level.
+     * @param pMethod The method name, that is being logged.
+     * @param pSep The separator string.
+     * @param pArgs The message parameters, if any.
+     */
+    protected void logArgs(Level pLevel, String pMethod, String pSep, Object... pArgs) {
+        if (isStructured()) {
+            logEvent(pLevel, pMethod, asEventMessage(pSep, null), pArgs, null);
+            return;
+        }
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            appendArgs(lb.getBuilder(), pMethod, pSep, pArgs);
+            log(pLevel, lb);
+        } finally {
+            lb.release();
+        }
+    }
+
+    /** Logs a message with the given method name, separator, format string,
+     * and message parameters. Equivalent to
+     * {@code log(pLevel, asMessageF(pMethod, pSep, pFormat, pArgs))}, except
+     * that the message is formatted into a reusable {@link LogBuffer}, using
+     * a reusable {@link java.util.Formatter}.
+     * @param pLevel The log level.
+     * @param pMethod The method name, that is being logged.
+     * @param pSep The separator string.
+     * @param pFormat The message string, with optional parameter references.
+     * @param pArgs The message parameters, if any.
+     */
+    protected void logFormat(Level pLevel, String pMethod, String pSep, String pFormat, Object... pArgs) {
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            if (isStructured()) {
+                lb.getFormatter().format(pFormat, pArgs);
+                logEvent(pLevel, pMethod, asEventMessage(pSep, lb.toString()), pArgs, null);
+                return;
+            }
+            appendFormat(lb, pMethod, pSep, pFormat, pArgs);
+            log(pLevel, lb);
+        } finally {
+            lb.release();
+        }
+    }
+
+    private void logResultEvent(String pMethod, String pMessage, Object pResult) {
+        logEvent(Level.DEBUG, pMethod, asEventMessage(SEP_EXT, pMessage), new Object[] {pResult}, null);
+    }
+
+    private LogBuffer acquireResult(String pMethod, String pMessage) {
+        final LogBuffer lb = LogBuffer.acquire();
+        final StringBuilder sb = lb.getBuilder();
+        appendMethod(sb, pMethod, SEP_EXT);
+        sb.append(pMessage).append(", ");
+        return lb;
+    }
+
+    private void logResult(LogBuffer pBuffer) {
+        try {
+            log(Level.DEBUG, pBuffer);
+        } finally {
+            pBuffer.release();
         }
-        try (Formatter fmt = new Formatter(sb)) {
-            fmt.format(pFormat, pArgs);
+    }
+
+    /** Logs the result of a method call with level {@link Level#DEBUG}. Equivalent to
+     * {@code log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)))},
+     * except that neither the message, nor the result, are converted into strings.
+     * @param pMethod The method name, that is being logged.
+     * @param pMessage The log message.
+     * @param pResult The method calls result.
+     */
+    protected void logResult(String pMethod, String pMessage, long pResult) {
+        if (isStructured()) {
+            logResultEvent(pMethod, pMessage, Long.valueOf(pResult));
+            return;
+        }
+        final LogBuffer lb = acquireResult(pMethod, pMessage);
+        lb.getBuilder().append(pResult);
+        logResult(lb);
+    }
+
+    /** Logs the result of a method call with level {@link Level#DEBUG}. Equivalent to
+     * {@code log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)))},
+     * except that neither the message, nor the result, are converted into strings.
+     * @param pMethod The method name, that is being logged.
+     * @param pMessage The log message.
+     * @param pResult The method calls result.
+     */
+    protected void logResult(String pMethod, String pMessage, double pResult) {
+        if (isStructured()) {
+            logResultEvent(pMethod, pMessage, Double.valueOf(pResult));
+            return;
+        }
+        final LogBuffer lb = acquireResult(pMethod, pMessage);
+        lb.getBuilder().append(pResult);
+        logResult(lb);
+    }
+
+    /** Logs the result of a method call with level {@link Level#DEBUG}. Equivalent to
+     * {@code log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)))},
+     * except that neither the message, nor the result, are converted into strings.
+     * @param pMethod The method name, that is being logged.
+     * @param pMessage The log message.
+     * @param pResult The method calls result.
+     */
+    protected void logResult(String pMethod, String pMessage, float pResult) {
+        if (isStructured()) {
+            logResultEvent(pMethod, pMessage, Float.valueOf(pResult));
+            return;
         }
-        return sb.toString();
+        final LogBuffer lb = acquireResult(pMethod, pMessage);
+        lb.getBuilder().append(pResult);
+        logResult(lb);
+    }
+
+    /** Logs the result of a method call with level {@link Level#DEBUG}. Equivalent to
+     * {@code log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)))},
+     * except that neither the message, nor the result, are converted into strings.
+     * @param pMethod The method name, that is being logged.
+     * @param pMessage The log message.
+     * @param pResult The method calls result.
+     */
+    protected void logResult(String pMethod, String pMessage, boolean pResult) {
+        if (isStructured()) {
+            logResultEvent(pMethod, pMessage, Boolean.valueOf(pResult));
+            return;
+        }
+        final LogBuffer lb = acquireResult(pMethod, pMessage);
+        lb.getBuilder().append(pResult);
+        logResult(lb);
+    }
+
+    /** Logs the result of a method call with level {@link Level#DEBUG}. Equivalent to
+     * {@code log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)))},
+     * except that neither the message, nor the result, are converted into strings.
+     * @param pMethod The method name, that is being logged.
+     * @param pMessage The log message.
+     * @param pResult The method calls result.
+     */
+    protected void logResult(String pMethod, String pMessage, char pResult) {
+        if (isStructured()) {
+            logResultEvent(pMethod, pMessage, Character.valueOf(pResult));
+            return;
+        }
+        final LogBuffer lb = acquireResult(pMethod, pMessage);
+        lb.getBuilder().append(pResult);
+        logResult(lb);
     }
 
     /**
@@ -148,6 +438,89 @@ public abstract class AbstractLog implements ILog {
     * @param pTh The exception, that is being logged.
     */
     protected abstract void log(Level pLevel, String pMessage, Throwable pTh);
+    /**
+    * Logs the message, which has been formatted into the given buffer. The default
+    * implementation converts the buffer into a string, and invokes
+    * {@link #log(ILog.Level, String)}. Subclasses, which are able to write the buffers
+    * contents directly, should override this. The buffer must not be retained after
+    * returning.
+    * @param pLevel The log level; nothing will be written, if the level isn't enabled.
+    * @param pMessage The buffer, which contains the log message.
+    */
+    protected void log(Level pLevel, LogBuffer pMessage) {
+        log(pLevel, pMessage.toString());
+    }
+    /**
+    * Logs the message, which has been formatted into the given buffer, and the given
+    * exception. The default implementation converts the buffer into a string, and
+    * invokes {@link #log(ILog.Level, String, Throwable)}. Subclasses, which are able
+    * to write the buffers contents directly, should override this. The buffer must
+    * not be retained after returning.
+    * @param pLevel The log level; nothing will be written, if the level isn't enabled.
+    * @param pMessage The buffer, which contains the log message.
+    * @param pTh The exception, that is being logged.
+    */
+    protected void log(Level pLevel, LogBuffer pMessage, Throwable pTh) {
+        log(pLevel, pMessage.toString(), pTh);
+    }
+    /**
+    * Returns, whether this logger is writing structured log events. If so, then
+    * log events are passed to {@link #logEvent(ILog.Level, String, String, Object[], Throwable)},
+    * with method name, message, and parameters as separate values, rather than
+    * being formatted into a single log message. The default implementation
+    * returns false.
+    * @return True, if log events are passed to
+    *   {@link #logEvent(ILog.Level, String, String, Object[], Throwable)}.
+    */
+    protected boolean isStructured() {
+        return false;
+    }
+    /**
+    * Logs a structured log event. Invoked instead of {@link #log(ILog.Level, LogBuffer)},
+    * if {@link #isStructured()} returns true. The default implementation formats the
+    * event into a single log message, and invokes {@link #log(ILog.Level, LogBuffer)},
+    * or {@link #log(ILog.Level, LogBuffer, Throwable)}.
+    * @param pLevel The log level; nothing will be written, if the level isn't enabled.
+    * @param pMethod The method name, that is being logged, or null.
+    * @param pMessage The log message, or null. For {@link #entering(String) entering},
+    *   and {@link #exiting(String) exiting} a method, the message is prefixed with
+    *   "-&gt; ", or "&lt;- ".
+    * @param pArgs The message parameters, or null. Unlike the message, the parameters
+    *   have not been converted into strings.
+    * @param pTh The exception, that is being logged, or null.
+    */
+    protected void logEvent(Level pLevel, String pMethod, String pMessage, Object[] pArgs, Throwable pTh) {
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            final StringBuilder sb = lb.getBuilder();
+            appendMethod(sb, pMethod, SEP_STD);
+            if (pMessage != null) {
+                sb.append(pMessage);
+            }
+            if (pArgs != null  &&  pArgs.length > 0) {
+                if (pMessage != null) {
+                    sb.append(", ");
+                }
+                Strings.append(sb, pArgs);
+            }
+            if (pTh == null) {
+                log(pLevel, lb);
+            } else {
+                log(pLevel, lb, pTh);
+            }
+        } finally {
+            lb.release();
+        }
+    }
+
+    private String asEventMessage(String pSep, String pMessage) {
+        if (SEP_STD.equals(pSep)) {
+            return pMessage;
+        }
+        // Keep the "->", or "<-" marker of the separator.
+        final String marker = pSep.substring(SEP_STD.length());
+        return pMessage == null ? marker.trim() : marker + pMessage;
+    }
     
     @Override
     public String getId() {
@@ -157,336 +530,336 @@ public abstract class AbstractLog implements ILog {
     @Override
     public void trace(String pMethod, String pMessage) {
         if (isTraceEnabled()) {
-            log(Level.TRACE, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(Level.TRACE, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void debug(String pMethod, String pMessage) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(Level.DEBUG, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void info(String pMethod, String pMessage) {
         if (isInfoEnabled()) {
-            log(Level.INFO, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(Level.INFO, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void warn(String pMethod, String pMessage) {
         if (isWarnEnabled()) {
-            log(Level.WARN, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(Level.WARN, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void error(String pMethod, String pMessage) {
         if (isErrorEnabled()) {
-            log(Level.ERROR, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(Level.ERROR, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void fatal(String pMethod, String pMessage) {
         if (isFatalEnabled()) {
-            log(Level.FATAL, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(Level.FATAL, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void log(Level pLevel, String pMethod, String pMessage) {
         if (isEnabledFor(pLevel)) {
-            log(pLevel, asMessage(pMethod, SEP_STD, pMessage));
+            logMessage(pLevel, pMethod, SEP_STD, pMessage);
         }
     }
 
     @Override
     public void info(String pMethod, Throwable pTh) {
         if (isInfoEnabled()) {
-            log(Level.INFO, asMessage(pMethod, SEP_STD, (Object[]) null), pTh);
+            logMessage(Level.INFO, pMethod, SEP_STD, (String) null, pTh);
         }
     }
 
     @Override
     public void info(String pMethod, String pMessage, Throwable pTh) {
         if (isInfoEnabled()) {
-            log(Level.INFO, asMessage(pMethod, SEP_STD, pMessage), pTh);
+            logMessage(Level.INFO, pMethod, SEP_STD, pMessage, pTh);
         }
     }
 
     @Override
     public void warn(String pMethod, Throwable pTh) {
         if (isWarnEnabled()) {
-            log(Level.WARN, asMessage(pMethod, SEP_STD, (String) null), pTh);
+            logMessage(Level.WARN, pMethod, SEP_STD, (String) null, pTh);
         }
     }
 
     @Override
     public void warn(String pMethod, String pMessage, Throwable pTh) {
         if (isWarnEnabled()) {
-            log(Level.WARN, asMessage(pMethod, SEP_STD, pMessage), pTh);
+            logMessage(Level.WARN, pMethod, SEP_STD, pMessage, pTh);
         }
     }
 
     @Override
     public void error(String pMethod, Throwable pTh) {
         if (isErrorEnabled()) {
-            log(Level.ERROR, asMessage(pMethod, SEP_STD, (String) null), pTh);
+            logMessage(Level.ERROR, pMethod, SEP_STD, (String) null, pTh);
         }
     }
 
     @Override
     public void error(String pMethod, String pMessage, Throwable pTh) {
         if (isErrorEnabled()) {
-            log(Level.ERROR, asMessage(pMethod, SEP_STD, pMessage), pTh);
+            logMessage(Level.ERROR, pMethod, SEP_STD, pMessage, pTh);
         }
     }
 
     @Override
     public void fatal(String pMethod, Throwable pTh) {
         if (isFatalEnabled()) {
-            log(Level.FATAL, asMessage(pMethod, SEP_STD, (String) null), pTh);
+            logMessage(Level.FATAL, pMethod, SEP_STD, (String) null, pTh);
         }
     }
 
     @Override
     public void fatal(String pMethod, String pMessage, Throwable pTh) {
         if (isFatalEnabled()) {
-            log(Level.FATAL, asMessage(pMethod, SEP_STD, pMessage), pTh);
+            logMessage(Level.FATAL, pMethod, SEP_STD, pMessage, pTh);
         }
     }
 
     @Override
     public void trace(String pMethod, String pMessage, Object... pArgs) {
         if (isTraceEnabled()) {
-            log(Level.TRACE, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(Level.TRACE, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void debug(String pMethod, String pMessage, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(Level.DEBUG, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void info(String pMethod, String pMessage, Object... pArgs) {
         if (isInfoEnabled()) {
-            log(Level.INFO, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(Level.INFO, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void warn(String pMethod, String pMessage, Object... pArgs) {
         if (isWarnEnabled()) {
-            log(Level.WARN, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(Level.WARN, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void error(String pMethod, String pMessage, Object... pArgs) {
         if (isErrorEnabled()) {
-            log(Level.ERROR, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(Level.ERROR, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void fatal(String pMethod, String pMessage, Object... pArgs) {
         if (isFatalEnabled()) {
-            log(Level.FATAL, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(Level.FATAL, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void log(String pMethod, Level pLevel, String pMessage, Object... pArgs) {
         if (isEnabledFor(pLevel)) {
-            log(pLevel, asMessage(pMethod, SEP_STD, pMessage, pArgs));
+            logMessageArgs(pLevel, pMethod, SEP_STD, pMessage, pArgs);
         }
     }
 
     @Override
     public void tracef(String pMethod, String pFormat, Object... pArgs) {
         if (isTraceEnabled()) {
-            log(Level.TRACE, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(Level.TRACE, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void debugf(String pMethod, String pFormat, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(Level.DEBUG, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void infof(String pMethod, String pFormat, Object... pArgs) {
         if (isInfoEnabled()) {
-            log(Level.INFO, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(Level.INFO, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void warnf(String pMethod, String pFormat, Object... pArgs) {
         if (isWarnEnabled()) {
-            log(Level.WARN, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(Level.WARN, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void errorf(String pMethod, String pFormat, Object... pArgs) {
         if (isErrorEnabled()) {
-            log(Level.ERROR, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(Level.ERROR, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void fatalf(String pMethod, String pFormat, Object... pArgs) {
         if (isFatalEnabled()) {
-            log(Level.FATAL, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(Level.FATAL, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void logf(Level pLevel, String pMethod, String pFormat, Object... pArgs) {
         if (isEnabledFor(pLevel)) {
-            log(pLevel, asMessageF(pMethod, SEP_STD, pFormat, pArgs));
+            logFormat(pLevel, pMethod, SEP_STD, pFormat, pArgs);
         }
     }
 
     @Override
     public void entering(String pMethod) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_ENT, (String) null));
+            logMessage(Level.DEBUG, pMethod, SEP_ENT, (String) null);
         }
     }
 
     @Override
     public void entering(String pMethod, String pMessage) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_ENT, pMessage));
+            logMessage(Level.DEBUG, pMethod, SEP_ENT, pMessage);
         }
     }
 
     @Override
     public void entering(String pMethod, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_ENT, pArgs));
+            logArgs(Level.DEBUG, pMethod, SEP_ENT, pArgs);
         }
     }
 
     @Override
     public void entering(String pMethod, String pMessage, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_ENT, pMessage, pArgs));
+            logMessageArgs(Level.DEBUG, pMethod, SEP_ENT, pMessage, pArgs);
         }
     }
 
     @Override
     public void enteringf(String pMethod, String pFormat, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessageF(pMethod, SEP_ENT, pFormat, pArgs));
+            logFormat(Level.DEBUG, pMethod, SEP_ENT, pFormat, pArgs);
         }
     }
 
     @Override
     public void exiting(String pMethod) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, (String) null));
+            logMessage(Level.DEBUG, pMethod, SEP_EXT, (String) null);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage));
+            logMessage(Level.DEBUG, pMethod, SEP_EXT, pMessage);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, int pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, long pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, boolean pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, short pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, byte pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, double pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, float pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, char pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, String.valueOf(pResult)));
+            logResult(pMethod, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, Object pResult) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, pResult));
+            logMessageArgs(Level.DEBUG, pMethod, SEP_EXT, pMessage, pResult);
         }
     }
 
     @Override
     public void exiting(String pMethod, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pArgs));
+            logArgs(Level.DEBUG, pMethod, SEP_EXT, pArgs);
         }
     }
 
     @Override
     public void exiting(String pMethod, String pMessage, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessage(pMethod, SEP_EXT, pMessage, pArgs));
+            logMessageArgs(Level.DEBUG, pMethod, SEP_EXT, pMessage, pArgs);
         }
     }
 
     @Override
     public void exitingf(String pMethod, String pFormat, Object... pArgs) {
         if (isDebugEnabled()) {
-            log(Level.DEBUG, asMessageF(pMethod, SEP_EXT, pFormat, pArgs));
+            logFormat(Level.DEBUG, pMethod, SEP_EXT, pFormat, pArgs);
         }
     }
 }
@@ -15,14 +15,26 @@
  */
 package com.github.jochenw.afw.core.log;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import com.github.jochenw.afw.core.ResourceLocator;
 
 
 /** Abstract base class for implementations of {@link ILogFactory}.
+ * Loggers are cached by id, so that repeated invocations of
+ * {@link #getLog(String)} return the same instance.
  */
 public abstract class AbstractLogFactory implements ILogFactory {
+	/** Maximum number of cached loggers. If this number is exceeded,
+	 * (for example, because loggers are created with dynamic id's),
+	 * then additional loggers are created, but not cached.
+	 */
+	private static final int MAX_CACHED_LOGS = 10000;
+	private final ConcurrentMap<String,AbstractLog> logs = new ConcurrentHashMap<>();
 	private boolean initialized;
 	private ResourceLocator resourceLocator;
+	private volatile AsyncAppender<?> asyncAppender;
 
 	/** Creates a new instance. Protected, to avoid accidental instantiation.
 	 * This constructor might be removed, it is mainly present to avoid a Javadoc
@@ -53,17 +65,48 @@ public abstract class AbstractLogFactory implements ILogFactory {
 	protected abstract void init();
 	@Override
 	public void shutdown() {
-		// Does nothing.
+		final AsyncAppender<?> appender = asyncAppender;
+		if (appender != null) {
+			// Stop publishing the appender, before it is being closed.
+			asyncAppender = null;
+			appender.close();
+		}
+	}
+
+	/** Returns the {@link AsyncAppender}, if the log factory is writing
+	 * asynchronously, or null.
+	 * @return The {@link AsyncAppender}, if any, or null.
+	 */
+	protected AsyncAppender<?> getAsyncAppender() {
+		return asyncAppender;
+	}
+
+	/** Sets the {@link AsyncAppender}, which is being closed (thus
+	 * flushing all pending log entries) upon {@link #shutdown()}.
+	 * @param pAppender The {@link AsyncAppender}, if any, or null.
+	 */
+	protected void setAsyncAppender(AsyncAppender<?> pAppender) {
+		asyncAppender = pAppender;
 	}
 	
 	@Override
     public ILog getLog(Class<?> pClass) {
-        return newLog(pClass.getName());
+        return getLog(pClass.getName());
     }
 
     @Override
     public ILog getLog(String pId) {
-        return newLog(pId);
+        if (pId == null) {
+            return newLog(pId);
+        }
+        final AbstractLog log = logs.get(pId);
+        if (log != null) {
+            return log;
+        }
+        if (logs.size() >= MAX_CACHED_LOGS) {
+            return newLog(pId);
+        }
+        return logs.computeIfAbsent(pId, this::newLog);
     }
 
     /** Creates a new logger with the given id.
@@ -71,14 +114,23 @@ public abstract class AbstractLogFactory implements ILogFactory {
      * @return The created  logger.
      */
     protected abstract AbstractLog newLog(String pId);
-    
+
+    /** Removes all cached loggers. Subsequent invocations of
+     * {@link #getLog(String)} will create new loggers. Subclasses
+     * should invoke this, if previously created loggers have
+     * become invalid.
+     */
+    protected void clearLogCache() {
+        logs.clear();
+    }
+
     @Override
     public IMLog getLog(Class<?> pClass, String pMethod) {
-        return new DefaultMLog((AbstractLog) getLog(pClass), pMethod);
+        return getLog(pClass.getName(), pMethod);
     }
 
     @Override
     public IMLog getLog(String pId, String pMethod) {
-        return new DefaultMLog((AbstractLog) getLog(pId), pMethod);
+        return ((AbstractLog) getLog(pId)).getMethodLog(pMethod);
     }
 }
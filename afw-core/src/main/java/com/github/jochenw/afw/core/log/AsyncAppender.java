@@ -0,0 +1,318 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jspecify.annotations.NonNull;
+
+import com.github.jochenw.afw.core.function.Functions.FailableConsumer;
+import com.github.jochenw.afw.core.function.Functions.FailableRunnable;
+import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/** An asynchronous appender: Log entries are being stored in a bounded,
+ * lock-free ring buffer by the logging threads. A single background thread
+ * drains the buffer in batches, writes the entries, and flushes the
+ * underlying target once per batch. This moves the I/O away from the
+ * logging threads.
+ * @param <E> Type of the log entries.
+ */
+public class AsyncAppender<E> implements AutoCloseable {
+	/** The policy, which is applied, if an entry is being appended,
+	 * while the ring buffer is full.
+	 */
+	public enum OverflowPolicy {
+		/** The logging thread is blocked, until the buffer has space again.
+		 * No entries are lost.
+		 */
+		BLOCK,
+		/** Entries, which are marked as droppable (typically, because their
+		 * level is below a threshold) are being dropped. Other entries
+		 * block the logging thread, as with {@link #BLOCK}.
+		 */
+		DROP_BELOW_LEVEL,
+		/** Entries are being dropped, and counted. The logging thread is
+		 * never blocked.
+		 */
+		DROP
+	}
+
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+	private static final int APPENDED = 0;
+	private static final int DROPPED = 1;
+	private static final int CLOSED = 2;
+
+	private final @NonNull AtomicReferenceArray<E> slots;
+	private final int mask;
+	private final @NonNull AtomicLong tail = new AtomicLong();
+	private volatile long head;
+	private final @NonNull AtomicLong droppedCount = new AtomicLong();
+	/** Number of threads, which are currently within {@link #append(Object, boolean)}.
+	 */
+	private final @NonNull AtomicInteger activeProducers = new AtomicInteger();
+	private final @NonNull OverflowPolicy overflowPolicy;
+	private final long flushIntervalNanos;
+	private final @NonNull FailableConsumer<E,?> writer;
+	private final @NonNull FailableRunnable<?> flusher;
+	private final @NonNull Thread thread;
+	private final @NonNull AtomicBoolean closed = new AtomicBoolean();
+	private volatile Throwable error;
+
+	/** Creates a new instance, and starts the background thread.
+	 * @param pName The background threads name.
+	 * @param pCapacity The ring buffers capacity. Will be rounded up to
+	 *   the next power of two.
+	 * @param pFlushInterval The maximum time, for which the background thread
+	 *   waits for new entries, before it checks the buffer again. The
+	 *   background thread is woken up earlier, if the buffer is half full.
+	 * @param pOverflowPolicy The policy, which is applied, if the buffer is full.
+	 * @param pWriter The consumer, which is actually writing a single log entry.
+	 *   Invoked by the background thread only.
+	 * @param pFlusher The action, which flushes the written log entries.
+	 *   Invoked by the background thread once per batch.
+	 */
+	public AsyncAppender(@NonNull String pName, int pCapacity, @NonNull Duration pFlushInterval,
+			             @NonNull OverflowPolicy pOverflowPolicy, @NonNull FailableConsumer<E,?> pWriter,
+			             @NonNull FailableRunnable<?> pFlusher) {
+		if (pCapacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be positive, got " + pCapacity);
+		}
+		final Duration flushInterval = Objects.requireNonNull(pFlushInterval, "Flush interval");
+		if (flushInterval.isNegative()  ||  flushInterval.isZero()) {
+			throw new IllegalArgumentException("The flush interval must be positive, got " + flushInterval);
+		}
+		int capacity = 1;
+		while (capacity < pCapacity) {
+			capacity <<= 1;
+		}
+		slots = new AtomicReferenceArray<>(capacity);
+		mask = capacity-1;
+		flushIntervalNanos = flushInterval.toNanos();
+		overflowPolicy = Objects.requireNonNull(pOverflowPolicy, "Overflow policy");
+		writer = Objects.requireNonNull(pWriter, "Writer");
+		flusher = Objects.requireNonNull(pFlusher, "Flusher");
+		final Thread t = new Thread(this::run, Objects.requireNonNull(pName, "Name"));
+		t.setDaemon(true);
+		thread = t;
+		t.start();
+	}
+
+	/** Returns the ring buffers capacity.
+	 * @return The ring buffers capacity.
+	 */
+	public int getCapacity() {
+		return slots.length();
+	}
+
+	/** Returns the overflow policy.
+	 * @return The overflow policy.
+	 */
+	public @NonNull OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	/** Returns the number of entries, which have been dropped, because
+	 * the buffer was full.
+	 * @return The number of dropped entries.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/** Returns the number of entries, which have been appended, but not
+	 * yet taken by the background thread.
+	 * @return The number of pending entries.
+	 */
+	public int getPendingCount() {
+		return (int) (tail.get() - head);
+	}
+
+	/** Appends the given log entry to the ring buffer.
+	 * @param pEntry The log entry, which is being appended.
+	 * @param pDroppable True, if the entry may be dropped, if the buffer
+	 *   is full, and the overflow policy is {@link OverflowPolicy#DROP_BELOW_LEVEL}.
+	 * @return True, if the entry has been appended, false, if it has been
+	 *   dropped.
+	 * @throws IllegalStateException The appender has been closed.
+	 */
+	public boolean append(@NonNull E pEntry, boolean pDroppable) {
+		final int result = doAppend(pEntry, pDroppable);
+		if (result == CLOSED) {
+			throw new IllegalStateException("This appender has been closed.");
+		}
+		return result == APPENDED;
+	}
+
+	/** Appends the given log entry to the ring buffer, unless the appender
+	 * has been closed. Unlike {@link #append(Object, boolean)}, this doesn't
+	 * throw an exception, if the appender has been closed. Instead, the caller
+	 * is supposed to write the entry otherwise, or to drop it.
+	 * @param pEntry The log entry, which is being appended.
+	 * @param pDroppable True, if the entry may be dropped, if the buffer
+	 *   is full, and the overflow policy is {@link OverflowPolicy#DROP_BELOW_LEVEL}.
+	 * @return True, if the entry has been appended, or dropped, because the
+	 *   buffer is full. False, if the appender has been closed.
+	 */
+	public boolean offer(@NonNull E pEntry, boolean pDroppable) {
+		return doAppend(pEntry, pDroppable) != CLOSED;
+	}
+
+	/** Returns, whether the appender has been closed.
+	 * @return True, if {@link #close()} has been invoked.
+	 */
+	public boolean isClosed() {
+		return closed.get();
+	}
+
+	private int doAppend(@NonNull E pEntry, boolean pDroppable) {
+		final E entry = Objects.requireNonNull(pEntry, "Entry");
+		final int capacity = slots.length();
+		// Registering before checking for closed ensures, that close() either
+		// rejects us, or waits for us, before draining the buffer for the last time.
+		activeProducers.incrementAndGet();
+		try {
+			for (;;) {
+				if (closed.get()) {
+					return CLOSED;
+				}
+				final long t = tail.get();
+				final long pending = t - head;
+				if (pending < capacity) {
+					if (tail.compareAndSet(t, t+1)) {
+						slots.set((int) (t & mask), entry);
+						if (pending >= capacity/2) {
+							LockSupport.unpark(thread);
+						}
+						return APPENDED;
+					}
+				} else {
+					if (overflowPolicy == OverflowPolicy.DROP
+							||  (overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL  &&  pDroppable)) {
+						droppedCount.incrementAndGet();
+						return DROPPED;
+					}
+					LockSupport.unpark(thread);
+					LockSupport.parkNanos(this, PARK_NANOS);
+				}
+			}
+		} finally {
+			activeProducers.decrementAndGet();
+		}
+	}
+
+	/** Called by the background thread to drain the buffer, until the
+	 * appender is closed.
+	 */
+	protected void run() {
+		for (;;) {
+			if (drain() == 0) {
+				if (closed.get()) {
+					break;
+				}
+				LockSupport.parkNanos(this, flushIntervalNanos);
+			}
+		}
+	}
+
+	/** Writes all entries, which are currently in the buffer, and flushes
+	 * the target, if at least one entry has been written.
+	 * @return The number of entries, which have been written.
+	 */
+	private int drain() {
+		long h = head;
+		final long t = tail.get();
+		if (h == t) {
+			return 0;
+		}
+		int count = 0;
+		while (h < t) {
+			final int index = (int) (h & mask);
+			E entry;
+			// The slot has been claimed, but the producer may not yet have stored the entry.
+			while ((entry = slots.get(index)) == null) {
+				Thread.yield();
+			}
+			slots.set(index, null);
+			head = ++h;
+			try {
+				writer.accept(entry);
+			} catch (Throwable th) {
+				setError(th);
+			}
+			++count;
+		}
+		try {
+			flusher.run();
+		} catch (Throwable th) {
+			setError(th);
+		}
+		return count;
+	}
+
+	private void setError(Throwable pTh) {
+		if (error == null) {
+			error = pTh;
+		}
+	}
+
+	/** Closes the appender: Waits, until the background thread has
+	 * written, and flushed all pending entries. Every entry, for which
+	 * {@link #append(Object, boolean)} has returned true, is written.
+	 * If the appender is already closed, or being closed by another
+	 * thread, does nothing.
+	 * @throws RuntimeException Writing, or flushing, has failed.
+	 *   The first failure is rethrown.
+	 */
+	@Override
+	public void close() {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+		LockSupport.unpark(thread);
+		boolean interrupted = false;
+		for (;;) {
+			try {
+				thread.join();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		// Wait for producers, which have passed the check for closed, but
+		// haven't yet stored their entry. Producers, which are blocked on
+		// a full buffer, will notice, that we are closed.
+		while (activeProducers.get() > 0) {
+			Thread.yield();
+		}
+		// Pick up entries, which have been appended concurrently with closing.
+		drain();
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		final Throwable th = error;
+		if (th != null) {
+			throw Exceptions.show(th);
+		}
+	}
+}
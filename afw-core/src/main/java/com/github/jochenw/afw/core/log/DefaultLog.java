@@ -18,10 +18,11 @@ package com.github.jochenw.afw.core.log;
 /**
  * Default implementation of {@link ILog}.  Doesn't do any logging until a
  * real implementation of {@link ILogFactory} becomes available, and
- * logging can be deferred to the new implementation.
+ * logging can be deferred to the new implementation. The delegate is
+ * replaced, when {@link #logFactoryChanged(ILogFactory)} is invoked.
  */
 public class DefaultLog extends AbstractLog implements LogManager.Listener {
-    private AbstractLog log;
+    private volatile AbstractLog log;
 
     /**
      * Creates a new instance with the given factory, and the given id.
@@ -34,7 +35,7 @@ public class DefaultLog extends AbstractLog implements LogManager.Listener {
     }
 
     @Override
-    public synchronized void logFactoryChanged(ILogFactory pFactory) {
+    public void logFactoryChanged(ILogFactory pFactory) {
         log = (AbstractLog) pFactory.getLog(getId());
     }
     
@@ -43,47 +44,67 @@ public class DefaultLog extends AbstractLog implements LogManager.Listener {
     }
     
     @Override
-    public synchronized boolean isTraceEnabled() {
+    public boolean isTraceEnabled() {
         return log.isTraceEnabled();
     }
 
     @Override
-    public synchronized boolean isDebugEnabled() {
+    public boolean isDebugEnabled() {
         return log.isDebugEnabled();
     }
 
     @Override
-    public synchronized boolean isInfoEnabled() {
+    public boolean isInfoEnabled() {
         return log.isInfoEnabled();
     }
 
     @Override
-    public synchronized boolean isWarnEnabled() {
+    public boolean isWarnEnabled() {
         return log.isWarnEnabled();
     }
 
     @Override
-    public synchronized boolean isErrorEnabled() {
+    public boolean isErrorEnabled() {
         return log.isErrorEnabled();
     }
 
     @Override
-    public synchronized boolean isFatalEnabled() {
+    public boolean isFatalEnabled() {
         return log.isFatalEnabled();
     }
 
     @Override
-    public synchronized boolean isEnabledFor(Level pLevel) {
+    public boolean isEnabledFor(Level pLevel) {
         return log.isEnabledFor(pLevel);
     }
 
     @Override
-    protected synchronized void log(Level pLevel, String pMessage) {
+    protected void log(Level pLevel, String pMessage) {
         log.log(pLevel, pMessage);
     }
 
     @Override
-    protected synchronized void log(Level pLevel, String pMessage, Throwable pTh) {
+    protected void log(Level pLevel, String pMessage, Throwable pTh) {
         log.log(pLevel, pMessage, pTh);
     }
+
+    @Override
+    protected void log(Level pLevel, LogBuffer pMessage) {
+        log.log(pLevel, pMessage);
+    }
+
+    @Override
+    protected void log(Level pLevel, LogBuffer pMessage, Throwable pTh) {
+        log.log(pLevel, pMessage, pTh);
+    }
+
+    @Override
+    protected boolean isStructured() {
+        return log.isStructured();
+    }
+
+    @Override
+    protected void logEvent(Level pLevel, String pMethod, String pMessage, Object[] pArgs, Throwable pTh) {
+        log.logEvent(pLevel, pMethod, pMessage, pArgs, pTh);
+    }
 }
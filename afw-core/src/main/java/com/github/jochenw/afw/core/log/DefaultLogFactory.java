@@ -35,7 +35,7 @@ public class DefaultLogFactory extends AbstractLogFactory implements ILogFactory
     private final List<DefaultLog> loggers = new ArrayList<DefaultLog>();
 
     @Override
-    protected AbstractLog newLog(String pId) {
+    protected synchronized AbstractLog newLog(String pId) {
         if (initialized) {
             return (AbstractLog) lf.getLog(pId);
         } else {
@@ -53,6 +53,8 @@ public class DefaultLogFactory extends AbstractLogFactory implements ILogFactory
             log.logFactoryChanged(pFactory);
         }
         initialized = true;
+        // Loggers, which have been obtained from the previous factory, are invalid now.
+        clearLogCache();
     }
 
 	@Override
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.github.jochenw.afw.core.log.ILog.Level;
+
+
+/** A formatter for structured log output: Every log event is written
+ * as a single line, which contains a Json object. Unlike the
+ * {@link com.github.jochenw.afw.core.json.JsnWriter}, the formatter
+ * doesn't convert the log event into a map: Instead, the event is
+ * streamed to a {@link JsonGenerator} directly. Example output (with
+ * line breaks added):
+ * <pre>
+ *   {"timestamp":1234,"level":"INFO","id":"com.foo.MyClass","method":"run",
+ *    "message":"Processing file","args":["input.txt",42]}
+ * </pre>
+ * The fields "method", "message", "args", and "exception" are omitted,
+ * if they are null. Exceptions are written as objects with the fields
+ * "class", "message", "stack" (an array of stack trace elements), and
+ * "cause".
+ *
+ * This class requires the Json API (javax.json), and an implementation,
+ * on the class path.
+ */
+public class JsonLogFormatter {
+	/** Maximum number of nested causes, which are written for an exception.
+	 * Limits the output, and protects against cyclic causes.
+	 */
+	private static final int MAX_CAUSES = 16;
+
+	private final @NonNull JsonGeneratorFactory factory;
+
+	/** Creates a new instance.
+	 */
+	public JsonLogFormatter() {
+		// Looking up the Json provider is expensive, so it is done only once.
+		factory = Json.createGeneratorFactory(Collections.emptyMap());
+	}
+
+	/** Writes a log event as a Json object to the given {@link Writer}.
+	 * The Json object is written without line terminator.
+	 * @param pWriter The target writer. The writer is being flushed, but not
+	 *   closed. (Closing the generator would close the writer.) A typical
+	 *   target is the {@link LogBuffer#getWriter() writer} of a {@link LogBuffer}.
+	 * @param pTimestamp The events timestamp: Numbers are written as
+	 *   Json numbers, other objects as strings.
+	 * @param pLevel The events log level.
+	 * @param pId The id of the logger, which has been called to log the event.
+	 * @param pMethod The method name, which has been logged, or null.
+	 * @param pMessage The log message, or null.
+	 * @param pArgs The message parameters, or null.
+	 * @param pTh The logged exception, or null.
+	 */
+	public void write(@NonNull Writer pWriter, @NonNull Object pTimestamp, @NonNull Level pLevel,
+			          @Nullable String pId, @Nullable String pMethod, @Nullable String pMessage,
+			          @Nullable Object[] pArgs, @Nullable Throwable pTh) {
+		final JsonGenerator jg = factory.createGenerator(pWriter);
+		jg.writeStartObject();
+		if (pTimestamp instanceof Number) {
+			jg.write("timestamp", ((Number) pTimestamp).longValue());
+		} else {
+			jg.write("timestamp", pTimestamp.toString());
+		}
+		jg.write("level", pLevel.name());
+		if (pId == null) {
+			jg.writeNull("id");
+		} else {
+			jg.write("id", pId);
+		}
+		if (pMethod != null) {
+			jg.write("method", pMethod);
+		}
+		if (pMessage != null) {
+			jg.write("message", pMessage);
+		}
+		if (pArgs != null  &&  pArgs.length > 0) {
+			jg.writeStartArray("args");
+			for (Object arg : pArgs) {
+				writeArg(jg, arg);
+			}
+			jg.writeEnd();
+		}
+		if (pTh != null) {
+			jg.writeStartObject("exception");
+			writeThrowable(jg, pTh, 0);
+		}
+		jg.writeEnd();
+		/* Closing the generator returns its internal buffer to the
+		 * providers buffer pool. The writer is expected to ignore the close.
+		 */
+		jg.close();
+	}
+
+	/** Writes a single message parameter as a Json array element. Numbers,
+	 * and booleans, are written as Json numbers, and booleans. Other objects
+	 * are converted into strings.
+	 * @param pJg The generator, which is writing the Json array.
+	 * @param pArg The message parameter, which is being written.
+	 */
+	protected void writeArg(@NonNull JsonGenerator pJg, @Nullable Object pArg) {
+		if (pArg == null) {
+			pJg.writeNull();
+		} else if (pArg instanceof String) {
+			pJg.write((String) pArg);
+		} else if (pArg instanceof Boolean) {
+			pJg.write(((Boolean) pArg).booleanValue());
+		} else if (pArg instanceof Integer  ||  pArg instanceof Long
+				||  pArg instanceof Short  ||  pArg instanceof Byte) {
+			pJg.write(((Number) pArg).longValue());
+		} else if (pArg instanceof Double  ||  pArg instanceof Float) {
+			final double d = ((Number) pArg).doubleValue();
+			if (Double.isNaN(d)  ||  Double.isInfinite(d)) {
+				// Not valid in Json.
+				pJg.write(pArg.toString());
+			} else {
+				pJg.write(d);
+			}
+		} else if (pArg instanceof BigDecimal) {
+			pJg.write((BigDecimal) pArg);
+		} else if (pArg instanceof BigInteger) {
+			pJg.write((BigInteger) pArg);
+		} else {
+			pJg.write(String.valueOf(pArg));
+		}
+	}
+
+	/** Writes the fields of an exception. The Json object has already been
+	 * started, and is ended by this method.
+	 * @param pJg The generator, which is writing the exception.
+	 * @param pTh The exception, which is being written.
+	 * @param pDepth The number of causes, which have already been written.
+	 */
+	protected void writeThrowable(@NonNull JsonGenerator pJg, @NonNull Throwable pTh, int pDepth) {
+		pJg.write("class", pTh.getClass().getName());
+		final String message = pTh.getMessage();
+		if (message != null) {
+			pJg.write("message", message);
+		}
+		pJg.writeStartArray("stack");
+		for (StackTraceElement ste : pTh.getStackTrace()) {
+			pJg.write(ste.toString());
+		}
+		pJg.writeEnd();
+		final Throwable cause = pTh.getCause();
+		if (cause != null  &&  cause != pTh  &&  pDepth < MAX_CAUSES) {
+			pJg.writeStartObject("cause");
+			writeThrowable(pJg, cause, pDepth+1);
+		}
+		pJg.writeEnd();
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Formatter;
+
+import org.jspecify.annotations.NonNull;
+
+
+/** A reusable, thread-local character buffer for formatting log messages.
+ * Using a {@code LogBuffer} avoids creating a new {@link StringBuilder},
+ * {@link Formatter}, intermediate strings, and byte arrays for every
+ * log message. Typical use is
+ * <pre>
+ *   final LogBuffer buffer = LogBuffer.acquire();
+ *   try {
+ *       buffer.getBuilder().append(...);
+ *       buffer.writeTo(out, charset);
+ *   } finally {
+ *       buffer.release();
+ *   }
+ * </pre>
+ * A buffer must not be passed to another thread.
+ */
+public class LogBuffer {
+	private static final int INITIAL_SIZE = 256;
+	private static final int MAX_RETAINED_SIZE = 16384;
+	/** Number of buffers per thread: The log message, and the log line,
+	 * which is built from the log message, are typically formatted at
+	 * the same time.
+	 */
+	private static final int BUFFERS_PER_THREAD = 2;
+	private static final ThreadLocal<LogBuffer[]> BUFFERS = ThreadLocal.withInitial(() -> {
+		final LogBuffer[] buffers = new LogBuffer[BUFFERS_PER_THREAD];
+		for (int i = 0;  i < buffers.length;  i++) {
+			buffers[i] = new LogBuffer();
+		}
+		return buffers;
+	});
+
+	private final @NonNull StringBuilder sb = new StringBuilder(INITIAL_SIZE);
+	private Formatter formatter;
+	private Writer writer;
+	private char[] chars;
+	private CharBuffer charBuffer;
+	private ByteBuffer byteBuffer;
+	private CharsetEncoder encoder;
+	private boolean inUse;
+
+	/** Private constructor, to enforce the use of {@link #acquire()}.
+	 */
+	private LogBuffer() {}
+
+	/** Returns an empty buffer, which is owned by the current thread.
+	 * The buffer must be {@link #release() released} after use. If all of
+	 * the current threads buffers are in use (for example, because a
+	 * log message parameters {@code toString()} method is logging), then
+	 * a new, unshared, buffer is returned.
+	 * @return An empty buffer.
+	 */
+	public static @NonNull LogBuffer acquire() {
+		final LogBuffer[] buffers = BUFFERS.get();
+		for (int i = 0;  i < buffers.length;  i++) {
+			final LogBuffer buffer = buffers[i];
+			if (!buffer.inUse) {
+				buffer.inUse = true;
+				buffer.sb.setLength(0);
+				return buffer;
+			}
+		}
+		final LogBuffer buffer = new LogBuffer();
+		buffer.inUse = true;
+		return buffer;
+	}
+
+	/** Releases the buffer, so that it can be returned by
+	 * {@link #acquire()} again. Oversized internal arrays are being
+	 * discarded, so that a single large log message doesn't retain
+	 * memory forever.
+	 */
+	public void release() {
+		if (sb.capacity() > MAX_RETAINED_SIZE) {
+			sb.setLength(0);
+			sb.trimToSize();
+			sb.ensureCapacity(INITIAL_SIZE);
+		}
+		if (chars != null  &&  chars.length > MAX_RETAINED_SIZE) {
+			chars = null;
+			charBuffer = null;
+		}
+		inUse = false;
+	}
+
+	/** Returns the {@link StringBuilder}, which holds the buffers contents.
+	 * @return The {@link StringBuilder}, which holds the buffers contents.
+	 */
+	public @NonNull StringBuilder getBuilder() {
+		return sb;
+	}
+
+	/** Returns a {@link Formatter}, which is appending to the
+	 * {@link #getBuilder() buffers contents}.
+	 * @return A {@link Formatter}, which is appending to the buffer.
+	 */
+	public @NonNull Formatter getFormatter() {
+		if (formatter == null) {
+			formatter = new Formatter(sb);
+		}
+		return formatter;
+	}
+
+	/** Returns a {@link Writer}, which is appending to the
+	 * {@link #getBuilder() buffers contents}. Closing the writer has
+	 * no effect.
+	 * @return A {@link Writer}, which is appending to the buffer.
+	 */
+	public @NonNull Writer getWriter() {
+		if (writer == null) {
+			writer = new Writer() {
+				@Override
+				public void write(int pChar) {
+					sb.append((char) pChar);
+				}
+
+				@Override
+				public void write(char[] pBuffer, int pOffset, int pLen) {
+					sb.append(pBuffer, pOffset, pLen);
+				}
+
+				@Override
+				public void write(String pStr, int pOffset, int pLen) {
+					sb.append(pStr, pOffset, pOffset+pLen);
+				}
+
+				@Override
+				public Writer append(CharSequence pChars) {
+					sb.append(pChars);
+					return this;
+				}
+
+				@Override
+				public void flush() {
+					// Does nothing.
+				}
+
+				@Override
+				public void close() {
+					// Does nothing.
+				}
+			};
+		}
+		return writer;
+	}
+
+	private @NonNull CharBuffer getCharBuffer() {
+		final int len = sb.length();
+		if (chars == null  ||  chars.length < len) {
+			chars = new char[Math.max(len, INITIAL_SIZE)];
+			charBuffer = CharBuffer.wrap(chars);
+		}
+		sb.getChars(0, len, chars, 0);
+		charBuffer.clear();
+		charBuffer.limit(len);
+		return charBuffer;
+	}
+
+	/** Writes the buffers contents to the given {@link Writer}.
+	 * @param pWriter The target {@link Writer}.
+	 * @throws IOException Writing to the target failed.
+	 */
+	public void writeTo(@NonNull Writer pWriter) throws IOException {
+		final CharBuffer cb = getCharBuffer();
+		pWriter.write(chars, 0, cb.limit());
+	}
+
+	/** Writes the buffers contents to the given {@link OutputStream}, using
+	 * the given character set for converting characters into bytes. The
+	 * contents are written in a single call, if possible, so that a
+	 * synchronized target (like a {@link java.io.PrintStream}) doesn't mix
+	 * up contents from multiple threads.
+	 * @param pOut The target {@link OutputStream}.
+	 * @param pCharset The character set, which is being used to convert
+	 *   characters into bytes.
+	 * @throws IOException Writing to the target failed.
+	 */
+	public void writeTo(@NonNull OutputStream pOut, @NonNull Charset pCharset) throws IOException {
+		final CharBuffer cb = getCharBuffer();
+		if (encoder == null  ||  !encoder.charset().equals(pCharset)) {
+			encoder = pCharset.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+		final int size = (int) Math.ceil(cb.remaining() * (double) encoder.maxBytesPerChar());
+		if (byteBuffer == null  ||  byteBuffer.capacity() < size) {
+			byteBuffer = ByteBuffer.allocate(Math.max(size, INITIAL_SIZE));
+		}
+		final ByteBuffer bb = byteBuffer;
+		bb.clear();
+		encoder.reset();
+		// The byte buffer is large enough for the complete contents, so there is no overflow.
+		CoderResult cr = encoder.encode(cb, bb, true);
+		if (cr.isUnderflow()) {
+			cr = encoder.flush(bb);
+		}
+		if (!cr.isUnderflow()) {
+			cr.throwException();
+		}
+		pOut.write(bb.array(), 0, bb.position());
+		if (bb.capacity() > MAX_RETAINED_SIZE) {
+			byteBuffer = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return sb.toString();
+	}
+}
@@ -15,8 +15,8 @@
  */
 package com.github.jochenw.afw.core.log;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
@@ -35,8 +35,8 @@ public class LogManager {
     }
     private static LogManager theInstance = new LogManager();
 
-    private ILogFactory logFactory;
-    private final List<Listener> listeners = new ArrayList<Listener>();
+    private volatile ILogFactory logFactory;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
 
     /**
      * Private constructor, because we want this to be a singleton.
@@ -65,7 +65,7 @@ public class LogManager {
      * Returns the default logger factory.
      * @return The default logger factory.
      */
-    public synchronized ILogFactory getLogFactory() {
+    public ILogFactory getLogFactory() {
         return logFactory;
     }
 
@@ -0,0 +1,560 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.jspecify.annotations.NonNull;
+
+import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.FileUtils;
+import com.github.jochenw.afw.core.util.Objects;
+
+
+/** An {@link OutputStream}, which writes to a log file, that is rotated,
+ * if it exceeds a maximum size, or age. Rotated files are renamed, and
+ * optionally compressed, and removed after a configurable number of
+ * files, or time. Compression, and removal, are done by a background
+ * thread, so that writing to the active file is only suspended for
+ * renaming the file. A single {@link #write(byte[], int, int)} call is
+ * never split between two files. If renaming the file fails (for example,
+ * because it is locked), then the data is written to the active file, and
+ * the rotation is retried after a {@link Builder#rotationRetryDelay(Duration) delay}.
+ * The first error is reported by {@link #close()}.
+ *
+ * The stream can be used by the {@link com.github.jochenw.afw.core.log.simple.SimpleLogFactory}
+ * (by wrapping it into a {@link java.io.PrintStream}), and by the
+ * {@link com.github.jochenw.afw.core.log.app.DefaultAppLog}. Example:
+ * <pre>
+ *   final RollingFileOutputStream out = RollingFileOutputStream.builder()
+ *       .file(Paths.get("logs/app.log"))
+ *       .maxSize(10*1024*1024)
+ *       .compress(true)
+ *       .maxFiles(10)
+ *       .build();
+ *   final SimpleLogFactory slf = SimpleLogFactory.of(new PrintStream(out), Level.INFO);
+ * </pre>
+ */
+public class RollingFileOutputStream extends OutputStream {
+	/** The policy for forcing written data to the storage device.
+	 */
+	public enum FsyncPolicy {
+		/** Data is never forced to the storage device explicitly.
+		 * This is left to the operating system.
+		 */
+		NEVER,
+		/** Data is forced to the storage device, before a file is
+		 * rotated, or closed.
+		 */
+		ON_ROTATE,
+		/** Data is forced to the storage device upon every
+		 * {@link RollingFileOutputStream#flush()}, and before a file
+		 * is rotated, or closed.
+		 */
+		ON_FLUSH
+	}
+
+	/** A builder for instances of {@link RollingFileOutputStream}.
+	 */
+	public static class Builder {
+		private Path file;
+		private long maxSize;
+		private Duration rotationInterval;
+		private boolean compress;
+		private int maxFiles;
+		private Duration maxAge;
+		private int bufferSize = 8192;
+		private @NonNull FsyncPolicy fsyncPolicy = FsyncPolicy.ON_ROTATE;
+		private @NonNull Duration rotationRetryDelay = Duration.ofMinutes(1);
+
+		/** Creates a new instance.
+		 */
+		public Builder() {}
+
+		/** Sets the active log file. Rotated files are created in the same directory.
+		 * @param pFile The active log file.
+		 * @return This builder.
+		 */
+		public Builder file(@NonNull Path pFile) {
+			file = Objects.requireNonNull(pFile, "File");
+			return this;
+		}
+
+		/** Sets the maximum size of the active log file. If the file would exceed
+		 * this size, then it is rotated. Defaults to 0 (No rotation by size).
+		 * @param pMaxSize The maximum size in bytes, or 0.
+		 * @return This builder.
+		 */
+		public Builder maxSize(long pMaxSize) {
+			if (pMaxSize < 0) {
+				throw new IllegalArgumentException("The maximum size must not be negative.");
+			}
+			maxSize = pMaxSize;
+			return this;
+		}
+
+		/** Sets the maximum age of the active log file. If the file has been
+		 * opened before this time, then it is rotated. Defaults to null
+		 * (No rotation by time).
+		 * @param pInterval The rotation interval, or null.
+		 * @return This builder.
+		 */
+		public Builder rotationInterval(Duration pInterval) {
+			rotationInterval = pInterval;
+			return this;
+		}
+
+		/** Sets, whether rotated files are being compressed with GZIP.
+		 * Defaults to false.
+		 * @param pCompress True, if rotated files are being compressed.
+		 * @return This builder.
+		 */
+		public Builder compress(boolean pCompress) {
+			compress = pCompress;
+			return this;
+		}
+
+		/** Sets the maximum number of rotated files, which are being retained.
+		 * Defaults to 0 (No limit).
+		 * @param pMaxFiles The maximum number of rotated files, or 0.
+		 * @return This builder.
+		 */
+		public Builder maxFiles(int pMaxFiles) {
+			if (pMaxFiles < 0) {
+				throw new IllegalArgumentException("The maximum number of files must not be negative.");
+			}
+			maxFiles = pMaxFiles;
+			return this;
+		}
+
+		/** Sets the maximum age of rotated files. Older files are being removed.
+		 * Defaults to null (No limit).
+		 * @param pMaxAge The maximum age of rotated files, or null.
+		 * @return This builder.
+		 */
+		public Builder maxAge(Duration pMaxAge) {
+			maxAge = pMaxAge;
+			return this;
+		}
+
+		/** Sets the size of the write buffer. Defaults to 8192.
+		 * @param pBufferSize The size of the write buffer in bytes.
+		 * @return This builder.
+		 */
+		public Builder bufferSize(int pBufferSize) {
+			if (pBufferSize <= 0) {
+				throw new IllegalArgumentException("The buffer size must be positive.");
+			}
+			bufferSize = pBufferSize;
+			return this;
+		}
+
+		/** Sets the policy for forcing written data to the storage device.
+		 * Defaults to {@link FsyncPolicy#ON_ROTATE}.
+		 * @param pPolicy The fsync policy.
+		 * @return This builder.
+		 */
+		public Builder fsyncPolicy(@NonNull FsyncPolicy pPolicy) {
+			fsyncPolicy = Objects.requireNonNull(pPolicy, "Policy");
+			return this;
+		}
+
+		/** Sets the delay, after which a failed rotation is retried. Until then,
+		 * data is written to the active file, regardless of its size, or age,
+		 * so that a persistent failure (for example, a locked file) doesn't
+		 * slow down every write. Defaults to one minute.
+		 * @param pDelay The retry delay.
+		 * @return This builder.
+		 */
+		public Builder rotationRetryDelay(@NonNull Duration pDelay) {
+			final Duration delay = Objects.requireNonNull(pDelay, "Delay");
+			if (delay.isNegative()) {
+				throw new IllegalArgumentException("The retry delay must not be negative.");
+			}
+			rotationRetryDelay = delay;
+			return this;
+		}
+
+		/** Creates a new stream with the builders configuration, and opens the
+		 * active log file. If the active log file exists, then it is appended to.
+		 * @return The created stream.
+		 * @throws IllegalStateException No file has been configured.
+		 * @throws java.io.UncheckedIOException Opening the active log file failed.
+		 */
+		public RollingFileOutputStream build() {
+			if (file == null) {
+				throw new IllegalStateException("No file has been configured.");
+			}
+			try {
+				return new RollingFileOutputStream(this);
+			} catch (IOException e) {
+				throw Exceptions.show(e);
+			}
+		}
+	}
+
+	/** Returns a new builder.
+	 * @return A new builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final @NonNull Path file;
+	private final @NonNull Path dir;
+	private final @NonNull String baseName;
+	private final @NonNull String extension;
+	private final @NonNull Pattern rotatedFilePattern;
+	private final long maxSize;
+	private final long rotationIntervalMillis;
+	private final boolean compress;
+	private final int maxFiles;
+	private final long maxAgeMillis;
+	private final @NonNull FsyncPolicy fsyncPolicy;
+	private final long rotationRetryDelayMillis;
+	private final @NonNull ByteBuffer buffer;
+	private final @NonNull ExecutorService background;
+	private FileChannel channel;
+	private long size;
+	private long openedMillis;
+	private int sequence;
+	/** Time in milliseconds, when a failed rotation may be retried, or 0.
+	 */
+	private long rotationRetryMillis;
+	private boolean closed;
+	private volatile IOException backgroundError;
+
+	/** Creates a new instance with the given builders configuration.
+	 * @param pBuilder The builder, which provides the configuration.
+	 * @throws IOException Opening the active log file failed.
+	 */
+	protected RollingFileOutputStream(Builder pBuilder) throws IOException {
+		file = pBuilder.file.toAbsolutePath();
+		dir = Objects.requireNonNull(file.getParent(), "Directory");
+		final String name = file.getFileName().toString();
+		final int offset = name.lastIndexOf('.');
+		if (offset > 0) {
+			baseName = name.substring(0, offset);
+			extension = name.substring(offset);
+		} else {
+			baseName = name;
+			extension = "";
+		}
+		// Must match the names, that are created by newRotatedFile().
+		rotatedFilePattern = Pattern.compile(Pattern.quote(baseName) + "-\\d{8}-\\d{6}-\\d{4,}"
+				+ Pattern.quote(extension) + "(\\.gz)?");
+		maxSize = pBuilder.maxSize;
+		rotationIntervalMillis = pBuilder.rotationInterval == null ? 0 : pBuilder.rotationInterval.toMillis();
+		compress = pBuilder.compress;
+		maxFiles = pBuilder.maxFiles;
+		maxAgeMillis = pBuilder.maxAge == null ? 0 : pBuilder.maxAge.toMillis();
+		fsyncPolicy = pBuilder.fsyncPolicy;
+		rotationRetryDelayMillis = pBuilder.rotationRetryDelay.toMillis();
+		buffer = ByteBuffer.allocateDirect(pBuilder.bufferSize);
+		background = Executors.newSingleThreadExecutor((r) -> {
+			final Thread t = new Thread(r, "RollingFileOutputStream-" + baseName);
+			t.setDaemon(true);
+			return t;
+		});
+		FileUtils.createDirectoryFor(file);
+		open();
+	}
+
+	private void open() throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				                   StandardOpenOption.APPEND);
+		size = channel.size();
+		openedMillis = System.currentTimeMillis();
+	}
+
+	/** Returns the active log file.
+	 * @return The active log file.
+	 */
+	public @NonNull Path getFile() {
+		return file;
+	}
+
+	@Override
+	public synchronized void write(int pByte) throws IOException {
+		assertOpen();
+		rotateIfNecessary(1);
+		if (!buffer.hasRemaining()) {
+			writeBuffer();
+		}
+		buffer.put((byte) pByte);
+		++size;
+	}
+
+	@Override
+	public synchronized void write(byte[] pBuffer, int pOffset, int pLen) throws IOException {
+		assertOpen();
+		rotateIfNecessary(pLen);
+		int offset = pOffset;
+		int len = pLen;
+		while (len > 0) {
+			if (!buffer.hasRemaining()) {
+				writeBuffer();
+			}
+			final int n = Math.min(len, buffer.remaining());
+			buffer.put(pBuffer, offset, n);
+			offset += n;
+			len -= n;
+		}
+		size += pLen;
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		assertOpen();
+		writeBuffer();
+		if (fsyncPolicy == FsyncPolicy.ON_FLUSH) {
+			channel.force(false);
+		}
+	}
+
+	/** Rotates the active log file immediately, unless it is empty.
+	 * @throws IOException Rotating the active log file failed.
+	 */
+	public synchronized void rotate() throws IOException {
+		assertOpen();
+		if (size > 0) {
+			doRotate();
+			rotationRetryMillis = 0;
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			closeChannel();
+		} finally {
+			background.shutdown();
+			try {
+				background.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		final IOException e = backgroundError;
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	private void assertOpen() throws IOException {
+		if (closed) {
+			throw new IOException("This stream has been closed.");
+		}
+	}
+
+	private void rotateIfNecessary(int pLen) throws IOException {
+		if (size == 0) {
+			return;
+		}
+		if ((maxSize > 0  &&  size + pLen > maxSize)
+				||  (rotationIntervalMillis > 0
+				     &&  System.currentTimeMillis() - openedMillis >= rotationIntervalMillis)) {
+			if (rotationRetryMillis != 0  &&  System.currentTimeMillis() < rotationRetryMillis) {
+				// A previous rotation has failed: Don't retry before the delay is over.
+				return;
+			}
+			try {
+				doRotate();
+				rotationRetryMillis = 0;
+			} catch (IOException e) {
+				// The active file has been reopened, so we continue writing to it, and
+				// retry the rotation later on. The error is reported by close().
+				rotationRetryMillis = System.currentTimeMillis() + rotationRetryDelayMillis;
+				if (backgroundError == null) {
+					backgroundError = e;
+				}
+			}
+		}
+	}
+
+	private void writeBuffer() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void closeChannel() throws IOException {
+		try {
+			writeBuffer();
+			if (fsyncPolicy != FsyncPolicy.NEVER) {
+				channel.force(false);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void doRotate() throws IOException {
+		final Path target;
+		try {
+			closeChannel();
+			target = newRotatedFile();
+			move(file, target);
+		} finally {
+			// Reopen the active file, even if the rotation failed, so that the stream remains usable.
+			open();
+		}
+		background.execute(() -> {
+			try {
+				if (compress) {
+					compress(target);
+				}
+				removeExpiredFiles();
+			} catch (IOException e) {
+				if (backgroundError == null) {
+					backgroundError = e;
+				}
+			}
+		});
+	}
+
+	/** Called to rename the active log file, when it is being rotated.
+	 * @param pSource The active log file.
+	 * @param pTarget The rotated files name.
+	 * @throws IOException Renaming the file failed.
+	 */
+	protected void move(Path pSource, Path pTarget) throws IOException {
+		Files.move(pSource, pTarget);
+	}
+
+	private Path newRotatedFile() {
+		final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		for (;;) {
+			final String name = baseName + "-" + timestamp + "-" + String.format("%04d", Integer.valueOf(++sequence)) + extension;
+			final Path path = dir.resolve(name);
+			if (!Files.exists(path)  &&  !Files.exists(dir.resolve(name + ".gz"))) {
+				return path;
+			}
+		}
+	}
+
+	private void compress(Path pFile) throws IOException {
+		final Path gzFile = pFile.resolveSibling(pFile.getFileName().toString() + ".gz");
+		final Path tmpFile = pFile.resolveSibling(pFile.getFileName().toString() + ".gz.tmp");
+		final FileTime lastModified = Files.getLastModifiedTime(pFile);
+		try {
+			try (InputStream in = Files.newInputStream(pFile);
+				 OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmpFile))) {
+				final byte[] bytes = new byte[8192];
+				for (;;) {
+					final int res = in.read(bytes);
+					if (res == -1) {
+						break;
+					}
+					out.write(bytes, 0, res);
+				}
+			}
+			Files.move(tmpFile, gzFile, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			// The temporary file isn't matched by the retention, so it must not be left behind.
+			try {
+				Files.deleteIfExists(tmpFile);
+			} catch (IOException e2) {
+				e.addSuppressed(e2);
+			}
+			throw e;
+		}
+		// Keep the rotation time for the retention by age.
+		Files.setLastModifiedTime(gzFile, lastModified);
+		Files.delete(pFile);
+	}
+
+	/** Returns the rotated files, newest first. Only files with the names,
+	 * that are created by this stream, like {@code app-20240131-235959-0001.log},
+	 * or {@code app-20240131-235959-0001.log.gz}, are considered as rotated files.
+	 * @return The list of rotated files, ordered by their modification time,
+	 *   newest first.
+	 * @throws IOException Listing the directory failed.
+	 */
+	public List<Path> getRotatedFiles() throws IOException {
+		final List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+			for (Path p : ds) {
+				if (rotatedFilePattern.matcher(p.getFileName().toString()).matches()) {
+					files.add(p);
+				}
+			}
+		}
+		final Map<Path,Long> times = new HashMap<>();
+		for (Path p : files) {
+			try {
+				times.put(p, Long.valueOf(Files.getLastModifiedTime(p).toMillis()));
+			} catch (IOException e) {
+				// The file has been removed concurrently.
+			}
+		}
+		final List<Path> result = new ArrayList<>(times.keySet());
+		final Comparator<Path> comparator = Comparator.comparing((p) -> times.get(p));
+		result.sort(comparator.thenComparing((p) -> p.getFileName().toString()).reversed());
+		return result;
+	}
+
+	private void removeExpiredFiles() throws IOException {
+		if (maxFiles == 0  &&  maxAgeMillis == 0) {
+			return;
+		}
+		final List<Path> files = getRotatedFiles();
+		final long now = System.currentTimeMillis();
+		for (int i = 0;  i < files.size();  i++) {
+			final Path p = files.get(i);
+			final boolean expired;
+			if (maxFiles > 0  &&  i >= maxFiles) {
+				expired = true;
+			} else if (maxAgeMillis > 0) {
+				expired = now - Files.getLastModifiedTime(p).toMillis() > maxAgeMillis;
+			} else {
+				expired = false;
+			}
+			if (expired) {
+				Files.deleteIfExists(p);
+			}
+		}
+	}
+}
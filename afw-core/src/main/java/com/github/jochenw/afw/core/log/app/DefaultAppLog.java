@@ -5,24 +5,42 @@ package com.github.jochenw.afw.core.log.app;
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 import org.jspecify.annotations.NonNull;
 
 import com.github.jochenw.afw.core.function.Functions.FailableConsumer;
+import com.github.jochenw.afw.core.log.AsyncAppender;
+import com.github.jochenw.afw.core.log.AsyncAppender.OverflowPolicy;
 import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.Objects;
 import com.github.jochenw.afw.core.util.Streams;
 
 /** Default implementation of {@link IAppLog}, writing to an {@link OutputStream}.
  */
 public class DefaultAppLog extends AbstractAppLog implements AutoCloseable {
+	private static class Entry {
+		private final String msg;
+		private final byte[] bytes;
+
+		Entry(String pMsg, byte[] pBytes) {
+			msg = pMsg;
+			bytes = pBytes;
+		}
+	}
+
 	private final @NonNull BufferedOutputStream out;
 	private final @NonNull BufferedWriter writer;
 	private final @NonNull String lineSeparator;
+	private volatile AsyncAppender<Entry> appender;
+	private volatile boolean closed;
+	private @NonNull Level dropLevel = Level.INFO;
 
 	/** Creates a new instance.
 	 * @param pLevel The initial logging level. Can be changed later on using
@@ -55,6 +73,72 @@ public class DefaultAppLog extends AbstractAppLog implements AutoCloseable {
 		this(Level.INFO, Streams.UTF_8, Streams.LINE_SEPARATOR, pOut);
 	}
 
+	/** Switches this logger to asynchronous mode: Log messages are
+	 * no longer written by the logging thread. Instead, they are
+	 * passed to a background thread, which writes them in batches.
+	 * Pending messages are written, and flushed, upon {@link #close()}.
+	 * Messages, which are logged after {@link #close()}, are dropped.
+	 * @param pCapacity The maximum number of pending log messages.
+	 * @param pFlushInterval The maximum delay, before a pending log message is written.
+	 * @param pOverflowPolicy The policy, which is applied, if the maximum number
+	 *   of pending log messages is exceeded.
+	 * @param pDropLevel If the overflow policy is {@link OverflowPolicy#DROP_BELOW_LEVEL},
+	 *   then messages with a level below this are being dropped, if necessary. May be
+	 *   null, in which case the default ({@link Level#INFO}) applies.
+	 */
+	public void setAsync(int pCapacity, @NonNull Duration pFlushInterval,
+			             @NonNull OverflowPolicy pOverflowPolicy, Level pDropLevel) {
+		dropLevel = Objects.notNull(pDropLevel, Level.INFO);
+		final AsyncAppender<Entry> oldAppender = appender;
+		// Publish the new appender first, so that concurrent loggers don't see the
+		// old appender being closed.
+		appender = new AsyncAppender<Entry>("DefaultAppLog-Writer", pCapacity, pFlushInterval,
+				                            pOverflowPolicy, this::writeEntry, writer::flush);
+		if (oldAppender != null) {
+			oldAppender.close();
+		}
+	}
+
+	private void append(@NonNull AsyncAppender<Entry> pAppender, @NonNull Entry pEntry, @NonNull Level pLevel) {
+		final boolean droppable = pLevel.ordinal() < dropLevel.ordinal();
+		AsyncAppender<Entry> app = pAppender;
+		while (!app.offer(pEntry, droppable)) {
+			// The appender has been closed concurrently. Use its successor, if any,
+			// or drop the entry, because this logger has been closed.
+			final AsyncAppender<Entry> newAppender = appender;
+			if (newAppender == null  ||  newAppender == app) {
+				return;
+			}
+			app = newAppender;
+		}
+	}
+
+	/** Returns the number of log messages, which have been dropped in
+	 * asynchronous mode, because the maximum number of pending messages
+	 * was exceeded.
+	 * @return The number of dropped log messages. Always zero, if the
+	 *   logger isn't in asynchronous mode.
+	 */
+	public long getDroppedCount() {
+		final AsyncAppender<Entry> app = appender;
+		return app == null ? 0 : app.getDroppedCount();
+	}
+
+	/** Called by the background thread in asynchronous mode to write a
+	 * single log message. The writer is flushed by the caller.
+	 * @param pEntry The log message, which is being written.
+	 * @throws IOException Writing the log message has failed.
+	 */
+	private void writeEntry(Entry pEntry) throws IOException {
+		writer.write(pEntry.msg);
+		writer.write(lineSeparator);
+		if (pEntry.bytes != null) {
+			writer.flush();
+			out.write(pEntry.bytes);
+			writer.write(lineSeparator);
+		}
+	}
+
 	/** Writes the given message, followed by a line terminator.
 	 * @param pMsg The message, that is being written to the log file.
 	 * @throws IOException Writing to the log file has failed.
@@ -66,6 +150,16 @@ public class DefaultAppLog extends AbstractAppLog implements AutoCloseable {
 
 	@Override
 	public void log(@NonNull Level pLevel, String pMsg) {
+		final AsyncAppender<Entry> app = appender;
+		if (app != null) {
+			if (isEnabled(pLevel)) {
+				append(app, new Entry(pMsg, null), pLevel);
+			}
+			return;
+		}
+		if (closed) {
+			return;
+		}
 		runWriteLocked(() -> {
 			if (isEnabledLocked(pLevel)) {
 				writeLine(pMsg);
@@ -75,6 +169,23 @@ public class DefaultAppLog extends AbstractAppLog implements AutoCloseable {
 
 	@Override
 	public void log(@NonNull Level pLevel, String pMsg, FailableConsumer<OutputStream, IOException> pStreamConsumer) {
+		final AsyncAppender<Entry> app = appender;
+		if (app != null) {
+			if (isEnabled(pLevel)) {
+				// The consumer is invoked by the logging thread, because it might refer to mutable state.
+				final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				try {
+					pStreamConsumer.accept(baos);
+				} catch (Throwable t) {
+					throw Exceptions.show(t);
+				}
+				append(app, new Entry(pMsg, baos.toByteArray()), pLevel);
+			}
+			return;
+		}
+		if (closed) {
+			return;
+		}
 		runWriteLocked(() -> {
 			if (isEnabledLocked(pLevel)) {
 				writeLine(pMsg);
@@ -86,23 +197,33 @@ public class DefaultAppLog extends AbstractAppLog implements AutoCloseable {
 
 	@Override
 	public void close() throws IOException {
-		runWriteLocked(() -> {
-			Throwable th = null;
-			try {
-				writer.close();
-			} catch (Throwable t) {
-				th = t;
+		closed = true;
+		final AsyncAppender<Entry> app = appender;
+		// Stop publishing the appender, before it is being closed.
+		appender = null;
+		try {
+			if (app != null) {
+				app.close();
 			}
-			try {
-				out.close();
-			} catch (Throwable t) {
-				if (th == null) {
+		} finally {
+			runWriteLocked(() -> {
+				Throwable th = null;
+				try {
+					writer.close();
+				} catch (Throwable t) {
 					th = t;
 				}
-			}
-			if (th != null) {
-				throw Exceptions.show(th, IOException.class);
-			}
-		});
+				try {
+					out.close();
+				} catch (Throwable t) {
+					if (th == null) {
+						th = t;
+					}
+				}
+				if (th != null) {
+					throw Exceptions.show(th, IOException.class);
+				}
+			});
+		}
 	}
 }
@@ -17,6 +17,7 @@ package com.github.jochenw.afw.core.log.simple;
 
 import com.github.jochenw.afw.core.log.AbstractLog;
 import com.github.jochenw.afw.core.log.ILog;
+import com.github.jochenw.afw.core.log.LogBuffer;
 
 
 /** Very simple implementation of {@link ILog}, which is not based on any
@@ -36,37 +37,37 @@ public class SimpleLog extends AbstractLog {
 
     @Override
     public boolean isTraceEnabled() {
-        return getFactory().getLevel().ordinal() <= Level.TRACE.ordinal();
+        return getFactory().getLevelOrdinal() <= Level.TRACE.ordinal();
     }
 
     @Override
     public boolean isDebugEnabled() {
-        return getFactory().getLevel().ordinal() <= Level.DEBUG.ordinal();
+        return getFactory().getLevelOrdinal() <= Level.DEBUG.ordinal();
     }
 
     @Override
     public boolean isInfoEnabled() {
-        return getFactory().getLevel().ordinal() <= Level.INFO.ordinal();
+        return getFactory().getLevelOrdinal() <= Level.INFO.ordinal();
     }
 
     @Override
     public boolean isWarnEnabled() {
-        return getFactory().getLevel().ordinal() <= Level.WARN.ordinal();
+        return getFactory().getLevelOrdinal() <= Level.WARN.ordinal();
     }
 
     @Override
     public boolean isErrorEnabled() {
-        return getFactory().getLevel().ordinal() <= Level.ERROR.ordinal();
+        return getFactory().getLevelOrdinal() <= Level.ERROR.ordinal();
     }
 
     @Override
     public boolean isFatalEnabled() {
-        return getFactory().getLevel().ordinal() <= Level.FATAL.ordinal();
+        return getFactory().getLevelOrdinal() <= Level.FATAL.ordinal();
     }
 
     @Override
     public boolean isEnabledFor(Level pLevel) {
-        return getFactory().getLevel().ordinal() <= pLevel.ordinal();
+        return getFactory().getLevelOrdinal() <= pLevel.ordinal();
     }
 
     @Override
@@ -79,4 +80,24 @@ public class SimpleLog extends AbstractLog {
         getFactory().write(getId(), pLevel, pMessage, pTh);
     }
 
+    @Override
+    protected void log(Level pLevel, LogBuffer pMessage) {
+        getFactory().write(getId(), pLevel, pMessage.getBuilder(), null);
+    }
+
+    @Override
+    protected void log(Level pLevel, LogBuffer pMessage, Throwable pTh) {
+        getFactory().write(getId(), pLevel, pMessage.getBuilder(), pTh);
+    }
+
+    @Override
+    protected boolean isStructured() {
+        return getFactory().getFormat() == SimpleLogFactory.Format.JSON;
+    }
+
+    @Override
+    protected void logEvent(Level pLevel, String pMethod, String pMessage, Object[] pArgs, Throwable pTh) {
+        getFactory().write(getId(), pLevel, pMethod, pMessage, pArgs, pTh);
+    }
+
 }
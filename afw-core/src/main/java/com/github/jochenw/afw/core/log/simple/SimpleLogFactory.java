@@ -20,10 +20,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.function.Supplier;
 
 import org.jspecify.annotations.NonNull;
@@ -31,22 +32,74 @@ import org.jspecify.annotations.Nullable;
 
 import com.github.jochenw.afw.core.log.AbstractLog;
 import com.github.jochenw.afw.core.log.AbstractLogFactory;
+import com.github.jochenw.afw.core.log.AsyncAppender;
+import com.github.jochenw.afw.core.log.AsyncAppender.OverflowPolicy;
 import com.github.jochenw.afw.core.log.ILog.Level;
 import com.github.jochenw.afw.core.log.ILogFactory;
+import com.github.jochenw.afw.core.log.JsonLogFormatter;
+import com.github.jochenw.afw.core.log.LogBuffer;
 import com.github.jochenw.afw.core.util.Exceptions;
 import com.github.jochenw.afw.core.util.FileUtils;
 import com.github.jochenw.afw.core.util.Objects;
+import com.github.jochenw.afw.core.util.Strings;
 
 /** Very simple implementation of {@link ILogFactory}, which is not based on any
  * external logging framework.
  */
 public class SimpleLogFactory extends AbstractLogFactory {
+    /** The output format of a {@link SimpleLogFactory}.
+     */
+    public enum Format {
+        /** Every log message is written as a line of text, containing the
+         * timestamp, the log level, the logger id, and the log message.
+         * This is the default.
+         */
+        TEXT,
+        /** Every log event is written as a line, which contains a Json
+         * object. See {@link JsonLogFormatter} for details. This format
+         * requires the Json API (javax.json), and an implementation, on the
+         * class path.
+         */
+        JSON
+    }
+
+    private static class Entry {
+        private final String now, id, message;
+        private final Level level;
+        private final Throwable th;
+        private final boolean formatted;
+
+        Entry(String pNow, Level pLevel, String pId, String pMessage, Throwable pTh) {
+            now = pNow;
+            level = pLevel;
+            id = pId;
+            message = pMessage;
+            th = pTh;
+            formatted = false;
+        }
+
+        Entry(Level pLevel, String pLine) {
+            now = null;
+            level = pLevel;
+            id = null;
+            message = pLine;
+            th = null;
+            formatted = true;
+        }
+    }
+
     private final Writer writer;
     private final PrintStream ps;
     private final String eol = System.getProperty("line.separator");
-    private Level level = Level.DEBUG;
+    private volatile Level level = Level.DEBUG;
+    private volatile int levelOrdinal = Level.DEBUG.ordinal();
     private long startTime = System.currentTimeMillis();
     private Supplier<String> nowStringSupplier;
+    private volatile AsyncAppender<Entry> appender;
+    private Level dropLevel = Level.INFO;
+    private Charset charset = Charset.defaultCharset();
+    private volatile Format format = Format.TEXT;
+    private volatile JsonLogFormatter jsonFormatter;
 
     /**
      * Creates a new instance, which uses the given {@link Writer}
@@ -81,6 +134,41 @@ public class SimpleLogFactory extends AbstractLogFactory {
         this(null, System.err);
     }
     
+    /** Returns the character set, which is used for converting log messages
+     * into bytes, if the log factory is writing to a {@link PrintStream}.
+     * @return The character set for writing to a {@link PrintStream}.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /** Sets the character set, which is used for converting log messages
+     * into bytes, if the log factory is writing to a {@link PrintStream}.
+     * Defaults to {@link Charset#defaultCharset()}.
+     * @param pCharset The character set for writing to a {@link PrintStream}.
+     */
+    public void setCharset(Charset pCharset) {
+        charset = Objects.requireNonNull(pCharset, "Charset");
+    }
+
+    /** Returns the output format. Defaults to {@link Format#TEXT}.
+     * @return The output format.
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /** Sets the output format. Defaults to {@link Format#TEXT}.
+     * @param pFormat The output format.
+     */
+    public void setFormat(Format pFormat) {
+        final Format fmt = Objects.requireNonNull(pFormat, "Format");
+        if (fmt == Format.JSON  &&  jsonFormatter == null) {
+            jsonFormatter = new JsonLogFormatter();
+        }
+        format = fmt;
+    }
+
     @Override
     protected AbstractLog newLog(String pId) {
         return new SimpleLog(this, pId);
@@ -97,7 +185,63 @@ public class SimpleLogFactory extends AbstractLogFactory {
      * @param pLevel The log level.
      */
     public void setLevel(Level pLevel) {
-        level = pLevel;
+        level = Objects.requireNonNull(pLevel, "Level");
+        levelOrdinal = pLevel.ordinal();
+    }
+
+    /** Returns the ordinal of the log level. Used by the loggers for
+     * checking, whether a level is enabled, with a single field read.
+     * @return The ordinal of the log level.
+     */
+    int getLevelOrdinal() {
+        return levelOrdinal;
+    }
+
+    /** Switches this log factory to asynchronous mode: Log messages are
+     * no longer written by the logging thread. Instead, they are
+     * passed to a background thread, which writes them in batches.
+     * Pending messages are written, and flushed, upon {@link #shutdown()}.
+     * Messages, which are logged after {@link #shutdown()}, are written
+     * synchronously.
+     * @param pCapacity The maximum number of pending log messages.
+     * @param pFlushInterval The maximum delay, before a pending log message is written.
+     * @param pOverflowPolicy The policy, which is applied, if the maximum number
+     *   of pending log messages is exceeded.
+     * @param pDropLevel If the overflow policy is {@link OverflowPolicy#DROP_BELOW_LEVEL},
+     *   then messages with a level below this are being dropped, if necessary. May be
+     *   null, in which case the default ({@link Level#INFO}) applies.
+     */
+    public void setAsync(int pCapacity, Duration pFlushInterval, OverflowPolicy pOverflowPolicy,
+                         Level pDropLevel) {
+        dropLevel = Objects.notNull(pDropLevel, Level.INFO);
+        final AsyncAppender<Entry> newAppender = new AsyncAppender<Entry>("SimpleLogFactory-Writer",
+                pCapacity, pFlushInterval, pOverflowPolicy, this::writeEntry, this::flush);
+        final AsyncAppender<Entry> oldAppender = appender;
+        // Publish the new appender first, so that concurrent loggers don't see the
+        // old appender being closed.
+        setAsyncAppender(newAppender);
+        appender = newAppender;
+        if (oldAppender != null) {
+            oldAppender.close();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        // Stop using the appender, before it is being closed by the super class.
+        appender = null;
+        super.shutdown();
+    }
+
+    /** Returns the number of log messages, which have been dropped in
+     * asynchronous mode, because the maximum number of pending messages
+     * was exceeded.
+     * @return The number of dropped log messages. Always zero, if the
+     *   log factory isn't in asynchronous mode.
+     */
+    public long getDroppedCount() {
+        final AsyncAppender<Entry> app = appender;
+        return app == null ? 0 : app.getDroppedCount();
     }
 
     /**
@@ -107,13 +251,151 @@ public class SimpleLogFactory extends AbstractLogFactory {
      * @param pMessage The log message.
      */
     public void write(String pId, Level pLevel, String pMessage) {
-        final String msg = getNowAsString() + " " + pLevel + " " + pId + " " + pMessage;
+        write(pId, pLevel, (CharSequence) pMessage, null);
+    }
+
+    /**
+     * Writes a log message, and an optional exception, with the given logger id,
+     * and the given log level. In synchronous mode, the log message is written without
+     * converting it into a string.
+     * @param pId Id of the logger, that has been called to log the message.
+     * @param pLevel The log level.
+     * @param pMessage The log message.
+     * @param pTh The logged exception, if any, or null.
+     */
+    public void write(String pId, Level pLevel, CharSequence pMessage, Throwable pTh) {
+        if (format == Format.JSON) {
+            write(pId, pLevel, null, pMessage == null ? null : pMessage.toString(), null, pTh);
+            return;
+        }
+        final AsyncAppender<Entry> app = appender;
+        if (app == null) {
+            writeLine(null, pLevel, pId, pMessage, pTh);
+        } else {
+            append(app, new Entry(getNowAsString(), pLevel, pId, pMessage.toString(), pTh));
+        }
+    }
+
+    /**
+     * Writes a structured log event. In {@link Format#JSON JSON format}, the event
+     * is written as a Json object, with method name, message, and parameters as
+     * separate fields. Otherwise, the event is formatted into a single log message.
+     * @param pId Id of the logger, that has been called to log the message.
+     * @param pLevel The log level.
+     * @param pMethod The method name, that is being logged, or null.
+     * @param pMessage The log message, or null.
+     * @param pArgs The message parameters, or null.
+     * @param pTh The logged exception, if any, or null.
+     */
+    public void write(String pId, Level pLevel, String pMethod, String pMessage, Object[] pArgs, Throwable pTh) {
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            final StringBuilder sb = lb.getBuilder();
+            final JsonLogFormatter jlf = jsonFormatter;
+            if (format != Format.JSON  ||  jlf == null) {
+                if (pMethod != null) {
+                    sb.append(pMethod).append(": ");
+                }
+                if (pMessage != null) {
+                    sb.append(pMessage);
+                }
+                if (pArgs != null  &&  pArgs.length > 0) {
+                    if (pMessage != null) {
+                        sb.append(", ");
+                    }
+                    Strings.append(sb, pArgs);
+                }
+                write(pId, pLevel, sb, pTh);
+                return;
+            }
+            final Object now;
+            if (nowStringSupplier == null) {
+                now = Long.valueOf(System.currentTimeMillis()-startTime);
+            } else {
+                now = nowStringSupplier.get();
+            }
+            jlf.write(lb.getWriter(), now, pLevel, pId, pMethod, pMessage, pArgs, pTh);
+            sb.append(eol);
+            final AsyncAppender<Entry> app = appender;
+            if (app == null) {
+                writeBuffer(lb, null);
+            } else {
+                // The parameters may be modified after returning, so the event is formatted now.
+                append(app, new Entry(pLevel, lb.toString()));
+            }
+        } catch (IOException e) {
+            throw Exceptions.newUncheckedIOException(e);
+        } finally {
+            lb.release();
+        }
+    }
+
+    private void append(AsyncAppender<Entry> pAppender, Entry pEntry) {
+        final boolean droppable = pEntry.level.ordinal() < dropLevel.ordinal();
+        AsyncAppender<Entry> app = pAppender;
+        while (!app.offer(pEntry, droppable)) {
+            // The appender has been closed concurrently. Use its successor, if any,
+            // or write the entry synchronously.
+            final AsyncAppender<Entry> newAppender = appender;
+            if (newAppender == null  ||  newAppender == app) {
+                writeEntry(pEntry);
+                return;
+            }
+            app = newAppender;
+        }
+    }
+
+    private void writeEntry(Entry pEntry) {
+        if (pEntry.formatted) {
+            final LogBuffer lb = LogBuffer.acquire();
+            try {
+                lb.getBuilder().append(pEntry.message);
+                writeBuffer(lb, null);
+            } catch (IOException e) {
+                throw Exceptions.newUncheckedIOException(e);
+            } finally {
+                lb.release();
+            }
+        } else {
+            writeLine(pEntry.now, pEntry.level, pEntry.id, pEntry.message, pEntry.th);
+        }
+    }
+
+    private void writeLine(String pNow, Level pLevel, String pId, CharSequence pMessage, Throwable pTh) {
+        final LogBuffer lb = LogBuffer.acquire();
+        try {
+            final StringBuilder sb = lb.getBuilder();
+            if (pNow == null) {
+                appendNow(sb);
+            } else {
+                sb.append(pNow);
+            }
+            sb.append(' ').append(pLevel).append(' ').append(pId).append(' ').append(pMessage).append(eol);
+            writeBuffer(lb, pTh);
+        } catch (IOException e) {
+            throw Exceptions.newUncheckedIOException(e);
+        } finally {
+            lb.release();
+        }
+    }
+
+    private void writeBuffer(LogBuffer pBuffer, Throwable pTh) throws IOException {
         if (writer == null) {
-            ps.println(msg);
+            pBuffer.writeTo(ps, charset);
+            if (pTh != null) {
+                pTh.printStackTrace(ps);
+            }
+        } else {
+            pBuffer.writeTo(writer);
+        }
+    }
+
+    private void flush() {
+        if (writer == null) {
+            ps.flush();
         } else {
             try {
-                writer.write(msg);
-                writer.write(eol);
+                writer.flush();
             } catch (IOException e) {
                 throw Exceptions.newUncheckedIOException(e);
             }
@@ -155,6 +437,19 @@ public class SimpleLogFactory extends AbstractLogFactory {
 		return nowStringSupplier.get();
 	}
 
+	/** Appends the current time to the given buffer. Same as
+	 * {@link #getNowAsString()}, except that the default value
+	 * isn't converted into a string.
+	 * @param pSb The buffer, to which the current time is being appended.
+	 */
+	protected void appendNow(StringBuilder pSb) {
+		if (nowStringSupplier == null) {
+			pSb.append(System.currentTimeMillis()-startTime);
+		} else {
+			pSb.append(nowStringSupplier.get());
+		}
+	}
+
     /**
      * Writes a log message, and an exception, with the given logger id,
      * and the given log level.
@@ -164,18 +459,7 @@ public class SimpleLogFactory extends AbstractLogFactory {
      * @param pTh The logged exception.
      */
     public void write(String pId, Level pLevel, String pMessage, Throwable pTh) {
-        final String msg = getNowAsString() + " " + pLevel + " " + pId + " " + pMessage;
-        if (writer == null) {
-            ps.println(msg);
-            pTh.printStackTrace(ps);
-        } else {
-            try {
-                writer.write(msg);
-                writer.write(eol);
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        }
+        write(pId, pLevel, (CharSequence) pMessage, pTh);
     }
 
 	@Override
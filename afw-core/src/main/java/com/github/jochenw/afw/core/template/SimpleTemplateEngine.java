@@ -7,27 +7,74 @@ import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.github.jochenw.afw.core.el.DefaultPropertyResolver;
 import com.github.jochenw.afw.core.el.ElEvaluator;
 import com.github.jochenw.afw.core.el.ElReader;
 import com.github.jochenw.afw.core.el.PropertyResolver;
 import com.github.jochenw.afw.core.util.Exceptions;
+import com.github.jochenw.afw.core.util.LruCache;
+import com.github.jochenw.afw.core.util.Objects;
 
 
 /** Simple, standalone, implementation of {@link ITemplateEngine}. The main advantage
  * is, that you don't need Freemarker, or whatever, else.
+ *
+ * Templates, which are loaded by {@link #getTemplate(String)}, are compiled
+ * only once, and kept in a bounded cache, keyed by the URI. Optionally,
+ * templates, which are loaded from files, are compiled again, if the file
+ * has been modified. (See {@link #setCheckingModifications(boolean)}.)
+ * While a template is being recompiled, other threads continue to use
+ * the previous version.
  */
 public class SimpleTemplateEngine implements ITemplateEngine<Map<String,Object>> {
+	/** The default maximum number of cached templates.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+	/** The default interval between checks for modified template files.
+	 */
+	public static final Duration DEFAULT_MODIFICATION_CHECK_INTERVAL = Duration.ofSeconds(2);
+
+	/** A cached template.
+	 */
+	private static class CachedTemplate {
+		private final Template<Map<String,Object>> template;
+		/** Path of the template file, or null, if the template isn't loaded
+		 * from a file.
+		 */
+		private final Path path;
+		private final long lastModified;
+		private final long compileTimeNanos;
+		private volatile long lastCheckedNanos;
+		private final AtomicBoolean recompiling = new AtomicBoolean();
+
+		CachedTemplate(Template<Map<String,Object>> pTemplate, Path pPath, long pLastModified,
+				       long pCompileTimeNanos, long pLastCheckedNanos) {
+			template = pTemplate;
+			path = pPath;
+			lastModified = pLastModified;
+			compileTimeNanos = pCompileTimeNanos;
+			lastCheckedNanos = pLastCheckedNanos;
+		}
+	}
+
 	private PropertyResolver propertyResolver;
 	private ElReader elReader;
 	private ElEvaluator elEvalutor;
 	private ClassLoader classLoader;
 	private Charset templateCharset;
 	private String uri;
+	private LruCache<String,CachedTemplate> cache = new LruCache<>(DEFAULT_CACHE_SIZE);
+	private boolean checkingModifications;
+	private Duration modificationCheckInterval = DEFAULT_MODIFICATION_CHECK_INTERVAL;
 
 	/**
 	 * Creates a new instance with the given {@link PropertyResolver}, and the given
@@ -69,6 +116,7 @@ public class SimpleTemplateEngine implements ITemplateEngine<Map<String,Object>>
 	 */
 	public void setClassLoader(ClassLoader pClassLoader) {
 		classLoader = pClassLoader;
+		clearCache();
 	}
 
 	/**
@@ -87,6 +135,7 @@ public class SimpleTemplateEngine implements ITemplateEngine<Map<String,Object>>
 	 */
 	public void setTemplateCharset(Charset pTemplateCharset) {
 		templateCharset = pTemplateCharset;
+		clearCache();
 	}
 
 	/** Returns the {@link PropertyResolver} to use for interpolation of values.
@@ -103,6 +152,7 @@ public class SimpleTemplateEngine implements ITemplateEngine<Map<String,Object>>
 	 */
 	public void setPropertyResolver(PropertyResolver pPropertyResolver) {
 		propertyResolver = pPropertyResolver;
+		clearCache();
 	}
 
 	/** Returns the {@link ElEvaluator} to use for evaluation of EL expressions.
@@ -119,6 +169,7 @@ public class SimpleTemplateEngine implements ITemplateEngine<Map<String,Object>>
 	 */
 	public void setElEvalutor(ElEvaluator pElEvaluator) {
 		elEvalutor = pElEvaluator;
+		clearCache();
 	}
 
 	/** Returns the template URI.
@@ -149,20 +200,186 @@ public class SimpleTemplateEngine implements ITemplateEngine<Map<String,Object>>
 	 */
 	public void setElReader(ElReader pElReader) {
 		elReader = pElReader;
+		clearCache();
+	}
+
+	/** Returns the maximum number of cached templates.
+	 * @return The maximum number of cached templates. Zero means, that
+	 *   the cache is disabled.
+	 * @see #setCacheSize(int)
+	 */
+	public int getCacheSize() {
+		final LruCache<String,CachedTemplate> c = cache;
+		return c == null ? 0 : c.getMaxSize();
+	}
+
+	/** Sets the maximum number of cached templates. Changing the cache size
+	 * clears the cache.
+	 * @param pCacheSize The maximum number of cached templates. Zero disables
+	 *   the cache.
+	 * @see #getCacheSize()
+	 * @throws IllegalArgumentException The cache size is negative.
+	 */
+	public void setCacheSize(int pCacheSize) {
+		if (pCacheSize < 0) {
+			throw new IllegalArgumentException("The cache size must not be negative: " + pCacheSize);
+		}
+		cache = pCacheSize == 0 ? null : new LruCache<>(pCacheSize);
+	}
+
+	/** Returns, whether templates, which have been loaded from files, are
+	 * being recompiled, if the file has been modified.
+	 * @return True, if cached templates are checked for modifications.
+	 * @see #setCheckingModifications(boolean)
+	 * @see #getModificationCheckInterval()
+	 */
+	public boolean isCheckingModifications() {
+		return checkingModifications;
+	}
+
+	/** Sets, whether templates, which have been loaded from files, are
+	 * being recompiled, if the file has been modified. Typically enabled
+	 * during development only.
+	 * @param pCheckingModifications True, if cached templates are checked
+	 *   for modifications.
+	 * @see #isCheckingModifications()
+	 * @see #setModificationCheckInterval(Duration)
+	 */
+	public void setCheckingModifications(boolean pCheckingModifications) {
+		checkingModifications = pCheckingModifications;
+	}
+
+	/** Returns the minimum interval between two checks of the same
+	 * template file for modifications.
+	 * @return The minimum interval between two checks of the same
+	 *   template file.
+	 * @see #setModificationCheckInterval(Duration)
+	 */
+	public Duration getModificationCheckInterval() {
+		return modificationCheckInterval;
+	}
+
+	/** Sets the minimum interval between two checks of the same
+	 * template file for modifications.
+	 * @param pInterval The minimum interval between two checks of the
+	 *   same template file. {@link Duration#ZERO} means, that the file
+	 *   is checked on every invocation of {@link #getTemplate(String)}.
+	 * @see #getModificationCheckInterval()
+	 */
+	public void setModificationCheckInterval(Duration pInterval) {
+		modificationCheckInterval = Objects.requireNonNull(pInterval, "Interval");
+	}
+
+	/** Removes all templates from the cache. Invoked automatically, if the
+	 * settings, which affect the compilation of templates, are changed.
+	 */
+	public void clearCache() {
+		final LruCache<String,CachedTemplate> c = cache;
+		if (c != null) {
+			c.clear();
+		}
+	}
+
+	/** Returns the cache hit rate.
+	 * @return The fraction of calls to {@link #getTemplate(String)}, which
+	 *   have been satisfied from the cache, a value between 0, and 1.
+	 */
+	public double getCacheHitRate() {
+		final LruCache<String,CachedTemplate> c = cache;
+		return c == null ? 0.0 : c.getHitRate();
+	}
+
+	/** Returns the time, which has been required to load, and compile the
+	 * given template.
+	 * @param pUri The template URI, as given to {@link #getTemplate(String)}.
+	 * @return The time, which has been required to load, and compile the
+	 *   cached template, or null, if the template isn't cached.
+	 */
+	public Duration getCompileTime(String pUri) {
+		final LruCache<String,CachedTemplate> c = cache;
+		if (c != null) {
+			final CachedTemplate ct = c.peek(pUri);
+			if (ct != null) {
+				return Duration.ofNanos(ct.compileTimeNanos);
+			}
+		}
+		return null;
 	}
 
 	@Override
 	public Template<Map<String, Object>> getTemplate(String pUri) {
+		final LruCache<String,CachedTemplate> c = cache;
+		if (c == null) {
+			return load(pUri).template;
+		}
+		final CachedTemplate ct = c.get(pUri);
+		if (ct == null) {
+			// Not cached: Concurrent callers may compile the same template twice,
+			// but they aren't blocked.
+			final CachedTemplate newCt = load(pUri);
+			c.put(pUri, newCt);
+			return newCt.template;
+		}
+		if (checkingModifications  &&  ct.path != null) {
+			final long now = System.nanoTime();
+			if (now - ct.lastCheckedNanos >= modificationCheckInterval.toNanos()) {
+				ct.lastCheckedNanos = now;
+				final long lastModified = getLastModified(ct.path);
+				if (lastModified != -1  &&  lastModified != ct.lastModified
+						&&  ct.recompiling.compareAndSet(false, true)) {
+					// Only one thread recompiles. Others continue to use the
+					// current version in the meantime.
+					try {
+						final CachedTemplate newCt = load(pUri);
+						c.put(pUri, newCt);
+						return newCt.template;
+					} finally {
+						ct.recompiling.set(false);
+					}
+				}
+			}
+		}
+		return ct.template;
+	}
+
+	/** Loads, and compiles the given template.
+	 * @param pUri The template URI.
+	 * @return The compiled template.
+	 */
+	private CachedTemplate load(String pUri) {
+		final long startTime = System.nanoTime();
 		final URL url = getClassLoader().getResource(pUri);
 		if (url == null) {
 			throw new IllegalArgumentException("Unable to locate template: " + pUri);
 		}
+		Path path = null;
+		if ("file".equals(url.getProtocol())) {
+			try {
+				path = Paths.get(url.toURI());
+			} catch (Throwable t) {
+				// Ignore this, and don't check for modifications.
+			}
+		}
+		final long lastModified = path == null ? -1 : getLastModified(path);
+		final Template<Map<String,Object>> template;
 		try (final InputStream in = url.openStream();
 			 final Reader r = new InputStreamReader(in, getTemplateCharset())) {
-			return getTemplate(r);
+			template = getTemplate(r);
 		} catch (Throwable t) {
 			throw Exceptions.show(t);
 		}
+		final long endTime = System.nanoTime();
+		return new CachedTemplate(template, path, lastModified, endTime-startTime, endTime);
+	}
+
+	private long getLastModified(Path pPath) {
+		try {
+			return Files.getLastModifiedTime(pPath).toMillis();
+		} catch (Throwable t) {
+			// The file has been removed, or is temporarily unavailable:
+			// Continue using the cached template.
+			return -1;
+		}
 	}
 
 	@Override
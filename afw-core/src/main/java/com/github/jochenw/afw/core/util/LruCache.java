@@ -0,0 +1,290 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+
+/** A bounded, thread safe cache with (approximated) LRU eviction.
+ * Lookups are lock free, and don't create garbage: A cache hit
+ * costs a hash lookup, and an update of the entries access time.
+ * The access time is taken from a clock, which advances only upon
+ * insertion. In other words, a cache hit reads the shared clock, but
+ * doesn't write it, and entries, which have been accessed between the
+ * same two insertions, are considered equally recent.
+ * If the cache grows beyond its maximum size, then the least recently
+ * used entries are evicted in a batch, so that the cost of eviction
+ * is spread over multiple insertions.
+ *
+ * The cache keeps track of hits, and misses, which can be used to
+ * monitor its efficiency.
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class LruCache<K,V> {
+	private static class Entry<V> {
+		private final @NonNull V value;
+		private volatile long lastAccess;
+		Entry(@NonNull V pValue, long pLastAccess) {
+			value = pValue;
+			lastAccess = pLastAccess;
+		}
+	}
+
+	private final int maxSize;
+	private final ConcurrentMap<K,Entry<V>> map = new ConcurrentHashMap<>();
+	private final AtomicLong clock = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final Object evictionLock = new Object();
+
+	/** Creates a new instance with the given maximum size.
+	 * @param pMaxSize The maximum number of entries in the cache.
+	 * @throws IllegalArgumentException The maximum size is zero, or negative.
+	 */
+	public LruCache(int pMaxSize) {
+		if (pMaxSize <= 0) {
+			throw new IllegalArgumentException("The maximum size must be positive: " + pMaxSize);
+		}
+		maxSize = pMaxSize;
+	}
+
+	/** Returns the maximum number of entries in the cache.
+	 * @return The maximum number of entries in the cache.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** Returns the current number of entries in the cache.
+	 * @return The current number of entries in the cache.
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	/** Returns the number of successful lookups.
+	 * @return The number of successful lookups.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** Returns the number of failed lookups.
+	 * @return The number of failed lookups.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** Returns the number of entries, which have been evicted.
+	 * @return The number of entries, which have been evicted.
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/** Returns the hit rate, a number between 0, and 1.
+	 * @return The hit rate, a number between 0 (no lookup has been
+	 *   successful), and 1 (every lookup has been successful).
+	 *   If no lookups have been performed, returns 0.
+	 */
+	public double getHitRate() {
+		final long h = hits.sum();
+		final long total = h + misses.sum();
+		return total == 0 ? 0.0 : ((double) h) / total;
+	}
+
+	/** Looks up the value with the given key.
+	 * @param pKey The key, which is being queried.
+	 * @return The cached value, if any, or null.
+	 */
+	public @Nullable V get(@NonNull K pKey) {
+		final Entry<V> entry = map.get(pKey);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		} else {
+			hits.increment();
+			final long now = clock.get();
+			if (entry.lastAccess != now) {
+				// Avoid writing to frequently used entries over, and over again.
+				entry.lastAccess = now;
+			}
+			return entry.value;
+		}
+	}
+
+	/** Looks up the value with the given key, without updating the
+	 * statistics, or the entries access time.
+	 * @param pKey The key, which is being queried.
+	 * @return The cached value, if any, or null.
+	 */
+	public @Nullable V peek(@NonNull K pKey) {
+		final Entry<V> entry = map.get(pKey);
+		return entry == null ? null : entry.value;
+	}
+
+	/** Adds a value to the cache, possibly replacing an existing value
+	 * with the same key.
+	 * @param pKey The key, under which the value is being stored.
+	 * @param pValue The value, which is being stored.
+	 */
+	public void put(@NonNull K pKey, @NonNull V pValue) {
+		map.put(pKey, new Entry<V>(Objects.requireNonNull(pValue, "Value"), clock.incrementAndGet()));
+		if (map.size() > maxSize) {
+			evict();
+		}
+	}
+
+	/** Looks up the value with the given key. If no such value is present,
+	 * then the value is created by invoking the given function, and
+	 * stored in the cache. Unlike {@link ConcurrentMap#computeIfAbsent(Object, Function)},
+	 * no lock is held, while the function is running: Concurrent callers may
+	 * create the same value twice, but they are never blocked.
+	 * @param pKey The key, which is being queried.
+	 * @param pFunction The function, which creates the value, if necessary.
+	 * @return The cached, or created value.
+	 */
+	public @NonNull V get(@NonNull K pKey, @NonNull Function<K,V> pFunction) {
+		final V value = get(pKey);
+		if (value != null) {
+			return value;
+		}
+		final V newValue = pFunction.apply(pKey);
+		put(pKey, newValue);
+		return newValue;
+	}
+
+	/** Removes the value with the given key from the cache.
+	 * @param pKey The key, which is being removed.
+	 * @return The removed value, if any, or null.
+	 */
+	public @Nullable V remove(@NonNull K pKey) {
+		final Entry<V> entry = map.remove(pKey);
+		return entry == null ? null : entry.value;
+	}
+
+	/** Removes all entries from the cache. The statistics are not reset.
+	 */
+	public void clear() {
+		map.clear();
+	}
+
+	/** Removes the least recently used entries, until the cache has shrunk
+	 * to about 90% of its maximum size. Rather than sorting the entries,
+	 * this selects the access time of the last entry, that is being evicted,
+	 * in linear time, and removes the entries, which are older.
+	 */
+	protected void evict() {
+		synchronized (evictionLock) {
+			final int size = map.size();
+			if (size <= maxSize) {
+				// Another thread has been faster.
+				return;
+			}
+			final int targetSize = maxSize - maxSize/10;
+			final long[] accessTimes = new long[size];
+			int numEntries = 0;
+			for (Entry<V> entry : map.values()) {
+				if (numEntries == accessTimes.length) {
+					// The map has grown concurrently.
+					break;
+				}
+				accessTimes[numEntries++] = entry.lastAccess;
+			}
+			final int numEvictions = Math.min(numEntries, size - targetSize);
+			if (numEvictions == 0) {
+				return;
+			}
+			final long threshold = select(accessTimes, numEntries, numEvictions-1);
+			// Entries with the threshold as the access time are evicted only, if
+			// there are not enough older entries.
+			final int numRemaining = numEvictions - evict(threshold, false, numEvictions);
+			if (numRemaining > 0) {
+				evict(threshold, true, numRemaining);
+			}
+		}
+	}
+
+	private int evict(long pThreshold, boolean pEqual, int pMaxEvictions) {
+		int numEvictions = 0;
+		final Iterator<Map.Entry<K,Entry<V>>> iter = map.entrySet().iterator();
+		while (numEvictions < pMaxEvictions  &&  iter.hasNext()) {
+			final Map.Entry<K,Entry<V>> mapEntry = iter.next();
+			final Entry<V> entry = mapEntry.getValue();
+			final long lastAccess = entry.lastAccess;
+			if (pEqual ? lastAccess == pThreshold : lastAccess < pThreshold) {
+				if (map.remove(mapEntry.getKey(), entry)) {
+					evictions.increment();
+					++numEvictions;
+				}
+			}
+		}
+		return numEvictions;
+	}
+
+	/** Returns the {@code pIndex}'th smallest of the first {@code pLength}
+	 * elements in the given array (Hoare's quickselect). The array is
+	 * partially reordered.
+	 * @param pValues The array, which is being searched.
+	 * @param pLength The number of array elements, which are being searched.
+	 * @param pIndex The zero based index of the requested element in the
+	 *   sorted sequence.
+	 * @return The requested element.
+	 */
+	static long select(long[] pValues, int pLength, int pIndex) {
+		int left = 0;
+		int right = pLength-1;
+		while (left < right) {
+			final long pivot = pValues[(left+right) >>> 1];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (pValues[i] < pivot) {
+					++i;
+				}
+				while (pValues[j] > pivot) {
+					--j;
+				}
+				if (i <= j) {
+					final long v = pValues[i];
+					pValues[i++] = pValues[j];
+					pValues[j--] = v;
+				}
+			}
+			if (pIndex <= j) {
+				right = j;
+			} else if (pIndex >= i) {
+				left = i;
+			} else {
+				// The elements between j, and i are equal to the pivot.
+				return pValues[pIndex];
+			}
+		}
+		return pValues[pIndex];
+	}
+}
@@ -220,6 +220,13 @@ public class Strings {
                     append(pAppendable, iter.next());
                 }
                 pAppendable.append(')');
+            } else if (pArg instanceof CharSequence) {
+                pAppendable.append((CharSequence) pArg);
+            } else if (pAppendable instanceof StringBuilder
+                    &&  (pArg instanceof Integer  ||  pArg instanceof Long
+                         ||  pArg instanceof Short  ||  pArg instanceof Byte)) {
+                // Avoid creating a temporary string.
+                ((StringBuilder) pAppendable).append(((Number) pArg).longValue());
             } else {
                 pAppendable.append(String.valueOf(pArg));
             }
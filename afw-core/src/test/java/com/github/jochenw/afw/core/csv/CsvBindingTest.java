@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+
+/** Test suite for the {@link CsvBinding}.
+ */
+public class CsvBindingTest {
+	/** Status of a {@link Person}.
+	 */
+	public enum Status {
+		/** Active person. */
+		ACTIVE,
+		/** Inactive person. */
+		INACTIVE
+	}
+
+	/** A bean class, which is used for testing.
+	 */
+	public static class Person {
+		private String name;
+		private int age;
+		private double score;
+		private BigDecimal balance;
+		private Status status;
+		private LocalDate birthday;
+
+		/** Returns the persons name.
+		 * @return The persons name.
+		 */
+		public String getName() { return name; }
+		/** Sets the persons name.
+		 * @param pName The persons name.
+		 */
+		public void setName(String pName) { name = pName; }
+		/** Returns the persons age.
+		 * @return The persons age.
+		 */
+		public int getAge() { return age; }
+		/** Sets the persons age.
+		 * @param pAge The persons age.
+		 */
+		public void setAge(int pAge) { age = pAge; }
+		/** Returns the persons score.
+		 * @return The persons score.
+		 */
+		public double getScore() { return score; }
+		/** Sets the persons score.
+		 * @param pScore The persons score.
+		 */
+		public void setScore(double pScore) { score = pScore; }
+		/** Returns the persons balance.
+		 * @return The persons balance.
+		 */
+		public BigDecimal getBalance() { return balance; }
+		/** Sets the persons balance.
+		 * @param pBalance The persons balance.
+		 */
+		public void setBalance(BigDecimal pBalance) { balance = pBalance; }
+		/** Returns the persons status.
+		 * @return The persons status.
+		 */
+		public Status getStatus() { return status; }
+		/** Sets the persons status.
+		 * @param pStatus The persons status.
+		 */
+		public void setStatus(Status pStatus) { status = pStatus; }
+		/** Returns the persons birthday.
+		 * @return The persons birthday.
+		 */
+		public LocalDate getBirthday() { return birthday; }
+		/** Sets the persons birthday.
+		 * @param pBirthday The persons birthday.
+		 */
+		public void setBirthday(LocalDate pBirthday) { birthday = pBirthday; }
+	}
+
+	private static final String CSV = "Id;Name;Age;Score;Birthday\n"
+			+ "1;\"Doe; John\";42;1.5;2000-01-31\n"
+			+ "2;Jane;;-0.25;\n";
+
+	private static List<Person> read(CsvBinding<Person> pBinding, String pCsv) {
+		final List<Person> persons = new ArrayList<>();
+		new CsvReader().parse(new StringReader(pCsv), pBinding, persons::add);
+		return persons;
+	}
+
+	/** Test for reading objects with a binding, which uses lambdas.
+	 */
+	@Test
+	public void testReadWithLambdas() {
+		final CsvBinding<Person> binding = CsvBinding.builder(Person::new)
+				.stringColumn("Name", Person::setName, Person::getName)
+				.intColumn("Age", Person::setAge, Person::getAge)
+				.doubleColumn("Score", Person::setScore, Person::getScore)
+				.column("Birthday", LocalDate::parse, LocalDate::toString, Person::setBirthday, Person::getBirthday)
+				.build();
+		final List<Person> persons = read(binding, CSV);
+		assertEquals(2, persons.size());
+		final Person john = persons.get(0);
+		assertEquals("Doe; John", john.getName());
+		assertEquals(42, john.getAge());
+		assertEquals(1.5, john.getScore());
+		assertEquals(LocalDate.of(2000, 1, 31), john.getBirthday());
+		final Person jane = persons.get(1);
+		assertEquals("Jane", jane.getName());
+		assertEquals(0, jane.getAge());
+		assertEquals(-0.25, jane.getScore());
+		assertNull(jane.getBirthday());
+		final Person p = binding.bind(new String[] {"Age", "Name", "Score", "Birthday"})
+				.read(new String[] {"17", "", "", ""});
+		assertEquals(17, p.getAge());
+		assertEquals("", p.getName());
+		assertThrows(CsvParseException.class, () -> read(binding, "Name;Age\nJoe;Old\n"));
+		assertThrows(CsvParseException.class, () -> read(binding, "Name;Age\nJoe;17\n"));
+	}
+
+	/** Test for reading, and writing, beans by property name.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testBeanProperties() throws Exception {
+		final CsvBinding<Person> binding = CsvBinding.builder(Person.class)
+				.properties("name", "age", "score", "balance")
+				.property("State", "status")
+				.build();
+		final String csv = "name;age;score;balance;State\nJohn;42;0.1;12.50;ACTIVE\nJane;17;3.0;;INACTIVE\n";
+		final List<Person> persons = read(binding, csv);
+		assertEquals(2, persons.size());
+		assertEquals("John", persons.get(0).getName());
+		assertEquals(42, persons.get(0).getAge());
+		assertEquals(0.1, persons.get(0).getScore());
+		assertEquals(new BigDecimal("12.50"), persons.get(0).getBalance());
+		assertEquals(Status.ACTIVE, persons.get(0).getStatus());
+		assertNull(persons.get(1).getBalance());
+		assertEquals(Status.INACTIVE, persons.get(1).getStatus());
+
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (CsvWriter cw = new CsvWriter(baos, new String[] {"name", "age", "score", "balance", "State", "Comment"})) {
+			for (Person person : persons) {
+				cw.write(binding, person);
+			}
+		}
+		final String nl = System.lineSeparator();
+		assertEquals("name;age;score;balance;State;Comment" + nl
+				     + "John;42;0.1;12.50;ACTIVE;" + nl
+				     + "Jane;17;3.0;;INACTIVE;" + nl,
+				     new String(baos.toByteArray(), StandardCharsets.UTF_8));
+		assertThrows(IllegalArgumentException.class, () -> CsvBinding.builder(Person.class).property("x", "unknown"));
+		assertThrows(IllegalArgumentException.class, () -> CsvBinding.builder(Person.class).property("x", "birthday"));
+	}
+
+	/** Test for parsing numbers from the tokenizers buffer.
+	 */
+	@Test
+	public void testNumbers() {
+		final String csv = "0;-17;+5;9223372036854775807;-9223372036854775808;\"42\";x;;9223372036854775808\n";
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv))) {
+			assertTrue(tokenizer.next());
+			assertEquals(0, tokenizer.getInt(0));
+			assertEquals(-17, tokenizer.getInt(1));
+			assertEquals(5L, tokenizer.getLong(2));
+			assertEquals(Long.MAX_VALUE, tokenizer.getLong(3));
+			assertEquals(Long.MIN_VALUE, tokenizer.getLong(4));
+			assertThrows(CsvParseException.class, () -> tokenizer.getInt(3));
+			assertEquals(42, tokenizer.getInt(5));
+			assertThrows(CsvParseException.class, () -> tokenizer.getLong(6));
+			assertThrows(CsvParseException.class, () -> tokenizer.getLong(7));
+			assertThrows(CsvParseException.class, () -> tokenizer.getLong(8));
+			assertThrows(CsvParseException.class, () -> tokenizer.getDouble(6));
+			assertThrows(CsvParseException.class, () -> tokenizer.getDouble(7));
+		}
+		// The results must be the same as with Double.parseDouble.
+		final Random random = new Random(42);
+		final StringBuilder sb = new StringBuilder("1.;.5;-0;1e3;0.1;123456789012345678901.5;0.30000000000000004");
+		for (int i = 0;  i < 1000;  i++) {
+			final double d = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20));
+			sb.append(';').append(i % 2 == 0 ? Double.toString(d) : String.format(Locale.US, "%.3f", d));
+		}
+		final String[] values = sb.toString().split(";");
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(sb.toString()))) {
+			assertTrue(tokenizer.next());
+			assertEquals(values.length, tokenizer.getColumnCount());
+			for (int i = 0;  i < values.length;  i++) {
+				assertEquals(Double.doubleToLongBits(Double.parseDouble(values[i])),
+						     Double.doubleToLongBits(tokenizer.getDouble(i)), values[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.csv.CsvTable.Type;
+
+
+/** Test suite for the {@link CsvTable}.
+ */
+public class CsvTableTest {
+	private static final String[] COUNTRIES = {"DE", "FR", "IE", "\"A;B\"", "US"};
+	private static final int NUM_ROWS = 10000;
+
+	private static String[] newRow(int pRow) {
+		return new String[] {
+			String.valueOf(pRow),
+			"Ignored " + pRow,
+			COUNTRIES[pRow % COUNTRIES.length],
+			pRow % 100 == 0 ? "" : String.valueOf(2000 + pRow % 25),
+			String.valueOf(10000000000L + pRow),
+			String.valueOf(pRow / 4.0),
+			"Comment " + pRow
+		};
+	}
+
+	private static String newCsv(List<String[]> pRows) {
+		final StringBuilder sb = new StringBuilder("Id;Ignored;Country;Year;Big;Amount;Comment\n");
+		for (int i = 0;  i < NUM_ROWS;  i++) {
+			final String[] row = newRow(i);
+			pRows.add(row);
+			sb.append(String.join(";", row)).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static String unquote(String pValue) {
+		return pValue.startsWith("\"") ? pValue.substring(1, pValue.length()-1) : pValue;
+	}
+
+	private static CsvTable newTable() {
+		return CsvTable.builder().intColumn("Id").stringColumn("Country").intColumn("Year")
+				.longColumn("Big").doubleColumn("Amount").stringColumn("Comment")
+				.maxDictionarySize(1000).build();
+	}
+
+	/** Test for loading a CSV file, and for the filter, and aggregate, operations.
+	 */
+	@Test
+	public void testLoad() {
+		final List<String[]> rows = new ArrayList<>();
+		final CsvTable table = newTable();
+		table.load(new StringReader(newCsv(rows)));
+		assertEquals(NUM_ROWS, table.getRowCount());
+		assertArrayEquals(new String[] {"Id", "Country", "Year", "Big", "Amount", "Comment"}, table.getColumnNames());
+		assertEquals(Type.LONG, table.getType(table.getColumnIndex("Big")));
+		final int year = table.getColumnIndex("Year");
+		for (int i = 0;  i < NUM_ROWS;  i++) {
+			final String[] row = rows.get(i);
+			assertEquals(i, table.getInt(0, i));
+			assertEquals(unquote(row[2]), table.getString(1, i));
+			if (row[3].isEmpty()) {
+				assertTrue(table.isNull(year, i));
+				assertNull(table.getString(year, i));
+			} else {
+				assertFalse(table.isNull(year, i));
+				assertEquals(Integer.parseInt(row[3]), table.getInt(year, i));
+			}
+			assertEquals(Long.parseLong(row[4]), table.getLong(3, i));
+			assertEquals(Double.parseDouble(row[5]), table.getDouble(4, i));
+			assertEquals(row[6], table.getString(5, i));
+		}
+		assertThrows(IllegalArgumentException.class, () -> table.getInt(1, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> table.getInt(0, NUM_ROWS));
+
+		// Compute the expected aggregates from the rows.
+		final BitSet expectedSelection = new BitSet();
+		final LongSummaryStatistics expectedYears = new LongSummaryStatistics();
+		final DoubleSummaryStatistics expectedAmounts = new DoubleSummaryStatistics();
+		final Map<String,Long> expectedCounts = new LinkedHashMap<>();
+		for (int i = 0;  i < NUM_ROWS;  i++) {
+			final String[] row = rows.get(i);
+			if (!row[3].isEmpty()  &&  Integer.parseInt(row[3]) >= 2020) {
+				expectedSelection.set(i);
+				expectedYears.accept(Integer.parseInt(row[3]));
+				expectedAmounts.accept(Double.parseDouble(row[5]));
+				expectedCounts.merge(unquote(row[2]), Long.valueOf(1), Long::sum);
+			}
+		}
+		final BitSet selection = table.filterInt("Year", (y) -> y >= 2020);
+		assertEquals(expectedSelection, selection);
+		assertEquals(expectedSelection, table.filterDouble("Year", (y) -> y >= 2020));
+		final LongSummaryStatistics years = table.summarizeLong("Year", selection);
+		assertEquals(expectedYears.getCount(), years.getCount());
+		assertEquals(expectedYears.getSum(), years.getSum());
+		assertEquals(expectedAmounts.getSum(), table.summarizeDouble("Amount", selection).getSum());
+		assertEquals(expectedCounts, table.countBy("Country", selection));
+		assertEquals(NUM_ROWS - NUM_ROWS/100, table.summarizeLong("Year", null).getCount());
+
+		final BitSet irish = table.filterString("Country", "IE"::equals);
+		assertEquals(NUM_ROWS/COUNTRIES.length, irish.cardinality());
+		final BitSet comments = table.filterString("Comment", (s) -> s.endsWith("7"));
+		assertEquals(NUM_ROWS/10, comments.cardinality());
+		assertEquals(NUM_ROWS, table.countBy("Comment", null).size());
+		final List<Integer> ids = new ArrayList<>();
+		table.scan(comments, (row) -> ids.add(Integer.valueOf(table.getInt(0, row))));
+		assertEquals(Integer.valueOf(7), ids.get(0));
+		assertEquals(Integer.valueOf(17), ids.get(1));
+	}
+
+	/** Test for appending rows, and for loading multiple files.
+	 */
+	@Test
+	public void testAppend() {
+		final CsvTable table = newTable();
+		table.append("1", "DE", "2020", "3", "1.5", "x");
+		table.append("2", null, "", "4");
+		assertThrows(CsvParseException.class, () -> table.append("3", "FR", "Not a number"));
+		assertEquals(2, table.getRowCount());
+		table.load(new StringReader("Comment;Amount;Big;Year;Country;Id\ny;2.5;5;2021;FR;3\n"));
+		table.trim();
+		assertEquals(3, table.getRowCount());
+		assertEquals("DE", table.getString(1, 0));
+		assertTrue(table.isNull(1, 1));
+		assertTrue(table.isNull(2, 1));
+		assertTrue(table.isNull(4, 1));
+		assertFalse(table.isNull(2, 2));
+		assertEquals(2021, table.getInt(2, 2));
+		assertEquals("y", table.getString(5, 2));
+		assertEquals(4.0, table.summarizeDouble("Amount", null).getSum());
+		assertThrows(CsvParseException.class, () -> table.load(new StringReader("Id;Country\n4;DE\n")));
+		assertThrows(CsvParseException.class, () -> table.load(new StringReader("Comment;Amount;Big;Year;Country;Id\n"
+				+ "z;1;6;2022;IE;4\nz;1;7;x;IE;5\n")));
+		assertEquals(4, table.getRowCount());
+
+		final CsvTable untyped = CsvTable.builder().build();
+		untyped.load(new StringReader("a;b\n1;2\n3\n"));
+		assertArrayEquals(new String[] {"a", "b"}, untyped.getColumnNames());
+		assertEquals(Type.STRING, untyped.getType(0));
+		assertEquals("3", untyped.getString(0, 1));
+		assertNull(untyped.getString(1, 1));
+	}
+
+	/** Test, that filtering, and counting, ignore null values, even if a
+	 * dictionary encoded column contains null values only.
+	 */
+	@Test
+	public void testNullStrings() {
+		final CsvTable table = newTable();
+		table.append("1", null);
+		table.append("2", null, "2020");
+		assertEquals(0, table.filterString("Country", (s) -> true).cardinality());
+		assertTrue(table.countBy("Country", null).isEmpty());
+		table.append("3", "DE");
+		table.append("4", null);
+		final BitSet all = table.filterString("Country", (s) -> true);
+		assertEquals(1, all.cardinality());
+		assertTrue(all.get(2));
+		assertEquals(Collections.singletonMap("DE", Long.valueOf(1)), table.countBy("Country", null));
+	}
+
+	/** Test, that the table uses considerably less memory than an array
+	 * of strings per row.
+	 */
+	@Test
+	public void testMemoryUsage() {
+		final List<String[]> rows = new ArrayList<>();
+		final String csv = newCsv(rows);
+		final CsvTable table = CsvTable.builder().intColumn("Id").stringColumn("Country").intColumn("Year")
+				.longColumn("Big").doubleColumn("Amount").build();
+		table.load(new StringReader(csv));
+		table.trim();
+		// Estimate the size of the same columns as rows of strings.
+		long rowsSize = 0;
+		for (String[] row : rows) {
+			rowsSize += 16 + 4*5;
+			for (int i : new int[] {0, 2, 3, 4, 5}) {
+				rowsSize += 24 + 16 + 2*row[i].length();
+			}
+		}
+		final long tableSize = table.getMemoryUsage();
+		assertTrue(tableSize * 5 < rowsSize, "Table: " + tableSize + ", rows: " + rowsSize);
+	}
+}
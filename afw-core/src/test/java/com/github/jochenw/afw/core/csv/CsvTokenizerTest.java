@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.csv.CsvReader.CsvRow;
+
+
+/** Test suite for the {@link CsvTokenizer}.
+ */
+public class CsvTokenizerTest {
+	private static List<String[]> parse(String pCsv, int pBufferSize) {
+		final List<String[]> rows = new ArrayList<>();
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(pCsv), ';', '"', pBufferSize)) {
+			while (tokenizer.next()) {
+				assertEquals(rows.size()+1, tokenizer.getRecordNumber());
+				rows.add(tokenizer.getRowAsArray());
+			}
+			assertFalse(tokenizer.next());
+		}
+		return rows;
+	}
+
+	private static void assertRows(String pCsv, String[]... pExpectedRows) {
+		// Use various buffer sizes, so that rows, and cells, span buffer boundaries.
+		for (int bufferSize : new int[] {1, 2, 3, 7, CsvTokenizer.DEFAULT_BUFFER_SIZE}) {
+			final List<String[]> rows = parse(pCsv, bufferSize);
+			assertEquals(pExpectedRows.length, rows.size(), pCsv);
+			for (int i = 0;  i < pExpectedRows.length;  i++) {
+				assertArrayEquals(pExpectedRows[i], rows.get(i), pCsv);
+			}
+		}
+	}
+
+	/** Test for simple, and quoted, cell values.
+	 */
+	@Test
+	public void testSimpleValues() {
+		assertRows("");
+		assertRows("a;b;c", new String[] {"a", "b", "c"});
+		assertRows("a;b;c\n1;;3\n", new String[] {"a", "b", "c"}, new String[] {"1", "", "3"});
+		assertRows("a;\"b;c\";\"\"\n;\n", new String[] {"a", "b;c", ""}, new String[] {"", ""});
+		assertRows("a\r\nb\rc\n\nd", new String[] {"a"}, new String[] {"b"}, new String[] {"c"},
+				   new String[] {""}, new String[] {"d"});
+	}
+
+	/** Test for quoted cell values with line breaks, and escaped quotes.
+	 */
+	@Test
+	public void testQuotedValues() {
+		assertRows("\"multi\nline\r\nvalue\";x\ny",
+				   new String[] {"multi\nline\r\nvalue", "x"}, new String[] {"y"});
+		assertRows("\"a \"\"quoted\"\" word\";\"\"\"\"", new String[] {"a \"quoted\" word", "\""});
+		// Quotes in the middle of a cell value are accepted, like in the CsvParser.
+		assertRows("ab\"c;d\"e;f", new String[] {"abc;de", "f"});
+		assertThrows(CsvParseException.class, () -> parse("a;\"b\nc", 4));
+	}
+
+	/** Test for access to the raw buffer.
+	 */
+	@Test
+	public void testBuffer() {
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("12;\"34\";\"5\"\"6\""))) {
+			assertTrue(tokenizer.next());
+			assertEquals(3, tokenizer.getColumnCount());
+			for (int i = 0;  i < 2;  i++) {
+				assertFalse(tokenizer.isEscaped(i));
+				final String value = new String(tokenizer.getBuffer(), tokenizer.getStart(i),
+						                        tokenizer.getEnd(i)-tokenizer.getStart(i));
+				assertEquals(tokenizer.getValue(i), value);
+			}
+			assertTrue(tokenizer.isEscaped(2));
+			assertEquals("5\"6", tokenizer.getValue(2));
+			assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.getValue(3));
+		}
+	}
+
+	/** Test, that the tokenizer returns the same results as the {@link CsvParser}
+	 * on a real CSV file.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testSameResultsAsCsvParser() throws Exception {
+		final Path csvFile = Paths.get("src/test/resources/com/github/jochenw/afw/core/csv/Lago-Input.csv");
+		final CsvParser parser = new CsvParser("\n", "\"", ";");
+		final List<String[]> expectedRows = new ArrayList<>();
+		try (BufferedReader br = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+			for (;;) {
+				final String line = br.readLine();
+				if (line == null) {
+					break;
+				}
+				expectedRows.add(parser.asArray(line, expectedRows.size()));
+			}
+		}
+		final List<String[]> rows = parse(new String(Files.readAllBytes(csvFile), StandardCharsets.UTF_8), 1024);
+		assertEquals(expectedRows.size(), rows.size());
+		for (int i = 0;  i < rows.size();  i++) {
+			assertArrayEquals(expectedRows.get(i), rows.get(i));
+		}
+		final List<String> values = new ArrayList<>();
+		try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(csvFile), StandardCharsets.UTF_8)) {
+			new CsvReader(parser).parse(reader, (CsvRow row) -> values.add(row.getRowAsMap().get("Land")));
+		}
+		assertEquals(expectedRows.size()-1, values.size());
+		assertEquals("IE", values.get(0));
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.csv.CsvReader.CsvRow;
+
+
+/** Test suite for the {@link ParallelCsvReader}.
+ */
+public class ParallelCsvReaderTest {
+	private static final Path LAGO_INPUT = Paths.get("src/test/resources/com/github/jochenw/afw/core/csv/Lago-Input.csv");
+
+	private static Path createTestFile() throws Exception {
+		final Path dir = Paths.get("target/unit-tests/ParallelCsvReaderTest");
+		Files.createDirectories(dir);
+		final Path file = dir.resolve("test.csv");
+		final StringBuilder sb = new StringBuilder("\uFEFFId;Name;Comment\r\n");
+		for (int i = 0;  i < 1000;  i++) {
+			sb.append(i).append(";Name ").append(i).append(';');
+			switch (i % 4) {
+			case 0: sb.append("simple"); break;
+			case 1: sb.append("\"with;separator\""); break;
+			case 2: sb.append("\"multi\nline\r\nvalue\""); break;
+			default: sb.append("\"an \"\"escaped\"\" ä\""); break;
+			}
+			sb.append(i % 3 == 0 ? "\r\n" : "\n");
+		}
+		Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static List<String[]> parseSequential(Path pFile) throws Exception {
+		final List<String[]> rows = new ArrayList<>();
+		final String csv = new String(Files.readAllBytes(pFile), StandardCharsets.UTF_8);
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv.replace("\uFEFF", "")))) {
+			tokenizer.next();
+			while (tokenizer.next()) {
+				rows.add(tokenizer.getRowAsArray());
+			}
+		}
+		return rows;
+	}
+
+	private static void assertRows(List<String[]> pExpected, List<String[]> pActual) {
+		assertEquals(pExpected.size(), pActual.size());
+		for (int i = 0;  i < pExpected.size();  i++) {
+			assertArrayEquals(pExpected.get(i), pActual.get(i));
+		}
+	}
+
+	/** Test for delivering rows in file order, using various chunk sizes.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testOrdered() throws Exception {
+		final Path file = createTestFile();
+		final List<String[]> expectedRows = parseSequential(file);
+		assertEquals(1000, expectedRows.size());
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int chunkSize : new int[] {1, 7, 100, 4096, ParallelCsvReader.DEFAULT_CHUNK_SIZE}) {
+				final ParallelCsvReader reader = ParallelCsvReader.builder().pool(pool)
+						.chunkSize(chunkSize).maxChunksInFlight(3).build();
+				final Thread thread = Thread.currentThread();
+				final List<String[]> rows = new ArrayList<>();
+				reader.parse(file, (row) -> {
+					assertSame(thread, Thread.currentThread());
+					assertArrayEquals(new String[] {"Id", "Name", "Comment"}, row.getHeaderArray());
+					assertEquals(row.getRowAsArray()[1], row.getRowAsMap().get("Name"));
+					rows.add(row.getRowAsArray());
+				});
+				assertRows(expectedRows, rows);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/** Test for delivering rows unordered.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testUnordered() throws Exception {
+		final Path file = createTestFile();
+		final List<String[]> expectedRows = parseSequential(file);
+		final ParallelCsvReader reader = ParallelCsvReader.builder().chunkSize(256).ordered(false).build();
+		final Queue<String[]> queue = new ConcurrentLinkedQueue<>();
+		final AtomicBoolean finished = new AtomicBoolean();
+		reader.parse(file, new FinalizableConsumer<CsvRow>() {
+			@Override
+			public void accept(CsvRow pRow) {
+				queue.add(pRow.getRowAsArray());
+			}
+
+			@Override
+			public void finished() {
+				finished.set(true);
+			}
+		});
+		assertTrue(finished.get());
+		final List<String[]> rows = new ArrayList<>(queue);
+		Collections.sort(rows, (r1, r2) -> Integer.compare(Integer.parseInt(r1[0]), Integer.parseInt(r2[0])));
+		assertRows(expectedRows, rows);
+	}
+
+	/** Test, that the parallel reader returns the same results as the
+	 * {@link CsvReader} on a real CSV file.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testSameResultsAsCsvReader() throws Exception {
+		final List<String[]> expectedRows = new ArrayList<>();
+		try (InputStream in = Files.newInputStream(LAGO_INPUT)) {
+			new CsvReader(new CsvParser("\n", "\"", ";")).parse(in, (CsvRow row) -> expectedRows.add(row.getRowAsArray()));
+		}
+		assertEquals(39, expectedRows.size());
+		final List<String[]> rows = new ArrayList<>();
+		ParallelCsvReader.builder().chunkSize(500).build().parse(LAGO_INPUT, (row) -> rows.add(row.getRowAsArray()));
+		assertRows(expectedRows, rows);
+	}
+
+	/** Test for error handling.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testErrors() throws Exception {
+		final Path file = createTestFile();
+		for (boolean ordered : new boolean[] {true, false}) {
+			final ParallelCsvReader reader = ParallelCsvReader.builder().chunkSize(100).ordered(ordered).build();
+			final IllegalStateException ise = assertThrows(IllegalStateException.class, () -> reader.parse(file, (row) -> {
+				if ("500".equals(row.getRowAsArray()[0])) {
+					throw new IllegalStateException("Row 500");
+				}
+			}));
+			assertEquals("Row 500", ise.getMessage());
+			final AtomicReference<Throwable> error = new AtomicReference<>();
+			reader.parse(file, new FinalizableConsumer<CsvRow>() {
+				@Override
+				public void accept(CsvRow pRow) {
+					throw new IllegalStateException("Row " + pRow.getRowAsArray()[0]);
+				}
+
+				@Override
+				public void error(Throwable pThrowable) {
+					error.set(pThrowable);
+				}
+			});
+			assertTrue(error.get() instanceof IllegalStateException);
+		}
+		final Path badFile = file.resolveSibling("bad.csv");
+		Files.write(badFile, "Id;Name\n1;a\n2;\"b\n".getBytes(StandardCharsets.UTF_8));
+		final CsvParseException cpe = assertThrows(CsvParseException.class,
+				() -> ParallelCsvReader.builder().chunkSize(1).build().parse(badFile, (row) -> {}));
+		assertEquals("Unterminated quoted value in column 2 of row 1 of the chunk at byte offset 12", cpe.getMessage());
+		final Path emptyFile = file.resolveSibling("empty.csv");
+		Files.write(emptyFile, new byte[0]);
+		assertThrows(CsvParseException.class, () -> ParallelCsvReader.builder().build().parse(emptyFile, (row) -> {}));
+		assertThrows(IllegalArgumentException.class, () -> ParallelCsvReader.builder().charset(StandardCharsets.UTF_16).build());
+	}
+
+	/** Test, that an unordered parser returns after an error only, when
+	 * the consumer is no longer invoked.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testUnorderedErrorAwaitsChunks() throws Exception {
+		final Path file = createTestFile();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final ParallelCsvReader reader = ParallelCsvReader.builder().pool(pool)
+					.chunkSize(100).ordered(false).build();
+			final AtomicInteger active = new AtomicInteger();
+			final AtomicBoolean done = new AtomicBoolean();
+			final AtomicBoolean invokedAfterError = new AtomicBoolean();
+			final AtomicInteger activeOnError = new AtomicInteger(-1);
+			reader.parse(file, new FinalizableConsumer<CsvRow>() {
+				@Override
+				public void accept(CsvRow pRow) {
+					if (done.get()) {
+						invokedAfterError.set(true);
+					}
+					active.incrementAndGet();
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					} finally {
+						active.decrementAndGet();
+					}
+					if ("500".equals(pRow.getRowAsArray()[0])) {
+						throw new IllegalStateException("Row 500");
+					}
+				}
+
+				@Override
+				public void error(Throwable pThrowable) {
+					activeOnError.set(active.get());
+					done.set(true);
+				}
+			});
+			assertTrue(done.get());
+			assertEquals(0, activeOnError.get());
+			assertFalse(invokedAfterError.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/** Test, that a slow consumer causes the parser to wait, so that
+	 * the number of chunks in flight never exceeds the maximum.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testBackPressure() throws Exception {
+		final Path file = createTestFile();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (boolean ordered : new boolean[] {true, false}) {
+				final int maxChunks = 3;
+				final AtomicInteger started = new AtomicInteger();
+				final AtomicInteger consumed = new AtomicInteger();
+				final AtomicInteger maxInFlight = new AtomicInteger();
+				// With a chunk size of 1, every chunk contains a single record.
+				final ParallelCsvReader reader = new ParallelCsvReader(';', '"', StandardCharsets.UTF_8, 1,
+						                                               pool, ordered, maxChunks) {
+					@Override
+					protected long findRecordEnd(FileChannel pChannel, long pSize, long pStart, long pMinLength)
+							throws IOException {
+						final long end = super.findRecordEnd(pChannel, pSize, pStart, pMinLength);
+						if (pMinLength > 0) {
+							// Ignore the header, which isn't a chunk.
+							started.incrementAndGet();
+						}
+						return end;
+					}
+				};
+				reader.parse(file, (row) -> {
+					final int inFlight = started.get() - consumed.get();
+					maxInFlight.accumulateAndGet(inFlight, Math::max);
+					if (consumed.get() % 20 == 0) {
+						try {
+							Thread.sleep(1);
+						} catch (InterruptedException e) {
+							throw new IllegalStateException(e);
+						}
+					}
+					consumed.incrementAndGet();
+				});
+				assertEquals(1000, started.get());
+				assertEquals(1000, consumed.get());
+				assertTrue(maxInFlight.get() <= maxChunks, "Too many chunks in flight: " + maxInFlight.get());
+				if (ordered) {
+					// The parser keeps the maximum number of chunks in flight.
+					assertEquals(maxChunks, maxInFlight.get());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
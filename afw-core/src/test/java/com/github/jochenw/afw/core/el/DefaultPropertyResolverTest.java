@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.el;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+
+/** Test suite for the {@link DefaultPropertyResolver}.
+ */
+public class DefaultPropertyResolverTest {
+	/** A bean class, which is used as a model.
+	 */
+	public static class Bean {
+		private final String name;
+		private final Bean child;
+		private final boolean active;
+
+		/** Creates a new instance.
+		 * @param pName The beans name.
+		 * @param pChild The beans child, if any.
+		 * @param pActive The beans active flag.
+		 */
+		public Bean(String pName, Bean pChild, boolean pActive) {
+			name = pName;
+			child = pChild;
+			active = pActive;
+		}
+
+		/** Returns the beans name.
+		 * @return The beans name.
+		 */
+		public String getName() { return name; }
+		/** Returns the beans child.
+		 * @return The beans child, if any, or null.
+		 */
+		public Bean getChild() { return child; }
+		/** Returns the beans active flag.
+		 * @return The beans active flag.
+		 */
+		public boolean isActive() { return active; }
+		/** Returns, whether the bean has a child.
+		 * @return True, if the bean has a child.
+		 */
+		public boolean hasParent() { return child != null; }
+	}
+
+	/** A bean class with a failing getter, which is used by {@link #testFailingGetter()}.
+	 */
+	public static class FailingBean {
+		/** Returns the beans name.
+		 * @return Never, because the getter fails.
+		 */
+		public String getName() { throw new IllegalStateException("Getter failed"); }
+	}
+
+	/** A non-public bean class with a failing getter, which is used by {@link #testFailingGetter()}.
+	 * The getter can't be invoked by a public method handle, so this enforces the reflective fallback.
+	 */
+	static class NonPublicFailingBean {
+		/** Returns the beans name.
+		 * @return Never, because the getter fails.
+		 */
+		public String getName() { throw new IllegalStateException("Getter failed"); }
+	}
+
+	private static Map<String,Object> newModel() {
+		final Bean bean = new Bean("a", new Bean("b", new Bean("c", null, true), false), true);
+		final Map<String,Object> map = new HashMap<>();
+		map.put("bean", bean);
+		map.put("x.y", "dotted");
+		final Map<String,Object> nestedMap = new HashMap<>();
+		nestedMap.put("bean", bean);
+		map.put("map", nestedMap);
+		return map;
+	}
+
+	/** Test for resolving simple, and complex properties.
+	 */
+	@Test
+	public void testGetValue() {
+		final PropertyResolver pr = new DefaultPropertyResolver();
+		final Map<String,Object> model = newModel();
+		final Bean bean = (Bean) model.get("bean");
+		// Repeat, so that we see the cached accessors, too.
+		for (int i = 0;  i < 2;  i++) {
+			assertSame(bean, pr.getValue(model, "bean"));
+			assertEquals("a", pr.getValue(model, "bean.name"));
+			assertEquals("c", pr.getValue(model, "bean.child.child.name"));
+			assertEquals("c", pr.getValue(model, "map.bean.child.child.name"));
+			assertEquals(Boolean.TRUE, pr.getValue(model, "bean.active"));
+			assertEquals(Boolean.FALSE, pr.getValue(model, "bean.child.active"));
+			assertEquals(Boolean.TRUE, pr.getValue(model, "bean.parent"));
+			assertEquals("dotted", pr.getValue(model, "x.y"));
+			assertSame(bean.getChild(), pr.getValue(model, "bean.child."));
+			assertNull(pr.getValue(model, "bean.unknown"));
+			assertNull(pr.getValue(model, "bean.child.child.child"));
+			assertNull(pr.getValue(model, "unknown"));
+			assertThrows(NoSuchElementException.class, () -> pr.getValue(model, "unknown.name"));
+			assertThrows(NoSuchElementException.class, () -> pr.getValue(model, "bean.child.child.child.name"));
+		}
+	}
+
+	/** Test, that a failing getter throws the same exception, whether it is
+	 * invoked by a method handle, or by reflection.
+	 */
+	@Test
+	public void testFailingGetter() {
+		final PropertyResolver pr = new DefaultPropertyResolver();
+		for (Object bean : new Object[] {new FailingBean(), new NonPublicFailingBean()}) {
+			final Map<String,Object> model = new HashMap<>();
+			model.put("bean", bean);
+			// Repeat, so that we see the cached accessors, too.
+			for (int i = 0;  i < 2;  i++) {
+				final IllegalStateException ise = assertThrows(IllegalStateException.class,
+						() -> pr.getValue(model, "bean.name"));
+				assertEquals("Getter failed", ise.getMessage());
+			}
+		}
+	}
+
+	/** Test, that resolving a complex property doesn't create garbage,
+	 * once the caches are warm (apart from some slack for the JIT).
+	 */
+	@Test
+	public void testAllocations() {
+		final ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+		assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+		final com.sun.management.ThreadMXBean threadMxBean = (com.sun.management.ThreadMXBean) mxBean;
+		assumeTrue(threadMxBean.isThreadAllocatedMemorySupported()
+				&&  threadMxBean.isThreadAllocatedMemoryEnabled());
+		final PropertyResolver pr = new DefaultPropertyResolver();
+		final Map<String,Object> model = newModel();
+		final int numCalls = 100000;
+		final long threadId = Thread.currentThread().getId();
+		long bytesPerCall = Long.MAX_VALUE;
+		for (int i = 0;  i < 3;  i++) {
+			final long allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+			for (int j = 0;  j < numCalls;  j++) {
+				pr.getValue(model, "bean.child.name");
+			}
+			final long allocatedAfter = threadMxBean.getThreadAllocatedBytes(threadId);
+			bytesPerCall = Math.min(bytesPerCall, (allocatedAfter-allocatedBefore)/numCalls);
+		}
+		// The former implementation created several hundred bytes per call.
+		assertTrue(bytesPerCall < 8, "Bytes per call: " + bytesPerCall);
+	}
+}
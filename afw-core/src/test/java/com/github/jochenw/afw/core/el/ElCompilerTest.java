@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.el;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.el.ElCompiler.CompiledExpression;
+import com.github.jochenw.afw.core.el.tree.ElExpression;
+
+
+/** Test for the {@link ElCompiler}.
+ */
+public class ElCompilerTest {
+	private static final ElEvaluator evaluator = new ElEvaluator(new DefaultPropertyResolver());
+	private static final ElCompiler compiler = new ElCompiler(new DefaultPropertyResolver());
+	private static final ElCompiler feedbackCompiler = new ElCompiler(new DefaultPropertyResolver(), true);
+	private static final ElReader reader = new ElReader();
+	private static final String[] EXPRESSIONS = {
+		"id != 'foo'  ||  4 > num",
+		"id == 'foo'  &&  num >= 3  &&  flag",
+		"id eq 'foo' or flag and not flag",
+		"num * 2 + 1 - num",
+		"num.toInt * 2 > 7",
+		"num.toFloat / 2.0",
+		"num / 0",
+		"1 + 2 * 3 - 4",
+		"(1 + 2) * 3 == 9",
+		"-num",
+		"-(2.5 * 2.0)",
+		"7 % 3 == 1  &&  7.5 % 2.0 == 1.5",
+		"1.0 / 0.0 > 1.0e10",
+		"1 == 1.0",
+		"null == nothing",
+		"null != id",
+		"!flag",
+		"empty id",
+		"empty num",
+		"id.toString",
+		"nested.value",
+		"nested.value || flag",
+		"? + num",
+		"? == id  &&  ? > 2",
+		"true  &&  false  ||  true",
+		"flag  &&  num",
+		"num < 'foo'",
+		"-id",
+		"id + 1",
+	};
+
+	/** Test, that the compiled expressions return the same results as the interpreter.
+	 */
+	@Test
+	public void testSameResults() {
+		final List<Map<String,Object>> models = new ArrayList<>();
+		models.add(toMap("id", "foo", "num", Long.valueOf(4), "flag", Boolean.TRUE,
+				         "nested", toMap("value", Boolean.FALSE)));
+		models.add(toMap("id", "bar", "num", Integer.valueOf(5), "flag", Boolean.FALSE,
+				         "nested", toMap("value", Boolean.TRUE)));
+		models.add(toMap("id", "", "num", "3", "flag", null, "nested", toMap()));
+		models.add(toMap("num", Double.valueOf(2.5)));
+		for (String expression : EXPRESSIONS) {
+			final ElExpression expr = reader.parse(expression);
+			final CompiledExpression compiled = compiler.compile(expr);
+			assertSame(expr, compiled.getExpression());
+			for (Map<String,Object> model : models) {
+				final Object[] parameters = {model.get("num"), "foo", Long.valueOf(3)};
+				final Object expected = evaluate(() -> evaluator.evaluate(expr, model, parameters));
+				final Object actual = evaluate(() -> compiled.evaluate(model, parameters));
+				assertEquals(expected, actual, expression + ", " + model);
+			}
+			// Specialize the expression for every model, and check the results
+			// for all models, including those, which violate the speculation.
+			for (Map<String,Object> specializingModel : models) {
+				final CompiledExpression feedbackCompiled = feedbackCompiler.compile(expr);
+				for (int i = 0;  i < 100;  i++) {
+					final Object[] parameters = {specializingModel.get("num"), "foo", Long.valueOf(3)};
+					final Object expected = evaluate(() -> evaluator.evaluate(expr, specializingModel, parameters));
+					final Object actual = evaluate(() -> feedbackCompiled.evaluate(specializingModel, parameters));
+					assertEquals(expected, actual, expression + ", " + specializingModel);
+				}
+				for (Map<String,Object> model : models) {
+					final Object[] parameters = {model.get("num"), "foo", Long.valueOf(3)};
+					final Object expected = evaluate(() -> evaluator.evaluate(expr, model, parameters));
+					final Object actual = evaluate(() -> feedbackCompiled.evaluate(model, parameters));
+					assertEquals(expected, actual, expression + ", " + model);
+				}
+			}
+		}
+	}
+
+	/** Test, that the terms of OR, and AND expressions are evaluated lazily.
+	 */
+	@Test
+	public void testShortCircuit() {
+		final List<String> resolvedProperties = new ArrayList<>();
+		final PropertyResolver resolver = new DefaultPropertyResolver() {
+			@Override
+			public Object getValue(Object pObject, String pProperty) {
+				resolvedProperties.add(pProperty);
+				return super.getValue(pObject, pProperty);
+			}
+		};
+		final ElEvaluator countingEvaluator = new ElEvaluator(resolver);
+		final ElCompiler countingCompiler = new ElCompiler(resolver);
+		final Map<String,Object> model = toMap("a", null, "b", Boolean.TRUE, "c", Long.valueOf(3));
+		final String[][] expressions = {
+			{ "a != null  &&  a.size > 0", "false", "a" },
+			{ "b  ||  a.size > 0", "true", "b" },
+			{ "c > 2  ||  a.size > 0", "true", "c" },
+			{ "c < 2  &&  a.size > 0", "false", "c" },
+			{ "c < 2  ||  b", "true", "c,b" },
+		};
+		for (String[] expression : expressions) {
+			final ElExpression expr = reader.parse(expression[0]);
+			resolvedProperties.clear();
+			assertEquals(Boolean.valueOf(expression[1]), countingEvaluator.evaluate(expr, model));
+			assertEquals(expression[2], String.join(",", resolvedProperties));
+			resolvedProperties.clear();
+			assertEquals(Boolean.valueOf(expression[1]), countingCompiler.compile(expr).evaluate(model));
+			assertEquals(expression[2], String.join(",", resolvedProperties));
+		}
+	}
+
+	/** Test for the type feedback mode: A specialized expression must fall back
+	 * to the generic evaluation, if the type of a value changes.
+	 */
+	@Test
+	public void testTypeFeedback() {
+		assertTrue(feedbackCompiler.isTypeFeedback());
+		final CompiledExpression compiled = feedbackCompiler.compile(reader.parse("num * 2 + 1 > limit"));
+		final Map<String,Object> model = toMap("num", Integer.valueOf(4), "limit", Long.valueOf(8));
+		for (int i = 0;  i < 1000;  i++) {
+			assertEquals(Boolean.TRUE, compiled.evaluate(model));
+		}
+		model.put("num", Double.valueOf(4.0));
+		assertEquals("java.lang.IllegalStateException: Unable to multiply an instance of java.lang.Double"
+				+ " and an instance of java.lang.Long", evaluate(() -> compiled.evaluate(model)));
+		model.put("num", Long.valueOf(3));
+		assertEquals(Boolean.FALSE, compiled.evaluate(model));
+		model.put("num", "3");
+		assertEquals("java.lang.IllegalStateException: Unable to multiply an instance of java.lang.String"
+				+ " and an instance of java.lang.Long", evaluate(() -> compiled.evaluate(model)));
+	}
+
+	/** Test for the type feedback mode: Evaluating the same expression from
+	 * multiple threads must return correct results before, and after the
+	 * specialization.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testTypeFeedbackConcurrent() throws Exception {
+		final CompiledExpression compiled = feedbackCompiler.compile(reader.parse("num * 2 + 1 > limit"));
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0;  t < 8;  t++) {
+				final int num = t;
+				futures.add(executor.submit(() -> {
+					final Map<String,Object> model = toMap("num", Long.valueOf(num), "limit", Long.valueOf(8));
+					for (int i = 0;  i < 1000;  i++) {
+						assertEquals(Boolean.valueOf(num * 2 + 1 > 8), compiled.evaluate(model));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/** Test for evaluating a compiled expression with placeholders.
+	 */
+	@Test
+	public void testPlaceholders() {
+		final CompiledExpression compiled = compiler.compile(reader.parse("? * num + ?"));
+		final Map<String,Object> model = toMap("num", Long.valueOf(3));
+		assertEquals(Long.valueOf(7), compiled.evaluate(model, Long.valueOf(2), Long.valueOf(1)));
+		final List<Object> parameters = new ArrayList<>();
+		parameters.add(Integer.valueOf(5));
+		parameters.add(Short.valueOf((short) 2));
+		assertEquals(Long.valueOf(17), compiled.evaluate(model, parameters));
+		assertEquals("java.lang.IllegalStateException: Expected at least 1 parameters, got 0",
+				     evaluate(() -> compiled.evaluate(model)));
+	}
+
+	/** Evaluates the given supplier, returning either its result, or the
+	 * exception, converted into a string.
+	 */
+	private Object evaluate(java.util.function.Supplier<Object> pSupplier) {
+		try {
+			return pSupplier.get();
+		} catch (RuntimeException e) {
+			return e.getClass().getName() + ": " + e.getMessage();
+		}
+	}
+
+	/** Converts the given key/value pairs into a map.
+	 * @param pArgs The list of key/value pairs.
+	 * @return The created map.
+	 */
+	protected Map<String,Object> toMap(Object... pArgs) {
+		final Map<String,Object> map = new HashMap<>();
+		for (int i = 0;  i < pArgs.length;  i += 2) {
+			final String key = (String) pArgs[i];
+			final Object value = pArgs[i+1];
+			map.put(key, value);
+		}
+		return map;
+	}
+}
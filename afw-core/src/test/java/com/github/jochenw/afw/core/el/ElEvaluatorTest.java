@@ -51,8 +51,10 @@ public class ElEvaluatorTest {
 		assertTrue(((Boolean) evaluator.evaluate(expr, toMap("id", "bar", "num", Long.valueOf(5)))).booleanValue());
 		assertFalse(((Boolean) evaluator.evaluate(expr, toMap("id", "foo", "num", Long.valueOf(4)))).booleanValue());
 		assertTrue(((Boolean) evaluator.evaluate(expr, toMap("id", "foo", "num", Long.valueOf(3)))).booleanValue());
+		// Short circuit: The right operand isn't evaluated.
+		assertTrue(((Boolean) evaluator.evaluate(expr, toMap("id", "bar", "num", "5"))).booleanValue());
 		try {
-			assertTrue(((Boolean) evaluator.evaluate(expr, toMap("id", "bar", "num", "5"))).booleanValue());
+			evaluator.evaluate(expr, toMap("id", "foo", "num", "5"));
 			fail("Expected exception");
 		} catch (IllegalStateException e) {
 			assertEquals("Unable to compare an instance of java.lang.Long, and an instance of java.lang.String", e.getMessage());
@@ -63,6 +65,19 @@ public class ElEvaluatorTest {
 		assertTrue(((Boolean) evaluator.evaluate(expr2, toMap("id", "foo", "num", Integer.valueOf(3)))).booleanValue());
 	}
 
+	/**
+	 * Test case for arithmetic expressions.
+	 */
+	@Test
+	public void testArithmeticExpression() {
+		final Map<String,Object> model = toMap("num", Long.valueOf(5), "d", Double.valueOf(1.5));
+		assertEquals(Long.valueOf(6), evaluator.evaluate(reader.parse("num + 1"), model));
+		assertEquals(Long.valueOf(2), evaluator.evaluate(reader.parse("num - 1 - 2"), model));
+		assertEquals(Long.valueOf(8), evaluator.evaluate(reader.parse("num * 2 - 3 + 1"), model));
+		assertEquals(Double.valueOf(4.0), evaluator.evaluate(reader.parse("d + 2.5"), model));
+		assertEquals(Double.valueOf(-1.0), evaluator.evaluate(reader.parse("d - 2.5"), model));
+	}
+
 	/** Converts the given key/value pairs into a map.
 	 * @param pArgs The list of key/value pairs.
 	 * @return The created map.
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.el;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.el.tree.ElExpression;
+
+
+/** Test suite for the {@link ElReader}.
+ */
+public class ElReaderTest {
+	/** Test for the expression cache.
+	 */
+	@Test
+	public void testCache() {
+		final ElReader reader = new ElReader();
+		final ElExpression expr = reader.parse("foo.bar > 3");
+		assertSame(expr, reader.parse("foo.bar > 3"));
+		assertEquals(1, reader.getCacheHits());
+		assertEquals(1, reader.getCacheMisses());
+		reader.clearCache();
+		assertNotSame(expr, reader.parse("foo.bar > 3"));
+		final ElReader uncachedReader = new ElReader(0);
+		assertNotSame(uncachedReader.parse("foo"), uncachedReader.parse("foo"));
+		assertEquals(0, uncachedReader.getCacheHits());
+		assertThrows(IllegalArgumentException.class, () -> new ElReader(-1));
+	}
+
+	/** Test, that a reused parser starts counting placeholders at zero,
+	 * and that it recovers from a parse error.
+	 */
+	@Test
+	public void testParserReuse() {
+		final ElReader reader = new ElReader(0);
+		final ElEvaluator evaluator = new ElEvaluator(new DefaultPropertyResolver());
+		for (int i = 0;  i < 3;  i++) {
+			assertEquals(Long.valueOf(7),
+					     evaluator.evaluate(reader.parse("? + ?"), new Object(), Arrays.<Object>asList(Integer.valueOf(3), Integer.valueOf(4))));
+			assertThrows(RuntimeException.class, () -> reader.parse("1 +"));
+		}
+	}
+}
@@ -16,12 +16,21 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.Test;
 
 import com.github.jochenw.afw.core.app.Application;
 import com.github.jochenw.afw.core.function.Functions.FailableConsumer;
+import com.github.jochenw.afw.core.function.Functions.FailableFunction;
+import com.github.jochenw.afw.core.function.Functions.FailableSupplier;
 import com.github.jochenw.afw.core.jdbc.JdbcHelper.Executor;
 import com.github.jochenw.afw.core.jdbc.JdbcHelper.Rows;
 import com.github.jochenw.afw.core.log.ILog.Level;
@@ -278,4 +287,82 @@ public class JdbcHelperTest {
 			assertEquals(Long.valueOf(0L), jh.query(conn, "SELECT COUNT(*) FROM table_three").countNullable());
 		}
 	}
+
+	/** Test case for {@link Worker#batch(String)}, and {@link Worker.Context#batch(String)}.
+	 */
+	@Test
+	public void testBatch() {
+		final String sqlCreate = "CREATE TABLE table_four (id INT NOT NULL PRIMARY KEY, name VARCHAR(16) NOT NULL)";
+		final String sqlDropIfExists = "DROP TABLE IF EXISTS table_four";
+		final Application application = getApplication(null);
+		final Worker worker = application.getComponentFactory().requireInstance(Worker.class);
+		worker.query(sqlDropIfExists).run();
+		worker.query(sqlCreate).run();
+		final List<int[]> batches = new ArrayList<>();
+		final long affectedRows = worker.batch("INSERT INTO table_four (id, name) VALUES (?, ?)")
+				.batchSize(100)
+				.onBatch(batches::add)
+				.run(IntStream.range(0, 250).mapToObj((i) -> new Object[] { Integer.valueOf(i), "name" + i }));
+		assertEquals(250, affectedRows);
+		assertEquals(3, batches.size());
+		assertEquals(100, batches.get(0).length);
+		assertEquals(100, batches.get(1).length);
+		assertEquals(50, batches.get(2).length);
+		assertEquals(250, worker.query("SELECT COUNT(*) FROM table_four").count());
+		assertEquals("name42", worker.query("SELECT name FROM table_four WHERE id=?", Integer.valueOf(42)).singleObject());
+		final MutableBoolean success = new MutableBoolean();
+		worker.run((c) -> {
+			final List<Object[]> ids = Arrays.asList(new Object[] { Integer.valueOf(1) }, new Object[] { Integer.valueOf(2) },
+					                                 new Object[] { Integer.valueOf(1000) });
+			assertEquals(2, c.batch("DELETE FROM table_four WHERE id=?").run(ids));
+			success.set();
+		});
+		assertTrue(success.isSet());
+		assertEquals(248, worker.query("SELECT COUNT(*) FROM table_four").count());
+	}
+
+	/** Test case for {@link Executor#stream(com.github.jochenw.afw.core.function.Functions.FailableFunction)}.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testStream() throws Exception {
+		final String sqlCreate = "CREATE TABLE table_five (id INT NOT NULL PRIMARY KEY, name VARCHAR(16) NOT NULL)";
+		final String sqlDropIfExists = "DROP TABLE IF EXISTS table_five";
+		final Application application = getApplication(null);
+		final Worker worker = application.getComponentFactory().requireInstance(Worker.class);
+		final JdbcHelper jh = worker.getJdbcHelper();
+		final ConnectionProvider cp = worker.getConnectionProvider();
+		worker.query(sqlDropIfExists).run();
+		worker.query(sqlCreate).run();
+		worker.batch("INSERT INTO table_five (id, name) VALUES (?, ?)")
+		    .run(IntStream.range(0, 1000).mapToObj((i) -> new Object[] { Integer.valueOf(i), "name" + i }));
+		final List<Connection> connections = new ArrayList<>();
+		final FailableSupplier<Connection,?> connectionSupplier = () -> {
+			final Connection conn = cp.open();
+			connections.add(conn);
+			return conn;
+		};
+		final FailableFunction<Rows,String,?> mapper = (rows) -> {
+			final int id = rows.getInt(rows.getColumnIndex("ID"));
+			return id + ":" + rows.getStr(rows.getColumnIndex("name"));
+		};
+		try (Stream<String> stream = jh.query(connectionSupplier, "SELECT id, name FROM table_five ORDER BY id")
+				                       .fetchSize(100).stream(mapper)) {
+			final Iterator<String> iter = stream.iterator();
+			for (int i = 0;  i < 1000;  i++) {
+				assertTrue(iter.hasNext());
+				assertEquals(i + ":name" + i, iter.next());
+			}
+			assertFalse(iter.hasNext());
+			assertFalse(connections.get(0).isClosed());
+		}
+		assertTrue(connections.get(0).isClosed());
+		// Closing the stream early closes the connection as well.
+		try (Stream<String> stream = jh.query(connectionSupplier, "SELECT id, name FROM table_five WHERE id >= ? ORDER BY id",
+				                              Integer.valueOf(500)).stream(mapper)) {
+			assertEquals(Arrays.asList("500:name500", "501:name501"), stream.limit(2).collect(Collectors.toList()));
+		}
+		assertEquals(2, connections.size());
+		assertTrue(connections.get(1).isClosed());
+	}
 }
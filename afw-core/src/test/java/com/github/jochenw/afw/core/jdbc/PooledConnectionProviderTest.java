@@ -0,0 +1,341 @@
+package com.github.jochenw.afw.core.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.jdbc.PooledConnectionProvider.Metrics;
+
+
+/** Test suite for the {@link PooledConnectionProvider}.
+ */
+public class PooledConnectionProviderTest {
+	private static final ConnectionProvider H2 = new ConnectionProvider() {
+		@Override
+		public Connection open() throws SQLException {
+			return DriverManager.getConnection("jdbc:h2:mem:pool-test;DB_CLOSE_DELAY=-1", "sa", "sa");
+		}
+
+		@Override
+		public String getDialectId() {
+			return "h2";
+		}
+
+		@Override
+		public Dialect getDialect() {
+			return new H2Dialect();
+		}
+	};
+
+	private static Connection physical(Connection pConnection) throws SQLException {
+		return pConnection.unwrap(Connection.class);
+	}
+
+	/** Test, that a returned connection is being reused.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testReuse() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			final Connection physical;
+			try (Connection conn = pool.open()) {
+				physical = physical(conn);
+				assertEquals(1, pool.getMetrics().getActive());
+				assertEquals(0, pool.getMetrics().getIdle());
+			}
+			try (Connection conn = pool.open()) {
+				assertSame(physical, physical(conn));
+			}
+			final Metrics metrics = pool.getMetrics();
+			assertEquals(0, metrics.getActive());
+			assertEquals(1, metrics.getIdle());
+			assertEquals(1, metrics.getTotal());
+			assertEquals(2, metrics.getBorrowCount());
+			assertEquals(1, metrics.getCreatedCount());
+			assertEquals(0, metrics.getDestroyedCount());
+			assertFalse(physical.isClosed());
+		}
+		assertEquals("h2", new PooledConnectionProvider(H2).getDialectId());
+	}
+
+	/** Test, that a closed handle cannot be used any more.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testClosedHandle() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			final Connection conn = pool.open();
+			assertFalse(conn.isClosed());
+			conn.close();
+			assertTrue(conn.isClosed());
+			assertThrows(SQLException.class, () -> conn.createStatement());
+			// Closing twice must not return the connection twice.
+			conn.close();
+			assertEquals(1, pool.getMetrics().getIdle());
+		}
+	}
+
+	/** Test for the maximum pool size.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testMaxSize() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setMaxSize(1);
+			pool.setMaxWait(Duration.ofMillis(50));
+			try (Connection conn = pool.open()) {
+				assertThrows(SQLTransientConnectionException.class, () -> pool.open());
+				assertThrows(IllegalStateException.class, () -> pool.setMaxSize(2));
+			}
+			try (Connection conn = pool.open()) {
+				assertEquals(1, pool.getMetrics().getActive());
+			}
+			final Metrics metrics = pool.getMetrics();
+			assertEquals(1, metrics.getTimeoutCount());
+			assertEquals(2, metrics.getBorrowCount());
+			assertTrue(metrics.getMaxWaitNanos() >= Duration.ofMillis(50).toNanos());
+		}
+	}
+
+	/** Test, that an invalid connection is replaced on borrow.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testValidation() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setValidationInterval(Duration.ZERO);
+			final Connection physical;
+			try (Connection conn = pool.open()) {
+				physical = physical(conn);
+			}
+			physical.close();
+			try (Connection conn = pool.open()) {
+				assertNotSame(physical, physical(conn));
+				assertFalse(conn.isClosed());
+			}
+			assertEquals(2, pool.getMetrics().getCreatedCount());
+			assertEquals(1, pool.getMetrics().getDestroyedCount());
+		}
+	}
+
+	/** Test, that uncommitted changes are rolled back, when a connection
+	 * is returned to the pool.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testRollbackOnReturn() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			try (Connection conn = pool.open();
+				 Statement stmt = conn.createStatement()) {
+				stmt.executeUpdate("DROP TABLE IF EXISTS pool_table");
+				stmt.executeUpdate("CREATE TABLE pool_table (id INT NOT NULL PRIMARY KEY)");
+			}
+			try (Connection conn = pool.open();
+				 Statement stmt = conn.createStatement()) {
+				conn.setAutoCommit(false);
+				stmt.executeUpdate("INSERT INTO pool_table (id) VALUES (1)");
+			}
+			try (Connection conn = pool.open();
+				 Statement stmt = conn.createStatement();
+				 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_table")) {
+				assertTrue(conn.getAutoCommit());
+				assertTrue(rs.next());
+				assertEquals(0, rs.getInt(1));
+			}
+		}
+	}
+
+	/** Test for the statement cache.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testStatementCache() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setStatementCacheSize(2);
+			final Worker worker = new Worker(pool);
+			worker.query("DROP TABLE IF EXISTS cache_table").run();
+			worker.query("CREATE TABLE cache_table (id INT NOT NULL PRIMARY KEY)").run();
+			for (int i = 0;  i < 10;  i++) {
+				worker.query("INSERT INTO cache_table (id) VALUES (?)", Integer.valueOf(i)).run();
+			}
+			assertEquals(10, worker.query("SELECT COUNT(*) FROM cache_table").count());
+			final Metrics metrics = pool.getMetrics();
+			assertEquals(1, metrics.getTotal());
+			assertEquals(9, metrics.getStatementCacheHits());
+			assertEquals(4, metrics.getStatementCacheMisses());
+			try (Connection conn = pool.open()) {
+				final String sql = "SELECT COUNT(*) FROM cache_table";
+				final PreparedStatement stmt1 = conn.prepareStatement(sql);
+				// The cached statement is in use, so this one isn't cached.
+				final PreparedStatement stmt2 = conn.prepareStatement(sql);
+				assertNotSame(stmt1, stmt2);
+				assertSame(conn, stmt1.getConnection());
+				final PreparedStatement physical1 = stmt1.unwrap(PreparedStatement.class);
+				stmt2.close();
+				stmt1.close();
+				assertTrue(stmt1.isClosed());
+				assertThrows(SQLException.class, () -> stmt1.executeQuery());
+				try (PreparedStatement stmt3 = conn.prepareStatement(sql)) {
+					assertSame(physical1, stmt3.unwrap(PreparedStatement.class));
+					assertFalse(stmt3.isClosed());
+					// The closed wrapper remains closed, although the statement is reused.
+					assertTrue(stmt1.isClosed());
+				}
+			}
+		}
+	}
+
+	/** Test for the idle eviction.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testIdleEviction() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setMinSize(1);
+			pool.setIdleTimeout(Duration.ZERO);
+			final Connection conn1 = pool.open();
+			final Connection conn2 = pool.open();
+			final Connection physical1 = physical(conn1);
+			final Connection physical2 = physical(conn2);
+			conn2.close();
+			conn1.close();
+			assertEquals(2, pool.getMetrics().getIdle());
+			pool.evict();
+			// The oldest connection is being closed, the minimum size is retained.
+			assertEquals(1, pool.getMetrics().getIdle());
+			assertEquals(1, pool.getMetrics().getTotal());
+			assertTrue(physical2.isClosed());
+			assertFalse(physical1.isClosed());
+		}
+	}
+
+	/** Test, that the pool is filled up to the minimum size upon startup.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testMinSize() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setMinSize(2);
+			try (Connection conn = pool.open()) {
+				final Metrics metrics = pool.getMetrics();
+				assertEquals(1, metrics.getActive());
+				assertEquals(1, metrics.getIdle());
+				assertEquals(2, metrics.getTotal());
+				assertEquals(2, metrics.getCreatedCount());
+			}
+		}
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setMinSize(3);
+			pool.setMaxSize(2);
+			final IllegalStateException ise = assertThrows(IllegalStateException.class, () -> pool.open());
+			assertEquals("The minimum size (3) must not exceed the maximum size (2).", ise.getMessage());
+		}
+	}
+
+	/** Test, that the eviction doesn't exceed the maximum size, while
+	 * restoring the minimum size.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testEvictionRespectsMaxSize() throws Exception {
+		final AtomicInteger openCount = new AtomicInteger();
+		final CountDownLatch creating = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final ConnectionProvider blocking = new ConnectionProvider() {
+			@Override
+			public Connection open() throws SQLException {
+				if (openCount.incrementAndGet() == 2) {
+					creating.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						throw new SQLException(e);
+					}
+				}
+				return H2.open();
+			}
+		};
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(blocking)) {
+			pool.setMinSize(1);
+			pool.setMaxSize(1);
+			final Connection conn = pool.open();
+			assertEquals(1, openCount.get());
+			// Closing the physical connection causes the pool to discard it.
+			physical(conn).close();
+			conn.close();
+			assertEquals(0, pool.getMetrics().getTotal());
+			// The only permit is now held by a thread, which is creating a connection.
+			final CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+				try (Connection c = pool.open()) {
+					assertFalse(c.isClosed());
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			assertTrue(creating.await(5, TimeUnit.SECONDS));
+			pool.evict();
+			release.countDown();
+			future.get(5, TimeUnit.SECONDS);
+			assertEquals(2, openCount.get());
+			assertEquals(1, pool.getMetrics().getTotal());
+		}
+	}
+
+	/** Test for the leak detection.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testLeakDetection() throws Exception {
+		try (PooledConnectionProvider pool = new PooledConnectionProvider(H2)) {
+			pool.setLeakDetectionThreshold(Duration.ofMillis(1));
+			try (Connection conn = pool.open()) {
+				Thread.sleep(10);
+				pool.evict();
+				assertEquals(1, pool.getMetrics().getLeakCount());
+				// A leak is reported only once.
+				pool.evict();
+				assertEquals(1, pool.getMetrics().getLeakCount());
+			}
+			pool.evict();
+			assertEquals(1, pool.getMetrics().getLeakCount());
+		}
+	}
+
+	/** Test, that closing the pool closes the idle connections.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testClose() throws Exception {
+		final PooledConnectionProvider pool = new PooledConnectionProvider(H2);
+		final Connection borrowed = pool.open();
+		final Connection idle = pool.open();
+		final Connection physicalBorrowed = physical(borrowed);
+		final Connection physicalIdle = physical(idle);
+		idle.close();
+		pool.close();
+		assertTrue(physicalIdle.isClosed());
+		assertFalse(physicalBorrowed.isClosed());
+		borrowed.close();
+		assertTrue(physicalBorrowed.isClosed());
+		assertEquals(0, pool.getMetrics().getTotal());
+		assertThrows(IllegalStateException.class, () -> pool.open());
+	}
+}
@@ -5,15 +5,23 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.json.Json;
 import javax.json.stream.JsonLocation;
@@ -198,4 +206,128 @@ public class JsnReaderTest {
 		final JsonParseException jpe3 = ctx.error("Exception 3");
 		assertEquals("At file myUri, line 1, column 1, offset 0: Exception 3", jpe3.getMessage());
 	}
+
+	/** Test case for {@link JsnReader#stream(Reader, String, Map)}.
+	 */
+	@Test
+	public void testStream() {
+		final String json = "{\"header\": {\"name\": \"Test\", \"tags\": [\"a\", \"b\"]},"
+				+ " \"items\": [{\"id\": 0, \"values\": [1, 2]}, {\"id\": 1, \"values\": []}, {\"id\": 2}],"
+				+ " \"special.name\": true, \"footer\": null}";
+		final List<Object> items = new ArrayList<>();
+		final List<Object> secondIds = new ArrayList<>();
+		final List<Object> tags = new ArrayList<>();
+		final List<Object> attributes = new ArrayList<>();
+		final List<Object> special = new ArrayList<>();
+		final List<Object> documents = new ArrayList<>();
+		final Map<String,Consumer<Object>> subscriptions = new LinkedHashMap<>();
+		subscriptions.put("$.items[*]", items::add);
+		subscriptions.put("$.items[1].id", secondIds::add);
+		subscriptions.put("$.header.tags[*]", tags::add);
+		subscriptions.put("$.*", attributes::add);
+		subscriptions.put("$['special.name']", special::add);
+		JsnUtils.reader().stream(new StringReader(json), "myUri", subscriptions);
+		// Values below another subscribed value are not reported separately.
+		assertEquals(0, items.size());
+		assertEquals(0, secondIds.size());
+		assertEquals(0, tags.size());
+		assertEquals(4, attributes.size());
+		assertEqual(Arrays.asList("a", "b"), ((Map<?,?>) attributes.get(0)).get("tags"));
+		assertEquals(3, ((List<?>) attributes.get(1)).size());
+		assertSame(Boolean.TRUE, attributes.get(2));
+		assertNull(attributes.get(3));
+		assertEquals(Arrays.asList(Boolean.TRUE), special);
+
+		subscriptions.remove("$.*");
+		JsnUtils.reader().stream(new StringReader(json), "myUri", subscriptions);
+		assertEquals(3, items.size());
+		assertEqual(new Object[] {Integer.valueOf(1), Integer.valueOf(2)}, ((Map<?,?>) items.get(0)).get("values"));
+		assertEquals(Integer.valueOf(2), ((Map<?,?>) items.get(2)).get("id"));
+		assertEquals(0, secondIds.size());
+		assertEquals(Arrays.asList("a", "b"), tags);
+		JsnUtils.reader().stream(new StringReader(json), "myUri", "$.items[1].id", secondIds::add);
+		assertEquals(Arrays.asList(Integer.valueOf(1)), secondIds);
+		JsnUtils.reader().stream(new StringReader(json), "myUri", "$", documents::add);
+		assertEquals(1, documents.size());
+		assertEquals(4, ((Map<?,?>) documents.get(0)).size());
+
+		assertThrows(IllegalArgumentException.class, () -> JsnUtils.reader().stream(new StringReader(json), null, "items", documents::add));
+		assertThrows(IllegalArgumentException.class, () -> JsnUtils.reader().stream(new StringReader(json), null, "$..id", documents::add));
+		assertThrows(IllegalArgumentException.class, () -> JsnUtils.reader().stream(new StringReader(json), null, "$.items[x]", documents::add));
+		assertThrows(IllegalArgumentException.class, () -> JsnUtils.reader().stream(new StringReader(json), null, "$['items]", documents::add));
+	}
+
+	/** A reader, which generates a large Json document on the fly, without
+	 * ever holding more than a single array element in memory.
+	 */
+	private static class GeneratedDocumentReader extends Reader {
+		private final int numItems;
+		private final StringBuilder sb = new StringBuilder("{\"header\": {\"numItems\": ");
+		private int offset, item;
+		private long numChars;
+
+		GeneratedDocumentReader(int pNumItems) {
+			numItems = pNumItems;
+			sb.append(pNumItems).append("}, \"items\": [");
+		}
+
+		@Override
+		public int read(char[] pBuffer, int pOffset, int pLen) throws IOException {
+			if (offset == sb.length()) {
+				if (item > numItems) {
+					return -1;
+				}
+				sb.setLength(0);
+				offset = 0;
+				if (item < numItems) {
+					if (item > 0) {
+						sb.append(", ");
+					}
+					sb.append("{\"id\": ").append(item).append(", \"name\": \"Item ").append(item)
+					  .append("\", \"tags\": [\"a\", \"b\", {\"nested\": [1, 2.5, null, false]}]}");
+				} else {
+					sb.append("], \"footer\": \"end\"}");
+				}
+				++item;
+			}
+			final int len = Math.min(pLen, sb.length() - offset);
+			sb.getChars(offset, offset+len, pBuffer, pOffset);
+			offset += len;
+			numChars += len;
+			return len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			// Nothing to do.
+		}
+	}
+
+	/** Test case for streaming a large document: Array elements must be
+	 * passed to the consumer, while only a small prefix of the document
+	 * has been read, and no element must be retained afterwards.
+	 */
+	@Test
+	public void testStreamLargeDocument() {
+		final int numItems = 200000;
+		final GeneratedDocumentReader reader = new GeneratedDocumentReader(numItems);
+		final long[] numCharsAtFirstItem = new long[] {-1};
+		final int[] count = new int[1];
+		final List<Object> footers = new ArrayList<>();
+		final Map<String,Consumer<Object>> subscriptions = new LinkedHashMap<>();
+		subscriptions.put("$.items[*]", (o) -> {
+			final Map<?,?> map = (Map<?,?>) o;
+			assertEquals(Integer.valueOf(count[0]), map.get("id"));
+			assertEquals("Item " + count[0], map.get("name"));
+			if (count[0]++ == 0) {
+				numCharsAtFirstItem[0] = reader.numChars;
+			}
+		});
+		subscriptions.put("$.footer", footers::add);
+		JsnUtils.reader().stream(reader, null, subscriptions);
+		assertEquals(numItems, count[0]);
+		assertEquals(Arrays.asList("end"), footers);
+		assertTrue(reader.numChars > 100*65536, "Document size: " + reader.numChars);
+		assertTrue(numCharsAtFirstItem[0] < 65536, "Characters read before first item: " + numCharsAtFirstItem[0]);
+	}
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.log.AsyncAppender.OverflowPolicy;
+import com.github.jochenw.afw.core.util.Exceptions;
+
+
+/** Test suite for the {@link AsyncAppender}.
+ */
+public class AsyncAppenderTest {
+	/** Test, that entries from multiple threads are written completely, and
+	 * in order per thread.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testMultipleThreads() throws Exception {
+		final List<String> written = new ArrayList<>();
+		final AtomicInteger flushes = new AtomicInteger();
+		final AsyncAppender<String> appender = new AsyncAppender<>("test", 16, Duration.ofMillis(10),
+				OverflowPolicy.BLOCK, written::add, flushes::incrementAndGet);
+		assertEquals(16, appender.getCapacity());
+		final int numThreads = 4;
+		final int numEntries = 1000;
+		final Thread[] threads = new Thread[numThreads];
+		for (int i = 0;  i < numThreads;  i++) {
+			final int thread = i;
+			threads[i] = new Thread(() -> {
+				for (int j = 0;  j < numEntries;  j++) {
+					appender.append(thread + ":" + j, false);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		appender.close();
+		assertEquals(numThreads*numEntries, written.size());
+		assertEquals(0, appender.getDroppedCount());
+		assertEquals(0, appender.getPendingCount());
+		assertTrue(flushes.get() > 0);
+		final int[] next = new int[numThreads];
+		for (String s : written) {
+			final int offset = s.indexOf(':');
+			final int thread = Integer.parseInt(s.substring(0, offset));
+			assertEquals(next[thread]++, Integer.parseInt(s.substring(offset+1)));
+		}
+		assertThrows(IllegalStateException.class, () -> appender.append("closed", false));
+		assertTrue(appender.isClosed());
+		assertFalse(appender.offer("closed", false));
+	}
+
+	/** Test for the overflow policies, which drop entries.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testDrop() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> written = Collections.synchronizedList(new ArrayList<>());
+		final AsyncAppender<String> appender = new AsyncAppender<>("test", 2, Duration.ofMillis(10),
+				OverflowPolicy.DROP_BELOW_LEVEL, (s) -> {
+					if ("block".equals(s)) {
+						blocked.countDown();
+						release.await(5, TimeUnit.SECONDS);
+					}
+					written.add(s);
+				}, () -> {});
+		appender.append("block", false);
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+		// The background thread is blocked now, so the buffer is filled up.
+		assertTrue(appender.append("a", true));
+		assertTrue(appender.append("b", true));
+		assertFalse(appender.append("c", true));
+		assertFalse(appender.append("d", true));
+		assertEquals(2, appender.getDroppedCount());
+		release.countDown();
+		// A non-droppable entry blocks, until the buffer has space again.
+		assertTrue(appender.append("e", false));
+		appender.close();
+		assertEquals(4, written.size());
+		assertEquals("e", written.get(3));
+	}
+
+	/** Test, that write errors are reported upon closing.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testError() throws Exception {
+		final IllegalStateException ise = new IllegalStateException("Failed");
+		final List<String> written = new ArrayList<>();
+		final AsyncAppender<String> appender = new AsyncAppender<>("test", 4, Duration.ofMillis(10),
+				OverflowPolicy.DROP, (s) -> {
+					if ("fail".equals(s)) {
+						throw ise;
+					}
+					written.add(s);
+				}, () -> {});
+		appender.append("a", false);
+		appender.append("fail", false);
+		appender.append("b", false);
+		assertSame(ise, assertThrows(IllegalStateException.class, () -> appender.close()));
+		assertEquals(2, written.size());
+		// Closing again is a no-op.
+		appender.close();
+	}
+
+	/** Test, that concurrent invocations of {@link AsyncAppender#close()} close
+	 * the appender only once.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testConcurrentClose() throws Exception {
+		final IllegalStateException ise = new IllegalStateException("Failed");
+		final AtomicInteger flushes = new AtomicInteger();
+		final AsyncAppender<String> appender = new AsyncAppender<>("test", 4, Duration.ofMillis(10),
+				OverflowPolicy.DROP, (s) -> { throw ise; }, () -> flushes.incrementAndGet());
+		appender.append("fail", false);
+		final int numThreads = 8;
+		final CyclicBarrier barrier = new CyclicBarrier(numThreads);
+		final AtomicInteger failures = new AtomicInteger();
+		final Thread[] threads = new Thread[numThreads];
+		for (int i = 0;  i < numThreads;  i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					barrier.await(5, TimeUnit.SECONDS);
+					appender.close();
+				} catch (IllegalStateException e) {
+					assertSame(ise, e);
+					failures.incrementAndGet();
+				} catch (Exception e) {
+					throw Exceptions.show(e);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		// Only one thread has actually closed the appender, and reported the failure.
+		assertEquals(1, failures.get());
+		assertEquals(1, flushes.get());
+	}
+
+	/** Test, that every entry, which has been accepted, is written, even if the
+	 * appender is closed, while other threads are still appending.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testCloseWhileAppending() throws Exception {
+		for (int run = 0;  run < 20;  run++) {
+			final List<String> written = Collections.synchronizedList(new ArrayList<>());
+			final AsyncAppender<String> appender = new AsyncAppender<>("test", 64, Duration.ofMillis(1),
+					OverflowPolicy.BLOCK, written::add, () -> {});
+			final int numThreads = 4;
+			final AtomicInteger accepted = new AtomicInteger();
+			final CountDownLatch started = new CountDownLatch(numThreads);
+			final Thread[] threads = new Thread[numThreads];
+			for (int i = 0;  i < numThreads;  i++) {
+				threads[i] = new Thread(() -> {
+					started.countDown();
+					try {
+						for (;;) {
+							if (appender.append("entry", false)) {
+								accepted.incrementAndGet();
+							}
+						}
+					} catch (IllegalStateException e) {
+						// The appender has been closed.
+					}
+				});
+				threads[i].start();
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Thread.sleep(2);
+			appender.close();
+			for (Thread t : threads) {
+				t.join(5000);
+				assertFalse(t.isAlive());
+			}
+			assertEquals(accepted.get(), written.size());
+		}
+	}
+}
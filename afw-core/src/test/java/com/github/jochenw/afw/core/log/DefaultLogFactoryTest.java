@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.log.ILog.Level;
+import com.github.jochenw.afw.core.log.simple.SimpleLogFactory;
+
+
+/** Test suite for the {@link DefaultLogFactory}.
+ */
+public class DefaultLogFactoryTest {
+	/** Test, that loggers, which have been created before the
+	 * log factory changes, are using the new log factory.
+	 */
+	@Test
+	public void testLogFactoryChanged() {
+		final DefaultLogFactory dlf = new DefaultLogFactory();
+		final ILog log = dlf.getLog("foo");
+		assertTrue(log instanceof DefaultLog);
+		assertSame(log, dlf.getLog("foo"));
+		final StringWriter sw = new StringWriter();
+		final SimpleLogFactory slf = new SimpleLogFactory(sw);
+		slf.setNowStringSupplier(() -> "now");
+		slf.setLevel(Level.INFO);
+		dlf.logFactoryChanged(slf);
+		assertFalse(log.isDebugEnabled());
+		assertTrue(log.isInfoEnabled());
+		log.info("main", "Message");
+		assertEquals("now INFO foo main: Message" + System.getProperty("line.separator"), sw.toString());
+		// The cached logger has been replaced.
+		final ILog log2 = dlf.getLog("foo");
+		assertNotSame(log, log2);
+		assertSame(slf.getLog("foo"), log2);
+	}
+}
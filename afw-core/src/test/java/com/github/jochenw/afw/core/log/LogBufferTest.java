@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.log.simple.SimpleLogFactory;
+
+
+/** Test suite for the {@link LogBuffer}.
+ */
+public class LogBufferTest {
+	/** Test, that buffers are reused, unless they are in use.
+	 */
+	@Test
+	public void testReuse() {
+		final LogBuffer lb1 = LogBuffer.acquire();
+		lb1.getBuilder().append("foo");
+		final LogBuffer lb2 = LogBuffer.acquire();
+		final LogBuffer lb3 = LogBuffer.acquire();
+		assertNotSame(lb1, lb2);
+		assertNotSame(lb2, lb3);
+		assertEquals(0, lb2.getBuilder().length());
+		lb3.release();
+		lb2.release();
+		lb1.release();
+		final LogBuffer lb4 = LogBuffer.acquire();
+		assertSame(lb1, lb4);
+		assertEquals(0, lb4.getBuilder().length());
+		lb4.getFormatter().format("%s=%d", "answer", Integer.valueOf(42));
+		assertEquals("answer=42", lb4.toString());
+		lb4.release();
+	}
+
+	/** Test for writing the buffers contents.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testWrite() throws Exception {
+		final String text = "Gr\u00fc\u00dfe, \u20ac";
+		final LogBuffer lb = LogBuffer.acquire();
+		try {
+			lb.getBuilder().append(text);
+			final StringWriter sw = new StringWriter();
+			lb.writeTo(sw);
+			assertEquals(text, sw.toString());
+			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			lb.writeTo(baos, StandardCharsets.UTF_8);
+			lb.writeTo(baos, StandardCharsets.ISO_8859_1);
+			final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+			final byte[] latin1 = text.getBytes(StandardCharsets.ISO_8859_1);
+			final byte[] expect = new byte[utf8.length + latin1.length];
+			System.arraycopy(utf8, 0, expect, 0, utf8.length);
+			System.arraycopy(latin1, 0, expect, utf8.length, latin1.length);
+			assertEquals(new String(expect, StandardCharsets.ISO_8859_1),
+					     new String(baos.toByteArray(), StandardCharsets.ISO_8859_1));
+		} finally {
+			lb.release();
+		}
+	}
+
+	/** Test, that logging a simple message with the {@link SimpleLogFactory}
+	 * doesn't create garbage (apart from some slack for the JIT).
+	 */
+	@Test
+	public void testAllocations() {
+		final ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+		assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+		final com.sun.management.ThreadMXBean threadMxBean = (com.sun.management.ThreadMXBean) mxBean;
+		assumeTrue(threadMxBean.isThreadAllocatedMemorySupported()
+				&&  threadMxBean.isThreadAllocatedMemoryEnabled());
+		final PrintStream ps = new PrintStream(new OutputStream() {
+			@Override
+			public void write(int pByte) {
+				// Does nothing.
+			}
+
+			@Override
+			public void write(byte[] pBuffer, int pOffset, int pLen) {
+				// Does nothing.
+			}
+		});
+		final SimpleLogFactory slf = new SimpleLogFactory(ps);
+		final ILog log = slf.getLog(LogBufferTest.class);
+		final int numCalls = 100000;
+		final long threadId = Thread.currentThread().getId();
+		long bytesPerCall = Long.MAX_VALUE;
+		for (int i = 0;  i < 3;  i++) {
+			final long allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+			for (int j = 0;  j < numCalls;  j++) {
+				log.info("testAllocations", "Log message");
+			}
+			final long allocatedAfter = threadMxBean.getThreadAllocatedBytes(threadId);
+			bytesPerCall = Math.min(bytesPerCall, (allocatedAfter-allocatedBefore)/numCalls);
+		}
+		// The former implementation created about 300 bytes per call.
+		assertTrue(bytesPerCall < 32, "Bytes per call: " + bytesPerCall);
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.core.log.RollingFileOutputStream.FsyncPolicy;
+import com.github.jochenw.afw.core.log.app.DefaultAppLog;
+import com.github.jochenw.afw.core.log.simple.SimpleLogFactory;
+
+
+/** Test suite for the {@link RollingFileOutputStream}.
+ */
+public class RollingFileOutputStreamTest {
+	private static Path newTestDir(String pName) throws IOException {
+		final Path dir = Paths.get("target/unit-tests/RollingFileOutputStreamTest");
+		Files.createDirectories(dir);
+		return Files.createTempDirectory(dir, pName);
+	}
+
+	private static String read(Path pFile) throws IOException {
+		try (InputStream in = pFile.getFileName().toString().endsWith(".gz")
+				? new GZIPInputStream(Files.newInputStream(pFile)) : Files.newInputStream(pFile)) {
+			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			final byte[] bytes = new byte[8192];
+			for (;;) {
+				final int res = in.read(bytes);
+				if (res == -1) {
+					break;
+				}
+				baos.write(bytes, 0, res);
+			}
+			return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/** Test for rotation by size, and retention by count.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testRotateBySize() throws Exception {
+		final Path dir = newTestDir("size");
+		final Path file = dir.resolve("test.log");
+		final RollingFileOutputStream out = RollingFileOutputStream.builder()
+				.file(file).maxSize(100).maxFiles(3).bufferSize(16)
+				.fsyncPolicy(FsyncPolicy.ON_FLUSH).build();
+		// Every line has 10 bytes, so every file contains 10 lines.
+		for (int i = 0;  i < 100;  i++) {
+			out.write(String.format("Line %04d\n", Integer.valueOf(i)).getBytes(StandardCharsets.UTF_8));
+		}
+		out.close();
+		assertThrows(IOException.class, () -> out.write(0));
+		final List<Path> rotatedFiles = out.getRotatedFiles();
+		assertEquals(3, rotatedFiles.size());
+		final String content = read(file);
+		assertEquals(100, content.length());
+		assertTrue(content.startsWith("Line 0090"));
+		for (int i = 0;  i < rotatedFiles.size();  i++) {
+			final String rotatedContent = read(rotatedFiles.get(i));
+			assertEquals(100, rotatedContent.length());
+			assertTrue(rotatedContent.startsWith(String.format("Line %04d", Integer.valueOf(80-i*10))),
+					   rotatedContent);
+		}
+	}
+
+	/** Test for compression of rotated files.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testCompress() throws Exception {
+		final Path dir = newTestDir("compress");
+		final Path file = dir.resolve("test.log");
+		try (RollingFileOutputStream out = RollingFileOutputStream.builder()
+				.file(file).compress(true).build()) {
+			out.write("First file\n".getBytes(StandardCharsets.UTF_8));
+			out.rotate();
+			out.write("Second file\n".getBytes(StandardCharsets.UTF_8));
+			out.rotate();
+			// Rotating an empty file does nothing.
+			out.rotate();
+			out.write("Active file\n".getBytes(StandardCharsets.UTF_8));
+		}
+		final RollingFileOutputStream out = RollingFileOutputStream.builder().file(file).build();
+		final List<Path> rotatedFiles;
+		try {
+			rotatedFiles = out.getRotatedFiles();
+		} finally {
+			out.close();
+		}
+		assertEquals(2, rotatedFiles.size());
+		for (Path p : rotatedFiles) {
+			assertTrue(p.getFileName().toString().endsWith(".log.gz"), p.toString());
+			assertFalse(Files.exists(p.resolveSibling(p.getFileName().toString() + ".tmp")));
+		}
+		assertEquals("Second file\n", read(rotatedFiles.get(0)));
+		assertEquals("First file\n", read(rotatedFiles.get(1)));
+		assertEquals("Active file\n", read(file));
+	}
+
+	/** Test, that unrelated files with a similar name are neither
+	 * reported, nor removed.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testUnrelatedFiles() throws Exception {
+		final Path dir = newTestDir("unrelated");
+		final Path file = dir.resolve("app.log");
+		final String[] unrelatedNames = {"app-audit.log", "app-old.log", "app-20240131-235959.log",
+				                         "app-20240131-235959-0001.log.bak", "other-20240131-235959-0001.log"};
+		for (String name : unrelatedNames) {
+			Files.write(dir.resolve(name), "Unrelated\n".getBytes(StandardCharsets.UTF_8));
+		}
+		try (RollingFileOutputStream out = RollingFileOutputStream.builder()
+				.file(file).maxFiles(1).build()) {
+			for (int i = 0;  i < 3;  i++) {
+				out.write(("File " + i + "\n").getBytes(StandardCharsets.UTF_8));
+				out.rotate();
+			}
+		}
+		for (String name : unrelatedNames) {
+			assertTrue(Files.exists(dir.resolve(name)), name);
+		}
+		final RollingFileOutputStream out = RollingFileOutputStream.builder().file(file).build();
+		final List<Path> rotatedFiles;
+		try {
+			rotatedFiles = out.getRotatedFiles();
+		} finally {
+			out.close();
+		}
+		assertEquals(1, rotatedFiles.size());
+		assertEquals("File 2\n", read(rotatedFiles.get(0)));
+	}
+
+	/** Test, that the stream remains usable, if renaming the active file fails.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testFailingMove() throws Exception {
+		final Path dir = newTestDir("move");
+		final Path file = dir.resolve("test.log");
+		final boolean[] failing = new boolean[] {true};
+		final RollingFileOutputStream out = new RollingFileOutputStream(RollingFileOutputStream.builder()
+				.file(file).maxSize(10).rotationRetryDelay(Duration.ZERO)) {
+			@Override
+			protected void move(Path pSource, Path pTarget) throws IOException {
+				if (failing[0]) {
+					throw new IOException("File is locked: " + pSource);
+				}
+				super.move(pSource, pTarget);
+			}
+		};
+		out.write("Line 0001\n".getBytes(StandardCharsets.UTF_8));
+		// An explicit rotation reports the error, but the stream remains usable.
+		assertThrows(IOException.class, () -> out.rotate());
+		// A rotation, which is triggered by writing, doesn't fail the write.
+		out.write("Line 0002\n".getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		assertEquals("Line 0001\nLine 0002\n", read(file));
+		assertTrue(out.getRotatedFiles().isEmpty());
+		failing[0] = false;
+		out.write("Line 0003\n".getBytes(StandardCharsets.UTF_8));
+		final IOException e = assertThrows(IOException.class, () -> out.close());
+		assertEquals("File is locked: " + file.toAbsolutePath(), e.getMessage());
+		final List<Path> rotatedFiles = out.getRotatedFiles();
+		assertEquals(1, rotatedFiles.size());
+		assertEquals("Line 0001\nLine 0002\n", read(rotatedFiles.get(0)));
+		assertEquals("Line 0003\n", read(file));
+	}
+
+	/** Test, that a persistent failure to rename the active file doesn't
+	 * cause a rotation attempt upon every write.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testFailingMoveBackoff() throws Exception {
+		final Path dir = newTestDir("backoff");
+		final Path file = dir.resolve("test.log");
+		final AtomicInteger moves = new AtomicInteger();
+		final RollingFileOutputStream out = new RollingFileOutputStream(RollingFileOutputStream.builder()
+				.file(file).maxSize(10).rotationRetryDelay(Duration.ofMillis(50))) {
+			@Override
+			protected void move(Path pSource, Path pTarget) throws IOException {
+				moves.incrementAndGet();
+				throw new IOException("File is locked: " + pSource);
+			}
+		};
+		for (int i = 0;  i < 100;  i++) {
+			out.write(String.format("Line %04d\n", Integer.valueOf(i)).getBytes(StandardCharsets.UTF_8));
+		}
+		// Every rotation attempt closes, and reopens the active file. Only the first write,
+		// which exceeds the maximum size, does so. The following writes are waiting for the delay.
+		assertEquals(1, moves.get());
+		Thread.sleep(100);
+		out.write("Line 0100\n".getBytes(StandardCharsets.UTF_8));
+		assertEquals(2, moves.get());
+		out.write("Line 0101\n".getBytes(StandardCharsets.UTF_8));
+		assertEquals(2, moves.get());
+		final IOException e = assertThrows(IOException.class, () -> out.close());
+		assertEquals("File is locked: " + file.toAbsolutePath(), e.getMessage());
+		assertEquals(1020, read(file).length());
+	}
+
+	/** Test, that a failing compression doesn't leave a temporary file behind.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testFailingCompress() throws Exception {
+		final Path dir = newTestDir("compressFail");
+		final Path file = dir.resolve("test.log");
+		final RollingFileOutputStream out = new RollingFileOutputStream(RollingFileOutputStream.builder()
+				.file(file).compress(true)) {
+			@Override
+			protected void move(Path pSource, Path pTarget) throws IOException {
+				// Replace the rotated file with a directory, so that reading it fails,
+				// after the compressed file has been created.
+				Files.createDirectory(pTarget);
+				Files.move(pSource, pTarget.resolve("moved.log"));
+			}
+		};
+		out.write("First file\n".getBytes(StandardCharsets.UTF_8));
+		out.rotate();
+		assertThrows(IOException.class, () -> out.close());
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+			for (Path p : ds) {
+				assertFalse(p.getFileName().toString().endsWith(".tmp"), p.toString());
+			}
+		}
+	}
+
+	/** Test for rotation by time.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testRotateByTime() throws Exception {
+		final Path dir = newTestDir("time");
+		final Path file = dir.resolve("test.log");
+		try (RollingFileOutputStream out = RollingFileOutputStream.builder()
+				.file(file).rotationInterval(Duration.ofMillis(50)).build()) {
+			out.write("First file\n".getBytes(StandardCharsets.UTF_8));
+			out.write("Still first file\n".getBytes(StandardCharsets.UTF_8));
+			Thread.sleep(100);
+			out.write("Second file\n".getBytes(StandardCharsets.UTF_8));
+			final List<Path> rotatedFiles = out.getRotatedFiles();
+			assertEquals(1, rotatedFiles.size());
+			assertEquals("First file\nStill first file\n", read(rotatedFiles.get(0)));
+		}
+		assertEquals("Second file\n", read(file));
+	}
+
+	/** Test for using the stream with the {@link SimpleLogFactory}, and the
+	 * {@link DefaultAppLog}.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testLoggers() throws Exception {
+		final Path dir = newTestDir("loggers");
+		final Path simpleLogFile = dir.resolve("simple.log");
+		try (PrintStream ps = new PrintStream(RollingFileOutputStream.builder().file(simpleLogFile).build(),
+				                              true, "UTF-8")) {
+			final SimpleLogFactory slf = new SimpleLogFactory(ps);
+			slf.getLog(RollingFileOutputStreamTest.class).info("testLoggers", "Simple log message");
+		}
+		assertTrue(read(simpleLogFile).contains("Simple log message"));
+		final Path appLogFile = dir.resolve("app.log");
+		try (DefaultAppLog dal = new DefaultAppLog(RollingFileOutputStream.builder().file(appLogFile).build())) {
+			dal.info("App log message");
+		}
+		assertEquals("App log message" + System.lineSeparator(), read(appLogFile));
+	}
+}
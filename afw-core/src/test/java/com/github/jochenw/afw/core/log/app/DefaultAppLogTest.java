@@ -11,10 +11,12 @@ import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import org.junit.jupiter.api.Test;
 
 import com.github.jochenw.afw.core.function.Functions.FailableConsumer;
+import com.github.jochenw.afw.core.log.AsyncAppender.OverflowPolicy;
 import com.github.jochenw.afw.core.log.app.IAppLog.Level;
 import com.github.jochenw.afw.core.util.Streams;
 
@@ -135,6 +137,50 @@ public class DefaultAppLogTest {
 				     baos.toString("UTF-8"));
 	}
 
+	/** Test method for {@link DefaultAppLog#setAsync(int, Duration, OverflowPolicy, Level)}.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testAsync() throws Exception {
+		final NullPointerException npe = new NullPointerException("NPE");
+		final StringWriter sw = new StringWriter();
+		final PrintWriter pw = new PrintWriter(sw);
+		npe.printStackTrace(pw);
+		pw.close();
+		final String stackTrace = sw.toString();
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DefaultAppLog dal = new DefaultAppLog(Level.INFO, Streams.UTF_8, "\n", baos)) {
+			dal.setAsync(16, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+			dal.info("This is a log message.");
+			dal.debug("This is another log message.");
+			dal.error("Exception occurred:", npe);
+			dal.error("This is the third log message.");
+		}
+		assertEquals("This is a log message.\n"
+				+ "Exception occurred:\n" + stackTrace + "\n"
+				+ "This is the third log message.\n",
+				baos.toString("UTF-8"));
+	}
+
+	/** Test, that logging after {@link DefaultAppLog#close()} doesn't fail,
+	 * and that replacing the asynchronous appender doesn't lose messages.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testAsyncAfterClose() throws Exception {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final DefaultAppLog dal = new DefaultAppLog(Level.INFO, Streams.UTF_8, "\n", baos);
+		dal.setAsync(16, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+		dal.info("First log message.");
+		dal.setAsync(16, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+		dal.info("Second log message.");
+		dal.close();
+		// The logger is closed, so these messages are dropped.
+		dal.info("Third log message.");
+		dal.log(Level.INFO, "Fourth log message.", (out) -> out.write(1));
+		assertEquals("First log message.\nSecond log message.\n", baos.toString("UTF-8"));
+	}
+
 	/** Test method for {@link IAppLog#of(Level, Path)}, and
 	 * {@link IAppLog#of(Level, String)}.
 	 * @throws Exception The test failed.
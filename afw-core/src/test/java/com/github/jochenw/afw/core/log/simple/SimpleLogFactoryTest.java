@@ -16,15 +16,22 @@
 package com.github.jochenw.afw.core.log.simple;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.StringWriter;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import com.github.jochenw.afw.core.log.AsyncAppender.OverflowPolicy;
 import com.github.jochenw.afw.core.log.ILog;
 import com.github.jochenw.afw.core.log.ILog.Level;
+import com.github.jochenw.afw.core.log.IMLog;
 
 /** Test for the {@link SimpleLogFactory}.
  */
@@ -60,6 +67,125 @@ public class SimpleLogFactoryTest {
         assertEquals("DEBUG foo Main: <- Stop", logLines[7]);
     }
 
+    /** Test case for the asynchronous mode.
+     */
+    @Test
+    public void testAsync() {
+        final StringWriter sw = new StringWriter();
+        final SimpleLogFactory slf = new SimpleLogFactory(sw);
+        slf.setAsync(64, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+        final ILog log = slf.getLog("foo");
+        for (int i = 0;  i < 100;  i++) {
+            log.info("main", "Log line " + i);
+        }
+        slf.shutdown();
+        final String[] logLines = getLogLines(sw);
+        assertEquals(100, logLines.length);
+        for (int i = 0;  i < 100;  i++) {
+            assertEquals("INFO foo main: Log line " + i, logLines[i]);
+        }
+        assertEquals(0, slf.getDroppedCount());
+    }
+
+    /** Test case for logging after switching the asynchronous appender,
+     * and after {@link SimpleLogFactory#shutdown()}.
+     */
+    @Test
+    public void testAsyncAfterShutdown() {
+        final StringWriter sw = new StringWriter();
+        final SimpleLogFactory slf = new SimpleLogFactory(sw);
+        slf.setAsync(64, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+        final ILog log = slf.getLog("foo");
+        log.info("main", "First log line");
+        // Replacing the appender closes the old appender, after the new appender is in place.
+        slf.setAsync(64, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+        log.info("main", "Second log line");
+        slf.shutdown();
+        // The appender is closed now, so we expect synchronous writes.
+        log.info("main", "Third log line");
+        slf.shutdown();
+        final String[] logLines = getLogLines(sw);
+        assertEquals(3, logLines.length);
+        assertEquals("INFO foo main: First log line", logLines[0]);
+        assertEquals("INFO foo main: Second log line", logLines[1]);
+        assertEquals("INFO foo main: Third log line", logLines[2]);
+    }
+
+    /** Test case for the logger cache.
+     */
+    @Test
+    public void testLogCache() {
+        final SimpleLogFactory slf = new SimpleLogFactory(new StringWriter());
+        final ILog log = slf.getLog(SimpleLogFactoryTest.class);
+        assertSame(log, slf.getLog(SimpleLogFactoryTest.class.getName()));
+        assertNotSame(log, slf.getLog("foo"));
+        final IMLog mlog = slf.getLog(SimpleLogFactoryTest.class, "testLogCache");
+        assertSame(mlog, slf.getLog(SimpleLogFactoryTest.class.getName(), "testLogCache"));
+        assertNotSame(mlog, slf.getLog(SimpleLogFactoryTest.class, "test"));
+        assertTrue(log.isDebugEnabled());
+        slf.setLevel(Level.INFO);
+        assertFalse(log.isDebugEnabled());
+        assertFalse(mlog.isDebugEnabled());
+        assertTrue(log.isInfoEnabled());
+    }
+
+    /** Test case for the {@link SimpleLogFactory.Format#JSON JSON format}.
+     */
+    @Test
+    public void testJson() {
+        final StringWriter sw = new StringWriter();
+        final SimpleLogFactory slf = new SimpleLogFactory(sw);
+        assertSame(SimpleLogFactory.Format.TEXT, slf.getFormat());
+        slf.setFormat(SimpleLogFactory.Format.JSON);
+        slf.setNowStringSupplier(() -> "now");
+        final ILog log = slf.getLog("foo");
+        log.info("main", "Message with \"args\"", Integer.valueOf(42), "bar", null, Boolean.TRUE);
+        log.debugf("main", "Formatted %s", "message");
+        slf.getLog("foo", "run").entering("Start");
+        log.exiting("main", "Result", 3L);
+        final Exception cause = new IllegalArgumentException("Cause");
+        log.error("main", "Failure", new IllegalStateException("Failed", cause));
+        final String[] lines = sw.toString().split("\r?\n");
+        assertEquals(5, lines.length);
+        assertEquals("{\"timestamp\":\"now\",\"level\":\"INFO\",\"id\":\"foo\",\"method\":\"main\","
+                + "\"message\":\"Message with \\\"args\\\"\",\"args\":[42,\"bar\",null,true]}", lines[0]);
+        assertEquals("{\"timestamp\":\"now\",\"level\":\"DEBUG\",\"id\":\"foo\",\"method\":\"main\","
+                + "\"message\":\"Formatted message\",\"args\":[\"message\"]}", lines[1]);
+        assertEquals("{\"timestamp\":\"now\",\"level\":\"DEBUG\",\"id\":\"foo\",\"method\":\"run\","
+                + "\"message\":\"-> Start\"}", lines[2]);
+        assertEquals("{\"timestamp\":\"now\",\"level\":\"DEBUG\",\"id\":\"foo\",\"method\":\"main\","
+                + "\"message\":\"<- Result\",\"args\":[3]}", lines[3]);
+        assertTrue(lines[4].startsWith("{\"timestamp\":\"now\",\"level\":\"ERROR\",\"id\":\"foo\","
+                + "\"method\":\"main\",\"message\":\"Failure\",\"exception\":{"
+                + "\"class\":\"java.lang.IllegalStateException\",\"message\":\"Failed\",\"stack\":[\""
+                + "com.github.jochenw.afw.core.log.simple.SimpleLogFactoryTest.testJson("), lines[4]);
+        assertTrue(lines[4].contains("],\"cause\":{\"class\":\"java.lang.IllegalArgumentException\","
+                + "\"message\":\"Cause\",\"stack\":["), lines[4]);
+        assertTrue(lines[4].endsWith("]}}}"), lines[4]);
+    }
+
+    /** Test case for the {@link SimpleLogFactory.Format#JSON JSON format} in
+     * asynchronous mode.
+     */
+    @Test
+    public void testJsonAsync() {
+        final StringWriter sw = new StringWriter();
+        final SimpleLogFactory slf = new SimpleLogFactory(sw);
+        slf.setFormat(SimpleLogFactory.Format.JSON);
+        slf.setAsync(64, Duration.ofMillis(10), OverflowPolicy.BLOCK, null);
+        final ILog log = slf.getLog("foo");
+        final StringBuilder arg = new StringBuilder("before");
+        log.info("main", "Message", arg);
+        // The event has been formatted already.
+        arg.setLength(0);
+        slf.shutdown();
+        final String[] lines = sw.toString().split("\r?\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("{\"timestamp\":"), lines[0]);
+        assertTrue(lines[0].endsWith(",\"level\":\"INFO\",\"id\":\"foo\",\"method\":\"main\","
+                + "\"message\":\"Message\",\"args\":[\"before\"]}"), lines[0]);
+    }
+
     private String[] getLogLines(Object pTarget) {
         String s = pTarget.toString();
         final List<String> list = new ArrayList<>();
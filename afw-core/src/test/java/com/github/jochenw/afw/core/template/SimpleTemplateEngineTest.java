@@ -1,9 +1,22 @@
 package com.github.jochenw.afw.core.template;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -158,4 +171,45 @@ public class SimpleTemplateEngineTest {
 		tester2.accept(twoLines, Boolean.FALSE);
 		tester2.accept(twoLines, "false");		
 	}
+
+	/** Test for the template cache, and for recompiling modified templates.
+	 * @throws Exception The test failed.
+	 */
+	@Test
+	public void testCache() throws Exception {
+		final Path dir = Paths.get("target/unit-tests/SimpleTemplateEngineTest");
+		Files.createDirectories(dir);
+		final Path templateFile = dir.resolve("test.tmpl");
+		Files.write(templateFile, Collections.singletonList("Hello, ${user}!"), StandardCharsets.UTF_8);
+		final long lastModified = Files.getLastModifiedTime(templateFile).toMillis();
+		try (URLClassLoader cl = new URLClassLoader(new URL[] {dir.toUri().toURL()}, null)) {
+			final SimpleTemplateEngine ste = SimpleTemplateEngine.newInstance();
+			ste.setClassLoader(cl);
+			final Map<String,Object> model = new HashMap<>();
+			model.put("user", "World");
+			final Template<Map<String,Object>> template = ste.getTemplate("test.tmpl");
+			assertEquals("Hello, World!\n", run(template, model));
+			assertSame(template, ste.getTemplate("test.tmpl"));
+			assertEquals(0.5, ste.getCacheHitRate());
+			assertNotNull(ste.getCompileTime("test.tmpl"));
+			assertNull(ste.getCompileTime("unknown.tmpl"));
+
+			// Modifications are ignored by default.
+			Files.write(templateFile, Collections.singletonList("Bye, ${user}!"), StandardCharsets.UTF_8);
+			Files.setLastModifiedTime(templateFile, FileTime.fromMillis(lastModified + 10000));
+			assertSame(template, ste.getTemplate("test.tmpl"));
+			ste.setCheckingModifications(true);
+			ste.setModificationCheckInterval(Duration.ZERO);
+			final Template<Map<String,Object>> modifiedTemplate = ste.getTemplate("test.tmpl");
+			assertNotSame(template, modifiedTemplate);
+			assertEquals("Bye, World!\n", run(modifiedTemplate, model));
+			assertSame(modifiedTemplate, ste.getTemplate("test.tmpl"));
+
+			// Changing the settings clears the cache.
+			ste.setTemplateCharset(StandardCharsets.UTF_8);
+			assertNull(ste.getCompileTime("test.tmpl"));
+			ste.setCacheSize(0);
+			assertNotSame(ste.getTemplate("test.tmpl"), ste.getTemplate("test.tmpl"));
+		}
+	}
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Jochen Wiedmann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jochenw.afw.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+
+/** Test suite for the {@link LruCache}.
+ */
+public class LruCacheTest {
+	/** Test for lookups, and statistics.
+	 */
+	@Test
+	public void testGetAndPut() {
+		final LruCache<String,Integer> cache = new LruCache<>(10);
+		assertEquals(10, cache.getMaxSize());
+		assertNull(cache.get("a"));
+		cache.put("a", Integer.valueOf(1));
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+		assertEquals(Integer.valueOf(2), cache.get("b", (k) -> Integer.valueOf(2)));
+		assertEquals(Integer.valueOf(2), cache.get("b", (k) -> Integer.valueOf(3)));
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(0.5, cache.getHitRate());
+		assertEquals(Integer.valueOf(1), cache.remove("a"));
+		assertNull(cache.remove("a"));
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertThrows(IllegalArgumentException.class, () -> new LruCache<String,String>(0));
+	}
+
+	/** Test, that the least recently used entries are being evicted.
+	 */
+	@Test
+	public void testEviction() {
+		final LruCache<Integer,Integer> cache = new LruCache<>(100);
+		for (int i = 0;  i < 100;  i++) {
+			cache.put(Integer.valueOf(i), Integer.valueOf(i));
+		}
+		// Touch the first 50 entries, so that the others are evicted.
+		for (int i = 0;  i < 50;  i++) {
+			assertEquals(Integer.valueOf(i), cache.get(Integer.valueOf(i)));
+		}
+		cache.put(Integer.valueOf(100), Integer.valueOf(100));
+		assertEquals(90, cache.size());
+		assertEquals(11, cache.getEvictions());
+		for (int i = 0;  i < 50;  i++) {
+			assertEquals(Integer.valueOf(i), cache.get(Integer.valueOf(i)));
+		}
+		for (int i = 50;  i < 61;  i++) {
+			assertNull(cache.get(Integer.valueOf(i)));
+		}
+		assertEquals(Integer.valueOf(100), cache.get(Integer.valueOf(100)));
+		assertTrue(cache.size() <= cache.getMaxSize());
+	}
+
+	/** Test, that entries with the same access time are evicted, if there
+	 * are not enough older entries.
+	 */
+	@Test
+	public void testEvictionWithEqualAccessTimes() {
+		final LruCache<Integer,Integer> cache = new LruCache<>(10);
+		for (int i = 0;  i < 10;  i++) {
+			cache.put(Integer.valueOf(i), Integer.valueOf(i));
+		}
+		// Touch all entries between the same two insertions, so that they
+		// are considered equally recent.
+		for (int i = 0;  i < 10;  i++) {
+			assertEquals(Integer.valueOf(i), cache.get(Integer.valueOf(i)));
+		}
+		cache.put(Integer.valueOf(10), Integer.valueOf(10));
+		assertEquals(9, cache.size());
+		assertEquals(2, cache.getEvictions());
+		assertNotNull(cache.peek(Integer.valueOf(10)));
+	}
+
+	/** Test for the selection of the access time threshold.
+	 */
+	@Test
+	public void testSelect() {
+		final Random random = new Random(42);
+		for (int length = 1;  length <= 100;  length++) {
+			final long[] values = new long[length];
+			for (int i = 0;  i < length;  i++) {
+				// A small range of values, so that we see duplicates, too.
+				values[i] = random.nextInt(length/2+1);
+			}
+			final long[] sortedValues = values.clone();
+			Arrays.sort(sortedValues);
+			for (int i = 0;  i < length;  i++) {
+				assertEquals(sortedValues[i], LruCache.select(values.clone(), length, i));
+			}
+		}
+		// Only the given number of elements is being searched.
+		assertEquals(3, LruCache.select(new long[] {5, 3, 4, 1, 2}, 3, 0));
+	}
+}
@@ -0,0 +1,216 @@
+package com.github.jochenw.afw.di.apt;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.github.jochenw.afw.di.impl.InjectionIndex;
+
+
+/** An annotation processor, which creates an {@link InjectionIndex index
+ * of injection points} at build time. For every class, that is being
+ * compiled, the index contains the declared fields, and methods, which
+ * carry one of the {@link #DEFAULT_ANNOTATIONS known annotations}. Additional
+ * annotations may be specified as a comma separated list of fully qualified
+ * annotation names with the processor option {@link #OPTION_ANNOTATIONS}.
+ * The index file records the set of annotations. At runtime, a component
+ * factory, which uses other annotations (for example, in a custom binding
+ * provider), ignores the index, and scans the indexed classes by reflection.
+ *
+ * The index is written to the resource file {@link InjectionIndex#RESOURCE_NAME}.
+ * Note, that the index is always written from scratch, so incremental
+ * compilation (which compiles only a subset of the classes) produces
+ * an incomplete index. This is safe, because classes, which are missing
+ * in the index, are scanned by reflection.
+ */
+public class InjectionIndexProcessor extends AbstractProcessor {
+	/** Name of the processor option, which specifies additional annotations.
+	 */
+	public static final String OPTION_ANNOTATIONS = "afw.di.annotations";
+	/** The annotations, which are known to the processor by default.
+	 */
+	public static final List<String> DEFAULT_ANNOTATIONS = InjectionIndex.DEFAULT_ANNOTATIONS;
+
+	private final Map<String,List<String>> index = new TreeMap<>();
+	private final Set<String> annotations = new HashSet<>(DEFAULT_ANNOTATIONS);
+
+	/** Creates a new instance.
+	 */
+	public InjectionIndexProcessor() {}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment pProcessingEnv) {
+		super.init(pProcessingEnv);
+		final String additionalAnnotations = pProcessingEnv.getOptions().get(OPTION_ANNOTATIONS);
+		if (additionalAnnotations != null) {
+			for (String annotation : additionalAnnotations.split(",")) {
+				final String a = annotation.trim();
+				if (a.length() > 0) {
+					annotations.add(a);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton("*");
+	}
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(OPTION_ANNOTATIONS);
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> pAnnotations, RoundEnvironment pRoundEnv) {
+		for (Element element : pRoundEnv.getRootElements()) {
+			if (element instanceof TypeElement) {
+				add((TypeElement) element);
+			}
+		}
+		if (pRoundEnv.processingOver()) {
+			write();
+		}
+		// Don't claim the annotations, other processors may be interested as well.
+		return false;
+	}
+
+	/** Adds the given type, and its nested types, to the index.
+	 * @param pType The type, which is being added.
+	 */
+	protected void add(TypeElement pType) {
+		if (pType.getKind() == ElementKind.CLASS  ||  pType.getKind() == ElementKind.ENUM) {
+			final List<String> members = new ArrayList<>();
+			for (Element element : pType.getEnclosedElements()) {
+				if (element.getKind() == ElementKind.FIELD  &&  isAnnotated(element)) {
+					members.add("f:" + element.getSimpleName());
+				} else if (element.getKind() == ElementKind.METHOD  &&  isAnnotated((ExecutableElement) element)) {
+					members.add(asKey((ExecutableElement) element));
+				}
+			}
+			index.put(processingEnv.getElementUtils().getBinaryName(pType).toString(), members);
+		}
+		for (Element element : pType.getEnclosedElements()) {
+			if (element instanceof TypeElement) {
+				add((TypeElement) element);
+			}
+		}
+	}
+
+	private boolean isAnnotated(ExecutableElement pMethod) {
+		if (isAnnotated((Element) pMethod)) {
+			return true;
+		}
+		// Parameter annotations (like @LogInject) make a method injectable, too.
+		for (VariableElement parameter : pMethod.getParameters()) {
+			if (isAnnotated(parameter)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isAnnotated(Element pElement) {
+		for (AnnotationMirror am : pElement.getAnnotationMirrors()) {
+			final TypeElement annotationType = (TypeElement) am.getAnnotationType().asElement();
+			if (annotations.contains(annotationType.getQualifiedName().toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Returns the index key of the given method, as expected by
+	 * {@link InjectionIndex#asKey(java.lang.reflect.Method)}.
+	 * @param pMethod The method, for which a key is being created.
+	 * @return The index key.
+	 */
+	protected String asKey(ExecutableElement pMethod) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("m:");
+		sb.append(pMethod.getSimpleName());
+		sb.append('(');
+		final List<? extends VariableElement> parameters = pMethod.getParameters();
+		for (int i = 0;  i < parameters.size();  i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(asCanonicalName(processingEnv.getTypeUtils().erasure(parameters.get(i).asType())));
+		}
+		sb.append(')');
+		return sb.toString();
+	}
+
+	private String asCanonicalName(TypeMirror pType) {
+		switch (pType.getKind()) {
+		case ARRAY:
+			return asCanonicalName(((ArrayType) pType).getComponentType()) + "[]";
+		case DECLARED:
+			return ((TypeElement) ((DeclaredType) pType).asElement()).getQualifiedName().toString();
+		default:
+			return pType.toString();
+		}
+	}
+
+	/** Writes the index to the resource file {@link InjectionIndex#RESOURCE_NAME}.
+	 */
+	protected void write() {
+		if (index.isEmpty()) {
+			return;
+		}
+		try {
+			final FileObject fo = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+					"", InjectionIndex.RESOURCE_NAME);
+			try (Writer w = new OutputStreamWriter(fo.openOutputStream(), StandardCharsets.UTF_8)) {
+				w.write("# Created by " + getClass().getName() + ", do not edit.\n");
+				w.write(InjectionIndex.ANNOTATIONS_KEY);
+				w.write('=');
+				w.write(String.join(",", new TreeSet<>(annotations)));
+				w.write('\n');
+				for (Map.Entry<String,List<String>> en : index.entrySet()) {
+					w.write(en.getKey());
+					w.write('=');
+					w.write(String.join(";", en.getValue()));
+					w.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Failed to write the injection index: " + e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.github.jochenw.afw.di.apt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.impl.InjectionIndex;
+
+
+class InjectionIndexProcessorTest {
+	private static final String SOURCE = "package sample;\n"
+			+ "import java.lang.annotation.*;\n"
+			+ "import java.util.List;\n"
+			+ "public class Bean {\n"
+			+ "  @Retention(RetentionPolicy.RUNTIME) public @interface MyInject {}\n"
+			+ "  private @MyInject String name;\n"
+			+ "  private String notInjected;\n"
+			+ "  private @com.github.jochenw.afw.di.api.LogInject Object log;\n"
+			+ "  @MyInject public void setValues(List<String> pList, int[] pInts, String[][] pStrings) {}\n"
+			+ "  public void setOther(String pOther) {}\n"
+			+ "  public static class Nested {\n"
+			+ "    public void setLog(@com.github.jochenw.afw.di.api.LogInject Object pLog) {}\n"
+			+ "  }\n"
+			+ "  public static class Empty {}\n"
+			+ "}\n";
+
+	@Test
+	void testProcessor() throws Exception {
+		final Path outputDir = Paths.get("target/unit-tests/InjectionIndexProcessorTest");
+		Files.createDirectories(outputDir);
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final SimpleJavaFileObject source = new SimpleJavaFileObject(java.net.URI.create("string:///sample/Bean.java"),
+				                                                     SimpleJavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean pIgnoreEncodingErrors) {
+				return SOURCE;
+			}
+		};
+		final CompilationTask task = compiler.getTask(null, null, null,
+				Arrays.asList("-d", outputDir.toString(),
+						      "-classpath", System.getProperty("java.class.path"),
+						      "-A" + InjectionIndexProcessor.OPTION_ANNOTATIONS + "=sample.Bean.MyInject"),
+				null, Collections.singletonList(source));
+		task.setProcessors(Collections.singletonList(new InjectionIndexProcessor()));
+		assertTrue(task.call().booleanValue());
+		final Path indexFile = outputDir.resolve(InjectionIndex.RESOURCE_NAME);
+		assertTrue(Files.isRegularFile(indexFile));
+		final Map<String,Set<String>> map = new HashMap<>();
+		final Map<String,Set<String>> annotations = new HashMap<>();
+		try (InputStream in = Files.newInputStream(indexFile)) {
+			InjectionIndex.read(in, map, annotations);
+		}
+		assertEquals(3, map.size());
+		assertEquals(new HashSet<>(Arrays.asList("f:name", "f:log",
+				                                 "m:setValues(java.util.List,int[],java.lang.String[][])")),
+				     map.get("sample.Bean"));
+		assertEquals(Collections.singleton("m:setLog(java.lang.Object)"), map.get("sample.Bean$Nested"));
+		assertTrue(map.get("sample.Bean$Empty").isEmpty());
+		assertNull(map.get("sample.Bean$MyInject"));
+		// The index records the annotations, which have been used to create it.
+		final Set<String> expectedAnnotations = new HashSet<>(InjectionIndexProcessor.DEFAULT_ANNOTATIONS);
+		expectedAnnotations.add("sample.Bean.MyInject");
+		assertEquals(expectedAnnotations, annotations.get("sample.Bean"));
+		assertEquals(expectedAnnotations, annotations.get("sample.Bean$Empty"));
+	}
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -13,18 +14,80 @@ import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
 import com.github.jochenw.afw.di.api.IComponentFactory.IConfiguration;
 import com.github.jochenw.afw.di.api.Scopes.Scope;
 import com.github.jochenw.afw.di.impl.BinderImpl;
+import com.github.jochenw.afw.di.impl.EagerSingletonInitializer;
 
 
 /** A builder for instances of {@link IComponentFactory}.
  * @param <T> Type of the created component factory.
  */
 public class ComponentFactoryBuilder<T extends IComponentFactory> {
+	/** An entry in the startup timing report, which describes the creation
+	 * of a single eager singleton.
+	 * @see ComponentFactoryBuilder#getStartupReport()
+	 */
+	public static class StartupTiming {
+		private final Key<?> key;
+		private final long startNanos, durationNanos;
+		private final String threadName;
+		private final boolean failed;
+
+		/** Creates a new instance.
+		 * @param pKey The key of the eager singleton binding.
+		 * @param pStartNanos Time in nanoseconds, when the creation started,
+		 *   relative to the start of all eager singleton creations.
+		 * @param pDurationNanos Time in nanoseconds, that was required to create the instance.
+		 * @param pThreadName Name of the thread, which created the instance.
+		 * @param pFailed True, if creating the instance has failed.
+		 */
+		public StartupTiming(Key<?> pKey, long pStartNanos, long pDurationNanos, String pThreadName, boolean pFailed) {
+			key = pKey;
+			startNanos = pStartNanos;
+			durationNanos = pDurationNanos;
+			threadName = pThreadName;
+			failed = pFailed;
+		}
+
+		/** Returns the key of the eager singleton binding.
+		 * @return The key of the eager singleton binding.
+		 */
+		public Key<?> getKey() { return key; }
+		/** Returns the time in nanoseconds, when the creation started,
+		 * relative to the start of all eager singleton creations.
+		 * @return The relative start time in nanoseconds.
+		 */
+		public long getStartNanos() { return startNanos; }
+		/** Returns the time in nanoseconds, that was required to create
+		 * the instance. This includes the time, that was required to
+		 * create dependencies, which are not eager singletons.
+		 * @return The duration in nanoseconds.
+		 */
+		public long getDurationNanos() { return durationNanos; }
+		/** Returns the name of the thread, which created the instance.
+		 * @return The name of the thread, which created the instance.
+		 */
+		public String getThreadName() { return threadName; }
+		/** Returns, whether creating the instance has failed.
+		 * @return True, if creating the instance has failed.
+		 */
+		public boolean isFailed() { return failed; }
+
+		@Override
+		public String toString() {
+			return key + ": start=" + startNanos/1000000 + "ms, duration=" + durationNanos/1000000
+					+ "ms, thread=" + threadName + (failed ? ", failed" : "");
+		}
+	}
+
 	private final Supplier<T> supplier;
 	private IAnnotationProvider annotationProvider;
 	private boolean immutable;
 	private List<IModule> modules;
 	private Scopes.Scope defaultScope;
 	private IComponentFactory parent;
+	private boolean generatedInjectors;
+	private boolean injectionIndex;
+	private Executor eagerSingletonExecutor;
+	private List<StartupTiming> startupReport = Collections.emptyList();
 	private final List<IBindingProvider> bindingProviders = new ArrayList<>();
 
 	/** Called by methods, which change the builders state, to ensure,
@@ -105,6 +168,22 @@ public class ComponentFactoryBuilder<T extends IComponentFactory> {
 	 * @return The component factories parent, or null.
 	 */
 	public IComponentFactory getParent() { return parent; }
+
+	/** Returns, whether the created component factory should use
+	 * generated instantiators, and injectors (based on method handles),
+	 * rather than reflection.
+	 * @return True, if generated instantiators, and injectors, should
+	 *   be used. The default value is false.
+	 */
+	public boolean isUsingGeneratedInjectors() { return generatedInjectors; }
+
+	/** Returns, whether the created component factory should use the build
+	 * time index of injection points, rather than scanning all members of a
+	 * class by reflection.
+	 * @return True, if the injection index should be used. The default value
+	 *   is false.
+	 */
+	public boolean isUsingInjectionIndex() { return injectionIndex; }
 	
 	/** Sets the builders {@link IAnnotationProvider}, which will
 	 * be used by the created component factory.
@@ -189,6 +268,80 @@ public class ComponentFactoryBuilder<T extends IComponentFactory> {
 		return this;
 	}
 	
+	/** Sets, whether the created component factory should use
+	 * generated instantiators, and injectors (based on method handles),
+	 * rather than reflection. Generated instantiators avoid the cost of
+	 * reflective invocations, and the allocation of parameter arrays,
+	 * which is mainly relevant for bindings with {@link Scopes#NO_SCOPE}.
+	 * Creating them is more expensive, though.
+	 * @param pGeneratedInjectors True, if generated instantiators, and injectors,
+	 *   should be used, otherwise false. The default value is false.
+	 * @return This builder.
+	 */
+	public ComponentFactoryBuilder<T> generatedInjectors(boolean pGeneratedInjectors) {
+		assertMutable();
+		generatedInjectors = pGeneratedInjectors;
+		return this;
+	}
+
+	/** Sets, whether the created component factory should use the build time
+	 * index of injection points, rather than scanning all members of a class by
+	 * reflection. The index is created by the annotation processor in the
+	 * module {@code afw-di-apt}. Classes, which are not part of the index (for
+	 * example, because they have been compiled without the annotation processor)
+	 * are still scanned by reflection. Note, that the index contains only members,
+	 * which carry one of the annotations, that are known to the annotation
+	 * processor.
+	 * @param pInjectionIndex True, if the injection index should be used,
+	 *   otherwise false. The default value is false.
+	 * @return This builder.
+	 */
+	public ComponentFactoryBuilder<T> injectionIndex(boolean pInjectionIndex) {
+		assertMutable();
+		injectionIndex = pInjectionIndex;
+		return this;
+	}
+
+	/** Sets the executor, which is being used to create the eager singletons.
+	 * By default (no executor), the eager singletons are created sequentially,
+	 * in the order of registration. If an executor is given, then the builder
+	 * derives a dependency graph from the injection points (constructor parameters,
+	 * fields, and methods) of the bindings implementation classes, and independent
+	 * eager singletons are created in parallel. On Java 21, or later, a
+	 * virtual thread executor
+	 * ({@code Executors.newVirtualThreadPerTaskExecutor()}) is a good choice.
+	 * The builder does not shutdown the executor.
+	 *
+	 * In parallel mode, a circular dependency between eager singletons is
+	 * reported as an {@link IllegalStateException}, because the members
+	 * of the cycle cannot be created in a well defined order. Likewise,
+	 * failures are reported deterministically: The exception refers to the
+	 * first failed eager singleton, in the order of registration.
+	 * @param pExecutor The executor, or null, in which case the eager singletons
+	 *   will be created sequentially.
+	 * @return This builder.
+	 */
+	public ComponentFactoryBuilder<T> eagerSingletonExecutor(Executor pExecutor) {
+		assertMutable();
+		eagerSingletonExecutor = pExecutor;
+		return this;
+	}
+
+	/** Returns the executor, which is being used to create the eager singletons,
+	 * or null (sequential creation).
+	 * @return The executor, which is being used to create the eager singletons,
+	 * or null.
+	 */
+	public Executor getEagerSingletonExecutor() { return eagerSingletonExecutor; }
+
+	/** Returns the startup timing report, which describes the creation of the
+	 * eager singletons, one entry per binding, in the order of registration.
+	 * The report is available after invoking {@link #build()}.
+	 * @return The startup timing report. Empty, if {@link #build()} has not
+	 *   been invoked, or if there are no eager singletons.
+	 */
+	public List<StartupTiming> getStartupReport() { return startupReport; }
+
 	/** Sets the default scope.
 	 * @param pScope The new default scope. May be null, in which
 	 *   case {@link Scopes#SINGLETON} will be used.
@@ -305,6 +458,16 @@ public class ComponentFactoryBuilder<T extends IComponentFactory> {
 					public List<IBindingProvider> getBindingProviders() {
 						return bindingProviders;
 					}
+
+					@Override
+					public boolean isUsingGeneratedInjectors() {
+						return ComponentFactoryBuilder.this.isUsingGeneratedInjectors();
+					}
+
+					@Override
+					public boolean isUsingInjectionIndex() {
+						return ComponentFactoryBuilder.this.isUsingInjectionIndex();
+					}
 			
 		};
 		final T t = supplier.get();
@@ -312,6 +475,9 @@ public class ComponentFactoryBuilder<T extends IComponentFactory> {
 		for (Consumer<IComponentFactory> finalizer : binder.getFinalizers()) {
 			finalizer.accept(t);
 		}
+		final EagerSingletonInitializer esi = new EagerSingletonInitializer(getAnnotationProvider(),
+				binder.getBindings().keySet(), binder.getImplementationClasses(), binder.getEagerSingletonKeys());
+		startupReport = Collections.unmodifiableList(esi.initialize(t, getEagerSingletonExecutor()));
 		return t;
 	}
 }
@@ -5,6 +5,7 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -147,4 +148,17 @@ public class DefaultAnnotationProvider implements IAnnotationProvider {
 		}
 		return false;
 	}
+
+	@Override
+	public Collection<String> getAnnotationNames() {
+		final List<String> names = new ArrayList<>();
+		for (IAnnotationProvider ap : getAnnotationProviders()) {
+			final Collection<String> apNames = ap.getAnnotationNames();
+			if (apNames == null) {
+				return null;
+			}
+			names.addAll(apNames);
+		}
+		return names;
+	}
 }
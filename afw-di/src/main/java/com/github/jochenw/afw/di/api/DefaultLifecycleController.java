@@ -15,10 +15,19 @@
  */
 package com.github.jochenw.afw.di.api;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.github.jochenw.afw.di.impl.DiUtils;
 
@@ -26,6 +35,18 @@ import com.github.jochenw.afw.di.impl.DiUtils;
 
 /**
  * Default implementation of the {@link ILifecycleController}.
+ *
+ * Listeners are started in the order of their {@link ILifecycleController.Phased phase},
+ * and shutted down in reverse order. By default, the listeners are started,
+ * and shutted down sequentially by the calling thread. If an
+ * {@link #setExecutor(Executor) executor} is configured, then the listeners
+ * within a phase are started, and shutted down in parallel. In that case,
+ * a {@link #setStartTimeout(Duration) start timeout} per listener, and a
+ * {@link #setShutdownTimeout(Duration) global shutdown deadline} can be
+ * applied. The controllers monitor is never held while invoking a listener,
+ * so a slow listener doesn't block concurrent invocations of
+ * {@link #addListener(Listener)}. The start, and stop durations of all
+ * listeners are available as {@link #getTimings() timings}.
  */
 public class DefaultLifecycleController implements ILifecycleController {
 	/** State of the controller.
@@ -34,6 +55,9 @@ public class DefaultLifecycleController implements ILifecycleController {
 		/** The initial state; ready for starting.
 		 */
 		WAITING,
+		/** The listeners are currently being started.
+		 */
+		STARTING,
 		/** Started, ready for shutdown.
 		 */
 		STARTED,
@@ -41,11 +65,78 @@ public class DefaultLifecycleController implements ILifecycleController {
 		 */
 		TERMINATED;
 	}
+	/** The start, and stop durations of a single listener.
+	 */
+	public static class ListenerTiming {
+		private final Listener listener;
+		private final int phase;
+		private final State state;
+		private final long startNanos, stopNanos;
+
+		/** Creates a new instance.
+		 * @param pListener The listener.
+		 * @param pPhase The listeners phase.
+		 * @param pState The listeners state.
+		 * @param pStartNanos Time in nanoseconds, that was required to start the listener, or -1.
+		 * @param pStopNanos Time in nanoseconds, that was required to shutdown the listener, or -1.
+		 */
+		public ListenerTiming(Listener pListener, int pPhase, State pState, long pStartNanos, long pStopNanos) {
+			listener = pListener;
+			phase = pPhase;
+			state = pState;
+			startNanos = pStartNanos;
+			stopNanos = pStopNanos;
+		}
+
+		/** Returns the listener.
+		 * @return The listener.
+		 */
+		public Listener getListener() { return listener; }
+		/** Returns the listeners phase.
+		 * @return The listeners phase.
+		 */
+		public int getPhase() { return phase; }
+		/** Returns the listeners state.
+		 * @return The listeners state.
+		 */
+		public State getState() { return state; }
+		/** Returns the time in nanoseconds, that was required to start
+		 * the listener, or -1, if the listener hasn't been started.
+		 * @return The start duration in nanoseconds, or -1.
+		 */
+		public long getStartNanos() { return startNanos; }
+		/** Returns the time in nanoseconds, that was required to shutdown
+		 * the listener, or -1, if the listener hasn't been shutted down.
+		 * @return The stop duration in nanoseconds, or -1.
+		 */
+		public long getStopNanos() { return stopNanos; }
+
+		@Override
+		public String toString() {
+			return listener + ": phase=" + phase + ", state=" + state + ", start="
+					+ (startNanos == -1 ? "-" : startNanos/1000000 + "ms") + ", stop="
+					+ (stopNanos == -1 ? "-" : stopNanos/1000000 + "ms");
+		}
+	}
 	private static class WrappedListener {
 		private final Listener listener;
-		private State state = State.WAITING;
-		public WrappedListener(Listener pListener) {
+		private final int phase;
+		private volatile State state = State.WAITING;
+		private boolean scheduled;
+		/** True, while the listener is being started asynchronously. Guarded by
+		 * the controllers monitor.
+		 */
+		private boolean starting;
+		/** True, if the listener must be shutted down, once the pending asynchronous
+		 * start is done. Guarded by the controllers monitor.
+		 */
+		private boolean shutdownPending;
+		private volatile boolean running;
+		private volatile long beginNanos;
+		private volatile long startNanos = -1, stopNanos = -1;
+		public WrappedListener(Listener pListener, int pPhase) {
 			listener = pListener;
+			phase = pPhase;
 		}
 	}
 
@@ -54,49 +145,180 @@ public class DefaultLifecycleController implements ILifecycleController {
 	public DefaultLifecycleController() {}
 
 	private State state = State.WAITING;
+	private Thread startingThread;
 	private final List<WrappedListener> listeners = new ArrayList<>();
+	private Executor executor;
+	private Duration startTimeout, shutdownTimeout;
+
+	/** Sets the executor, which is being used to start, and shutdown
+	 * the listeners within a phase in parallel. A bounded thread pool
+	 * is recommended. The controller does not shutdown the executor.
+	 * @param pExecutor The executor, or null (default), in which case
+	 *   the listeners are started, and shutted down sequentially by the
+	 *   calling thread.
+	 */
+	public void setExecutor(Executor pExecutor) {
+		executor = pExecutor;
+	}
+
+	/** Returns the executor, which is being used to start, and shutdown
+	 * the listeners within a phase in parallel, if any, or null.
+	 * @return The executor, if any, or null.
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/** Sets the maximum time, that a single listener may take to start.
+	 * If a listener exceeds the timeout, then {@link #start()} fails with
+	 * an {@link IllegalStateException}. The timeout is only applied, if an
+	 * {@link #setExecutor(Executor) executor} is configured. The listener,
+	 * which exceeded the timeout, continues starting in the background: It
+	 * isn't started again by a retry of {@link #start()}, and, if
+	 * {@link #shutdown()} is invoked meanwhile, it is shutted down, as soon
+	 * as it has started.
+	 * @param pTimeout The timeout, or null (default) for no timeout.
+	 */
+	public void setStartTimeout(Duration pTimeout) {
+		startTimeout = pTimeout;
+	}
+
+	/** Returns the maximum time, that a single listener may take to start,
+	 * if any, or null.
+	 * @return The start timeout, if any, or null.
+	 */
+	public Duration getStartTimeout() {
+		return startTimeout;
+	}
+
+	/** Sets the maximum time, that {@link #shutdown()} may take in total.
+	 * If the deadline is exceeded, then the controller stops waiting for the
+	 * current phase, and doesn't shutdown the remaining phases. These
+	 * listeners remain in the state {@link State#STARTED}, as reported by
+	 * {@link #getTimings()}. If no {@link #setExecutor(Executor) executor} is
+	 * configured, then the deadline is only checked between listeners.
+	 * @param pTimeout The deadline, or null (default) for no deadline.
+	 */
+	public void setShutdownTimeout(Duration pTimeout) {
+		shutdownTimeout = pTimeout;
+	}
+
+	/** Returns the maximum time, that {@link #shutdown()} may take in total,
+	 * if any, or null.
+	 * @return The shutdown deadline, if any, or null.
+	 */
+	public Duration getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+
+	/** Returns the controllers state.
+	 * @return The controllers state.
+	 */
+	public State getState() {
+		synchronized(listeners) {
+			return state;
+		}
+	}
+
+	/** Returns the start, and stop durations of all listeners, in the order of
+	 * registration.
+	 * @return The start, and stop durations of all listeners.
+	 */
+	public List<ListenerTiming> getTimings() {
+		final List<ListenerTiming> timings = new ArrayList<>();
+		synchronized(listeners) {
+			for (WrappedListener wl : listeners) {
+				timings.add(new ListenerTiming(wl.listener, wl.phase, wl.state, wl.startNanos, wl.stopNanos));
+			}
+		}
+		return timings;
+	}
 
-	
 	@Override
 	public void addListener(Listener pListener) {
 		final Listener listener = Objects.requireNonNull(pListener, "Listener");
+		final int phase;
+		if (listener instanceof Phased) {
+			phase = ((Phased) listener).getPhase();
+		} else {
+			phase = 0;
+		}
+		addListener(listener, phase);
+	}
+
+	/** Called to add a listener with the given phase to the controller.
+	 * Otherwise, this is the same as {@link #addListener(Listener)}.
+	 * @param pListener The listener, which is being added.
+	 * @param pPhase The listeners phase. Listeners with a lower phase are
+	 *   started before listeners with a higher phase, and shutted down after
+	 *   them.
+	 * @see ILifecycleController.Phased
+	 */
+	public void addListener(Listener pListener, int pPhase) {
+		final Listener listener = Objects.requireNonNull(pListener, "Listener");
+		final WrappedListener wrappedListener = new WrappedListener(listener, pPhase);
 		synchronized(listeners) {
-			final WrappedListener wrappedListener = new WrappedListener(listener);
-			if (state == State.STARTED) {
-				start(wrappedListener);
-				listeners.add(wrappedListener);
-			} else if (state == State.WAITING) {
+			if (state == State.WAITING  ||  state == State.STARTING) {
+				// If the controller is starting, then the listener will be picked up by start().
 				listeners.add(wrappedListener);
+				return;
+			} else if (state == State.TERMINATED) {
+				return;
 			}
+			wrappedListener.scheduled = true;
 		}
+		start(wrappedListener);
+		synchronized(listeners) {
+			listeners.add(wrappedListener);
+			if (state != State.TERMINATED) {
+				return;
+			}
+		}
+		// The controller has been shutted down, while the listener was starting,
+		// so the shutdown didn't see the listener.
+		shutdown(wrappedListener);
 	}
 
 	private void start(final WrappedListener pWrappedListener) {
-		try {
-			final Listener listener = pWrappedListener.listener;
-			if (listener instanceof Startable) {
-				final Startable st = (Startable) listener;
+		final Listener listener = pWrappedListener.listener;
+		if (listener instanceof Startable) {
+			final Startable st = (Startable) listener;
+			final long startTime = System.nanoTime();
+			pWrappedListener.beginNanos = startTime;
+			pWrappedListener.running = true;
+			try {
 				st.start();
-				pWrappedListener.state = State.STARTED;
+			} catch (Exception e) {
+				throw DiUtils.show(e);
+			} finally {
+				pWrappedListener.startNanos = System.nanoTime() - startTime;
 			}
-		} catch (Exception e) {
-			throw DiUtils.show(e);
+			pWrappedListener.state = State.STARTED;
 		}
 	}
 
 	@Override
 	public void removeListener(Listener pListener) {
 		final Listener listener = Objects.requireNonNull(pListener, "Listener");
+		final List<WrappedListener> removedListeners = new ArrayList<>();
 		synchronized(listeners) {
 			for (Iterator<WrappedListener> iter = listeners.iterator();  iter.hasNext();  ) {
 				final WrappedListener wrappedListener = iter.next();
 				final Listener lst = wrappedListener.listener;
 				if (lst.equals(listener)) {
 					iter.remove();
-					shutdown(wrappedListener);
+					if (!wrappedListener.starting) {
+						removedListeners.add(wrappedListener);
+					} else {
+						// The listener is still starting, after a start timeout.
+						wrappedListener.shutdownPending = true;
+					}
 				}
 			}
 		}
+		for (WrappedListener wl : removedListeners) {
+			shutdown(wl);
+		}
 	}
 
 	private void shutdown(final WrappedListener pWrappedListener) {
@@ -105,10 +327,15 @@ public class DefaultLifecycleController implements ILifecycleController {
 			pWrappedListener.state = State.TERMINATED;
 			if (lst instanceof Terminable) {
 				final Terminable trm = (Terminable) lst;
+				final long startTime = System.nanoTime();
+				pWrappedListener.beginNanos = startTime;
+				pWrappedListener.running = true;
 				try {
 					trm.shutdown();
 				} catch (Exception e) {
 					throw DiUtils.show(e);
+				} finally {
+					pWrappedListener.stopNanos = System.nanoTime() - startTime;
 				}
 			}
 		}
@@ -120,23 +347,256 @@ public class DefaultLifecycleController implements ILifecycleController {
 			if (state != State.WAITING) {
 				throw new IllegalStateException("This controller has already been started.");
 			}
-			for (WrappedListener wl : listeners) {
-				start(wl);
+			state = State.STARTING;
+			startingThread = Thread.currentThread();
+		}
+		boolean success = false;
+		try {
+			for (;;) {
+				final List<WrappedListener> pendingListeners = new ArrayList<>();
+				synchronized(listeners) {
+					checkNotTerminated();
+					for (WrappedListener wl : listeners) {
+						if (!wl.scheduled) {
+							wl.scheduled = true;
+							pendingListeners.add(wl);
+						}
+					}
+					if (pendingListeners.isEmpty()) {
+						state = State.STARTED;
+						success = true;
+						return;
+					}
+				}
+				for (List<WrappedListener> phase : getPhases(pendingListeners, false)) {
+					synchronized(listeners) {
+						checkNotTerminated();
+					}
+					final long timeoutNanos = startTimeout == null ? -1 : startTimeout.toNanos();
+					final List<Throwable> errors = run(phase, true, timeoutNanos, -1);
+					if (!errors.isEmpty()) {
+						throw asException("start", errors);
+					}
+				}
+			}
+		} finally {
+			synchronized(listeners) {
+				if (!success  &&  state != State.TERMINATED) {
+					// Allow a retry, which picks up the listeners, that haven't been started.
+					// Listeners, which are still starting after a timeout, are excluded.
+					for (WrappedListener wl : listeners) {
+						if (wl.state != State.STARTED  &&  !wl.starting) {
+							wl.scheduled = false;
+						}
+					}
+					state = State.WAITING;
+				}
+				startingThread = null;
+				listeners.notifyAll();
 			}
-			state = State.STARTED;
 		}
 	}
 
+	private void checkNotTerminated() {
+		if (state == State.TERMINATED) {
+			// A concurrent shutdown() is waiting for us: Don't start any more listeners.
+			throw new IllegalStateException("This controller has been shutted down, while starting.");
+		}
+	}
+
+	/** {@inheritDoc}
+	 * If the controller is currently {@link State#STARTING starting}, then
+	 * no more listeners are being started, and this method waits, until
+	 * the listeners, which are currently starting, are done. These are
+	 * shutted down, as usual, and {@link #start()} fails with an
+	 * {@link IllegalStateException}.
+	 * @throws IllegalStateException The controller has already been shutted
+	 *   down, or this method has been invoked by a listener, while starting.
+	 */
 	@Override
 	public void shutdown() {
+		final List<WrappedListener> list;
 		synchronized(listeners) {
 			if (state == State.TERMINATED) {
 				throw new IllegalStateException("This controller has already been shutted down.");
 			}
-			for (WrappedListener wl : listeners) {
-				shutdown(wl);
+			if (startingThread == Thread.currentThread()) {
+				throw new IllegalStateException("A listener must not shutdown the controller, while starting.");
 			}
 			state = State.TERMINATED;
+			while (startingThread != null) {
+				try {
+					listeners.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw DiUtils.show(e);
+				}
+			}
+			list = new ArrayList<>(listeners.size());
+			for (WrappedListener wl : listeners) {
+				if (!wl.starting) {
+					list.add(wl);
+				} else {
+					// The listener is still starting, after a start timeout. It will
+					// be shutted down, when done.
+					wl.shutdownPending = true;
+				}
+			}
+		}
+		// Reverse order of registration, and phases.
+		Collections.reverse(list);
+		final long deadline = shutdownTimeout == null ? -1 : System.nanoTime() + shutdownTimeout.toNanos();
+		final List<Throwable> errors = new ArrayList<>();
+		for (List<WrappedListener> phase : getPhases(list, true)) {
+			if (deadline != -1  &&  System.nanoTime() - deadline >= 0) {
+				break;
+			}
+			errors.addAll(run(phase, false, -1, deadline));
+		}
+		if (!errors.isEmpty()) {
+			throw asException("shutdown", errors);
+		}
+	}
+
+	private List<List<WrappedListener>> getPhases(List<WrappedListener> pListeners, boolean pReverse) {
+		final Map<Integer,List<WrappedListener>> phases = pReverse ? new TreeMap<>(Collections.reverseOrder()) : new TreeMap<>();
+		for (WrappedListener wl : pListeners) {
+			phases.computeIfAbsent(Integer.valueOf(wl.phase), (p) -> new ArrayList<>()).add(wl);
+		}
+		return new ArrayList<>(phases.values());
+	}
+
+	/** Starts, or shuts down the given listeners, which belong to the same phase.
+	 * @param pListeners The listeners, which are being started, or shutted down.
+	 * @param pStart True, if the listeners are being started, false, if they
+	 *   are being shutted down.
+	 * @param pTimeoutNanos The maximum time per listener in nanoseconds, or -1.
+	 * @param pDeadline The value of {@link System#nanoTime()}, when to stop waiting, or -1.
+	 * @return The list of errors, in the order of the given listeners.
+	 */
+	private List<Throwable> run(List<WrappedListener> pListeners, boolean pStart, long pTimeoutNanos, long pDeadline) {
+		final List<Throwable> errors = new ArrayList<>();
+		final Executor exec = executor;
+		if (exec == null  ||  pListeners.size() == 1  &&  pTimeoutNanos == -1  &&  pDeadline == -1) {
+			for (WrappedListener wl : pListeners) {
+				if (pDeadline != -1  &&  System.nanoTime() - pDeadline >= 0) {
+					break;
+				}
+				try {
+					if (pStart) {
+						start(wl);
+					} else {
+						shutdown(wl);
+					}
+				} catch (Throwable t) {
+					if (pStart) {
+						// Sequential start: Fail fast, as before.
+						throw t;
+					}
+					errors.add(t);
+				}
+			}
+			return errors;
+		}
+		final List<CompletableFuture<Void>> futures = new ArrayList<>(pListeners.size());
+		for (WrappedListener wl : pListeners) {
+			wl.running = false;
+			if (pStart) {
+				synchronized(listeners) {
+					wl.starting = true;
+				}
+			}
+			futures.add(CompletableFuture.runAsync(() -> {
+				if (pStart) {
+					try {
+						start(wl);
+					} finally {
+						started(wl);
+					}
+				} else {
+					shutdown(wl);
+				}
+			}, exec));
+		}
+		for (int i = 0;  i < futures.size();  i++) {
+			final WrappedListener wl = pListeners.get(i);
+			try {
+				await(wl, futures.get(i), pTimeoutNanos, pDeadline);
+			} catch (TimeoutException e) {
+				if (pStart) {
+					errors.add(new IllegalStateException("The listener " + wl.listener
+							+ " didn't start within " + startTimeout.toMillis() + " milliseconds."));
+				} else {
+					// The shutdown deadline is exceeded: Stop waiting.
+					break;
+				}
+			} catch (ExecutionException e) {
+				errors.add(e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				errors.add(e);
+				break;
+			}
+		}
+		return errors;
+	}
+
+	/** Called, when the asynchronous start of the given listener is done. This
+	 * may be after {@link #start()} has stopped waiting for the listener, because
+	 * the start timeout was exceeded.
+	 * @param pWrappedListener The listener, which has been started.
+	 */
+	private void started(WrappedListener pWrappedListener) {
+		final boolean shutdownPending;
+		synchronized(listeners) {
+			pWrappedListener.starting = false;
+			shutdownPending = pWrappedListener.shutdownPending;
+			pWrappedListener.shutdownPending = false;
+			if (pWrappedListener.state != State.STARTED) {
+				// The start has failed: Allow a retry.
+				pWrappedListener.scheduled = false;
+			}
+		}
+		if (shutdownPending) {
+			// The controller, or the listener, has been shutted down meanwhile.
+			shutdown(pWrappedListener);
+		}
+	}
+
+	private void await(WrappedListener pListener, CompletableFuture<Void> pFuture, long pTimeoutNanos, long pDeadline)
+			throws TimeoutException, ExecutionException, InterruptedException {
+		if (pDeadline != -1) {
+			pFuture.get(Math.max(0, pDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} else if (pTimeoutNanos == -1) {
+			pFuture.get();
+		} else {
+			for (;;) {
+				// The timeout applies from the moment, when the listener is actually being
+				// invoked, which may be later, if the executor is busy.
+				final long now = System.nanoTime();
+				final boolean running = pListener.running;
+				final long begin = running ? pListener.beginNanos : now;
+				try {
+					pFuture.get(Math.max(0, begin + pTimeoutNanos - now), TimeUnit.NANOSECONDS);
+					return;
+				} catch (TimeoutException e) {
+					if (running) {
+						throw e;
+					}
+				}
+			}
+		}
+	}
+
+	private RuntimeException asException(String pAction, List<Throwable> pErrors) {
+		if (pErrors.size() == 1) {
+			return DiUtils.show(pErrors.get(0));
+		}
+		final IllegalStateException ise = new IllegalStateException("Failed to " + pAction + " " + pErrors.size()
+				+ " listeners: " + pErrors.get(0).getMessage(), pErrors.get(0));
+		for (int i = 1;  i < pErrors.size();  i++) {
+			ise.addSuppressed(pErrors.get(i));
 		}
+		return ise;
 	}
 }
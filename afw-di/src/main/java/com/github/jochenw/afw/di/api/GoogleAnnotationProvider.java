@@ -3,6 +3,8 @@ package com.github.jochenw.afw.di.api;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
 
 import com.github.jochenw.afw.di.api.IComponentFactory.ISupplier;
 import com.google.inject.Inject;
@@ -62,4 +64,9 @@ public class GoogleAnnotationProvider implements IAnnotationProvider {
 	public boolean isAnnotatedWithPreDestroy(AccessibleObject pObject) {
 		return false;
 	}
+
+	@Override
+	public Collection<String> getAnnotationNames() {
+		return Collections.singleton(Inject.class.getCanonicalName());
+	}
 }
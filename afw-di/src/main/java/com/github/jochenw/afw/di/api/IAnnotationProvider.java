@@ -3,6 +3,7 @@ package com.github.jochenw.afw.di.api;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Type;
+import java.util.Collection;
 
 import com.github.jochenw.afw.di.api.IComponentFactory.ISupplier;
 
@@ -56,4 +57,14 @@ public interface IAnnotationProvider {
 	 *   given object, otherwise false.
 	 */
 	public boolean isAnnotatedWithPreDestroy(AccessibleObject pObject);
+
+	/** Returns the canonical names of the annotations, which are recognized
+	 * by {@link #isInjectable(AccessibleObject)},
+	 * {@link #isAnnotatedWithPostConstruct(AccessibleObject)}, and
+	 * {@link #isAnnotatedWithPreDestroy(AccessibleObject)}.
+	 * @return The canonical annotation names, or null, if they are unknown.
+	 *   The default implementation returns null.
+	 * @see IBindingProvider#getAnnotationNames()
+	 */
+	public default Collection<String> getAnnotationNames() { return null; }
 }
@@ -3,6 +3,7 @@ package com.github.jochenw.afw.di.api;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.function.BiConsumer;
 
 import com.github.jochenw.afw.di.impl.DiUtils;
@@ -58,6 +59,17 @@ public interface IBindingProvider {
 	 */
 	public IMethodInjector createInjector(IComponentFactory pComponentFactory, Method pMethod);
 
+	/** Returns the canonical names of the annotations, which make a field,
+	 * or method, injectable for this binding provider. An
+	 * {@link com.github.jochenw.afw.di.impl.InjectionIndex injection index}
+	 * is used only for classes, which have been indexed with (at least)
+	 * these annotations.
+	 * @return The canonical annotation names, or null, if the binding
+	 *   provider doesn't know them. In the latter case, the injection
+	 *   index is being ignored. The default implementation returns null.
+	 */
+	public default Collection<String> getAnnotationNames() { return null; }
+
 	/** Called to ensure, that {@link AccessibleObject#isAccessible()}
 	 * returns true for the given field, or method.
 	 * @param pObject The field, or method, which should be made
@@ -2,6 +2,7 @@ package com.github.jochenw.afw.di.api;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -54,6 +55,25 @@ public interface IComponentFactory {
 		 * @return The list of additional binding providers.
 		 */
 		public List<IBindingProvider> getBindingProviders();
+
+		/** Returns, whether the component factory should use generated
+		 * instantiators, and injectors (based on method handles), rather
+		 * than reflection. Component factories, which do not support
+		 * this, may ignore the setting.
+		 * @return True, if generated instantiators, and injectors, should
+		 *   be used, otherwise false. The default value is false.
+		 */
+		public default boolean isUsingGeneratedInjectors() { return false; }
+
+		/** Returns, whether the component factory should use the build time
+		 * index of injection points, which is created by the annotation
+		 * processor in {@code afw-di-apt}, rather than scanning all members
+		 * of a class by reflection. Component factories, which do not support
+		 * this, may ignore the setting.
+		 * @return True, if the injection index should be used, otherwise false.
+		 *   The default value is false.
+		 */
+		public default boolean isUsingInjectionIndex() { return false; }
 	}
 
 	/** Exception, which is thrown by {@link IComponentFactory#requireInstance(Key)},
@@ -95,9 +115,11 @@ public interface IComponentFactory {
 		 */
 		public Key<T> getKey();
 		/** Returns the bindings scope, either of {@link Scopes#SINGLETON},
-		 * {@link Scopes#EAGER_SINGLETON}, or {@link Scopes#NO_SCOPE}.
+		 * {@link Scopes#EAGER_SINGLETON}, {@link Scopes#NO_SCOPE}, or
+		 * {@link Scopes#REQUEST}.
 		 * @return The bindings scope, either of {@link Scopes#SINGLETON},
-		 * {@link Scopes#EAGER_SINGLETON}, or {@link Scopes#NO_SCOPE}.
+		 * {@link Scopes#EAGER_SINGLETON}, {@link Scopes#NO_SCOPE}, or
+		 * {@link Scopes#REQUEST}.
 		 */
 		public Scopes.Scope getScope();
 
@@ -119,6 +141,32 @@ public interface IComponentFactory {
 		}
 	}
 
+	/** Interface of a binding for {@link Scopes#SINGLETON}, or
+	 * {@link Scopes#EAGER_SINGLETON}, which provides information
+	 * about the creation of the singleton instance.
+	 */
+	public interface ISingletonMetrics {
+		/** Returns the bindings key.
+		 * @return The bindings key.
+		 */
+		public Key<?> getKey();
+		/** Returns, whether the singleton instance has already been created.
+		 * @return True, if the singleton instance has already been created.
+		 */
+		public boolean isCreated();
+		/** Returns the time, that was required to create, and initialize
+		 * the singleton instance, in nanoseconds, or -1, if the instance
+		 * has not yet been created.
+		 * @return The creation time in nanoseconds, or -1.
+		 */
+		public long getCreationTimeNanos();
+		/** Returns the number of requests, which had to wait for another
+		 * thread, while that thread was creating the singleton instance.
+		 * @return The number of contended first-access waits.
+		 */
+		public long getContendedWaits();
+	}
+
 	/** Initializes the {@link IComponentFactory} by passing the configuration.
 	 * The caller is supposed to invoke this method exactly once, before
 	 * actually using the {@link IComponentFactory}.
@@ -343,6 +391,57 @@ public interface IComponentFactory {
 	 */
 	public <T> Supplier<T> getInstantiator(Constructor<? extends T> pConstructor);
 
+	/** Creates a new child component factory. The child inherits all
+	 * bindings from this component factory, but the bindings, which
+	 * are configured by the given module, take precedence. The child
+	 * caches the instances of bindings with scope {@link Scopes#REQUEST}.
+	 * The default implementation uses the {@link ComponentFactoryBuilder}
+	 * to create a complete component factory. Implementations are
+	 * encouraged to provide a more lightweight child, which can be
+	 * created, and discarded per request.
+	 * @param pModule The module, which configures the childs local
+	 *   bindings.
+	 * @return The created child component factory.
+	 * @throws NullPointerException The parameter {@code pModule} is null.
+	 * @throws IllegalArgumentException The module configures a binding, which
+	 *   isn't supported by the child. For example, a lightweight child may
+	 *   only accept bindings, which replace bindings with scope
+	 *   {@link Scopes#REQUEST}.
+	 */
+	public default IComponentFactory newChild(IModule pModule) {
+		final IModule module = Objects.requireNonNull(pModule, "Module");
+		return builder().parent(this).module(module).build();
+	}
+
+	/** Creates a new child component factory without any local bindings.
+	 * This is equivalent to
+	 * <pre>
+	 *   newChild((b) -&gt; {})
+	 * </pre>
+	 * @return The created child component factory.
+	 * @see #newChild(IModule)
+	 */
+	public default IComponentFactory newChild() {
+		return newChild((b) -> {});
+	}
+
+	/** Returns the metrics of all singleton bindings (bindings with
+	 * {@link Scopes#SINGLETON}, or {@link Scopes#EAGER_SINGLETON}),
+	 * sorted by creation time (slowest first). This can be used to
+	 * detect singletons, which are slow to create at startup.
+	 * @return The metrics of all singleton bindings.
+	 */
+	public default List<ISingletonMetrics> getSingletonMetrics() {
+		final List<ISingletonMetrics> list = new ArrayList<>();
+		for (IBinding<Object> binding : getBindings().values()) {
+			if (binding instanceof ISingletonMetrics) {
+				list.add((ISingletonMetrics) binding);
+			}
+		}
+		list.sort((m1, m2) -> Long.compare(m2.getCreationTimeNanos(), m1.getCreationTimeNanos()));
+		return list;
+	}
+
 	/** Returns an immutable map with the component factories bindings.
 	 * This is mainly for test purposes, and should not be used
 	 * without very good reasons.
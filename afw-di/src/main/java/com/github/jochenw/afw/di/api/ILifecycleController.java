@@ -94,6 +94,19 @@ public interface ILifecycleController {
 	 */
 	public interface TerminableListener extends Startable, Terminable {
 	}
+	/** Interface of a listener, which declares the phase, in which it is
+	 * being started. Listeners with a lower phase number are started
+	 * before listeners with a higher phase number, and shutted down
+	 * after them. Listeners within the same phase may be started, and
+	 * shutted down in parallel. Listeners, which don't implement this
+	 * interface, are in phase 0.
+	 */
+	public interface Phased extends Listener {
+		/** Returns the listeners phase.
+		 * @return The listeners phase.
+		 */
+		public int getPhase();
+	}
 
 	/** Called to add a listener to the controller.
 	 * 
@@ -3,6 +3,8 @@ package com.github.jochenw.afw.di.api;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
 
 import com.github.jochenw.afw.di.api.IComponentFactory.ISupplier;
 
@@ -62,4 +64,10 @@ public class JavaxAnnotationProvider implements IAnnotationProvider {
 	public boolean isAnnotatedWithPreDestroy(AccessibleObject pObject) {
 		return pObject.isAnnotationPresent(PreDestroy.class);
 	}
+
+	@Override
+	public Collection<String> getAnnotationNames() {
+		return Arrays.asList(Inject.class.getCanonicalName(), PostConstruct.class.getCanonicalName(),
+				             PreDestroy.class.getCanonicalName());
+	}
 }
@@ -1,20 +1,28 @@
 package com.github.jochenw.afw.di.api;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 
 /** A bindings key identifies the binding. Basically, you can
  * think of the {@link IComponentFactory} as a set of key/binding
- * pairs.
+ * pairs. Keys are immutable, and cache their hash code. Equal keys
+ * can be replaced by a canonical instance by invoking {@link #intern()}.
  * @param <T> Type of the binding (Type of the instance, which is
  *   being returned by the supplier.
  */
 public class Key<T> {
+	private static final Map<Key<?>,WeakReference<Key<?>>> internedKeys =
+			Collections.synchronizedMap(new WeakHashMap<>());
 	private final Type type;
 	private final String name;
 	private final Class<? extends Annotation> annotationType;
 	private final Annotation annotation;
+	private final int hashCode;
 
 	/** Creates a new key.
 	 * @param pType Type of the created key.
@@ -27,6 +35,7 @@ public class Key<T> {
 		name = pName;
 		annotationType = pAnnotationType;
 		annotation = pAnnotation;
+		hashCode = hashCode(pType, pName, pAnnotationType, pAnnotation);
 	}
 
 	/** Returns the keys type, never null.
@@ -72,9 +81,72 @@ public class Key<T> {
 		return of(pType, pName, null, null);
 	}
 
+	/** Returns the canonical instance of this key. If an equal key has
+	 * been interned before, returns that key. Otherwise, this key is
+	 * being interned, and returned. Interned keys are held weakly, so
+	 * they do not prevent unloading of classes.
+	 * @return The canonical instance of this key.
+	 */
+	public Key<T> intern() {
+		synchronized (internedKeys) {
+			final WeakReference<Key<?>> ref = internedKeys.get(this);
+			if (ref != null) {
+				@SuppressWarnings("unchecked")
+				final Key<T> key = (Key<T>) ref.get();
+				if (key != null) {
+					return key;
+				}
+			}
+			internedKeys.put(this, new WeakReference<Key<?>>(this));
+			return this;
+		}
+	}
+
+	/** Returns the hash code of a key with the given attributes, without
+	 * actually creating the key. In other words, the following is always
+	 * true:
+	 * <pre>
+	 *   Key.of(type, name, annotationType, annotation).hashCode()
+	 *     == Key.hashCode(type, name, annotationType, annotation)
+	 * </pre>
+	 * @param pType The keys type.
+	 * @param pName The keys name.
+	 * @param pAnnotationType The keys annotation type, if any, or null.
+	 * @param pAnnotation The keys annotation, if any, or null.
+	 * @return The hash code of a key with the given attributes.
+	 */
+	public static int hashCode(Type pType, String pName, Class<? extends Annotation> pAnnotationType,
+			                   Annotation pAnnotation) {
+		// Same result as Objects.hash(annotation, annotationType, name, type), but without varargs array.
+		int result = 31 + (pAnnotation == null ? 0 : pAnnotation.hashCode());
+		result = 31*result + (pAnnotationType == null ? 0 : pAnnotationType.hashCode());
+		result = 31*result + (pName == null ? 0 : pName.hashCode());
+		return 31*result + (pType == null ? 0 : pType.hashCode());
+	}
+
+	/** Returns, whether this key has the given attributes. In other words,
+	 * this is equivalent to
+	 * <pre>
+	 *   equals(Key.of(pType, pName, pAnnotationType, pAnnotation))
+	 * </pre>
+	 * but without creating a new key.
+	 * @param pType The requested type.
+	 * @param pName The requested name.
+	 * @param pAnnotationType The requested annotation type, if any, or null.
+	 * @param pAnnotation The requested annotation, if any, or null.
+	 * @return True, if this key has the given attributes.
+	 */
+	public boolean matches(Type pType, String pName, Class<? extends Annotation> pAnnotationType,
+			               Annotation pAnnotation) {
+		return Objects.equals(type, pType)
+				&&  Objects.equals(name, pName)
+				&&  Objects.equals(annotationType, pAnnotationType)
+				&&  Objects.equals(annotation, pAnnotation);
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(annotation, annotationType, name, type);
+		return hashCode;
 	}
 
 	@Override
@@ -86,6 +158,8 @@ public class Key<T> {
 		if (getClass() != pOther.getClass())
 			return false;
 		Key<?> other = (Key<?>) pOther;
+		if (hashCode != other.hashCode)
+			return false;
 		return Objects.equals(type, other.type)
 				&&  Objects.equals(name, other.name)
 				&& Objects.equals(annotationType, other.annotationType)
@@ -2,6 +2,8 @@ package com.github.jochenw.afw.di.api;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.function.BiConsumer;
 
 import com.github.jochenw.afw.di.api.IComponentFactory.IConfiguration;
@@ -136,4 +138,9 @@ public class LogInjectBindingProvider<L> extends AbstractBindingProvider {
 	public void init(IComponentFactory pComponentFactory, IConfiguration pConfiguration) {
 		// Does nothing.
 	}
+
+	@Override
+	public Collection<String> getAnnotationNames() {
+		return Collections.singleton(LogInject.class.getCanonicalName());
+	}
 }
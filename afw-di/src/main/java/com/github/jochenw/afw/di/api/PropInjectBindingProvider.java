@@ -4,6 +4,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Properties;
 import java.util.function.BiConsumer;
 
@@ -182,4 +184,8 @@ public class PropInjectBindingProvider<P> extends AbstractBindingProvider {
 	}
 
 	
+	@Override
+	public Collection<String> getAnnotationNames() {
+		return Collections.singleton(PropInject.class.getCanonicalName());
+	}
 }
@@ -46,4 +46,15 @@ public class Scopes {
 	 * @see #EAGER_SINGLETON
 	 */
 	public static final Scope NO_SCOPE = new Scope("NO_SCOPE");
+	/** The request scope: A binding with that scope will provide
+	 * one, and the same instance per child component factory, as
+	 * created by {@link IComponentFactory#newChild(IModule)}. Typically,
+	 * a child component factory is created per request, or per
+	 * thread, and discarded afterwards, together with the cached
+	 * instances. Requesting an instance from a component factory,
+	 * which isn't a child, is an error.
+	 * @see #SINGLETON
+	 * @see #NO_SCOPE
+	 */
+	public static final Scope REQUEST = new Scope("REQUEST");
 }
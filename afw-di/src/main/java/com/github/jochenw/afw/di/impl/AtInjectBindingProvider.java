@@ -8,6 +8,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -32,6 +33,7 @@ public class AtInjectBindingProvider extends AbstractBindingProvider {
 	private ConcurrentMap<Key<Object>,IBinding<Object>> bindings;
 	private IAnnotationProvider annotationProvider;
 	private final Set<Class<? extends Annotation>> annotationClasses = new HashSet<>();
+	private boolean generatedInjectors;
 
 	/** Creates a new instance.
 	 */
@@ -64,6 +66,7 @@ public class AtInjectBindingProvider extends AbstractBindingProvider {
 			}
 		});
 		annotationProvider = pConfiguration.getAnnotationProvider();
+		generatedInjectors = pConfiguration.isUsingGeneratedInjectors();
 	}
 
 	@Override
@@ -75,6 +78,13 @@ public class AtInjectBindingProvider extends AbstractBindingProvider {
 	public BiConsumer<IComponentFactory,Object> createInjector(IComponentFactory pComponentFactory, Field pField) {
 		final Supplier<String> description = () -> "field " + pField.getName() + " in class " + pField.getDeclaringClass().getName();
 		final IBinding<Object> binding = requireBinding(pComponentFactory, pField.getGenericType(), pField, description);
+		if (generatedInjectors) {
+			try {
+				return MethodHandleInjectors.newFieldInjector(pField, binding);
+			} catch (IllegalAccessException e) {
+				// Static final fields cannot be set by a method handle. Use reflection instead.
+			}
+		}
 		return (cf,o) -> {
 			final Object value = binding.apply(cf);
 			IBindingProvider.set(pField, o, value);
@@ -98,6 +108,13 @@ public class AtInjectBindingProvider extends AbstractBindingProvider {
 			        + " in class " + pMethod.getDeclaringClass().getName();
 			parameterBindings[i] = requireBinding(pComponentFactory, parameterTypes[i], parameterAnnotations[i], description);
 		}
+		if (generatedInjectors) {
+			try {
+				return MethodHandleInjectors.newMethodInjector(pMethod, parameterBindings);
+			} catch (IllegalAccessException e) {
+				throw DiUtils.show(e);
+			}
+		}
 		return (cf,o) -> {
 			final Object[] values = new Object[parameterBindings.length];
 			for (int i = 0;  i < parameterBindings.length;  i++) {
@@ -186,4 +203,9 @@ public class AtInjectBindingProvider extends AbstractBindingProvider {
 			
 		}
 	}
+
+	@Override
+	public Collection<String> getAnnotationNames() {
+		return annotationProvider == null ? null : annotationProvider.getAnnotationNames();
+	}
 }
@@ -12,12 +12,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.github.jochenw.afw.di.api.IComponentFactory;
 import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
+import com.github.jochenw.afw.di.api.IComponentFactory.ISingletonMetrics;
 import com.github.jochenw.afw.di.api.IComponentFactory.ISupplier;
 import com.github.jochenw.afw.di.api.IModule.AnnotatableBindingBuilder;
 import com.github.jochenw.afw.di.api.IModule.IBinder;
@@ -41,6 +44,7 @@ public class BinderImpl implements IBinder {
 		private Scopes.Scope scope;
 		private boolean applied;
 		private Class<Object> selfBindingClass;
+		private Class<?> implementationClass;
 
 		/** Creates a new instance with the given key.
 		 * @param pKey The builders temporary key.
@@ -54,6 +58,7 @@ public class BinderImpl implements IBinder {
 			@SuppressWarnings("unchecked")
 			final ISupplier<Object> supplier = (ISupplier<Object>) Objects.requireNonNull(pSupplier, "Supplier");
 			this.supplier = supplier;
+			implementationClass = null;
 			return this;
 		}
 
@@ -70,7 +75,9 @@ public class BinderImpl implements IBinder {
 			final Class<Object> cl = (Class<Object>) Objects.requireNonNull(pImplType);
 			final Function<IComponentFactory,Object> function =
 					DiUtils.deferredSupplier((cf) -> () -> cf.getInstantiator(cl).get());
-			return to((cf) -> function.apply(cf));
+			final ScopableBindingBuilder<Object> sbb = to((cf) -> function.apply(cf));
+			implementationClass = cl;
+			return sbb;
 		}
 
 		@Override
@@ -79,7 +86,9 @@ public class BinderImpl implements IBinder {
 			final Constructor<Object> cons = (Constructor<Object>) Objects.requireNonNull(pConstructor);
 			final Function<IComponentFactory,Object> function =
 					DiUtils.deferredSupplier((cf) -> () -> cf.getInstantiator(cons));
-			return to((cf) -> function.apply(cf));
+			final ScopableBindingBuilder<Object> sbb = to((cf) -> function.apply(cf));
+			implementationClass = cons.getDeclaringClass();
+			return sbb;
 		}
 
 		@Override
@@ -120,6 +129,8 @@ public class BinderImpl implements IBinder {
 	private final Map<Key<Object>,IBinding<Object>> bindings = new HashMap<>();
 	private final List<BindingBuilder> builderList = new ArrayList<>();
 	private final List<Consumer<IComponentFactory>> finalizers = new ArrayList<>();
+	private final List<Key<Object>> eagerSingletonKeys = new ArrayList<>();
+	private final Map<Key<Object>,Class<?>> implementationClasses = new HashMap<>();
 	private Set<Class<?>> staticInjectionClasses;
 
 	/** Creates a new instance with the given default scope.
@@ -220,18 +231,25 @@ public class BinderImpl implements IBinder {
 				supplier = pBuilder.supplier;
 			}
 			final Scope scope = pBuilder.scope == null ? defaultScope : pBuilder.scope;
-			final ISupplier<Object> scopedSupplier;
+			final IBinding<Object> binding;
 			if (scope == Scopes.SINGLETON  ||  scope == Scopes.EAGER_SINGLETON) {
-				scopedSupplier = new SingletonSupplier<Object>(supplier);
+				binding = new SingletonBinding<Object>(key, new SingletonSupplier<Object>(key, supplier), scope);
 			} else if (scope == Scopes.NO_SCOPE) {
-				scopedSupplier = new NoScopeSupplier<Object>(supplier);
+				binding = IBinding.of(key, new NoScopeSupplier<Object>(supplier), scope);
+			} else if (scope == Scopes.REQUEST) {
+				binding = new RequestScopeBinding<Object>(key, supplier);
 			} else {
-				throw new IllegalStateException("Invalid scope: Expected SINGLETON, EAGER_SINGLETON, or NO_SCOPE, got " + scope);
+				throw new IllegalStateException("Invalid scope: Expected SINGLETON, EAGER_SINGLETON, NO_SCOPE, or REQUEST, got " + scope);
 			}
-			final IBinding<Object> binding = IBinding.of(key, scopedSupplier, scope); 
 			bindings.put(key, binding);
+			if (pBuilder.implementationClass == null) {
+				implementationClasses.remove(key);
+			} else {
+				implementationClasses.put(key, pBuilder.implementationClass);
+			}
+			eagerSingletonKeys.remove(key);
 			if (scope == Scopes.EAGER_SINGLETON) {
-				addFinalizer((cf) -> cf.getInstance(key));
+				eagerSingletonKeys.add(key);
 			}
 			pBuilder.applied = true;
 		}
@@ -257,36 +275,195 @@ public class BinderImpl implements IBinder {
 		}
 	}
 	/** Implementation of {@link ISupplier} for {@link Scopes#SINGLETON},
-	 * and {@link Scopes#EAGER_SINGLETON}.
+	 * and {@link Scopes#EAGER_SINGLETON}. After the instance has been
+	 * created, and published, the supplier performs a single volatile
+	 * read, and no locking. The instance is created exactly once:
+	 * Concurrent threads wait for the creating thread. A recursive
+	 * request from the creating thread (for example, a circular
+	 * field dependency) receives the already constructed instance,
+	 * which is still being initialized.
+	 * If the instance is requested from a {@link ChildComponentFactory},
+	 * then it is nevertheless created by the component factory, which
+	 * owns the binding, so that a singleton never depends on a childs
+	 * local bindings.
 	 * @param <T> Type of the supplied instance.
 	 */
 	public static class SingletonSupplier<T> implements ISupplier<T> {
+		private static final Object UNSET = new Object();
+		private final Key<T> key;
 		private final ISupplier<T> actualSupplier;
-		private boolean instanceValid;
-		private T instance;
+		private final ReentrantLock lock = new ReentrantLock();
+		private final AtomicLong contendedWaits = new AtomicLong();
+		private volatile Object instance = UNSET;
+		private volatile long creationTimeNanos = -1;
+		private Thread creatingThread;
+		private T earlyInstance;
 
 		/** Creates a new instance with the given actual supplier.
 		 * @param pActualSupplier The actual supplier.
 		 */
 		public SingletonSupplier(ISupplier<T> pActualSupplier) {
+			this(null, pActualSupplier);
+		}
+
+		/** Creates a new instance with the given key, and actual supplier.
+		 * @param pKey The key of the binding, which uses the supplier. May
+		 *   be null, in which case the instance is always created by the
+		 *   requesting component factory.
+		 * @param pActualSupplier The actual supplier.
+		 */
+		public SingletonSupplier(Key<T> pKey, ISupplier<T> pActualSupplier) {
+			key = pKey;
 			actualSupplier = pActualSupplier;
 		}
 
 		@Override
 		public T apply(IComponentFactory pCf) {
-			final T t;
-			synchronized(this) {
-				if (!instanceValid) {
-					final T t2 = actualSupplier.apply(pCf);
-					pCf.init(t2);
-					t = instance = t2;
-					instanceValid = true;
-				} else {
-					t = instance;
+			final Object o = instance;
+			if (o != UNSET) {
+				@SuppressWarnings("unchecked")
+				final T t = (T) o;
+				return t;
+			}
+			return create(pCf);
+		}
+
+		/** Called by {@link #apply(IComponentFactory)}, if the instance
+		 * has not yet been published. Creates the instance, or waits for
+		 * the thread, which is creating it.
+		 * @param pCf The component factory, which is being passed to
+		 *   the actual supplier.
+		 * @return The created instance.
+		 */
+		protected T create(IComponentFactory pCf) {
+			if (!lock.tryLock()) {
+				contendedWaits.incrementAndGet();
+				lock.lock();
+			}
+			try {
+				final Object o = instance;
+				if (o != UNSET) {
+					@SuppressWarnings("unchecked")
+					final T t = (T) o;
+					return t;
+				}
+				if (creatingThread != null) {
+					// A recursive request from the creating thread.
+					if (earlyInstance == null) {
+						throw new IllegalStateException("Circular dependency detected: The instance"
+								+ " is requested by itself, while being constructed.");
+					}
+					return earlyInstance;
 				}
+				final long startTime = System.nanoTime();
+				final IComponentFactory cf = key == null ? pCf : ChildComponentFactory.getOwner(pCf, key);
+				creatingThread = Thread.currentThread();
+				try {
+					final T t = actualSupplier.apply(cf);
+					earlyInstance = t;
+					cf.init(t);
+					creationTimeNanos = System.nanoTime() - startTime;
+					instance = t;
+					return t;
+				} finally {
+					creatingThread = null;
+					earlyInstance = null;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/** Returns, whether the instance has already been created.
+		 * @return True, if the instance has already been created.
+		 */
+		public boolean isCreated() { return instance != UNSET; }
+
+		/** Returns the time, that was required to create, and initialize
+		 * the instance, in nanoseconds, or -1, if the instance has not
+		 * yet been created.
+		 * @return The time, that was required to create the instance,
+		 *   in nanoseconds, or -1.
+		 */
+		public long getCreationTimeNanos() { return creationTimeNanos; }
+
+		/** Returns the number of requests, which had to wait for another
+		 * thread, while the instance was being created.
+		 * @return The number of contended first-access waits.
+		 */
+		public long getContendedWaits() { return contendedWaits.get(); }
+	}
+
+	/** Implementation of {@link IBinding}, and {@link ISingletonMetrics}
+	 * for {@link Scopes#SINGLETON}, and {@link Scopes#EAGER_SINGLETON}.
+	 * @param <T> Type of the supplied instance.
+	 */
+	public static class SingletonBinding<T> implements IBinding<T>, ISingletonMetrics {
+		private final Key<T> key;
+		private final SingletonSupplier<T> supplier;
+		private final Scope scope;
+
+		/** Creates a new instance with the given key, supplier, and scope.
+		 * @param pKey The bindings key.
+		 * @param pSupplier The bindings supplier.
+		 * @param pScope The bindings scope.
+		 */
+		public SingletonBinding(Key<T> pKey, SingletonSupplier<T> pSupplier, Scope pScope) {
+			key = pKey;
+			supplier = pSupplier;
+			scope = pScope;
+		}
+
+		@Override public T apply(IComponentFactory pCf) { return supplier.apply(pCf); }
+		@Override public Key<T> getKey() { return key; }
+		@Override public Scope getScope() { return scope; }
+		@Override public boolean isCreated() { return supplier.isCreated(); }
+		@Override public long getCreationTimeNanos() { return supplier.getCreationTimeNanos(); }
+		@Override public long getContendedWaits() { return supplier.getContendedWaits(); }
+	}
+
+	/** Implementation of {@link IBinding} for {@link Scopes#REQUEST}.
+	 * The instances are cached by the {@link ChildComponentFactory},
+	 * which is requesting them.
+	 * @param <T> Type of the supplied instance.
+	 */
+	public static class RequestScopeBinding<T> implements IBinding<T> {
+		private final Key<T> key;
+		private final ISupplier<T> actualSupplier;
+
+		/** Creates a new instance with the given key, and actual supplier.
+		 * @param pKey The bindings key.
+		 * @param pActualSupplier The actual supplier, which creates the
+		 *   instance, if it isn't cached yet.
+		 */
+		public RequestScopeBinding(Key<T> pKey, ISupplier<T> pActualSupplier) {
+			key = pKey;
+			actualSupplier = pActualSupplier;
+		}
+
+		@Override
+		public T apply(IComponentFactory pCf) {
+			if (pCf instanceof ChildComponentFactory) {
+				return ((ChildComponentFactory) pCf).getScopedInstance(this);
 			}
+			throw new IllegalStateException("No request scope is active for binding " + key
+					+ ": Bindings with scope REQUEST are only available from a child"
+					+ " component factory, as created by IComponentFactory.newChild(IModule).");
+		}
+
+		/** Creates a new instance by invoking the actual supplier, and
+		 * initializes it.
+		 * @param pCf The component factory, which is requesting the instance.
+		 * @return The created instance.
+		 */
+		public T create(IComponentFactory pCf) {
+			final T t = actualSupplier.apply(pCf);
+			pCf.init(t);
 			return t;
 		}
+
+		@Override public Key<T> getKey() { return key; }
+		@Override public Scope getScope() { return Scopes.REQUEST; }
 	}
 	
 	/** Returns the map of bindings, that have been configured.
@@ -299,6 +476,22 @@ public class BinderImpl implements IBinder {
 	 */
 	public List<Consumer<IComponentFactory>> getFinalizers() { return finalizers; }
 
+	/** Returns the keys of the bindings with scope {@link Scopes#EAGER_SINGLETON},
+	 * in the order of registration. The instances are created by the
+	 * {@link com.github.jochenw.afw.di.api.ComponentFactoryBuilder}, after the
+	 * {@link #getFinalizers() finalizers} have been invoked.
+	 * @return The keys of the eager singleton bindings.
+	 */
+	public List<Key<Object>> getEagerSingletonKeys() { return eagerSingletonKeys; }
+
+	/** Returns the implementation classes of the bindings, which have
+	 * been created by {@link BindingBuilder#toClass(Class)},
+	 * {@link BindingBuilder#toConstructor(Constructor)}, or as a
+	 * self-binding. Bindings with other suppliers are not included.
+	 * @return The implementation classes of the bindings, if known.
+	 */
+	public Map<Key<Object>,Class<?>> getImplementationClasses() { return implementationClasses; }
+
 	/** Returns the set of classes, for which static injection
 	 * has been enabled by invocations of {@link #staticInjection(Class...)}.
 	 * @return The set of classes, for which static injection
@@ -0,0 +1,122 @@
+package com.github.jochenw.afw.di.impl;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+
+import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
+import com.github.jochenw.afw.di.api.Key;
+
+
+/** A frozen, read-optimized table of bindings. The table is built once,
+ * and is immutable afterwards, so it can be read by concurrent threads
+ * without any synchronization. Internally, it is an open addressing hash
+ * table with linear probing. Lookups by type, name, annotation type, and
+ * annotation don't require the creation of a {@link Key}, and don't
+ * allocate any objects.
+ */
+public class BindingTable {
+	private final Key<Object>[] keys;
+	private final IBinding<Object>[] bindings;
+	private final int mask;
+	private final int size;
+
+	/** Creates a new instance with the given bindings.
+	 * @param pBindings The map of bindings, which is being copied into the table.
+	 */
+	public BindingTable(Map<Key<Object>,IBinding<Object>> pBindings) {
+		final Map<Key<Object>,IBinding<Object>> map = Objects.requireNonNull(pBindings, "Bindings");
+		size = map.size();
+		// Keep the load factor at, or below 0.5.
+		int capacity = 2;
+		while (capacity < 2*size) {
+			capacity <<= 1;
+		}
+		mask = capacity-1;
+		@SuppressWarnings("unchecked")
+		final Key<Object>[] keyArray = (Key<Object>[]) new Key<?>[capacity];
+		@SuppressWarnings("unchecked")
+		final IBinding<Object>[] bindingArray = (IBinding<Object>[]) new IBinding<?>[capacity];
+		for (Map.Entry<Key<Object>,IBinding<Object>> en : map.entrySet()) {
+			final Key<Object> key = en.getKey();
+			int index = spread(key.hashCode()) & mask;
+			while (keyArray[index] != null) {
+				index = (index+1) & mask;
+			}
+			keyArray[index] = key;
+			bindingArray[index] = en.getValue();
+		}
+		keys = keyArray;
+		bindings = bindingArray;
+	}
+
+	private static int spread(int pHashCode) {
+		return pHashCode ^ (pHashCode >>> 16);
+	}
+
+	/** Returns the binding with the given key, if any, or null.
+	 * @param pKey The requested bindings key.
+	 * @return The binding with the given key, if any, or null.
+	 * @throws NullPointerException The key is null.
+	 */
+	public IBinding<Object> get(Key<?> pKey) {
+		final Key<?> key = Objects.requireNonNull(pKey, "Key");
+		int index = spread(key.hashCode()) & mask;
+		for (;;) {
+			final Key<Object> k = keys[index];
+			if (k == null) {
+				return null;
+			}
+			if (k == key  ||  k.equals(key)) {
+				return bindings[index];
+			}
+			index = (index+1) & mask;
+		}
+	}
+
+	/** Returns the binding with the given type, name, annotation type,
+	 * and annotation, if any, or null. This is equivalent to
+	 * <pre>
+	 *   get(Key.of(pType, pName, pAnnotationType, pAnnotation))
+	 * </pre>
+	 * but doesn't create a {@link Key}.
+	 * @param pType The requested bindings type.
+	 * @param pName The requested bindings name.
+	 * @param pAnnotationType The requested bindings annotation type, if any, or null.
+	 * @param pAnnotation The requested bindings annotation, if any, or null.
+	 * @return The requested binding, if any, or null.
+	 */
+	public IBinding<Object> get(Type pType, String pName, Class<? extends Annotation> pAnnotationType,
+			                    Annotation pAnnotation) {
+		final int hashCode = Key.hashCode(pType, pName, pAnnotationType, pAnnotation);
+		int index = spread(hashCode) & mask;
+		for (;;) {
+			final Key<Object> k = keys[index];
+			if (k == null) {
+				return null;
+			}
+			if (k.hashCode() == hashCode  &&  k.matches(pType, pName, pAnnotationType, pAnnotation)) {
+				return bindings[index];
+			}
+			index = (index+1) & mask;
+		}
+	}
+
+	/** Returns the binding with the given type, and name, without
+	 * annotation type, or annotation, if any, or null.
+	 * @param pType The requested bindings type.
+	 * @param pName The requested bindings name.
+	 * @return The requested binding, if any, or null.
+	 */
+	public IBinding<Object> get(Type pType, String pName) {
+		return get(pType, pName, null, null);
+	}
+
+	/** Returns the number of bindings in the table.
+	 * @return The number of bindings in the table.
+	 */
+	public int size() {
+		return size;
+	}
+}
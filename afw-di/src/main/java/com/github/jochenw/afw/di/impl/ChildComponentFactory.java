@@ -0,0 +1,301 @@
+package com.github.jochenw.afw.di.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.jochenw.afw.di.api.IComponentFactory;
+import com.github.jochenw.afw.di.api.IModule;
+import com.github.jochenw.afw.di.api.Key;
+import com.github.jochenw.afw.di.api.Scopes;
+import com.github.jochenw.afw.di.impl.BinderImpl.RequestScopeBinding;
+
+
+/** A lightweight child of a {@link SimpleComponentFactory}, as created by
+ * {@link SimpleComponentFactory#newChild(IModule)}. The child shares its
+ * parents binding table, and metadata cache. Only the (typically few) local
+ * bindings, which are configured by the childs module, are created from
+ * scratch. This makes the child cheap enough to be created, and discarded
+ * per request, or per thread. The child caches the instances of bindings
+ * with scope {@link Scopes#REQUEST}, including the instances of local
+ * bindings.
+ *
+ * Instances of inherited singleton bindings are always created by the
+ * parent, so that a singleton never depends on a childs local bindings.
+ * Note, that the injection points of a class are resolved once, by the
+ * {@link SimpleComponentFactory}. As a consequence, a local binding would
+ * be invisible to injection points, unless it replaces a binding with scope
+ * {@link Scopes#REQUEST}. Therefore, a local binding <em>must</em> replace
+ * such a binding, otherwise an {@link IllegalArgumentException} is thrown.
+ * In other words: A key, which is being injected, must be declared in the
+ * parent, and it can be seeded by the child. For example:
+ * <pre>
+ *   final IComponentFactory cf = IComponentFactory.builder().module((b) -&gt; {
+ *       b.bind(Request.class).toSupplier(() -&gt; {
+ *           throw new IllegalStateException("Request not seeded");
+ *       }).in(Scopes.REQUEST);
+ *       b.bind(RequestHandler.class).in(Scopes.REQUEST);
+ *   }).build();
+ *   // Per request:
+ *   final IComponentFactory requestCf = cf.newChild((b) -&gt; b.bind(Request.class).toInstance(request));
+ *   requestCf.requireInstance(RequestHandler.class).handle();
+ * </pre>
+ * A child is typically used by a single thread. However, it is safe to
+ * use a child concurrently: The instance of a binding with scope
+ * {@link Scopes#REQUEST} is created only once per child, while other
+ * threads, which request an instance from the same child, are waiting.
+ */
+public class ChildComponentFactory implements IComponentFactory {
+	private final SimpleComponentFactory root;
+	private final IComponentFactory parent;
+	private final Map<Key<Object>,IBinding<Object>> localBindingMap;
+	private final BindingTable localBindings;
+	private final ConcurrentMap<Key<?>,Object> scopedInstances = new ConcurrentHashMap<>();
+
+	/** Creates a new instance.
+	 * @param pRoot The {@link SimpleComponentFactory}, which provides the
+	 *   metadata cache.
+	 * @param pParent The parent component factory, either of the root, or
+	 *   another child.
+	 * @param pModule The module, which configures the local bindings.
+	 */
+	public ChildComponentFactory(SimpleComponentFactory pRoot, IComponentFactory pParent, IModule pModule) {
+		root = Objects.requireNonNull(pRoot, "Root");
+		parent = Objects.requireNonNull(pParent, "Parent");
+		final IModule module = Objects.requireNonNull(pModule, "Module");
+		final BinderImpl binder = new BinderImpl(root.getConfiguration().getDefaultScope());
+		module.configure(binder);
+		binder.validate();
+		final Map<Key<Object>,IBinding<Object>> map = binder.getBindings();
+		for (Key<Object> key : map.keySet()) {
+			final IBinding<Object> inheritedBinding = root.getBinding(key);
+			if (inheritedBinding == null  ||  inheritedBinding.getScope() != Scopes.REQUEST) {
+				throw new IllegalArgumentException("Invalid local binding " + key
+						+ ": A child component factory may only replace bindings with scope REQUEST,"
+						+ " because injection points are resolved by the root component factory.");
+			}
+		}
+		localBindingMap = map;
+		localBindings = new BindingTable(map);
+		for (Consumer<IComponentFactory> finalizer : binder.getFinalizers()) {
+			finalizer.accept(this);
+		}
+		for (Key<Object> key : binder.getEagerSingletonKeys()) {
+			localBindings.get(key).apply(this);
+		}
+	}
+
+	/** Returns the component factory, which is supposed to create the
+	 * instance of the given singleton binding: If the given component
+	 * factory is a child, then this is the nearest component factory
+	 * in the chain of parents, which has a binding with the given key.
+	 * Likewise, if the binding has been inherited from a
+	 * {@link IComponentFactory.IConfiguration#getParent() configured parent},
+	 * then the parent owns the binding. Otherwise, it is the given component
+	 * factory itself.
+	 * @param pCf The component factory, which requests the instance.
+	 * @param pKey The singleton bindings key.
+	 * @return The component factory, which owns the binding.
+	 */
+	public static IComponentFactory getOwner(IComponentFactory pCf, Key<?> pKey) {
+		IComponentFactory cf = pCf;
+		for (;;) {
+			if (cf instanceof ChildComponentFactory) {
+				final ChildComponentFactory child = (ChildComponentFactory) cf;
+				if (child.localBindings.get(pKey) != null) {
+					return child;
+				}
+				cf = child.parent;
+			} else if (cf instanceof SimpleComponentFactory) {
+				final IComponentFactory parent = ((SimpleComponentFactory) cf).getInheritedOwner(pKey);
+				if (parent == null) {
+					return cf;
+				}
+				cf = parent;
+			} else {
+				return cf;
+			}
+		}
+	}
+
+	/** Returns the cached instance of the given binding with scope
+	 * {@link Scopes#REQUEST}, creating it, if necessary. If this child,
+	 * or one of its parent childs, has a local binding with the same key,
+	 * then that binding takes precedence. In either case, the instance is
+	 * cached by this child.
+	 * @param pBinding The binding, which is being requested.
+	 * @param <T> Type of the requested instance.
+	 * @return The requested instance.
+	 */
+	public <T> T getScopedInstance(RequestScopeBinding<T> pBinding) {
+		final Key<T> key = pBinding.getKey();
+		final Object o = scopedInstances.get(key);
+		if (o != null) {
+			@SuppressWarnings("unchecked")
+			final T t = (T) o;
+			return t;
+		}
+		/* Don't use computeIfAbsent: Creating the instance may request
+		 * other instances from this scope. The lock is reentrant, and
+		 * ensures, that the instance is created only once.
+		 */
+		synchronized(scopedInstances) {
+			final Object existing = scopedInstances.get(key);
+			if (existing != null) {
+				@SuppressWarnings("unchecked")
+				final T t = (T) existing;
+				return t;
+			}
+			final T t = Objects.requireNonNull(newScopedInstance(pBinding),
+					() -> "The binding " + key + " supplied a null instance.");
+			scopedInstances.put(key, t);
+			return t;
+		}
+	}
+
+	private <T> T newScopedInstance(RequestScopeBinding<T> pBinding) {
+		final Key<T> key = pBinding.getKey();
+		IComponentFactory cf = this;
+		while (cf instanceof ChildComponentFactory) {
+			final ChildComponentFactory child = (ChildComponentFactory) cf;
+			final IBinding<Object> localBinding = child.localBindings.get(key);
+			if (localBinding instanceof RequestScopeBinding) {
+				@SuppressWarnings("unchecked")
+				final RequestScopeBinding<T> rsb = (RequestScopeBinding<T>) localBinding;
+				return rsb.create(this);
+			} else if (localBinding != null) {
+				@SuppressWarnings("unchecked")
+				final T t = (T) localBinding.apply(this);
+				return t;
+			}
+			cf = child.parent;
+		}
+		return pBinding.create(this);
+	}
+
+	/** Returns the parent component factory.
+	 * @return The parent component factory.
+	 */
+	public IComponentFactory getParent() {
+		return parent;
+	}
+
+	@Override
+	public void init(IConfiguration pConfiguration) {
+		throw new IllegalStateException("A child component factory is initialized by its parent.");
+	}
+
+	@Override
+	public <T> IBinding<T> getBinding(Key<T> pKey) {
+		final IBinding<Object> binding = localBindings.get(pKey);
+		if (binding == null) {
+			return parent.getBinding(pKey);
+		} else {
+			@SuppressWarnings("unchecked")
+			final IBinding<T> b = (IBinding<T>) binding;
+			return b;
+		}
+	}
+
+	/** Returns the binding with the given type, and name, without
+	 * annotation type, or annotation, if any, or null.
+	 * @param pType The requested bindings type.
+	 * @param pName The requested bindings name.
+	 * @return The requested binding, if any, or null.
+	 */
+	protected IBinding<Object> getBinding(Type pType, String pName) {
+		final IBinding<Object> binding = localBindings.get(pType, pName);
+		if (binding != null) {
+			return binding;
+		}
+		if (parent instanceof ChildComponentFactory) {
+			return ((ChildComponentFactory) parent).getBinding(pType, pName);
+		} else {
+			return root.getBinding(pType, pName);
+		}
+	}
+
+	@Override
+	public <T> T getInstance(Type pType, String pName) {
+		final IBinding<Object> binding = getBinding(Objects.requireNonNull(pType, "Type"),
+				                                    Objects.requireNonNull(pName, "Name"));
+		if (binding == null) {
+			return null;
+		} else {
+			@SuppressWarnings("unchecked")
+			final T t = (T) binding.apply(this);
+			return t;
+		}
+	}
+
+	@Override
+	public <T> T requireInstance(Type pType, String pName) {
+		final IBinding<Object> binding = getBinding(Objects.requireNonNull(pType, "Type"),
+				                                    Objects.requireNonNull(pName, "Name"));
+		if (binding == null) {
+			final Key<T> key = Key.of(pType, pName);
+			throw new NoSuchBindingException(key, "No such binding has been registered: " + key);
+		} else {
+			@SuppressWarnings("unchecked")
+			final T t = (T) binding.apply(this);
+			return t;
+		}
+	}
+
+	@Override
+	public <T> T requireInstance(Type pType) {
+		return requireInstance(pType, "");
+	}
+
+	@Override
+	public <T,S extends T> S requireInstance(Class<T> pType, String pName) {
+		return requireInstance((Type) pType, pName);
+	}
+
+	@Override
+	public void init(Object pObject) {
+		final SimpleComponentFactory.ClassMetaData cmd = root.getMetaData(Objects.requireNonNull(pObject, "Object").getClass());
+		cmd.getInitializer().accept(this, pObject);
+	}
+
+	@Override
+	public <T> Supplier<T> getInstantiator(Class<? extends T> pImplType) {
+		final SimpleComponentFactory.ClassMetaData cmd = root.getMetaData(Objects.requireNonNull(pImplType, "ImplType"));
+		final Function<IComponentFactory,Object> instantiator = cmd.getInstantiator();
+		return () -> {
+			@SuppressWarnings("unchecked")
+			final T t = (T) instantiator.apply(this);
+			return t;
+		};
+	}
+
+	@Override
+	public <T> Supplier<T> getInstantiator(Constructor<? extends T> pConstructor) {
+		final Function<IComponentFactory,Object> instantiator = root.newInstantiator(pConstructor);
+		return () -> {
+			@SuppressWarnings("unchecked")
+			final T t = (T) instantiator.apply(this);
+			return t;
+		};
+	}
+
+	@Override
+	public IComponentFactory newChild(IModule pModule) {
+		return new ChildComponentFactory(root, this, pModule);
+	}
+
+	@Override
+	public Map<Key<Object>, IBinding<Object>> getBindings() {
+		final Map<Key<Object>,IBinding<Object>> map = new HashMap<>(parent.getBindings());
+		map.putAll(localBindingMap);
+		return Collections.unmodifiableMap(map);
+	}
+}
@@ -2,6 +2,9 @@ package com.github.jochenw.afw.di.impl;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -156,4 +159,17 @@ public class DefaultBindingProvider<L,P> extends AbstractBindingProvider {
 		propInjectBindingProvider = pComponentFactory.getInstance(PropInjectBindingProvider.class);
 		lifeCycleController = pComponentFactory.getInstance(ILifecycleController.class);
 	}
+
+	@Override
+	public Collection<String> getAnnotationNames() {
+		// The annotation provider supplies @PostConstruct, and @PreDestroy.
+		final Collection<String> names = annotationProvider == null ? null : annotationProvider.getAnnotationNames();
+		if (names == null) {
+			return null;
+		}
+		final List<String> list = new ArrayList<>(names);
+		list.add(LogInject.class.getCanonicalName());
+		list.add(PropInject.class.getCanonicalName());
+		return list;
+	}
 }
@@ -59,7 +59,9 @@ public class DiUtils {
 	 * @param pSupplierProvider An object, which provides the
 	 *   supplier of the actual instance. This object will
 	 *   be invoked when the lazy supplier is invoked for
-	 *   the first time.
+	 *   the first time. The created supplier is cached for the
+	 *   first input only: Other inputs (for example, a
+	 *   {@link ChildComponentFactory}) invoke the provider again.
 	 * @return The created, lazy, suppplier.
 	 * @param <I> Type of the lazy suppliers parameter.
 	 * @param <O> Type of the lazy suppliers output.
@@ -76,6 +78,7 @@ public class DiUtils {
 	public static class DeferredSupplier<I,O> implements Function<I,O> {
 		private final Function<I,Supplier<O>> supplierProvider;
 		private Supplier<O> supplier;
+		private I input;
 		/** Creates a new instance.
 		 * @param pSupplierProvider The provider, which is being
 		 *   used internally to create the actual supplier. The
@@ -87,15 +90,25 @@ public class DiUtils {
 		}
 		@Override
 		public O apply(I pInput) {
+			if (pInput instanceof ChildComponentFactory) {
+				// Child component factories are short lived, don't keep a reference.
+				return supplierProvider.apply(pInput).get();
+			}
 			final Supplier<O> supp;
 			synchronized(this) {
 				if (supplier == null) {
 					supp = supplierProvider.apply(pInput);
 					supplier = supp;
-				} else {
+					input = pInput;
+				} else if (input == pInput) {
 					supp = supplier;
+				} else {
+					supp = null;
 				}
 			}
+			if (supp == null) {
+				return supplierProvider.apply(pInput).get();
+			}
 			return supp.get();
 		}
 	}
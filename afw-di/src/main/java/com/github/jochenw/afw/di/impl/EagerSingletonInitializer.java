@@ -0,0 +1,289 @@
+package com.github.jochenw.afw.di.impl;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import com.github.jochenw.afw.di.api.ComponentFactoryBuilder.StartupTiming;
+import com.github.jochenw.afw.di.api.IAnnotationProvider;
+import com.github.jochenw.afw.di.api.IComponentFactory;
+import com.github.jochenw.afw.di.api.Key;
+
+
+/** This class is used by the {@link com.github.jochenw.afw.di.api.ComponentFactoryBuilder}
+ * to create the instances of the bindings with scope
+ * {@link com.github.jochenw.afw.di.api.Scopes#EAGER_SINGLETON}.
+ * If an {@link Executor} is given, then a dependency graph is
+ * derived from the injection points (constructor parameters, fields,
+ * and methods) of the bindings implementation classes, and independent
+ * eager singletons are created in parallel.
+ */
+public class EagerSingletonInitializer {
+	private final IAnnotationProvider annotationProvider;
+	private final Map<Key<Object>,Class<?>> implementationClasses;
+	private final List<Key<Object>> eagerSingletonKeys;
+	private final Set<Key<Object>> eagerSingletonKeySet;
+	private final Map<Type,List<Key<Object>>> keysByType = new HashMap<>();
+
+	/** Creates a new instance.
+	 * @param pAnnotationProvider The annotation provider, which is used to
+	 *   detect injection points.
+	 * @param pBindingKeys The keys of all bindings.
+	 * @param pImplementationClasses The implementation classes of the bindings,
+	 *   as far as they are known.
+	 * @param pEagerSingletonKeys The keys of the eager singletons, in the
+	 *   order of registration.
+	 */
+	public EagerSingletonInitializer(IAnnotationProvider pAnnotationProvider,
+			                         Iterable<Key<Object>> pBindingKeys,
+			                         Map<Key<Object>,Class<?>> pImplementationClasses,
+			                         List<Key<Object>> pEagerSingletonKeys) {
+		annotationProvider = Objects.requireNonNull(pAnnotationProvider, "AnnotationProvider");
+		implementationClasses = Objects.requireNonNull(pImplementationClasses, "ImplementationClasses");
+		eagerSingletonKeys = Objects.requireNonNull(pEagerSingletonKeys, "EagerSingletonKeys");
+		eagerSingletonKeySet = new HashSet<>(eagerSingletonKeys);
+		for (Key<Object> key : Objects.requireNonNull(pBindingKeys, "BindingKeys")) {
+			keysByType.computeIfAbsent(key.getType(), (t) -> new ArrayList<>()).add(key);
+		}
+	}
+
+	/** Creates the eager singletons.
+	 * @param pComponentFactory The component factory, which creates the instances.
+	 * @param pExecutor The executor, which is being used to create independent
+	 *   eager singletons in parallel, or null, in which case the eager singletons
+	 *   are created sequentially, in the order of registration.
+	 * @return A timing report with one entry per eager singleton, in the
+	 *   order of registration.
+	 * @throws IllegalStateException Parallel mode only: Creating at least one
+	 *   eager singleton has failed, or a circular dependency between eager
+	 *   singletons has been detected. If multiple eager singletons fail, then
+	 *   the exception refers to the first one in the order of registration,
+	 *   and the others are added as suppressed exceptions. Eager singletons,
+	 *   which depend on a failed eager singleton, are not created at all.
+	 *   In sequential mode, the first exception is thrown as it is.
+	 */
+	public List<StartupTiming> initialize(IComponentFactory pComponentFactory, Executor pExecutor) {
+		final IComponentFactory cf = Objects.requireNonNull(pComponentFactory, "ComponentFactory");
+		final long startTime = System.nanoTime();
+		final Map<Key<Object>,StartupTiming> timings = new ConcurrentHashMap<>();
+		final Map<Key<Object>,Throwable> errors = new ConcurrentHashMap<>();
+		final Consumer<Key<Object>> creator = (k) -> {
+			final long start = System.nanoTime();
+			try {
+				cf.getInstance(k);
+			} catch (Throwable t) {
+				errors.put(k, t);
+				throw t;
+			} finally {
+				final long end = System.nanoTime();
+				timings.put(k, new StartupTiming(k, start-startTime, end-start,
+						                         Thread.currentThread().getName(), errors.containsKey(k)));
+			}
+		};
+		if (pExecutor == null) {
+			for (Key<Object> key : eagerSingletonKeys) {
+				creator.accept(key);
+			}
+		} else {
+			final Map<Key<Object>,List<Key<Object>>> graph = getDependencyGraph();
+			final List<Key<Object>> order = sort(graph);
+			final Map<Key<Object>,CompletableFuture<Void>> futures = new HashMap<>();
+			for (Key<Object> key : order) {
+				final List<Key<Object>> dependencies = graph.get(key);
+				final CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.size()];
+				for (int i = 0;  i < dependencyFutures.length;  i++) {
+					dependencyFutures[i] = futures.get(dependencies.get(i));
+				}
+				final CompletableFuture<Void> future = CompletableFuture.allOf(dependencyFutures)
+						.thenRunAsync(() -> creator.accept(key), pExecutor);
+				futures.put(key, future);
+			}
+			for (CompletableFuture<Void> future : futures.values()) {
+				try {
+					future.join();
+				} catch (CompletionException e) {
+					// Ignore this, the error is reported below.
+				}
+			}
+		}
+		IllegalStateException ise = null;
+		for (Key<Object> key : eagerSingletonKeys) {
+			final Throwable t = errors.get(key);
+			if (t != null) {
+				if (ise == null) {
+					ise = new IllegalStateException("Failed to create the eager singleton " + key + ": " + t.getMessage(), t);
+				} else {
+					ise.addSuppressed(t);
+				}
+			}
+		}
+		if (ise != null) {
+			throw ise;
+		}
+		final List<StartupTiming> report = new ArrayList<>(eagerSingletonKeys.size());
+		for (Key<Object> key : eagerSingletonKeys) {
+			report.add(timings.get(key));
+		}
+		return report;
+	}
+
+	/** Returns the dependency graph of the eager singletons. For every eager
+	 * singleton, the graph contains the list of eager singletons, on which it
+	 * depends, either directly, or indirectly, through other bindings.
+	 * Dependencies through bindings with an unknown implementation class
+	 * (for example, bindings to a supplier, or an instance) cannot be detected.
+	 * Dependencies through a provider ({@code Provider<T>}) are ignored, because
+	 * these are resolved lazily.
+	 * @return The dependency graph of the eager singletons, in the order of
+	 *   registration.
+	 */
+	public Map<Key<Object>,List<Key<Object>>> getDependencyGraph() {
+		final Map<Key<Object>,List<Key<Object>>> directDependencies = new HashMap<>();
+		final Map<Key<Object>,List<Key<Object>>> graph = new LinkedHashMap<>();
+		for (Key<Object> key : eagerSingletonKeys) {
+			final List<Key<Object>> dependencies = new ArrayList<>();
+			final Set<Key<Object>> visited = new HashSet<>();
+			visited.add(key);
+			collectEagerDependencies(key, directDependencies, visited, dependencies);
+			graph.put(key, dependencies);
+		}
+		return graph;
+	}
+
+	private void collectEagerDependencies(Key<Object> pKey, Map<Key<Object>,List<Key<Object>>> pDirectDependencies,
+			                              Set<Key<Object>> pVisited, List<Key<Object>> pEagerDependencies) {
+		final List<Key<Object>> dependencies = pDirectDependencies.computeIfAbsent(pKey, this::findDependencies);
+		for (Key<Object> dependency : dependencies) {
+			if (pVisited.add(dependency)) {
+				if (eagerSingletonKeySet.contains(dependency)) {
+					pEagerDependencies.add(dependency);
+				} else {
+					collectEagerDependencies(dependency, pDirectDependencies, pVisited, pEagerDependencies);
+				}
+			}
+		}
+	}
+
+	/** Returns the keys of the bindings, that the given bindings implementation
+	 * class depends on.
+	 * @param pKey The key of the binding, which is being analyzed.
+	 * @return The keys of the bindings, on which the given binding depends.
+	 *   Empty, if the implementation class is unknown.
+	 */
+	protected List<Key<Object>> findDependencies(Key<Object> pKey) {
+		final Class<?> implementationClass = implementationClasses.get(pKey);
+		if (implementationClass == null) {
+			return Collections.emptyList();
+		}
+		final List<Key<Object>> list = new ArrayList<>();
+		for (Constructor<?> constructor : implementationClass.getDeclaredConstructors()) {
+			if (annotationProvider.isInjectable(constructor)) {
+				addDependencies(constructor.getGenericParameterTypes(), constructor.getAnnotatedParameterTypes(), list);
+				break;
+			}
+		}
+		Class<?> cl = implementationClass;
+		while (cl != null  &&  cl != Object.class) {
+			for (Field field : cl.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())  &&  annotationProvider.isInjectable(field)) {
+					addDependency(field.getGenericType(), field, list);
+				}
+			}
+			for (Method method : cl.getDeclaredMethods()) {
+				if (!Modifier.isStatic(method.getModifiers())  &&  !Modifier.isAbstract(method.getModifiers())
+						&&  annotationProvider.isInjectable(method)) {
+					addDependencies(method.getGenericParameterTypes(), method.getAnnotatedParameterTypes(), list);
+				}
+			}
+			cl = cl.getSuperclass();
+		}
+		return list;
+	}
+
+	private void addDependencies(Type[] pTypes, AnnotatedType[] pAnnotations, List<Key<Object>> pList) {
+		for (int i = 0;  i < pTypes.length;  i++) {
+			addDependency(pTypes[i], pAnnotations[i], pList);
+		}
+	}
+
+	private void addDependency(Type pType, AnnotatedElement pAnnotations, List<Key<Object>> pList) {
+		if (pType instanceof ParameterizedType) {
+			final Type rawType = ((ParameterizedType) pType).getRawType();
+			if (annotationProvider.getProvider(rawType, (cf) -> null) != null) {
+				// A provider is resolved lazily, so this is no dependency at startup.
+				return;
+			}
+		}
+		final String namedValue = annotationProvider.getNamedValue(pAnnotations);
+		final String name = namedValue == null ? "" : namedValue;
+		final List<Key<Object>> keys = keysByType.get(pType);
+		if (keys != null) {
+			for (Key<Object> key : keys) {
+				if (name.equals(key.getName())  &&  !pList.contains(key)) {
+					pList.add(key);
+				}
+			}
+		}
+	}
+
+	/** Sorts the eager singletons topologically, so that every eager
+	 * singleton follows its dependencies. The sort is stable with
+	 * regard to the order of registration.
+	 * @param pGraph The dependency graph.
+	 * @return The sorted list of eager singletons.
+	 * @throws IllegalStateException A circular dependency was detected.
+	 */
+	protected List<Key<Object>> sort(Map<Key<Object>,List<Key<Object>>> pGraph) {
+		final List<Key<Object>> sorted = new ArrayList<>(pGraph.size());
+		final Set<Key<Object>> done = new HashSet<>();
+		final List<Key<Object>> path = new ArrayList<>();
+		for (Key<Object> key : pGraph.keySet()) {
+			sort(key, pGraph, done, path, sorted);
+		}
+		return sorted;
+	}
+
+	private void sort(Key<Object> pKey, Map<Key<Object>,List<Key<Object>>> pGraph, Set<Key<Object>> pDone,
+			          List<Key<Object>> pPath, List<Key<Object>> pSorted) {
+		if (pDone.contains(pKey)) {
+			return;
+		}
+		final int index = pPath.indexOf(pKey);
+		if (index != -1) {
+			final StringBuilder sb = new StringBuilder();
+			sb.append("Circular dependency between eager singletons detected: ");
+			for (int i = index;  i < pPath.size();  i++) {
+				sb.append(pPath.get(i));
+				sb.append(" -> ");
+			}
+			sb.append(pKey);
+			throw new IllegalStateException(sb.toString());
+		}
+		pPath.add(pKey);
+		for (Key<Object> dependency : pGraph.get(pKey)) {
+			sort(dependency, pGraph, pDone, pPath, pSorted);
+		}
+		pPath.remove(pPath.size()-1);
+		pDone.add(pKey);
+		pSorted.add(pKey);
+	}
+}
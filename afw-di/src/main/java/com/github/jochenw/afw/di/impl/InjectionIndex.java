@@ -0,0 +1,258 @@
+package com.github.jochenw.afw.di.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+
+/** An index of injection points, which has been created at build time
+ * by the annotation processor in the module {@code afw-di-apt}. For every
+ * indexed class, the index contains the set of declared fields, and
+ * methods, which carry an injection related annotation. The
+ * {@link SimpleComponentFactory} uses the index (if enabled) to avoid
+ * querying all binding providers for all members of a class. Classes,
+ * which are not in the index, are still scanned by reflection.
+ *
+ * The index is stored in resource files named {@link #RESOURCE_NAME}.
+ * Every line in such a file has the format
+ * <pre>
+ *   className=member;member;...
+ * </pre>
+ * where the class name is the binary class name, and the members
+ * are given as {@code f:fieldName}, or
+ * {@code m:methodName(parameterType,...)}, with the parameter types
+ * being canonical names of the erased parameter types. An empty
+ * member list indicates a class without injection points. Lines
+ * starting with '#' are ignored.
+ *
+ * The line {@code @annotations=annotation,...}, if present, specifies
+ * the canonical names of the annotations, which have been used to
+ * create the file. Otherwise, the {@link #DEFAULT_ANNOTATIONS} are
+ * assumed. A component factory may be configured with additional
+ * annotations (for example, by adding a custom binding provider).
+ * In that case, the index is ignored for all classes, which have been
+ * indexed without these annotations, and those classes are scanned by
+ * reflection.
+ */
+public class InjectionIndex {
+	/** Name of the resource files, which contain the index.
+	 */
+	public static final String RESOURCE_NAME = "META-INF/afw-di/injection-index.txt";
+	/** Key of the line, which specifies the annotations, that have been used
+	 * to create an index file.
+	 */
+	public static final String ANNOTATIONS_KEY = "@annotations";
+	/** The annotations, which are being used to create an index file by default.
+	 */
+	public static final List<String> DEFAULT_ANNOTATIONS = Collections.unmodifiableList(Arrays.asList(
+			"javax.inject.Inject", "jakarta.inject.Inject", "com.google.inject.Inject",
+			"javax.annotation.PostConstruct", "javax.annotation.PreDestroy",
+			"jakarta.annotation.PostConstruct", "jakarta.annotation.PreDestroy",
+			"com.github.jochenw.afw.di.api.LogInject", "com.github.jochenw.afw.di.api.PropInject"));
+	private static final Set<String> DEFAULT_ANNOTATION_SET = new HashSet<>(DEFAULT_ANNOTATIONS);
+	private static final Map<ClassLoader,InjectionIndex> indexes = new WeakHashMap<>();
+	private static final InjectionIndex EMPTY = new InjectionIndex(Collections.emptyMap());
+
+	private final Map<String,Set<String>> members;
+	private final Map<String,Set<String>> annotations;
+
+	/** Creates a new instance with the given map of class names, and members.
+	 * All classes are assumed to be indexed with the {@link #DEFAULT_ANNOTATIONS}.
+	 * @param pMembers A map of class names, and members.
+	 */
+	public InjectionIndex(Map<String,Set<String>> pMembers) {
+		this(pMembers, Collections.emptyMap());
+	}
+
+	/** Creates a new instance with the given map of class names, and members.
+	 * @param pMembers A map of class names, and members.
+	 * @param pAnnotations A map of class names, and the annotations, which
+	 *   have been used to index the class. Classes, which are missing in
+	 *   this map, are assumed to be indexed with the {@link #DEFAULT_ANNOTATIONS}.
+	 */
+	public InjectionIndex(Map<String,Set<String>> pMembers, Map<String,Set<String>> pAnnotations) {
+		members = Objects.requireNonNull(pMembers, "Members");
+		annotations = Objects.requireNonNull(pAnnotations, "Annotations");
+	}
+
+	/** Returns the index, which is provided by the given class loader.
+	 * The index is created upon the first call, by reading all resources
+	 * with the name {@link #RESOURCE_NAME}, and cached afterwards.
+	 * @param pClassLoader The class loader, which provides the index resources.
+	 *   May be null (bootstrap class loader), in which case an empty index is
+	 *   returned.
+	 * @return The index, which is provided by the given class loader.
+	 */
+	public static InjectionIndex of(ClassLoader pClassLoader) {
+		if (pClassLoader == null) {
+			return EMPTY;
+		}
+		synchronized (indexes) {
+			InjectionIndex index = indexes.get(pClassLoader);
+			if (index == null) {
+				index = read(pClassLoader);
+				indexes.put(pClassLoader, index);
+			}
+			return index;
+		}
+	}
+
+	/** Reads the index from all resources with the name {@link #RESOURCE_NAME},
+	 * which are provided by the given class loader.
+	 * @param pClassLoader The class loader, which provides the index resources.
+	 * @return The created index.
+	 */
+	protected static InjectionIndex read(ClassLoader pClassLoader) {
+		final Map<String,Set<String>> map = new HashMap<>();
+		final Map<String,Set<String>> annotationMap = new HashMap<>();
+		try {
+			final Enumeration<URL> en = pClassLoader.getResources(RESOURCE_NAME);
+			while (en.hasMoreElements()) {
+				final URL url = en.nextElement();
+				try (InputStream in = url.openStream()) {
+					read(in, map, annotationMap);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new InjectionIndex(map, annotationMap);
+	}
+
+	/** Reads an index file from the given {@link InputStream}, and adds
+	 * the contents to the given map.
+	 * @param pIn The input stream, which is being read.
+	 * @param pMap The map, to which the contents are being added.
+	 * @throws IOException Reading the input stream failed.
+	 */
+	public static void read(InputStream pIn, Map<String,Set<String>> pMap) throws IOException {
+		read(pIn, pMap, new HashMap<>());
+	}
+
+	/** Reads an index file from the given {@link InputStream}, and adds
+	 * the contents to the given maps.
+	 * @param pIn The input stream, which is being read.
+	 * @param pMap The map of class names, and members, to which the
+	 *   contents are being added.
+	 * @param pAnnotations The map of class names, and annotations, to
+	 *   which the annotations, that have been used to create the file,
+	 *   are being added for every class in the file.
+	 * @throws IOException Reading the input stream failed.
+	 */
+	public static void read(InputStream pIn, Map<String,Set<String>> pMap,
+			                Map<String,Set<String>> pAnnotations) throws IOException {
+		final Set<String> classNames = new HashSet<>();
+		Set<String> fileAnnotations = DEFAULT_ANNOTATION_SET;
+		final BufferedReader br = new BufferedReader(new InputStreamReader(pIn, StandardCharsets.UTF_8));
+		for (;;) {
+			final String line = br.readLine();
+			if (line == null) {
+				break;
+			}
+			final String trimmedLine = line.trim();
+			if (trimmedLine.length() == 0  ||  trimmedLine.startsWith("#")) {
+				continue;
+			}
+			final int offset = trimmedLine.indexOf('=');
+			if (offset == -1) {
+				throw new IllegalStateException("Invalid line in injection index: " + line);
+			}
+			final String className = trimmedLine.substring(0, offset).trim();
+			if (ANNOTATIONS_KEY.equals(className)) {
+				fileAnnotations = new HashSet<>();
+				for (String annotation : trimmedLine.substring(offset+1).split(",")) {
+					final String a = annotation.trim();
+					if (a.length() > 0) {
+						fileAnnotations.add(a);
+					}
+				}
+				continue;
+			}
+			classNames.add(className);
+			final Set<String> set = pMap.computeIfAbsent(className, (s) -> new HashSet<>());
+			for (String member : trimmedLine.substring(offset+1).split(";")) {
+				final String m = member.trim();
+				if (m.length() > 0) {
+					set.add(m);
+				}
+			}
+		}
+		for (String className : classNames) {
+			pAnnotations.put(className, fileAnnotations);
+		}
+	}
+
+	/** Returns the set of injectable members of the given class, as
+	 * given by the index, or null, if the class is not indexed.
+	 * @param pClass The class, which is being queried.
+	 * @return The set of injectable members of the given class (possibly
+	 *   empty), or null, if the class is not indexed.
+	 */
+	public Set<String> getMembers(Class<?> pClass) {
+		return members.get(pClass.getName());
+	}
+
+	/** Returns the set of injectable members of the given class, as
+	 * given by the index, or null, if the class is not indexed, or
+	 * if it has been indexed without some of the given annotations.
+	 * @param pClass The class, which is being queried.
+	 * @param pAnnotations The canonical names of the annotations, which
+	 *   are making members injectable.
+	 * @return The set of injectable members of the given class (possibly
+	 *   empty), or null, if the class must be scanned by reflection.
+	 */
+	public Set<String> getMembers(Class<?> pClass, Collection<String> pAnnotations) {
+		final String className = pClass.getName();
+		final Set<String> set = members.get(className);
+		if (set == null) {
+			return null;
+		}
+		final Set<String> indexedAnnotations = annotations.getOrDefault(className, DEFAULT_ANNOTATION_SET);
+		return indexedAnnotations.containsAll(pAnnotations) ? set : null;
+	}
+
+	/** Returns the index key of the given field.
+	 * @param pField The field, for which a key is being created.
+	 * @return The index key of the given field.
+	 */
+	public static String asKey(Field pField) {
+		return "f:" + pField.getName();
+	}
+
+	/** Returns the index key of the given method.
+	 * @param pMethod The method, for which a key is being created.
+	 * @return The index key of the given method.
+	 */
+	public static String asKey(Method pMethod) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("m:");
+		sb.append(pMethod.getName());
+		sb.append('(');
+		final Class<?>[] parameterTypes = pMethod.getParameterTypes();
+		for (int i = 0;  i < parameterTypes.length;  i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(parameterTypes[i].getCanonicalName());
+		}
+		sb.append(')');
+		return sb.toString();
+	}
+}
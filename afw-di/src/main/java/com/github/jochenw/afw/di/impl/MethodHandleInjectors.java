@@ -0,0 +1,297 @@
+package com.github.jochenw.afw.di.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.github.jochenw.afw.di.api.IBindingProvider;
+import com.github.jochenw.afw.di.api.IBindingProvider.IMethodInjector;
+import com.github.jochenw.afw.di.api.IComponentFactory;
+import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
+
+
+/** A utility class, which creates instantiators, and injectors, that are
+ * based on {@link MethodHandle method handles}, rather than reflection.
+ * The created objects are specialized by the number of parameters, so
+ * that no {@code Object[]} needs to be allocated for up to
+ * {@link #MAX_SPECIALIZED_ARITY} parameters. These are used by the
+ * {@link SimpleComponentFactory}, if
+ * {@link com.github.jochenw.afw.di.api.ComponentFactoryBuilder#generatedInjectors(boolean)}
+ * has been enabled.
+ */
+public class MethodHandleInjectors {
+	/** The maximum number of parameters, for which a specialized
+	 * invoker is being created. Constructors, or methods with more
+	 * parameters, are invoked through a spreader, which requires
+	 * an {@code Object[]}.
+	 */
+	public static final int MAX_SPECIALIZED_ARITY = 5;
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/** Creates a new instance. Protected, because this class contains only static methods.
+	 */
+	protected MethodHandleInjectors() {}
+
+	/** Creates a new instantiator, which invokes the given constructor, using
+	 * the given bindings as the source of parameter values. The instantiators
+	 * parameter is the component factory, which is being passed to the bindings.
+	 * @param pConstructor The constructor, which is being invoked.
+	 * @param pBindings The bindings, which supply the constructor parameters.
+	 * @return The created instantiator.
+	 * @throws IllegalAccessException The constructor is not accessible.
+	 */
+	public static Function<IComponentFactory,Object> newInstantiator(Constructor<?> pConstructor,
+			                                                         IBinding<Object>[] pBindings)
+			throws IllegalAccessException {
+		final Constructor<?> constructor = Objects.requireNonNull(pConstructor, "Constructor");
+		final IBinding<Object>[] bindings = Objects.requireNonNull(pBindings, "Bindings");
+		IBindingProvider.assertAccessible(constructor);
+		final MethodHandle mh = LOOKUP.unreflectConstructor(constructor);
+		final int arity = bindings.length;
+		if (arity > MAX_SPECIALIZED_ARITY) {
+			final MethodHandle spreader = mh.asType(MethodType.genericMethodType(arity)).asSpreader(Object[].class, arity);
+			return (cf) -> {
+				final Object[] values = new Object[arity];
+				for (int i = 0;  i < arity;  i++) {
+					values[i] = bindings[i].apply(cf);
+				}
+				try {
+					return (Object) spreader.invokeExact(values);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		final MethodHandle gmh = mh.asType(MethodType.genericMethodType(arity));
+		switch (arity) {
+		case 0:
+			return (cf) -> {
+				try {
+					return (Object) gmh.invokeExact();
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		case 1: {
+			final IBinding<Object> b0 = bindings[0];
+			return (cf) -> {
+				try {
+					return (Object) gmh.invokeExact(b0.apply(cf));
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 2: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			return (cf) -> {
+				try {
+					return (Object) gmh.invokeExact(b0.apply(cf), b1.apply(cf));
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 3: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			final IBinding<Object> b2 = bindings[2];
+			return (cf) -> {
+				try {
+					return (Object) gmh.invokeExact(b0.apply(cf), b1.apply(cf), b2.apply(cf));
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 4: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			final IBinding<Object> b2 = bindings[2];
+			final IBinding<Object> b3 = bindings[3];
+			return (cf) -> {
+				try {
+					return (Object) gmh.invokeExact(b0.apply(cf), b1.apply(cf), b2.apply(cf), b3.apply(cf));
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 5: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			final IBinding<Object> b2 = bindings[2];
+			final IBinding<Object> b3 = bindings[3];
+			final IBinding<Object> b4 = bindings[4];
+			return (cf) -> {
+				try {
+					return (Object) gmh.invokeExact(b0.apply(cf), b1.apply(cf), b2.apply(cf), b3.apply(cf), b4.apply(cf));
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		default:
+			throw new IllegalStateException("Invalid arity: " + arity);
+		}
+	}
+
+	/** Creates a new injector, which sets the given field to the value,
+	 * that the given binding supplies.
+	 * @param pField The field, which is being set.
+	 * @param pBinding The binding, which supplies the field value.
+	 * @return The created injector.
+	 * @throws IllegalAccessException The field is not accessible, or
+	 *   it is a static final field.
+	 */
+	public static BiConsumer<IComponentFactory,Object> newFieldInjector(Field pField, IBinding<Object> pBinding)
+			throws IllegalAccessException {
+		final Field field = Objects.requireNonNull(pField, "Field");
+		final IBinding<Object> binding = Objects.requireNonNull(pBinding, "Binding");
+		IBindingProvider.assertAccessible(field);
+		final MethodHandle mh = LOOKUP.unreflectSetter(field);
+		final MethodHandle setter;
+		if (Modifier.isStatic(field.getModifiers())) {
+			setter = MethodHandles.dropArguments(mh.asType(MethodType.methodType(void.class, Object.class)),
+			                                     0, Object.class);
+		} else {
+			setter = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+		return (cf,o) -> {
+			final Object value = binding.apply(cf);
+			try {
+				setter.invokeExact(o, value);
+			} catch (Throwable t) {
+				throw DiUtils.show(t);
+			}
+		};
+	}
+
+	/** Creates a new injector, which invokes the given method, using the
+	 * given bindings as the source of parameter values.
+	 * @param pMethod The method, which is being invoked.
+	 * @param pBindings The bindings, which supply the method parameters.
+	 * @return The created injector.
+	 * @throws IllegalAccessException The method is not accessible.
+	 */
+	public static IMethodInjector newMethodInjector(Method pMethod, IBinding<Object>[] pBindings)
+			throws IllegalAccessException {
+		final Method method = Objects.requireNonNull(pMethod, "Method");
+		final IBinding<Object>[] bindings = Objects.requireNonNull(pBindings, "Bindings");
+		IBindingProvider.assertAccessible(method);
+		final int arity = bindings.length;
+		MethodHandle mh = LOOKUP.unreflect(method);
+		if (Modifier.isStatic(method.getModifiers())) {
+			mh = MethodHandles.dropArguments(mh, 0, Object.class);
+		}
+		// Target type is (Object,Object...)void, a non-void result is being dropped.
+		final MethodHandle gmh = mh.asType(MethodType.genericMethodType(arity+1).changeReturnType(void.class));
+		switch (arity) {
+		case 0:
+			return (cf,o) -> {
+				try {
+					gmh.invokeExact(o);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		case 1: {
+			final IBinding<Object> b0 = bindings[0];
+			return (cf,o) -> {
+				final Object v0 = b0.apply(cf);
+				try {
+					gmh.invokeExact(o, v0);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 2: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			return (cf,o) -> {
+				final Object v0 = b0.apply(cf);
+				final Object v1 = b1.apply(cf);
+				try {
+					gmh.invokeExact(o, v0, v1);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 3: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			final IBinding<Object> b2 = bindings[2];
+			return (cf,o) -> {
+				final Object v0 = b0.apply(cf);
+				final Object v1 = b1.apply(cf);
+				final Object v2 = b2.apply(cf);
+				try {
+					gmh.invokeExact(o, v0, v1, v2);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 4: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			final IBinding<Object> b2 = bindings[2];
+			final IBinding<Object> b3 = bindings[3];
+			return (cf,o) -> {
+				final Object v0 = b0.apply(cf);
+				final Object v1 = b1.apply(cf);
+				final Object v2 = b2.apply(cf);
+				final Object v3 = b3.apply(cf);
+				try {
+					gmh.invokeExact(o, v0, v1, v2, v3);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		case 5: {
+			final IBinding<Object> b0 = bindings[0];
+			final IBinding<Object> b1 = bindings[1];
+			final IBinding<Object> b2 = bindings[2];
+			final IBinding<Object> b3 = bindings[3];
+			final IBinding<Object> b4 = bindings[4];
+			return (cf,o) -> {
+				final Object v0 = b0.apply(cf);
+				final Object v1 = b1.apply(cf);
+				final Object v2 = b2.apply(cf);
+				final Object v3 = b3.apply(cf);
+				final Object v4 = b4.apply(cf);
+				try {
+					gmh.invokeExact(o, v0, v1, v2, v3, v4);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		default: {
+			final MethodHandle spreader = gmh.asSpreader(Object[].class, arity);
+			return (cf,o) -> {
+				final Object[] values = new Object[arity];
+				for (int i = 0;  i < arity;  i++) {
+					values[i] = bindings[i].apply(cf);
+				}
+				try {
+					spreader.invokeExact(o, values);
+				} catch (Throwable t) {
+					throw DiUtils.show(t);
+				}
+			};
+		}
+		}
+	}
+}
@@ -11,6 +11,7 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.github.jochenw.afw.di.api.AbstractBindingProvider;
@@ -29,18 +31,30 @@ import com.github.jochenw.afw.di.api.IBindingProvider.IMethodInjector;
 import com.github.jochenw.afw.di.api.IComponentFactory;
 import com.github.jochenw.afw.di.api.IComponentFactory.IConfiguration;
 import com.github.jochenw.afw.di.api.IComponentFactoryAware;
+import com.github.jochenw.afw.di.api.IModule;
 import com.github.jochenw.afw.di.api.Key;
+import com.github.jochenw.afw.di.api.Scopes;
 
 
 /** Simple, lightweight, but fast implementation of {@link IComponentFactory}.
  */
 public class SimpleComponentFactory extends AbstractComponentFactory {
 	private ConcurrentMap<Key<Object>,IBinding<Object>> bindings;
+	private IComponentFactory parent;
+	/** The keys of the bindings, which have been inherited from the parent.
+	 */
+	private Set<Key<Object>> inheritedKeys;
+	private BindingTable bindingTable;
 	private IAnnotationProvider annotationProvider;
 	private final ConcurrentMap<Class<Object>,ClassMetaData> metaDatas = new ConcurrentHashMap<>();
 	private final Set<Class<? extends Annotation>> annotationClasses = new HashSet<>();
 	private Set<Class<?>> staticInjectionClasses;
 	private List<IBindingProvider> bindingProviders;
+	private boolean generatedInjectors;
+	/** The annotations, which the injection index must cover, or null,
+	 * if the index isn't being used.
+	 */
+	private Collection<String> injectionIndexAnnotations;
 
 	/** Creates a new instance. The created instance needs configuration
 	 * by a call to {@link #init(IConfiguration)}, before using it.
@@ -53,10 +67,26 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	public void init(IConfiguration pConfiguration) {
 		super.init(pConfiguration);
 		bindings = new ConcurrentHashMap<>();
+		parent = pConfiguration.getParent();
+		inheritedKeys = new HashSet<>();
+		if (parent != null) {
+			// Inherit the parents bindings. Our own bindings take precedence.
+			bindings.putAll(parent.getBindings());
+			inheritedKeys.addAll(parent.getBindings().keySet());
+			inheritedKeys.removeAll(pConfiguration.getBindings().keySet());
+		}
 		bindings.putAll(pConfiguration.getBindings());
+		/* The binding for the component factory itself supplies the requesting
+		 * component factory, which may be a child, rather than a singleton.
+		 */
+		final Key<Object> componentFactoryKey = Key.of(IComponentFactory.class, "");
+		bindings.put(componentFactoryKey, IBinding.of(componentFactoryKey, (cf) -> cf, Scopes.SINGLETON));
+		inheritedKeys.remove(componentFactoryKey);
+		bindingTable = new BindingTable(bindings);
 		annotationProvider = pConfiguration.getAnnotationProvider();
 		staticInjectionClasses = pConfiguration.getStaticInjectionClasses();
-		pConfiguration.getBindings().keySet().forEach((k) -> {
+		generatedInjectors = pConfiguration.isUsingGeneratedInjectors();
+		bindings.keySet().forEach((k) -> {
 			final Class<? extends Annotation> annotationType = k.getAnnotationType();
 			if (annotationType != null) {
 				annotationClasses.add(annotationType);
@@ -77,16 +107,51 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 			}
 			bindingProviders.add(bp);
 		});
+		injectionIndexAnnotations = pConfiguration.isUsingInjectionIndex() ? getInjectionIndexAnnotations() : null;
+	}
+
+	/** Returns the configured parent, if the binding with the given key has
+	 * been inherited from it. The parent owns the binding: Inherited singletons
+	 * must be created by the parent, so that they don't depend on our bindings,
+	 * because the parent shares the instance.
+	 * @param pKey The bindings key.
+	 * @return The parent, if the binding has been inherited, or null.
+	 * @see ChildComponentFactory#getOwner(IComponentFactory, Key)
+	 */
+	IComponentFactory getInheritedOwner(Key<?> pKey) {
+		return inheritedKeys.contains(pKey) ? parent : null;
+	}
+
+	/** Returns the annotations, which are making members injectable for our
+	 * binding providers. The injection index is used only for classes, which
+	 * have been indexed with these annotations.
+	 * @return The canonical annotation names, or null, if some binding provider
+	 *   doesn't know its annotations. In the latter case, the injection index
+	 *   cannot be used at all.
+	 */
+	protected Collection<String> getInjectionIndexAnnotations() {
+		final Set<String> names = new HashSet<>();
+		for (IBindingProvider bp : bindingProviders) {
+			final Collection<String> bpNames = bp.getAnnotationNames();
+			if (bpNames == null) {
+				return null;
+			}
+			names.addAll(bpNames);
+		}
+		return names;
 	}
 
 
 	/** An object, which holds the information, that the component factory needs to
-	 * create, or initialize instances of one particular class.
+	 * create, or initialize instances of one particular class. The initializer,
+	 * and the instantiator receive the requesting component factory as a
+	 * parameter, so that the metadata can be shared with a
+	 * {@link ChildComponentFactory}.
 	 */
 	public static class ClassMetaData {
-		private final Consumer<Object> initializer;
-		private Supplier<Object> instantiator;
-		private final Supplier<Supplier<Object>> instantiatorProvider;
+		private final BiConsumer<IComponentFactory,Object> initializer;
+		private Function<IComponentFactory,Object> instantiator;
+		private final Supplier<Function<IComponentFactory,Object>> instantiatorProvider;
 
 		/** Creates a new instance with the given initializer, and the
 		 * given provider of an instantiator.
@@ -98,7 +163,8 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		 *   then be used internally, to create an instance of a
 		 *   particular class.
 		 */
-		public ClassMetaData(Consumer<Object> pInitializer, Supplier<Supplier<Object>> pInstantiatorProvider) {
+		public ClassMetaData(BiConsumer<IComponentFactory,Object> pInitializer,
+				             Supplier<Function<IComponentFactory,Object>> pInstantiatorProvider) {
 			initializer = pInitializer;
 			instantiatorProvider = pInstantiatorProvider;
 		}
@@ -107,7 +173,7 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		 * {@link #instantiatorProvider}, if necessary.
 		 * @return The created instantiator.
 		 */
-		public synchronized Supplier<Object> getInstantiator() {
+		public synchronized Function<IComponentFactory,Object> getInstantiator() {
 			if (instantiator == null) {
 				instantiator = Objects.requireNonNull(instantiatorProvider.get(), "Instantiator");
 			}
@@ -116,7 +182,7 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		/** Returns the initializer.
 		 * @return The initializer.
 		 */
-		public Consumer<Object> getInitializer() {
+		public BiConsumer<IComponentFactory,Object> getInitializer() {
 			return initializer;
 		}
 	}
@@ -124,10 +190,47 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	@Override
 	public <T> IBinding<T> getBinding(Key<T> pKey) {
 		@SuppressWarnings("unchecked")
-		final IBinding<T> binding = (IBinding<T>) bindings.get(pKey);
+		final IBinding<T> binding = (IBinding<T>) bindingTable.get(pKey);
 		return binding;
 	}
 
+	@Override
+	public <T> T getInstance(Type pType, String pName) {
+		final IBinding<Object> binding = bindingTable.get(Objects.requireNonNull(pType, "Type"),
+				                                          Objects.requireNonNull(pName, "Name"));
+		if (binding == null) {
+			return null;
+		} else {
+			@SuppressWarnings("unchecked")
+			final T t = (T) binding.apply(this);
+			return t;
+		}
+	}
+
+	@Override
+	public <T> T requireInstance(Type pType, String pName) {
+		final IBinding<Object> binding = bindingTable.get(Objects.requireNonNull(pType, "Type"),
+				                                          Objects.requireNonNull(pName, "Name"));
+		if (binding == null) {
+			final Key<T> key = Key.of(pType, pName);
+			throw new NoSuchBindingException(key, "No such binding has been registered: " + key);
+		} else {
+			@SuppressWarnings("unchecked")
+			final T t = (T) binding.apply(this);
+			return t;
+		}
+	}
+
+	@Override
+	public <T> T requireInstance(Type pType) {
+		return requireInstance(pType, "");
+	}
+
+	@Override
+	public <T,S extends T> S requireInstance(Class<T> pType, String pName) {
+		return requireInstance((Type) pType, pName);
+	}
+
 	/** Returns a metadata object for the given type. Internally,
 	 * this performs a lookup in the {@code metaDatas} map. If
 	 * a suitable object is found in the cache, returns it.
@@ -141,8 +244,8 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		@SuppressWarnings("unchecked")
 		final Class<Object> type = (Class<Object>) Objects.requireNonNull(pType, "Type");
 		return metaDatas.computeIfAbsent(type, (tp) -> {
-			final Consumer<Object> initializer = newInitializer(tp);
-			final Supplier<Supplier<Object>> instantiatorProvider = () -> newInstantiator(tp);
+			final BiConsumer<IComponentFactory,Object> initializer = newInitializer(tp);
+			final Supplier<Function<IComponentFactory,Object>> instantiatorProvider = () -> newInstantiator(tp);
 			return new ClassMetaData(initializer, instantiatorProvider);
 		});
 	}
@@ -155,7 +258,7 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	 * @param pType The result type of the created instantiator.
 	 * @return The created instantiator.
 	 */
-	protected Supplier<Object> newInstantiator(Class<Object> pType) {
+	protected Function<IComponentFactory,Object> newInstantiator(Class<Object> pType) {
 		for (Constructor<?> constructor : pType.getDeclaredConstructors()) {
 			if (!annotationProvider.isInjectable(constructor)) {
 				continue;
@@ -169,7 +272,10 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 			throw new IllegalStateException("No suitable constructor (annotated with @Inject, or public default)" 
 					+ " found to create an instance of class " + pType, e);
 		}
-		return () -> {
+		if (generatedInjectors) {
+			return newGeneratedInstantiator(defaultConstructor, newBindingArray(0));
+		}
+		return (cf) -> {
 			try {
 				return defaultConstructor.newInstance();
 			} catch (Exception e) {
@@ -184,13 +290,12 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	 *   instance.
 	 * @return The created injector.
 	 */
-	protected Supplier<Object> newInstantiator(Constructor<?> pConstructor) {
+	protected Function<IComponentFactory,Object> newInstantiator(Constructor<?> pConstructor) {
 		@SuppressWarnings("unchecked")
 		final Constructor<Object> constructor = (Constructor<Object>) Objects.requireNonNull(pConstructor, "Constructor");
 		final AnnotatedType[] parameterAnnotations = constructor.getAnnotatedParameterTypes();
 		final Type[] parameterTypes = constructor.getGenericParameterTypes();
-		@SuppressWarnings("unchecked")
-		final IBinding<Object>[] bindings = (IBinding<Object>[]) Array.newInstance(IBinding.class, parameterAnnotations.length);
+		final IBinding<Object>[] bindings = newBindingArray(parameterAnnotations.length);
 		for (int i = 0;  i < parameterAnnotations.length;  i++) {
 			final int index = i;
 			final Supplier<String> descriptor = () -> {
@@ -222,10 +327,13 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 			};
 			bindings[i] = requireBinding(parameterAnnotations[i], parameterTypes[i], descriptor);
 		}
-		return () -> {
+		if (generatedInjectors) {
+			return newGeneratedInstantiator(constructor, bindings);
+		}
+		return (cf) -> {
 			final Object[] values = new Object[bindings.length];
 			for (int i = 0;  i < bindings.length;  i++) {
-				values[i] = bindings[i].apply(SimpleComponentFactory.this);
+				values[i] = bindings[i].apply(cf);
 			}
 			IBindingProvider.assertAccessible(constructor);
 			try {
@@ -236,6 +344,28 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		};
 	}
 
+	/** Creates a new instantiator, which is based on a method handle, rather than
+	 * reflection. This is used, if
+	 * {@link IConfiguration#isUsingGeneratedInjectors() generated injectors}
+	 * have been enabled.
+	 * @param pConstructor The constructor to use for creating the new
+	 *   instance.
+	 * @param pBindings The bindings, which supply the constructor parameters.
+	 * @return The created instantiator.
+	 */
+	protected Function<IComponentFactory,Object> newGeneratedInstantiator(Constructor<?> pConstructor, IBinding<Object>[] pBindings) {
+		try {
+			return MethodHandleInjectors.newInstantiator(pConstructor, pBindings);
+		} catch (IllegalAccessException e) {
+			throw DiUtils.show(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static IBinding<Object>[] newBindingArray(int pLength) {
+		return (IBinding<Object>[]) Array.newInstance(IBinding.class, pLength);
+	}
+
 	/** Creates a new initializer for an object of the given type.
 	 * Internally, this will invoke {@link #findFields(Class, Consumer)},
 	 * and {@link #findMethods(Class, Consumer)} to create initializers
@@ -244,24 +374,23 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	 * operates.
 	 * @return The created initializer.
 	 */
-	protected Consumer<Object> newInitializer(Class<Object> pType) {
-		final List<Consumer<Object>> initializerList = new ArrayList<>();
-		final List<Consumer<Object>> deferredInitializers = new ArrayList<>();
+	protected BiConsumer<IComponentFactory,Object> newInitializer(Class<Object> pType) {
+		final List<BiConsumer<IComponentFactory,Object>> initializerList = new ArrayList<>();
+		final List<BiConsumer<IComponentFactory,Object>> deferredInitializers = new ArrayList<>();
 		findMethods(pType, (i) -> {
-			final Consumer<Object> initializer = (o) -> i.accept(SimpleComponentFactory.this, o);
 			if (i.isDeferred()) {
-				deferredInitializers.add(initializer);
+				deferredInitializers.add(i);
 			} else {
-				initializerList.add(initializer);
+				initializerList.add(i);
 			}
 		});
 		findFields(pType, initializerList::add);
-		return (o) -> {
-			initializerList.forEach((i) -> i.accept(o));
+		return (cf,o) -> {
+			initializerList.forEach((i) -> i.accept(cf, o));
 			if (o instanceof IComponentFactoryAware) {
-				((IComponentFactoryAware) o).init(SimpleComponentFactory.this);
+				((IComponentFactoryAware) o).init(cf);
 			}
-			deferredInitializers.forEach((i) -> i.accept(o));
+			deferredInitializers.forEach((i) -> i.accept(cf, o));
 		};
 	}
 
@@ -277,7 +406,17 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	protected void findMethods(Class<Object> pType, Consumer<IMethodInjector> pInitializerConsumer) {
 		Class<Object> cl = pType;
 		do {
+			final Set<String> indexedMembers = getIndexedMembers(cl);
+			if (indexedMembers != null  &&  indexedMembers.isEmpty()) {
+				// The class is indexed, and has no injection points.
+				cl = cl.getSuperclass();
+				continue;
+			}
 			for (final Method method : cl.getDeclaredMethods()) {
+				// Ignore methods, which aren't listed in the index.
+				if (indexedMembers != null  &&  !indexedMembers.contains(InjectionIndex.asKey(method))) {
+					continue;
+				}
 				// Ignore abstract methods.
 				if (Modifier.isAbstract(method.getModifiers())) {
 					continue;
@@ -307,18 +446,27 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	 *   field initializers, combining them into an initializer for instances
 	 *   of the given type.
 	 */
-	protected void findFields(Class<Object> pType, Consumer<Consumer<Object>> pInitializerConsumer) {
+	protected void findFields(Class<Object> pType, Consumer<BiConsumer<IComponentFactory,Object>> pInitializerConsumer) {
 		Class<Object> cl = pType;
 		do {
+			final Set<String> indexedMembers = getIndexedMembers(cl);
+			if (indexedMembers != null  &&  indexedMembers.isEmpty()) {
+				// The class is indexed, and has no injection points.
+				cl = cl.getSuperclass();
+				continue;
+			}
 			for (final Field field : cl.getDeclaredFields()) {
+				// Ignore fields, which aren't listed in the index.
+				if (indexedMembers != null  &&  !indexedMembers.contains(InjectionIndex.asKey(field))) {
+					continue;
+				}
 				// Ignore static fields, unless static injection has been requested for the class.
 				if (Modifier.isStatic(field.getModifiers())  &&  !staticInjectionClasses.contains(field.getDeclaringClass())) {
 					continue;
 				}
 				for (IBindingProvider bp : bindingProviders) {
 					if (bp.isInjectable(field)) {
-						final BiConsumer<IComponentFactory,Object> consumer = bp.createInjector(this, field);
-						final Consumer<Object> initializer = (o) -> consumer.accept(this, o);
+						final BiConsumer<IComponentFactory,Object> initializer = bp.createInjector(this, field);
 						pInitializerConsumer.accept(initializer);
 						break;
 					}
@@ -328,6 +476,23 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		} while (cl != null  &&  cl != Object.class);
 	}
 	
+	/** Returns the set of injectable members of the given class, as
+	 * given by the {@link InjectionIndex}, if the index is enabled,
+	 * and the class is indexed with all of our binding providers
+	 * annotations. Otherwise, returns null, in which
+	 * case all members of the class must be scanned by reflection.
+	 * @param pType The class, which is being scanned.
+	 * @return The set of injectable members, or null.
+	 */
+	protected Set<String> getIndexedMembers(Class<?> pType) {
+		final Collection<String> annotations = injectionIndexAnnotations;
+		if (annotations != null) {
+			return InjectionIndex.of(pType.getClassLoader()).getMembers(pType, annotations);
+		} else {
+			return null;
+		}
+	}
+
 	/** Performs a lookup for a binding, which is suitable for injecting a value into the given type.
 	 * @param pAnnotations The method parameter, or fields set of annotations.
 	 * @param pType The type of the method parameter, or field, which needs a binding.
@@ -362,21 +527,17 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 		for (Annotation annotation : pAnnotations.getAnnotations()) {
 			Class<? extends Annotation> annotationType = annotation.annotationType();
 			if (annotationClasses.contains(annotationType)) {
-				final Key<Object> key1 = Key.of(pType, pName, null, annotation);
-				final IBinding<Object> bndng1 = bindings.get(key1);
+				final IBinding<Object> bndng1 = bindingTable.get(pType, pName, null, annotation);
 				if (bndng1 != null) {
 					return bndng1;
 				}
 				if (binding == null) {
-					final Key<Object> key2 = Key.of(pType, pName, annotationType, null);
-					final IBinding<Object> bndng2 = bindings.get(key2);
-					binding = bndng2;
+					binding = bindingTable.get(pType, pName, annotationType, null);
 				}
 			}
 		}
 		if (binding == null) {
-			final Key<Object> key = Key.of(pType, pName);
-			binding = bindings.get(key);
+			binding = bindingTable.get(pType, pName);
 			if (binding == null) {
 				// Try to dynamically create a provider binding.
 				if (pPermitProvider  &&  pType instanceof ParameterizedType) {
@@ -389,7 +550,7 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 						if (providerLessBinding != null) {
 							final ISupplier<Object> supplier = annotationProvider.getProvider(providerType, binding);
 							if (supplier != null) {
-								return IBinding.of(key, supplier, providerLessBinding.getScope());
+								return IBinding.of(Key.of(pType, pName), supplier, providerLessBinding.getScope());
 							}
 						}
 					}
@@ -403,24 +564,49 @@ public class SimpleComponentFactory extends AbstractComponentFactory {
 	@Override
 	public void init(Object pObject) {
 		final ClassMetaData cmd = getMetaData(Objects.requireNonNull(pObject, "Object").getClass());
-		cmd.getInitializer().accept(pObject);
+		cmd.getInitializer().accept(this, pObject);
 	}
 
 	@Override
 	public <T> Supplier<T> getInstantiator(Class<? extends T> pImplType) {
 		final ClassMetaData cmd = getMetaData(Objects.requireNonNull(pImplType, "ImplType"));
-		final Supplier<Object> supplier = cmd.getInstantiator();
-		@SuppressWarnings("unchecked")
-		final Supplier<T> result = (Supplier<T>) supplier;
-		return result;
+		final Function<IComponentFactory,Object> instantiator = cmd.getInstantiator();
+		return () -> {
+			@SuppressWarnings("unchecked")
+			final T t = (T) instantiator.apply(this);
+			return t;
+		};
 	}
 
 	@Override
 	public <T> Supplier<T> getInstantiator(Constructor<? extends T> pConstructor) {
-		final Supplier<Object> supplier = newInstantiator(pConstructor);
-		@SuppressWarnings("unchecked")
-		final Supplier<T> result = (Supplier<T>) supplier;
-		return result;
+		final Function<IComponentFactory,Object> instantiator = newInstantiator(pConstructor);
+		return () -> {
+			@SuppressWarnings("unchecked")
+			final T t = (T) instantiator.apply(this);
+			return t;
+		};
+	}
+
+	/** Creates a lightweight child component factory, which shares this
+	 * component factories binding table, and metadata cache. Only the
+	 * local bindings, which are configured by the given module, are
+	 * created from scratch.
+	 * @see ChildComponentFactory
+	 */
+	@Override
+	public IComponentFactory newChild(IModule pModule) {
+		return new ChildComponentFactory(this, this, pModule);
+	}
+
+	/** Returns the binding with the given type, and name, without
+	 * annotation type, or annotation, if any, or null.
+	 * @param pType The requested bindings type.
+	 * @param pName The requested bindings name.
+	 * @return The requested binding, if any, or null.
+	 */
+	protected IBinding<Object> getBinding(Type pType, String pName) {
+		return bindingTable.get(pType, pName);
 	}
 
 	@Override
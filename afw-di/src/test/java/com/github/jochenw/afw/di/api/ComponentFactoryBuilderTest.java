@@ -6,9 +6,20 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.Test;
 
+import com.github.jochenw.afw.di.api.ComponentFactoryBuilder.StartupTiming;
 import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
 import com.github.jochenw.afw.di.api.IComponentFactory.IConfiguration;
 import com.github.jochenw.afw.di.impl.SimpleComponentFactory;
@@ -49,4 +60,139 @@ class ComponentFactoryBuilderTest {
 		assertSame(cf, cfBinding.apply(cf)); 
 	}
 
+	/** Barrier, which must be reached by {@link SlowEagerA}, and {@link SlowEagerB}
+	 * at the same time: Their constructors can only complete, if they are running in parallel.
+	 */
+	private static final CyclicBarrier SLOW_EAGER_BARRIER = new CyclicBarrier(2);
+	/** A slow eager singleton without dependencies.
+	 */
+	public static class SlowEagerA {
+		/** Creates a new instance.
+		 * @throws InterruptedException The thread has been interrupted.
+		 * @throws BrokenBarrierException The {@link SlowEagerB} constructor has failed.
+		 * @throws TimeoutException The {@link SlowEagerB} constructor didn't run in parallel.
+		 */
+		public SlowEagerA() throws InterruptedException, BrokenBarrierException, TimeoutException {
+			SLOW_EAGER_BARRIER.await(10, TimeUnit.SECONDS);
+		}
+	}
+	/** A slow eager singleton without dependencies.
+	 */
+	public static class SlowEagerB {
+		/** Creates a new instance.
+		 * @throws InterruptedException The thread has been interrupted.
+		 * @throws BrokenBarrierException The {@link SlowEagerA} constructor has failed.
+		 * @throws TimeoutException The {@link SlowEagerA} constructor didn't run in parallel.
+		 */
+		public SlowEagerB() throws InterruptedException, BrokenBarrierException, TimeoutException {
+			SLOW_EAGER_BARRIER.await(10, TimeUnit.SECONDS);
+		}
+	}
+	/** An eager singleton, which depends on other eager singletons.
+	 */
+	public static class DependentEager {
+		private final SlowEagerA a;
+		private @javax.inject.Inject SlowEagerB b;
+		/** Creates a new instance.
+		 * @param pA The injected dependency.
+		 */
+		public @javax.inject.Inject DependentEager(SlowEagerA pA) { a = pA; }
+	}
+	/** An eager singleton, which is part of a cycle.
+	 */
+	public static class CyclicEagerA {
+		@SuppressWarnings("unused")
+		private @javax.inject.Inject CyclicEagerB b;
+	}
+	/** An eager singleton, which is part of a cycle.
+	 */
+	public static class CyclicEagerB {
+		@SuppressWarnings("unused")
+		private @javax.inject.Inject CyclicEagerA a;
+	}
+
+	@Test
+	void testParallelEagerSingletons() {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final ComponentFactoryBuilder<?> cfb = IComponentFactory.builder()
+					.eagerSingletonExecutor(executor)
+					.module((b) -> {
+						b.bind(DependentEager.class).asEagerSingleton();
+						b.bind(SlowEagerA.class).asEagerSingleton();
+						b.bind(SlowEagerB.class).asEagerSingleton();
+					});
+			// Building succeeds only, if SlowEagerA, and SlowEagerB are created in parallel,
+			// because both constructors are waiting for each other on the SLOW_EAGER_BARRIER.
+			final IComponentFactory cf = cfb.build();
+			final List<StartupTiming> report = cfb.getStartupReport();
+			assertEquals(3, report.size());
+			assertEquals(DependentEager.class, report.get(0).getKey().getType());
+			assertEquals(SlowEagerA.class, report.get(1).getKey().getType());
+			assertEquals(SlowEagerB.class, report.get(2).getKey().getType());
+			// The creation of SlowEagerA, and SlowEagerB has overlapped.
+			assertTrue(report.get(1).getStartNanos() < report.get(2).getStartNanos() + report.get(2).getDurationNanos());
+			assertTrue(report.get(2).getStartNanos() < report.get(1).getStartNanos() + report.get(1).getDurationNanos());
+			// DependentEager has been started after its dependencies.
+			assertTrue(report.get(0).getStartNanos() >= report.get(1).getStartNanos() + report.get(1).getDurationNanos());
+			assertTrue(report.get(0).getStartNanos() >= report.get(2).getStartNanos() + report.get(2).getDurationNanos());
+			for (StartupTiming st : report) {
+				assertFalse(st.isFailed());
+			}
+			final DependentEager de = cf.requireInstance(DependentEager.class);
+			assertSame(cf.requireInstance(SlowEagerA.class), de.a);
+			assertSame(cf.requireInstance(SlowEagerB.class), de.b);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testParallelEagerSingletonsCycle() {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final ComponentFactoryBuilder<?> cfb = IComponentFactory.builder()
+					.eagerSingletonExecutor(executor)
+					.module((b) -> {
+						b.bind(CyclicEagerA.class).asEagerSingleton();
+						b.bind(CyclicEagerB.class).asEagerSingleton();
+					});
+			try {
+				cfb.build();
+				fail("Expected Exception");
+			} catch (IllegalStateException e) {
+				assertTrue(e.getMessage().startsWith("Circular dependency between eager singletons detected: "), e.getMessage());
+				assertTrue(e.getMessage().contains(CyclicEagerA.class.getName()), e.getMessage());
+				assertTrue(e.getMessage().contains(CyclicEagerB.class.getName()), e.getMessage());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testParallelEagerSingletonsFailure() {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final ComponentFactoryBuilder<?> cfb = IComponentFactory.builder()
+					.eagerSingletonExecutor(executor)
+					.module((b) -> {
+						b.bind(SlowEagerA.class).asEagerSingleton();
+						b.bind(SlowEagerB.class).asEagerSingleton();
+						b.bind(String.class, "first").toSupplier(() -> { throw new IllegalArgumentException("first"); }).asEagerSingleton();
+						b.bind(String.class, "second").toSupplier(() -> { throw new IllegalArgumentException("second"); }).asEagerSingleton();
+					});
+			try {
+				cfb.build();
+				fail("Expected Exception");
+			} catch (IllegalStateException e) {
+				assertEquals("first", e.getCause().getMessage());
+				assertEquals(1, e.getSuppressed().length);
+				assertEquals("second", e.getSuppressed()[0].getMessage());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
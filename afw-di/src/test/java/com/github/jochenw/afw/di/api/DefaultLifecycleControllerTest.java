@@ -0,0 +1,385 @@
+package com.github.jochenw.afw.di.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.api.DefaultLifecycleController.ListenerTiming;
+import com.github.jochenw.afw.di.api.DefaultLifecycleController.State;
+import com.github.jochenw.afw.di.api.ILifecycleController.Phased;
+import com.github.jochenw.afw.di.api.ILifecycleController.Startable;
+import com.github.jochenw.afw.di.api.ILifecycleController.TerminableListener;
+
+
+class DefaultLifecycleControllerTest {
+	private static class TestListener implements TerminableListener, Phased {
+		private final String name;
+		private final int phase;
+		private final List<String> events;
+		private long sleepMillis;
+		private CountDownLatch latch;
+		private CountDownLatch entered, release;
+		private CountDownLatch stopRelease;
+
+		TestListener(String pName, int pPhase, List<String> pEvents) {
+			name = pName;
+			phase = pPhase;
+			events = pEvents;
+		}
+
+		@Override
+		public int getPhase() { return phase; }
+
+		@Override
+		public void start() throws Exception {
+			if (latch != null) {
+				latch.countDown();
+				latch.await(5, TimeUnit.SECONDS);
+			}
+			if (entered != null) {
+				entered.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			if (sleepMillis > 0) {
+				Thread.sleep(sleepMillis);
+			}
+			events.add("start " + name);
+		}
+
+		@Override
+		public void shutdown() throws Exception {
+			if (stopRelease != null) {
+				stopRelease.await(5, TimeUnit.SECONDS);
+			}
+			if (sleepMillis > 0) {
+				Thread.sleep(sleepMillis);
+			}
+			events.add("stop " + name);
+		}
+
+		@Override
+		public String toString() { return name; }
+	}
+
+	@Test
+	void testPhaseOrder() {
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+		final DefaultLifecycleController lc = new DefaultLifecycleController();
+		lc.addListener(new TestListener("c", 2, events));
+		lc.addListener(new TestListener("a", 0, events));
+		lc.addListener(new TestListener("b", 1, events));
+		lc.addListener(new TestListener("a2", 0, events));
+		lc.start();
+		assertEquals(State.STARTED, lc.getState());
+		assertEquals(Arrays.asList("start a", "start a2", "start b", "start c"), events);
+		events.clear();
+		// Listeners, which are added later on, are started immediately.
+		lc.addListener(new TestListener("d", 0, events));
+		assertEquals(Arrays.asList("start d"), events);
+		events.clear();
+		lc.shutdown();
+		assertEquals(State.TERMINATED, lc.getState());
+		assertEquals(Arrays.asList("stop c", "stop b", "stop d", "stop a2", "stop a"), events);
+		assertThrows(IllegalStateException.class, () -> lc.shutdown());
+	}
+
+	@Test
+	void testParallelStart() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			final List<String> events = Collections.synchronizedList(new ArrayList<>());
+			final DefaultLifecycleController lc = new DefaultLifecycleController();
+			lc.setExecutor(executor);
+			// The listeners in phase 0 can only complete, if they are started in parallel.
+			final CountDownLatch latch = new CountDownLatch(3);
+			for (int i = 0;  i < 3;  i++) {
+				final TestListener tl = new TestListener("p" + i, 0, events);
+				tl.latch = latch;
+				lc.addListener(tl);
+			}
+			lc.addListener(new TestListener("q", 1, events));
+			lc.start();
+			assertEquals(0, latch.getCount());
+			assertEquals(4, events.size());
+			assertEquals("start q", events.get(3));
+			events.clear();
+			lc.shutdown();
+			assertEquals("stop q", events.get(0));
+			assertEquals(4, events.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testStartTimeout() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final List<String> events = Collections.synchronizedList(new ArrayList<>());
+			final DefaultLifecycleController lc = new DefaultLifecycleController();
+			lc.setExecutor(executor);
+			lc.setStartTimeout(Duration.ofMillis(100));
+			final TestListener slow = new TestListener("slow", 0, events);
+			slow.sleepMillis = 1000;
+			lc.addListener(slow);
+			lc.addListener(new TestListener("fast", 0, events));
+			lc.addListener(new TestListener("later", 1, events));
+			final IllegalStateException ise = assertThrows(IllegalStateException.class, () -> lc.start());
+			assertEquals("The listener slow didn't start within 100 milliseconds.", ise.getMessage());
+			assertEquals(State.WAITING, lc.getState());
+			// The failed phase prevents starting the next phase.
+			assertTrue(!events.contains("start later"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testStartTimeoutRetry() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final List<String> events = Collections.synchronizedList(new ArrayList<>());
+			final DefaultLifecycleController lc = new DefaultLifecycleController();
+			lc.setExecutor(executor);
+			lc.setStartTimeout(Duration.ofMillis(100));
+			final TestListener slow = new TestListener("slow", 0, events);
+			slow.entered = new CountDownLatch(1);
+			slow.release = new CountDownLatch(1);
+			lc.addListener(slow);
+			lc.addListener(new TestListener("fast", 0, events));
+			assertThrows(IllegalStateException.class, () -> lc.start());
+			// The retry must not start the slow listener again, while it is still starting.
+			lc.start();
+			assertEquals(State.STARTED, lc.getState());
+			slow.release.countDown();
+			awaitListenerState(lc, slow, State.STARTED);
+			assertEquals(1, Collections.frequency(events, "start slow"));
+			lc.shutdown();
+			assertTrue(events.contains("stop slow"));
+			assertTrue(events.contains("stop fast"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testShutdownAfterStartTimeout() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final List<String> events = Collections.synchronizedList(new ArrayList<>());
+			final DefaultLifecycleController lc = new DefaultLifecycleController();
+			lc.setExecutor(executor);
+			lc.setStartTimeout(Duration.ofMillis(100));
+			final TestListener slow = new TestListener("slow", 0, events);
+			slow.entered = new CountDownLatch(1);
+			slow.release = new CountDownLatch(1);
+			lc.addListener(slow);
+			lc.addListener(new TestListener("fast", 0, events));
+			assertThrows(IllegalStateException.class, () -> lc.start());
+			lc.shutdown();
+			assertTrue(events.contains("stop fast"));
+			assertTrue(!events.contains("stop slow"));
+			// The slow listener is shutted down, as soon as it has started.
+			slow.release.countDown();
+			awaitEvent(events, "stop slow");
+			assertEquals(State.TERMINATED, lc.getTimings().get(0).getState());
+			assertEquals(1, Collections.frequency(events, "start slow"));
+			assertEquals(1, Collections.frequency(events, "stop slow"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testSequentialStartFailure() {
+		final List<String> events = new ArrayList<>();
+		final DefaultLifecycleController lc = new DefaultLifecycleController();
+		final IllegalStateException failure = new IllegalStateException("Failed");
+		lc.addListener(new TestListener("a", 0, events));
+		lc.addListener(new TerminableListener() {
+			private boolean failed;
+			@Override
+			public void start() throws Exception {
+				if (!failed) {
+					failed = true;
+					throw failure;
+				}
+				events.add("start b");
+			}
+			@Override
+			public void shutdown() throws Exception {
+				events.add("stop b");
+			}
+		});
+		assertSame(failure, assertThrows(IllegalStateException.class, () -> lc.start()));
+		assertEquals(State.WAITING, lc.getState());
+		// A retry starts the remaining listener only.
+		lc.start();
+		assertEquals(Arrays.asList("start a", "start b"), events);
+		events.clear();
+		lc.shutdown();
+		assertEquals(Arrays.asList("stop b", "stop a"), events);
+	}
+
+	@Test
+	void testShutdownDeadline() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final List<String> events = Collections.synchronizedList(new ArrayList<>());
+			final DefaultLifecycleController lc = new DefaultLifecycleController();
+			lc.setExecutor(executor);
+			lc.setShutdownTimeout(Duration.ofMillis(100));
+			final TestListener first = new TestListener("first", 0, events);
+			final TestListener slow = new TestListener("slow", 1, events);
+			lc.addListener(first);
+			lc.addListener(slow);
+			lc.start();
+			slow.stopRelease = new CountDownLatch(1);
+			lc.shutdown();
+			// The slow listener is still blocked, so shutdown() didn't wait for it.
+			assertTrue(!events.contains("stop slow"));
+			slow.stopRelease.countDown();
+			// The deadline is exceeded by the slow listener, so the first listener isn't stopped.
+			final List<ListenerTiming> timings = lc.getTimings();
+			assertEquals(2, timings.size());
+			assertSame(first, timings.get(0).getListener());
+			assertEquals(State.STARTED, timings.get(0).getState());
+			assertEquals(-1, timings.get(0).getStopNanos());
+			assertSame(slow, timings.get(1).getListener());
+			assertEquals(State.TERMINATED, timings.get(1).getState());
+			assertTrue(!events.contains("stop first"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testTimings() {
+		final List<String> events = new ArrayList<>();
+		final DefaultLifecycleController lc = new DefaultLifecycleController();
+		final TestListener tl = new TestListener("a", 3, events);
+		tl.sleepMillis = 20;
+		lc.addListener(tl);
+		lc.addListener(new Startable() {
+			@Override
+			public void start() throws Exception {
+				events.add("start b");
+			}
+		}, 1);
+		lc.start();
+		lc.shutdown();
+		assertEquals(Arrays.asList("start b", "start a", "stop a"), events);
+		final List<ListenerTiming> timings = lc.getTimings();
+		assertEquals(2, timings.size());
+		final ListenerTiming timing = timings.get(0);
+		assertSame(tl, timing.getListener());
+		assertEquals(3, timing.getPhase());
+		assertEquals(State.TERMINATED, timing.getState());
+		assertTrue(timing.getStartNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(timing.getStopNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertEquals(1, timings.get(1).getPhase());
+		// A Startable, which isn't Terminable, has no stop duration.
+		assertEquals(State.TERMINATED, timings.get(1).getState());
+		assertTrue(timings.get(1).getStartNanos() >= 0);
+		assertEquals(-1, timings.get(1).getStopNanos());
+	}
+
+	private static void awaitState(DefaultLifecycleController pController, State pState) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (pController.getState() != pState) {
+			assertTrue(System.nanoTime() - deadline < 0, "Timeout while waiting for state " + pState);
+			Thread.sleep(5);
+		}
+	}
+
+	private static void awaitListenerState(DefaultLifecycleController pController, Object pListener, State pState)
+			throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		for (;;) {
+			for (ListenerTiming timing : pController.getTimings()) {
+				if (timing.getListener() == pListener  &&  timing.getState() == pState) {
+					return;
+				}
+			}
+			assertTrue(System.nanoTime() - deadline < 0, "Timeout while waiting for listener state " + pState);
+			Thread.sleep(5);
+		}
+	}
+
+	private static void awaitEvent(List<String> pEvents, String pEvent) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!pEvents.contains(pEvent)) {
+			assertTrue(System.nanoTime() - deadline < 0, "Timeout while waiting for event " + pEvent);
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	void testShutdownWhileStarting() throws Exception {
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+		final DefaultLifecycleController lc = new DefaultLifecycleController();
+		final TestListener a = new TestListener("a", 0, events);
+		a.entered = new CountDownLatch(1);
+		a.release = new CountDownLatch(1);
+		lc.addListener(a);
+		lc.addListener(new TestListener("b", 1, events));
+		final List<Throwable> startErrors = Collections.synchronizedList(new ArrayList<>());
+		final Thread starter = new Thread(() -> {
+			try {
+				lc.start();
+			} catch (Throwable t) {
+				startErrors.add(t);
+			}
+		});
+		starter.start();
+		assertTrue(a.entered.await(5, TimeUnit.SECONDS));
+		final Thread stopper = new Thread(() -> lc.shutdown());
+		stopper.start();
+		// The shutdown must wait for the listener, which is currently starting.
+		awaitState(lc, State.TERMINATED);
+		assertTrue(stopper.isAlive());
+		a.release.countDown();
+		starter.join(5000);
+		stopper.join(5000);
+		assertEquals(1, startErrors.size());
+		assertTrue(startErrors.get(0) instanceof IllegalStateException);
+		assertEquals(State.TERMINATED, lc.getState());
+		// The listener in the second phase must not be started.
+		assertEquals(Arrays.asList("start a", "stop a"), events);
+		assertThrows(IllegalStateException.class, () -> lc.start());
+	}
+
+	@Test
+	void testShutdownWhileAddingListener() throws Exception {
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+		final DefaultLifecycleController lc = new DefaultLifecycleController();
+		lc.addListener(new TestListener("a", 0, events));
+		lc.start();
+		final TestListener x = new TestListener("x", 0, events);
+		x.entered = new CountDownLatch(1);
+		x.release = new CountDownLatch(1);
+		final Thread adder = new Thread(() -> lc.addListener(x));
+		adder.start();
+		assertTrue(x.entered.await(5, TimeUnit.SECONDS));
+		lc.shutdown();
+		assertEquals(Arrays.asList("start a", "stop a"), events);
+		x.release.countDown();
+		adder.join(5000);
+		// The listener has been started after the shutdown, so it is shutted down immediately.
+		assertEquals(Arrays.asList("start a", "stop a", "start x", "stop x"), events);
+		assertEquals(State.TERMINATED, lc.getTimings().get(1).getState());
+	}
+}
@@ -0,0 +1,47 @@
+package com.github.jochenw.afw.di.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+class KeyTest {
+	@Test
+	void testHashCode() {
+		final Key<Object> key = Key.of(Map.class, "foo", Deprecated.class, null);
+		assertEquals(Objects.hash(null, Deprecated.class, "foo", Map.class), key.hashCode());
+		assertEquals(key.hashCode(), Key.hashCode(Map.class, "foo", Deprecated.class, null));
+		assertEquals(Key.of(List.class, "").hashCode(), Key.hashCode(List.class, "", null, null));
+	}
+
+	@Test
+	void testEqualsAndMatches() {
+		final Key<Object> key1 = Key.of(Map.class, "foo");
+		final Key<Object> key2 = Key.of(Map.class, "foo");
+		final Key<Object> key3 = Key.of(Map.class, "bar");
+		assertEquals(key1, key2);
+		assertNotEquals(key1, key3);
+		assertTrue(key1.matches(Map.class, "foo", null, null));
+		assertFalse(key1.matches(Map.class, "bar", null, null));
+		assertFalse(key1.matches(Map.class, "foo", Deprecated.class, null));
+	}
+
+	@Test
+	void testIntern() {
+		final Key<Object> key1 = Key.of(Map.class, "intern");
+		final Key<Object> key2 = Key.of(Map.class, "intern");
+		assertNotSame(key1, key2);
+		final Key<Object> internedKey1 = key1.intern();
+		assertSame(key1, internedKey1);
+		assertSame(key1, key2.intern());
+		assertNotSame(key1, Key.of(Map.class, "other").intern());
+	}
+}
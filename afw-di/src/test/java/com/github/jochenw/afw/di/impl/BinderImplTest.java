@@ -0,0 +1,117 @@
+package com.github.jochenw.afw.di.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.api.IComponentFactory;
+import com.github.jochenw.afw.di.api.IComponentFactory.ISingletonMetrics;
+import com.github.jochenw.afw.di.api.Key;
+
+
+class BinderImplTest {
+	/** A test class with a circular field dependency.
+	 */
+	public static class CircularA {
+		private @Inject CircularB b;
+	}
+	/** A test class with a circular field dependency.
+	 */
+	public static class CircularB {
+		private @Inject CircularA a;
+	}
+
+	@Test
+	void testCircularFieldDependency() {
+		final IComponentFactory cf = IComponentFactory.builder()
+				.module((b) -> {
+					b.bind(CircularA.class).asSingleton();
+					b.bind(CircularB.class).asSingleton();
+				}).build();
+		final CircularA a = cf.requireInstance(CircularA.class);
+		final CircularB b = cf.requireInstance(CircularB.class);
+		assertNotNull(a);
+		assertNotNull(b);
+		assertSame(b, a.b);
+		assertSame(a, b.a);
+	}
+
+	@Test
+	void testConcurrentCreation() throws Exception {
+		final AtomicInteger numberOfInstances = new AtomicInteger();
+		final CountDownLatch creationStarted = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final IComponentFactory cf = IComponentFactory.builder()
+				.module((b) -> {
+					b.bind(StringBuilder.class).toSupplier(() -> {
+						numberOfInstances.incrementAndGet();
+						creationStarted.countDown();
+						try {
+							proceed.await();
+						} catch (InterruptedException e) {
+							throw DiUtils.show(e);
+						}
+						return new StringBuilder();
+					}).asSingleton();
+				}).build();
+		final Object[] results = new Object[4];
+		final Thread[] threads = new Thread[results.length];
+		for (int i = 0;  i < threads.length;  i++) {
+			final int index = i;
+			threads[i] = new Thread(() -> results[index] = cf.requireInstance(StringBuilder.class));
+			threads[i].start();
+			if (i == 0) {
+				creationStarted.await();
+			}
+		}
+		// Wait until the other threads are blocked, then let the first thread finish.
+		final ISingletonMetrics metrics = (ISingletonMetrics) cf.getBinding(Key.of(StringBuilder.class, ""));
+		assertFalse(metrics.isCreated());
+		while (metrics.getContendedWaits() < threads.length-1) {
+			Thread.sleep(1);
+		}
+		proceed.countDown();
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(1, numberOfInstances.get());
+		for (Object o : results) {
+			assertSame(results[0], o);
+		}
+		assertTrue(metrics.isCreated());
+		assertTrue(metrics.getCreationTimeNanos() >= 0);
+		assertEquals(threads.length-1, metrics.getContendedWaits());
+	}
+
+	@Test
+	void testSingletonMetrics() {
+		final IComponentFactory cf = IComponentFactory.builder()
+				.module((b) -> {
+					b.bind(CircularA.class).asSingleton();
+					b.bind(CircularB.class).asSingleton();
+					b.bind(StringBuilder.class).asUnscoped();
+				}).build();
+		final List<ISingletonMetrics> metricsBefore = cf.getSingletonMetrics();
+		// CircularA, and CircularB. (The IComponentFactory binding supplies
+		// the requesting component factory, and isn't a singleton binding.)
+		assertEquals(2, metricsBefore.size());
+		cf.requireInstance(CircularA.class);
+		for (ISingletonMetrics m : cf.getSingletonMetrics()) {
+			if (m.getKey().getType() == CircularA.class  ||  m.getKey().getType() == CircularB.class) {
+				assertTrue(m.isCreated());
+				assertTrue(m.getCreationTimeNanos() >= 0);
+			}
+			assertEquals(0, m.getContendedWaits());
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.github.jochenw.afw.di.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
+import com.github.jochenw.afw.di.api.Key;
+import com.github.jochenw.afw.di.api.Scopes;
+
+
+class BindingTableTest {
+	@Test
+	void testLookups() {
+		final Map<Key<Object>,IBinding<Object>> map = new HashMap<>();
+		for (int i = 0;  i < 100;  i++) {
+			final Key<Object> key = Key.of(Integer.class, String.valueOf(i));
+			final Integer value = Integer.valueOf(i);
+			map.put(key, IBinding.of(key, (cf) -> value, Scopes.SINGLETON));
+		}
+		final Key<Object> annotatedKey = Key.of(Integer.class, "0", Deprecated.class, null);
+		map.put(annotatedKey, IBinding.of(annotatedKey, (cf) -> Integer.valueOf(-1), Scopes.SINGLETON));
+		final BindingTable table = new BindingTable(map);
+		assertEquals(101, table.size());
+		for (int i = 0;  i < 100;  i++) {
+			final String name = String.valueOf(i);
+			final IBinding<Object> binding = table.get(Integer.class, name);
+			assertSame(map.get(Key.of(Integer.class, name)), binding);
+			assertSame(binding, table.get(Key.of(Integer.class, name)));
+			assertEquals(Integer.valueOf(i), binding.apply(null));
+		}
+		assertSame(map.get(annotatedKey), table.get(Integer.class, "0", Deprecated.class, null));
+		assertNull(table.get(Integer.class, "100"));
+		assertNull(table.get(Long.class, "0"));
+		assertNull(table.get(Integer.class, "1", Deprecated.class, null));
+		assertNull(new BindingTable(new HashMap<>()).get(Integer.class, ""));
+	}
+}
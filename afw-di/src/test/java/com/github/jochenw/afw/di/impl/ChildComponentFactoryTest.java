@@ -0,0 +1,184 @@
+package com.github.jochenw.afw.di.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.api.IComponentFactory;
+import com.github.jochenw.afw.di.api.IModule;
+import com.github.jochenw.afw.di.api.Scopes;
+
+import jakarta.inject.Inject;
+
+
+class ChildComponentFactoryTest {
+	public static class Request {
+		private final String id;
+		public Request(String pId) { id = pId; }
+		public String getId() { return id; }
+	}
+	public static class RequestHandler {
+		private @Inject Request request;
+		private @Inject RequestCounter counter;
+		private @Inject Service service;
+		private @Inject IComponentFactory componentFactory;
+	}
+	public static class RequestCounter {
+		private int count;
+		public int increment() { return ++count; }
+	}
+	public static class LocalCounter extends RequestCounter {
+	}
+	public static class Service {
+		private @Inject IComponentFactory componentFactory;
+	}
+
+	private static final IModule MODULE = (b) -> {
+		b.bind(Request.class).toSupplier(() -> {
+			throw new IllegalStateException("Request not seeded");
+		}).in(Scopes.REQUEST);
+		b.bind(RequestCounter.class).in(Scopes.REQUEST);
+		b.bind(RequestHandler.class).in(Scopes.NO_SCOPE);
+		b.bind(Service.class).in(Scopes.SINGLETON);
+		b.bind(String.class, "name").toInstance("root");
+	};
+
+	@Test
+	void testRequestScope() {
+		final IComponentFactory cf = IComponentFactory.builder().module(MODULE).build();
+		assertTrue(cf instanceof SimpleComponentFactory);
+		// Request scoped bindings aren't available outside of a child.
+		assertThrows(IllegalStateException.class, () -> cf.requireInstance(RequestCounter.class));
+		final IComponentFactory child1 = cf.newChild((b) -> b.bind(Request.class).toInstance(new Request("1")));
+		final IComponentFactory child2 = cf.newChild((b) -> b.bind(Request.class).toInstance(new Request("2")));
+		final RequestHandler handler11 = child1.requireInstance(RequestHandler.class);
+		final RequestHandler handler12 = child1.requireInstance(RequestHandler.class);
+		final RequestHandler handler2 = child2.requireInstance(RequestHandler.class);
+		assertNotSame(handler11, handler12);
+		assertEquals("1", handler11.request.getId());
+		assertEquals("2", handler2.request.getId());
+		assertSame(handler11.request, handler12.request);
+		// The request counter is cached per child.
+		assertSame(handler11.counter, handler12.counter);
+		assertSame(handler11.counter, child1.requireInstance(RequestCounter.class));
+		assertNotSame(handler11.counter, handler2.counter);
+		assertEquals(1, handler11.counter.increment());
+		assertEquals(2, handler12.counter.increment());
+		assertEquals(1, handler2.counter.increment());
+		// The IComponentFactory is the child, but the singleton is owned by the root.
+		assertSame(child1, handler11.componentFactory);
+		assertSame(child2, handler2.componentFactory);
+		assertSame(handler11.service, handler2.service);
+		assertSame(cf, handler11.service.componentFactory);
+		assertSame(cf.requireInstance(Service.class), handler11.service);
+		// A child without a seed uses the parents binding.
+		final IComponentFactory child3 = cf.newChild();
+		assertThrows(IllegalStateException.class, () -> child3.requireInstance(RequestHandler.class));
+	}
+
+	@Test
+	void testLocalBindings() {
+		final IComponentFactory cf = IComponentFactory.builder().module(MODULE).build();
+		final IComponentFactory child = cf.newChild((b) -> {
+			b.bind(Request.class).toInstance(new Request("1"));
+			b.bind(RequestCounter.class).toClass(LocalCounter.class);
+		});
+		final RequestHandler handler1 = child.requireInstance(RequestHandler.class);
+		final RequestHandler handler2 = child.requireInstance(RequestHandler.class);
+		assertTrue(handler1.counter instanceof LocalCounter);
+		// The instance of the local binding is cached, like the instance of the replaced binding.
+		assertSame(handler1.counter, handler2.counter);
+		assertSame(handler1.counter, child.requireInstance(RequestCounter.class));
+		assertNotSame(handler1.counter, cf.newChild((b) -> b.bind(RequestCounter.class).toClass(LocalCounter.class))
+				.requireInstance(RequestCounter.class));
+		assertSame(child, child.requireInstance(IComponentFactory.class));
+		assertSame(cf, cf.requireInstance(IComponentFactory.class));
+		assertEquals(cf.getBindings().size(), child.getBindings().size());
+	}
+
+	@Test
+	void testInvalidLocalBindings() {
+		final IComponentFactory cf = IComponentFactory.builder().module(MODULE).build();
+		// Local bindings would be invisible to injection points, unless they replace a binding with scope REQUEST.
+		assertThrows(IllegalArgumentException.class, () -> cf.newChild((b) -> b.bind(String.class, "name").toInstance("child")));
+		assertThrows(IllegalArgumentException.class, () -> cf.newChild((b) -> b.bind(String.class, "local").toInstance("local")));
+		assertThrows(IllegalArgumentException.class, () -> cf.newChild((b) -> b.bind(Service.class).in(Scopes.SINGLETON)));
+		assertThrows(IllegalArgumentException.class, () -> cf.newChild((b) -> b.bind(RequestHandler.class).in(Scopes.NO_SCOPE)));
+		final IComponentFactory child = cf.newChild((b) -> b.bind(Request.class).toInstance(new Request("1")));
+		assertThrows(IllegalArgumentException.class, () -> child.newChild((b) -> b.bind(String.class, "name").toInstance("child")));
+	}
+
+	@Test
+	void testNestedChilds() {
+		final IComponentFactory cf = IComponentFactory.builder().module(MODULE).build();
+		final IComponentFactory child = cf.newChild((b) -> b.bind(Request.class).toInstance(new Request("outer")));
+		final IComponentFactory grandChild = child.newChild((b) -> b.bind(RequestCounter.class).toClass(LocalCounter.class));
+		assertSame(child, ((ChildComponentFactory) grandChild).getParent());
+		final RequestHandler handler = grandChild.requireInstance(RequestHandler.class);
+		assertEquals("outer", handler.request.getId());
+		assertSame(grandChild, handler.componentFactory);
+		assertTrue(handler.counter instanceof LocalCounter);
+		assertSame(handler.counter, grandChild.requireInstance(RequestCounter.class));
+		assertNotSame(child.requireInstance(RequestCounter.class), handler.counter);
+		assertTrue(!(child.requireInstance(RequestCounter.class) instanceof LocalCounter));
+		assertEquals("root", grandChild.requireInstance(String.class, "name"));
+	}
+
+	@Test
+	void testConcurrentRequests() throws Exception {
+		final AtomicInteger created = new AtomicInteger();
+		final IComponentFactory cf = IComponentFactory.builder().module((b) -> {
+			b.bind(RequestCounter.class).toSupplier(() -> {
+				created.incrementAndGet();
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				return new RequestCounter();
+			}).in(Scopes.REQUEST);
+		}).build();
+		final IComponentFactory child = cf.newChild();
+		final int numThreads = 8;
+		final CountDownLatch ready = new CountDownLatch(numThreads);
+		final RequestCounter[] counters = new RequestCounter[numThreads];
+		final Thread[] threads = new Thread[numThreads];
+		for (int i = 0;  i < numThreads;  i++) {
+			final int index = i;
+			threads[i] = new Thread(() -> {
+				ready.countDown();
+				try {
+					ready.await();
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				counters[index] = child.requireInstance(RequestCounter.class);
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(1, created.get());
+		for (RequestCounter counter : counters) {
+			assertSame(counters[0], counter);
+		}
+	}
+
+	@Test
+	void testParentConfiguration() {
+		final IComponentFactory cf = IComponentFactory.builder().module(MODULE).build();
+		final IComponentFactory child = IComponentFactory.builder().parent(cf)
+				.module((b) -> b.bind(String.class, "name").toInstance("child")).build();
+		assertEquals("child", child.requireInstance(String.class, "name"));
+		assertSame(cf.requireInstance(Service.class), child.requireInstance(Service.class));
+		assertSame(child, child.requireInstance(IComponentFactory.class));
+	}
+}
@@ -0,0 +1,188 @@
+package com.github.jochenw.afw.di.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.api.IBindingProvider;
+import com.github.jochenw.afw.di.api.IBindingProvider.IMethodInjector;
+import com.github.jochenw.afw.di.api.IComponentFactory;
+
+import jakarta.inject.Inject;
+
+
+class InjectionIndexTest {
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Custom {}
+	public static class IndexedBean {
+		private @Inject String listed;
+		private @Inject String unlisted;
+		private @Custom String custom;
+		private String value;
+		private int[] ints;
+
+		@Inject
+		public void setValues(String pValue, int[] pInts) {
+			value = pValue;
+			ints = pInts;
+		}
+	}
+	public static class EmptyBean {
+		private @Inject String unlisted;
+	}
+
+	@Test
+	void testRead() throws Exception {
+		final String contents = "# A comment\n"
+				+ "foo.Bar=f:a;m:b(java.lang.String)\n"
+				+ "\n"
+				+ "foo.Baz=\n";
+		final Map<String,Set<String>> map = new HashMap<>();
+		InjectionIndex.read(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), map);
+		assertEquals(2, map.size());
+		assertEquals(2, map.get("foo.Bar").size());
+		assertTrue(map.get("foo.Bar").contains("f:a"));
+		assertTrue(map.get("foo.Bar").contains("m:b(java.lang.String)"));
+		assertTrue(map.get("foo.Baz").isEmpty());
+
+		final String annotatedContents = "@annotations=jakarta.inject.Inject, foo.Custom\n"
+				+ "foo.Bar=f:a\n";
+		final Map<String,Set<String>> annotatedMap = new HashMap<>();
+		final Map<String,Set<String>> annotationMap = new HashMap<>();
+		InjectionIndex.read(new ByteArrayInputStream(annotatedContents.getBytes(StandardCharsets.UTF_8)),
+				            annotatedMap, annotationMap);
+		assertEquals(Collections.singleton("foo.Bar"), annotatedMap.keySet());
+		assertEquals(new HashSet<>(Arrays.asList("jakarta.inject.Inject", "foo.Custom")), annotationMap.get("foo.Bar"));
+	}
+
+	@Test
+	void testGetMembers() {
+		final Map<String,Set<String>> map = new HashMap<>();
+		map.put(IndexedBean.class.getName(), Collections.singleton("f:listed"));
+		map.put(EmptyBean.class.getName(), Collections.emptySet());
+		final Set<String> annotations = new HashSet<>(InjectionIndex.DEFAULT_ANNOTATIONS);
+		annotations.add(Custom.class.getCanonicalName());
+		final InjectionIndex index = new InjectionIndex(map,
+				Collections.singletonMap(IndexedBean.class.getName(), annotations));
+		final List<String> jakarta = Arrays.asList("jakarta.inject.Inject");
+		final List<String> custom = Arrays.asList("jakarta.inject.Inject", Custom.class.getCanonicalName());
+		assertEquals(Collections.singleton("f:listed"), index.getMembers(IndexedBean.class, jakarta));
+		assertEquals(Collections.singleton("f:listed"), index.getMembers(IndexedBean.class, custom));
+		// The EmptyBean has been indexed with the default annotations only.
+		assertEquals(Collections.emptySet(), index.getMembers(EmptyBean.class, jakarta));
+		assertNull(index.getMembers(EmptyBean.class, custom));
+		assertNull(index.getMembers(InjectionIndexTest.class, jakarta));
+	}
+
+	@Test
+	void testAsKey() throws Exception {
+		assertEquals("f:listed", InjectionIndex.asKey(IndexedBean.class.getDeclaredField("listed")));
+		assertEquals("m:setValues(java.lang.String,int[])",
+				     InjectionIndex.asKey(IndexedBean.class.getDeclaredMethod("setValues", String.class, int[].class)));
+	}
+
+	@Test
+	void testIndexedInjection() {
+		final int[] ints = new int[] {1, 2, 3};
+		final IComponentFactory cf = IComponentFactory.builder(SimpleComponentFactory::new)
+				.injectionIndex(true)
+				.module((b) -> {
+					b.bind(String.class).toInstance("foo");
+					b.bind(int[].class).toInstance(ints);
+				})
+				.build();
+		final InjectionIndex index = InjectionIndex.of(IndexedBean.class.getClassLoader());
+		assertNotNull(index.getMembers(IndexedBean.class));
+		assertNull(index.getMembers(InjectionIndexTest.class));
+		final IndexedBean bean = new IndexedBean();
+		cf.init(bean);
+		assertEquals("foo", bean.listed);
+		// Not injected, because the field isn't listed in the index.
+		assertNull(bean.unlisted);
+		assertEquals("foo", bean.value);
+		assertSame(ints, bean.ints);
+		final EmptyBean emptyBean = new EmptyBean();
+		cf.init(emptyBean);
+		assertNull(emptyBean.unlisted);
+
+		// Without the index, all annotated fields are injected.
+		final IComponentFactory cf2 = IComponentFactory.builder(SimpleComponentFactory::new)
+				.module((b) -> b.bind(String.class).toInstance("bar"))
+				.build();
+		final EmptyBean emptyBean2 = new EmptyBean();
+		cf2.init(emptyBean2);
+		assertEquals("bar", emptyBean2.unlisted);
+	}
+
+	@Test
+	void testCustomAnnotations() {
+		for (boolean knownAnnotations : new boolean[] {false, true}) {
+			final IBindingProvider customBindingProvider = new IBindingProvider() {
+				@Override
+				public boolean isInjectable(Field pField) {
+					return pField.isAnnotationPresent(Custom.class);
+				}
+
+				@Override
+				public BiConsumer<IComponentFactory, Object> createInjector(IComponentFactory pComponentFactory,
+						                                                    Field pField) {
+					return (cf,o) -> IBindingProvider.set(pField, o, "custom");
+				}
+
+				@Override
+				public boolean isInjectable(Method pMethod) {
+					return false;
+				}
+
+				@Override
+				public IMethodInjector createInjector(IComponentFactory pComponentFactory, Method pMethod) {
+					throw new IllegalStateException("Not implemented");
+				}
+
+				@Override
+				public Collection<String> getAnnotationNames() {
+					return knownAnnotations ? Collections.singleton(Custom.class.getCanonicalName()) : null;
+				}
+			};
+			final IComponentFactory cf = IComponentFactory.builder(SimpleComponentFactory::new)
+					.injectionIndex(true)
+					.bindingProvider(customBindingProvider)
+					.module((b) -> {
+						b.bind(String.class).toInstance("foo");
+						b.bind(int[].class).toInstance(new int[0]);
+					})
+					.build();
+			/* The index has been created without the @Custom annotation, so
+			 * it must be ignored, and the IndexedBean is scanned by reflection.
+			 */
+			final IndexedBean bean = new IndexedBean();
+			cf.init(bean);
+			assertEquals("custom", bean.custom);
+			assertEquals("foo", bean.listed);
+			assertEquals("foo", bean.unlisted);
+			final EmptyBean emptyBean = new EmptyBean();
+			cf.init(emptyBean);
+			assertEquals("foo", emptyBean.unlisted);
+		}
+	}
+}
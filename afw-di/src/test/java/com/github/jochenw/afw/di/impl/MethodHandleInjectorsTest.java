@@ -0,0 +1,210 @@
+package com.github.jochenw.afw.di.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jochenw.afw.di.api.IBindingProvider.IMethodInjector;
+import com.github.jochenw.afw.di.api.IComponentFactory;
+import com.github.jochenw.afw.di.api.IComponentFactory.IBinding;
+import com.github.jochenw.afw.di.api.Key;
+import com.github.jochenw.afw.di.api.Scopes;
+
+
+class MethodHandleInjectorsTest {
+	static class Target {
+		private static List<Object> staticValues;
+		private static String staticField;
+		private final List<Object> constructorValues;
+		private List<Object> methodValues;
+		private String field;
+		private int number;
+
+		Target() { constructorValues = values(); }
+		Target(String p0) { constructorValues = values(p0); }
+		Target(String p0, String p1) { constructorValues = values(p0, p1); }
+		Target(String p0, String p1, String p2) { constructorValues = values(p0, p1, p2); }
+		Target(String p0, String p1, String p2, String p3) { constructorValues = values(p0, p1, p2, p3); }
+		Target(String p0, String p1, String p2, String p3, String p4) {
+			constructorValues = values(p0, p1, p2, p3, p4);
+		}
+		Target(String p0, String p1, String p2, String p3, String p4, String p5) {
+			constructorValues = values(p0, p1, p2, p3, p4, p5);
+		}
+		Target(String p0, String p1, String p2, String p3, String p4, String p5, String p6) {
+			constructorValues = values(p0, p1, p2, p3, p4, p5, p6);
+		}
+		Target(int pNumber) {
+			constructorValues = values(Integer.valueOf(pNumber));
+		}
+		Target(boolean pFail) throws IOException {
+			throw new IOException("Constructor failed");
+		}
+
+		void inject() { methodValues = values(); }
+		void inject(String p0) { methodValues = values(p0); }
+		void inject(String p0, String p1) { methodValues = values(p0, p1); }
+		void inject(String p0, String p1, String p2) { methodValues = values(p0, p1, p2); }
+		void inject(String p0, String p1, String p2, String p3) { methodValues = values(p0, p1, p2, p3); }
+		void inject(String p0, String p1, String p2, String p3, String p4) {
+			methodValues = values(p0, p1, p2, p3, p4);
+		}
+		void inject(String p0, String p1, String p2, String p3, String p4, String p5) {
+			methodValues = values(p0, p1, p2, p3, p4, p5);
+		}
+		void inject(String p0, String p1, String p2, String p3, String p4, String p5, String p6) {
+			methodValues = values(p0, p1, p2, p3, p4, p5, p6);
+		}
+		String injectWithResult(String p0) {
+			methodValues = values(p0);
+			return p0;
+		}
+		void injectNumber(int pNumber) { number = pNumber; }
+		void injectFailing() { throw new IllegalStateException("Method failed"); }
+
+		static void injectStatic(String p0, String p1) { staticValues = values(p0, p1); }
+		static void injectStatic(String p0, String p1, String p2, String p3, String p4, String p5) {
+			staticValues = values(p0, p1, p2, p3, p4, p5);
+		}
+
+		private static List<Object> values(Object... pValues) {
+			return Arrays.asList(pValues);
+		}
+	}
+
+	@Test
+	void testInstantiators() throws Exception {
+		for (int arity = 0;  arity <= MethodHandleInjectors.MAX_SPECIALIZED_ARITY+2;  arity++) {
+			final Constructor<?> constructor = Target.class.getDeclaredConstructor(stringTypes(arity));
+			final Function<IComponentFactory,Object> instantiator =
+					MethodHandleInjectors.newInstantiator(constructor, bindings(arity));
+			final Target target = (Target) instantiator.apply(null);
+			assertEquals(expectedValues(arity), target.constructorValues, "Arity " + arity);
+			// Every invocation creates a new instance.
+			assertEquals(target.constructorValues, ((Target) instantiator.apply(null)).constructorValues);
+		}
+	}
+
+	@Test
+	void testInstantiatorConversions() throws Exception {
+		final Constructor<?> constructor = Target.class.getDeclaredConstructor(int.class);
+		final Target target = (Target) MethodHandleInjectors.newInstantiator(constructor,
+				new IBinding[] { binding(Integer.valueOf(42)) }).apply(null);
+		assertEquals(Collections.singletonList(Integer.valueOf(42)), target.constructorValues);
+		final Constructor<?> failing = Target.class.getDeclaredConstructor(boolean.class);
+		final Function<IComponentFactory,Object> instantiator = MethodHandleInjectors.newInstantiator(failing,
+				new IBinding[] { binding(Boolean.TRUE) });
+		final UncheckedIOException uioe = assertThrows(UncheckedIOException.class, () -> instantiator.apply(null));
+		assertEquals("Constructor failed", uioe.getCause().getMessage());
+	}
+
+	@Test
+	void testMethodInjectors() throws Exception {
+		for (int arity = 0;  arity <= MethodHandleInjectors.MAX_SPECIALIZED_ARITY+2;  arity++) {
+			final Method method = Target.class.getDeclaredMethod("inject", stringTypes(arity));
+			final IMethodInjector injector = MethodHandleInjectors.newMethodInjector(method, bindings(arity));
+			final Target target = new Target();
+			injector.accept(null, target);
+			assertEquals(expectedValues(arity), target.methodValues, "Arity " + arity);
+		}
+	}
+
+	@Test
+	void testMethodInjectorConversions() throws Exception {
+		final Target target = new Target();
+		final Method withResult = Target.class.getDeclaredMethod("injectWithResult", String.class);
+		MethodHandleInjectors.newMethodInjector(withResult, bindings(1)).accept(null, target);
+		assertEquals(expectedValues(1), target.methodValues);
+		final Method number = Target.class.getDeclaredMethod("injectNumber", int.class);
+		MethodHandleInjectors.newMethodInjector(number, new IBinding[] { binding(Integer.valueOf(7)) })
+			.accept(null, target);
+		assertEquals(7, target.number);
+		final Method failing = Target.class.getDeclaredMethod("injectFailing");
+		final IMethodInjector injector = MethodHandleInjectors.newMethodInjector(failing, bindings(0));
+		final IllegalStateException ise = assertThrows(IllegalStateException.class, () -> injector.accept(null, target));
+		assertEquals("Method failed", ise.getMessage());
+	}
+
+	@Test
+	void testStaticMethodInjectors() throws Exception {
+		for (int arity : new int[] {2, MethodHandleInjectors.MAX_SPECIALIZED_ARITY+1}) {
+			Target.staticValues = null;
+			final Method method = Target.class.getDeclaredMethod("injectStatic", stringTypes(arity));
+			// Static methods ignore the object, which is being injected.
+			MethodHandleInjectors.newMethodInjector(method, bindings(arity)).accept(null, null);
+			assertEquals(expectedValues(arity), Target.staticValues, "Arity " + arity);
+		}
+	}
+
+	@Test
+	void testFieldInjectors() throws Exception {
+		final Target target = new Target();
+		final BiConsumer<IComponentFactory,Object> injector =
+				MethodHandleInjectors.newFieldInjector(Target.class.getDeclaredField("field"), binding("value"));
+		injector.accept(null, target);
+		assertEquals("value", target.field);
+		final BiConsumer<IComponentFactory,Object> numberInjector =
+				MethodHandleInjectors.newFieldInjector(Target.class.getDeclaredField("number"), binding(Integer.valueOf(3)));
+		numberInjector.accept(null, target);
+		assertEquals(3, target.number);
+		Target.staticField = null;
+		final BiConsumer<IComponentFactory,Object> staticInjector =
+				MethodHandleInjectors.newFieldInjector(Target.class.getDeclaredField("staticField"), binding("static"));
+		staticInjector.accept(null, null);
+		assertEquals("static", Target.staticField);
+		assertNull(new Target().field);
+	}
+
+	@Test
+	void testBindingsReceiveComponentFactory() throws Exception {
+		final IComponentFactory cf = new SimpleComponentFactory();
+		final Object[] seen = new Object[1];
+		final IBinding<Object> binding = IBinding.of(Key.of(String.class, ""), (c) -> {
+			seen[0] = c;
+			return "value";
+		}, Scopes.NO_SCOPE);
+		MethodHandleInjectors.newFieldInjector(Target.class.getDeclaredField("field"), binding)
+			.accept(cf, new Target());
+		assertSame(cf, seen[0]);
+	}
+
+	private static Class<?>[] stringTypes(int pArity) {
+		final Class<?>[] types = new Class<?>[pArity];
+		Arrays.fill(types, String.class);
+		return types;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static IBinding<Object>[] bindings(int pArity) {
+		final IBinding<Object>[] bindings = new IBinding[pArity];
+		for (int i = 0;  i < pArity;  i++) {
+			bindings[i] = binding("v" + i);
+		}
+		return bindings;
+	}
+
+	private static IBinding<Object> binding(Object pValue) {
+		return IBinding.of(Key.of(Object.class, ""), (cf) -> pValue, Scopes.NO_SCOPE);
+	}
+
+	private static List<Object> expectedValues(int pArity) {
+		final Object[] values = new Object[pArity];
+		for (int i = 0;  i < pArity;  i++) {
+			values[i] = "v" + i;
+		}
+		return Arrays.asList(values);
+	}
+}
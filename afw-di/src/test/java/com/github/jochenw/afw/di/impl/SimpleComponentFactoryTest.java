@@ -18,6 +18,10 @@ class SimpleComponentFactoryTest {
 		ComponentFactoryTests.testTck(SimpleComponentFactory.class);
 	}
 	@Test
+	void testTckGeneratedInjectors() {
+		ComponentFactoryTests.testTckGeneratedInjectors(SimpleComponentFactory.class);
+	}
+	@Test
 	void testGenerics() {
 		ComponentFactoryTests.testGenerics(SimpleComponentFactory.class);
 	}